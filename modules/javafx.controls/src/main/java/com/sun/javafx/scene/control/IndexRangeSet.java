@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.scene.control;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A sorted set of non-negative int indices, stored as a list of disjoint,
+ * non-adjacent half-open ranges [start, end). This is used by the selection
+ * models to describe selection changes, as a selection is usually made up of
+ * a small number of contiguous runs (for example, select all results in a
+ * single range regardless of the number of rows in the control).
+ *
+ * <p>The {@link #asList()} view exposes the indices as an unmodifiable
+ * {@code List<Integer>} without boxing every index up front, which means that
+ * a change event describing the removal of a million selected rows costs a
+ * handful of ints rather than a million Integer instances.
+ */
+public final class IndexRangeSet {
+
+    private static final int[] EMPTY = new int[0];
+
+    // range i is [starts[i], ends[i])
+    private int[] starts = EMPTY;
+    private int[] ends = EMPTY;
+    private int rangeCount = 0;
+
+    // counts[i] is the number of indices contained in ranges 0..i-1. It is
+    // lazily recomputed after a mutation, so that repeated get(int) /
+    // indexOf(int) calls are O(log rangeCount).
+    private int[] counts = EMPTY;
+    private boolean countsValid = true;
+    private int size = 0;
+
+    private List<Integer> list;
+
+    public IndexRangeSet() {
+    }
+
+    /**
+     * Creates a new IndexRangeSet containing all set bits of the given bitset.
+     * This only walks the runs of the bitset, rather than every set bit.
+     */
+    public static IndexRangeSet of(BitSet bitset) {
+        IndexRangeSet set = new IndexRangeSet();
+        int start = bitset.nextSetBit(0);
+        while (start >= 0) {
+            int end = bitset.nextClearBit(start);
+            set.appendRange(start, end);
+            start = end < Integer.MAX_VALUE ? bitset.nextSetBit(end) : -1;
+        }
+        return set;
+    }
+
+    /**
+     * Returns the number of indices in this set.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of disjoint ranges in this set.
+     */
+    public int getRangeCount() {
+        return rangeCount;
+    }
+
+    /**
+     * Returns the (inclusive) start index of the given range.
+     */
+    public int getRangeStart(int range) {
+        checkRange(range);
+        return starts[range];
+    }
+
+    /**
+     * Returns the (exclusive) end index of the given range.
+     */
+    public int getRangeEnd(int range) {
+        checkRange(range);
+        return ends[range];
+    }
+
+    public boolean contains(int index) {
+        int r = findRange(index);
+        return r >= 0 && index < ends[r];
+    }
+
+    /**
+     * Returns the index stored at the given position, where the indices are
+     * ordered from smallest to largest.
+     */
+    public int get(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException(position + " >= " + size);
+        }
+        updateCounts();
+
+        // find the last range whose count is <= position
+        int lo = 0;
+        int hi = rangeCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (counts[mid] <= position) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return starts[lo] + (position - counts[lo]);
+    }
+
+    /**
+     * Returns the position of the given index within this set (that is, the
+     * number of indices in this set that are smaller than it), or -1 if the
+     * index is not contained in this set.
+     */
+    public int indexOf(int index) {
+        int r = findRange(index);
+        if (r < 0 || index >= ends[r]) {
+            return -1;
+        }
+        updateCounts();
+        return counts[r] + (index - starts[r]);
+    }
+
+    /**
+     * Adds all indices in [from, to) to this set, merging with any existing
+     * ranges that overlap or are adjacent.
+     */
+    public void add(int from, int to) {
+        checkBounds(from, to);
+        if (from == to) return;
+
+        // fast path, appending to the end is by far the most common case
+        if (rangeCount == 0 || from > ends[rangeCount - 1]) {
+            appendRange(from, to);
+            return;
+        }
+
+        // first range that ends at or after 'from' (i.e. overlaps or is adjacent)
+        int first = firstRangeEndingAtOrAfter(from);
+        // last range that starts at or before 'to'
+        int last = first;
+        while (last < rangeCount && starts[last] <= to) {
+            last++;
+        }
+        last--;
+
+        if (last < first) {
+            // no overlap - insert a new range at position 'first'
+            ensureCapacity(rangeCount + 1);
+            System.arraycopy(starts, first, starts, first + 1, rangeCount - first);
+            System.arraycopy(ends, first, ends, first + 1, rangeCount - first);
+            starts[first] = from;
+            ends[first] = to;
+            rangeCount++;
+            size += to - from;
+        } else {
+            int newStart = Math.min(from, starts[first]);
+            int newEnd = Math.max(to, ends[last]);
+            for (int i = first; i <= last; i++) {
+                size -= ends[i] - starts[i];
+            }
+            starts[first] = newStart;
+            ends[first] = newEnd;
+            size += newEnd - newStart;
+            removeRanges(first + 1, last + 1);
+        }
+        countsValid = false;
+    }
+
+    /**
+     * Removes all indices in [from, to) from this set, splitting an existing
+     * range in two if necessary.
+     */
+    public void remove(int from, int to) {
+        checkBounds(from, to);
+        if (from == to || rangeCount == 0) return;
+
+        int first = firstRangeEndingAtOrAfter(from + 1);
+        if (first >= rangeCount || starts[first] >= to) return;
+
+        if (starts[first] < from && ends[first] > to) {
+            // split range 'first' into two
+            ensureCapacity(rangeCount + 1);
+            System.arraycopy(starts, first + 1, starts, first + 2, rangeCount - first - 1);
+            System.arraycopy(ends, first, ends, first + 1, rangeCount - first);
+            ends[first] = from;
+            starts[first + 1] = to;
+            rangeCount++;
+            size -= to - from;
+            countsValid = false;
+            return;
+        }
+
+        int removeFrom = -1;
+        int removeTo = -1;
+        for (int i = first; i < rangeCount && starts[i] < to; i++) {
+            int s = Math.max(from, starts[i]);
+            int e = Math.min(to, ends[i]);
+            size -= e - s;
+            if (starts[i] >= from && ends[i] <= to) {
+                if (removeFrom < 0) removeFrom = i;
+                removeTo = i + 1;
+            } else if (starts[i] < from) {
+                ends[i] = from;
+            } else {
+                starts[i] = to;
+            }
+        }
+        if (removeFrom >= 0) {
+            removeRanges(removeFrom, removeTo);
+        }
+        countsValid = false;
+    }
+
+    /**
+     * Returns an unmodifiable, live view of this set as a sorted list of
+     * indices. Integers are only created as elements are requested.
+     */
+    public List<Integer> asList() {
+        if (list == null) {
+            list = new IndexList();
+        }
+        return list;
+    }
+
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("IndexRangeSet[");
+        for (int i = 0; i < rangeCount; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(starts[i]).append('-').append(ends[i] - 1);
+        }
+        return sb.append(']').toString();
+    }
+
+
+
+    /***************************************************************************
+     *                                                                         *
+     * Private implementation                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private void appendRange(int from, int to) {
+        if (rangeCount > 0 && ends[rangeCount - 1] == from) {
+            ends[rangeCount - 1] = to;
+        } else {
+            ensureCapacity(rangeCount + 1);
+            starts[rangeCount] = from;
+            ends[rangeCount] = to;
+            if (countsValid) {
+                counts[rangeCount] = size;
+            }
+            rangeCount++;
+        }
+        size += to - from;
+    }
+
+    private void removeRanges(int from, int to) {
+        int n = to - from;
+        if (n <= 0) return;
+        System.arraycopy(starts, to, starts, from, rangeCount - to);
+        System.arraycopy(ends, to, ends, from, rangeCount - to);
+        rangeCount -= n;
+    }
+
+    // returns the range that contains index, or the range immediately before it,
+    // or -1 if index is before the first range
+    private int findRange(int index) {
+        int lo = 0;
+        int hi = rangeCount - 1;
+        int result = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= index) {
+                result = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return result;
+    }
+
+    private int firstRangeEndingAtOrAfter(int index) {
+        int lo = 0;
+        int hi = rangeCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ends[mid] < index) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void updateCounts() {
+        if (countsValid) return;
+        if (counts.length < starts.length) {
+            counts = new int[starts.length];
+        }
+        int count = 0;
+        for (int i = 0; i < rangeCount; i++) {
+            counts[i] = count;
+            count += ends[i] - starts[i];
+        }
+        countsValid = true;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (starts.length >= capacity) return;
+        int newCapacity = Math.max(capacity, Math.max(4, starts.length * 2));
+        starts = Arrays.copyOf(starts, newCapacity);
+        ends = Arrays.copyOf(ends, newCapacity);
+        counts = Arrays.copyOf(counts, newCapacity);
+    }
+
+    private void checkRange(int range) {
+        if (range < 0 || range >= rangeCount) {
+            throw new IndexOutOfBoundsException(range + " >= " + rangeCount);
+        }
+    }
+
+    private static void checkBounds(int from, int to) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Invalid range [" + from + ", " + to + ")");
+        }
+    }
+
+    private class IndexList extends AbstractList<Integer> implements RandomAccess {
+        @Override public Integer get(int position) {
+            return IndexRangeSet.this.get(position);
+        }
+
+        @Override public int size() {
+            return size;
+        }
+
+        @Override public int indexOf(Object o) {
+            return o instanceof Integer ? IndexRangeSet.this.indexOf((Integer) o) : -1;
+        }
+
+        @Override public int lastIndexOf(Object o) {
+            return indexOf(o);
+        }
+
+        @Override public boolean contains(Object o) {
+            return o instanceof Integer && IndexRangeSet.this.contains((Integer) o);
+        }
+    }
+}
@@ -24,6 +24,7 @@
  */
 package com.sun.javafx.scene.control;
 
+import com.sun.javafx.collections.NonIterableChange;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
@@ -31,6 +32,7 @@ import javafx.collections.transformation.SortedList;
 import javafx.scene.control.TablePositionBase;
 
 import java.util.*;
+import java.util.function.IntFunction;
 
 /**
  * Implementation code used by the TableSelectionModel implementations. In short
@@ -45,6 +47,13 @@ import java.util.*;
  * row is selected.
  *
  * Refer to RT-33442 for more information on this issue.
+ *
+ * When whole rows are selected via {@link #selectAllRows(int, IntFunction)},
+ * the selected rows are instead held as an {@link IndexRangeSet}, and the
+ * positions are only created when they are requested. This means that select
+ * all in row selection mode does not create a position per row. The rows are
+ * copied into the list and map above as soon as the selection is modified in a
+ * way that can not be expressed as a change to the ranges.
  */
 // T == TablePosition<S,?>
 public abstract class SelectedCellsMap<T extends TablePositionBase> {
@@ -53,13 +62,29 @@ public abstract class SelectedCellsMap<T extends TablePositionBase> {
 
     private final Map<Integer, BitSet> selectedCellBitSetMap;
 
+    private final ListChangeListener<T> listener;
+
+    // non-null when the selection is made up of whole rows, held as ranges
+    private IndexRangeSet selectedRows;
+    private IntFunction<T> rowPositionFactory;
+    private RowRangeList<T> selectedRowsList;
+
+    // true while the selected rows are copied into selectedCells, as the
+    // listener has already been told about them
+    private boolean copyingSelectedRows = false;
+
     public SelectedCellsMap(final ListChangeListener<T> listener) {
+        this.listener = listener;
         selectedCells = FXCollections.<T>observableArrayList();
         sortedSelectedCells = new SortedList<>(selectedCells, (T o1, T o2) -> {
             int result = o1.getRow() - o2.getRow();
             return result == 0 ? (o1.getColumn() - o2.getColumn()) : result;
         });
-        sortedSelectedCells.addListener(listener);
+        sortedSelectedCells.addListener((ListChangeListener<T>) c -> {
+            if (!copyingSelectedRows) {
+                listener.onChanged(c);
+            }
+        });
 
         selectedCellBitSetMap = new TreeMap<>((o1, o2) -> o1.compareTo(o2));
     }
@@ -67,6 +92,9 @@ public abstract class SelectedCellsMap<T extends TablePositionBase> {
     public abstract boolean isCellSelectionEnabled();
 
     public int size() {
+        if (selectedRows != null) {
+            return selectedRows.size();
+        }
         return selectedCells.size();
     }
 
@@ -74,13 +102,52 @@ public abstract class SelectedCellsMap<T extends TablePositionBase> {
         if (i < 0) {
             return null;
         }
+        if (selectedRows != null) {
+            return selectedRowsList.get(i);
+        }
         return sortedSelectedCells.get(i);
     }
 
+    /**
+     * Selects the rows [0, rowCount), replacing the current selection. The
+     * position for a row is only created (using the given factory) when it is
+     * requested, and the listener is notified with a single change whose list
+     * is a {@link RowRangeList}.
+     */
+    public void selectAllRows(int rowCount, IntFunction<T> positionFactory) {
+        final List<T> removed = selectedRows != null ?
+                selectedRowsList : new ArrayList<>(sortedSelectedCells);
+
+        copyingSelectedRows = true;
+        try {
+            selectedCellBitSetMap.clear();
+            selectedCells.clear();
+        } finally {
+            copyingSelectedRows = false;
+        }
+
+        selectedRows = new IndexRangeSet();
+        selectedRows.add(0, rowCount);
+        rowPositionFactory = positionFactory;
+        selectedRowsList = new RowRangeList<>(selectedRows, positionFactory);
+
+        if (rowCount > 0 || !removed.isEmpty()) {
+            listener.onChanged(new NonIterableChange.GenericAddRemoveChange<>(0, rowCount, removed, selectedRowsList));
+        }
+    }
+
     public void add(T tp) {
         final int row = tp.getRow();
         final int columnIndex = tp.getColumn();
 
+        if (selectedRows != null) {
+            if (!isCellSelectionEnabled() && selectedRows.contains(row)) {
+                // the row is already selected
+                return;
+            }
+            copySelectedRows();
+        }
+
         // update the bitset map
         boolean isNewBitSet = false;
         BitSet bitset;
@@ -121,6 +188,8 @@ public abstract class SelectedCellsMap<T extends TablePositionBase> {
     }
 
     public void addAll(Collection<T> cells) {
+        copySelectedRows();
+
         // update bitset
         for (T tp : cells) {
             final int row = tp.getRow();
@@ -147,6 +216,8 @@ public abstract class SelectedCellsMap<T extends TablePositionBase> {
     }
 
     public void setAll(Collection<T> cells) {
+        copySelectedRows();
+
         // update bitset
         selectedCellBitSetMap.clear();
         for (T tp : cells) {
@@ -177,6 +248,16 @@ public abstract class SelectedCellsMap<T extends TablePositionBase> {
         final int row = tp.getRow();
         final int columnIndex = tp.getColumn();
 
+        if (selectedRows != null) {
+            final int index = indexOf(tp);
+            if (index >= 0 && !isCellSelectionEnabled()) {
+                selectedRows.remove(row, row + 1);
+                listener.onChanged(new NonIterableChange.SimpleRemovedChange<>(index, index, tp, selectedRowsList));
+                return;
+            }
+            copySelectedRows();
+        }
+
         // update the bitset map
         if (selectedCellBitSetMap.containsKey(row)) {
             BitSet bitset = selectedCellBitSetMap.get(row);
@@ -195,6 +276,16 @@ public abstract class SelectedCellsMap<T extends TablePositionBase> {
     }
 
     public void clear() {
+        if (selectedRows != null) {
+            final List<T> removed = selectedRowsList;
+            selectedRows = null;
+            rowPositionFactory = null;
+            selectedRowsList = null;
+            if (!removed.isEmpty()) {
+                listener.onChanged(new NonIterableChange.GenericAddRemoveChange<>(0, 0, removed, sortedSelectedCells));
+            }
+        }
+
         // update bitset
         selectedCellBitSetMap.clear();
 
@@ -203,7 +294,10 @@ public abstract class SelectedCellsMap<T extends TablePositionBase> {
     }
 
     public boolean isSelected(int row, int columnIndex) {
-        if (columnIndex < 0) {
+        if (selectedRows != null) {
+            // rows are selected with a column index of -1
+            return columnIndex < 0 && selectedRows.contains(row);
+        } else if (columnIndex < 0) {
             return selectedCellBitSetMap.containsKey(row);
         } else {
             return selectedCellBitSetMap.containsKey(row) ? selectedCellBitSetMap.get(row).get(columnIndex) : false;
@@ -211,14 +305,77 @@ public abstract class SelectedCellsMap<T extends TablePositionBase> {
     }
 
     public int indexOf(T tp) {
+        if (selectedRows != null) {
+            if (tp == null) {
+                return -1;
+            }
+            final int index = selectedRows.indexOf(tp.getRow());
+            return index >= 0 && tp.equals(rowPositionFactory.apply(tp.getRow())) ? index : -1;
+        }
         return sortedSelectedCells.indexOf(tp);
     }
 
     public boolean isEmpty() {
+        if (selectedRows != null) {
+            return selectedRows.isEmpty();
+        }
         return selectedCells.isEmpty();
     }
 
     public ObservableList<T> getSelectedCells() {
+        copySelectedRows();
         return selectedCells;
     }
+
+    // Copies the rows selected by selectAllRows into the list and map, without
+    // notifying the listener, so that the selection can be modified as usual.
+    private void copySelectedRows() {
+        if (selectedRows == null) {
+            return;
+        }
+
+        final List<T> cells = new ArrayList<>(selectedRowsList);
+        selectedRows = null;
+        rowPositionFactory = null;
+        selectedRowsList = null;
+
+        copyingSelectedRows = true;
+        try {
+            for (T tp : cells) {
+                selectedCellBitSetMap.put(tp.getRow(), new BitSet());
+            }
+            selectedCells.setAll(cells);
+        } finally {
+            copyingSelectedRows = false;
+        }
+    }
+
+    /**
+     * A read-only list of the positions of a set of selected rows, where the
+     * positions are created as they are requested.
+     */
+    public static final class RowRangeList<T> extends ReadOnlyUnbackedObservableList<T> {
+        private final IndexRangeSet rows;
+        private final IntFunction<T> positionFactory;
+
+        RowRangeList(IndexRangeSet rows, IntFunction<T> positionFactory) {
+            this.rows = rows;
+            this.positionFactory = positionFactory;
+        }
+
+        /**
+         * Returns the selected rows. This must not be modified.
+         */
+        public IndexRangeSet getRows() {
+            return rows;
+        }
+
+        @Override public T get(int i) {
+            return positionFactory.apply(rows.get(i));
+        }
+
+        @Override public int size() {
+            return rows.size();
+        }
+    }
 }
\ No newline at end of file
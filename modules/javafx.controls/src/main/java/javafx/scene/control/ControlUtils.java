@@ -25,6 +25,8 @@
 
 package javafx.scene.control;
 
+import com.sun.javafx.scene.control.IndexRangeSet;
+import com.sun.javafx.scene.control.SelectedCellsMap;
 import com.sun.javafx.scene.control.skin.Utils;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
@@ -159,17 +161,38 @@ class ControlUtils {
             // ensuring that the selectedIndices bitset is correctly updated.
 
             sm.startAtomic();
-            final List<Integer> removed = c.getRemoved().stream()
-                    .map(TablePositionBase::getRow)
-                    .distinct()
-                    .peek(sm.selectedIndices::clear)
-                    .collect(Collectors.toList());
-
-            final int addedSize = (int)c.getAddedSubList().stream()
-                    .map(TablePositionBase::getRow)
-                    .distinct()
-                    .peek(sm.selectedIndices::set)
-                    .count();
+            final List<Integer> removed;
+            if (c.getRemoved() instanceof SelectedCellsMap.RowRangeList) {
+                // whole rows held as ranges (e.g. after select all), so
+                // clear them a range at a time
+                IndexRangeSet rows = ((SelectedCellsMap.RowRangeList<?>) c.getRemoved()).getRows();
+                for (int i = 0; i < rows.getRangeCount(); i++) {
+                    sm.selectedIndices.set(rows.getRangeStart(i), rows.getRangeEnd(i), false);
+                }
+                removed = rows.asList();
+            } else {
+                removed = c.getRemoved().stream()
+                        .map(TablePositionBase::getRow)
+                        .distinct()
+                        .peek(sm.selectedIndices::clear)
+                        .collect(Collectors.toList());
+            }
+
+            final int addedSize;
+            if (c.wasAdded() && c.getList() instanceof SelectedCellsMap.RowRangeList
+                    && c.getFrom() == 0 && c.getTo() == c.getList().size()) {
+                IndexRangeSet rows = ((SelectedCellsMap.RowRangeList<?>) c.getList()).getRows();
+                for (int i = 0; i < rows.getRangeCount(); i++) {
+                    sm.selectedIndices.set(rows.getRangeStart(i), rows.getRangeEnd(i), true);
+                }
+                addedSize = rows.size();
+            } else {
+                addedSize = (int)c.getAddedSubList().stream()
+                        .map(TablePositionBase::getRow)
+                        .distinct()
+                        .peek(sm.selectedIndices::set)
+                        .count();
+            }
             sm.stopAtomic();
 
             final int to = c.getFrom() + addedSize;
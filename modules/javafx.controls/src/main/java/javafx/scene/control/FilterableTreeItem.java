@@ -0,0 +1,359 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene.control;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+
+/**
+ * TreeItem subclass whose children can be filtered by a {@link Predicate}.
+ * Children are added to and removed from the
+ * {@link #getSourceChildren() source children} of a FilterableTreeItem, and
+ * {@link #getChildren()} returns an unmodifiable list of those source children
+ * that pass the filter.
+ *
+ * <p>A child passes the filter if the {@link #predicateProperty() predicate}
+ * accepts its value, or if it is itself a FilterableTreeItem with at least one
+ * child that passes the filter, so that the ancestors of every matching
+ * FilterableTreeItem are retained in the tree. A FilterableTreeItem without a
+ * predicate of its own uses the predicate of its nearest FilterableTreeItem
+ * ancestor, so a whole tree is usually filtered by setting the predicate of
+ * its root only. The filter is reapplied when the predicate, the source
+ * children or the value of one of the source children changes.
+ *
+ * <p>When the filter is reapplied, only the children whose visibility changed
+ * are removed from or added to the filtered children: the hidden children are
+ * removed in a single change, and the shown children are added in one change
+ * per contiguous run. The remaining children keep their position, so that any
+ * {@link TreeTableView#sortPolicyProperty() sort order} applied to the tree
+ * is retained, along with their selection and focus.
+ *
+ * <pre><code>FilterableTreeItem&lt;String&gt; root = new FilterableTreeItem&lt;&gt;("Fruit");
+ * FilterableTreeItem&lt;String&gt; citrus = new FilterableTreeItem&lt;&gt;("Citrus");
+ * citrus.getSourceChildren().addAll(new TreeItem&lt;&gt;("Lemon"), new TreeItem&lt;&gt;("Lime"));
+ * root.getSourceChildren().addAll(citrus, new TreeItem&lt;&gt;("Apple"));
+ *
+ * // only "Citrus" (as the parent of "Lime") and "Lime" remain
+ * root.setPredicate(name -&gt; name.startsWith("Li"));</code></pre>
+ *
+ * @param <T> The type of the value contained within the TreeItem
+ * @since 14
+ */
+public class FilterableTreeItem<T> extends TreeItem<T> {
+
+    /***************************************************************************
+     *                                                                         *
+     * Constructors                                                            *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * Creates an empty FilterableTreeItem.
+     */
+    public FilterableTreeItem() {
+        this(null);
+    }
+
+    /**
+     * Creates a FilterableTreeItem with the value property set to the provided
+     * object.
+     *
+     * @param value The object to be stored as the value of this TreeItem.
+     */
+    public FilterableTreeItem(T value) {
+        this(value, null);
+    }
+
+    /**
+     * Creates a FilterableTreeItem with the value property set to the provided
+     * object, and the graphic set to the provided Node.
+     *
+     * @param value The object to be stored as the value of this TreeItem.
+     * @param graphic The Node to show in the TreeView next to this TreeItem.
+     */
+    public FilterableTreeItem(T value, Node graphic) {
+        super(value, graphic);
+        sourceChildren.addListener(sourceChildrenListener);
+    }
+
+
+
+    /***************************************************************************
+     *                                                                         *
+     * Instance Variables                                                      *
+     *                                                                         *
+     **************************************************************************/
+
+    private final ObservableList<TreeItem<T>> sourceChildren = FXCollections.observableArrayList();
+
+    private ObservableList<TreeItem<T>> unmodifiableChildren;
+
+    // The FilterableTreeItem whose source children contain this item. This
+    // differs from getParent(), which is null while this item is filtered out.
+    private FilterableTreeItem<T> sourceParent;
+
+    private final InvalidationListener childValueListener = o -> filterChanged(false);
+
+    private final ListChangeListener<TreeItem<T>> sourceChildrenListener = c -> {
+        while (c.next()) {
+            for (TreeItem<T> removed : c.getRemoved()) {
+                if (removed == null) continue;
+                removed.valueProperty().removeListener(childValueListener);
+                if (removed instanceof FilterableTreeItem && ((FilterableTreeItem<T>) removed).sourceParent == this) {
+                    ((FilterableTreeItem<T>) removed).sourceParent = null;
+                }
+            }
+            for (TreeItem<T> added : c.getAddedSubList()) {
+                if (added == null) continue;
+                added.valueProperty().addListener(childValueListener);
+                if (added instanceof FilterableTreeItem) {
+                    // the added item may now inherit a different predicate
+                    FilterableTreeItem<T> item = (FilterableTreeItem<T>) added;
+                    item.sourceParent = this;
+                    item.refilter(true);
+                }
+            }
+        }
+        filterChanged(false);
+    };
+
+
+
+    /***************************************************************************
+     *                                                                         *
+     * Properties                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    // --- predicate
+    private ObjectProperty<Predicate<? super T>> predicate;
+
+    /**
+     * The predicate that the values of the children of this TreeItem (and of
+     * those FilterableTreeItem descendants without a predicate of their own)
+     * must match to pass the filter. If the predicate is null, the predicate
+     * of the nearest FilterableTreeItem ancestor is used, and if there is
+     * none, all children pass the filter.
+     *
+     * @return the predicate property
+     * @defaultValue null
+     */
+    public final ObjectProperty<Predicate<? super T>> predicateProperty() {
+        if (predicate == null) {
+            predicate = new SimpleObjectProperty<Predicate<? super T>>(this, "predicate") {
+                @Override protected void invalidated() {
+                    filterChanged(true);
+                }
+            };
+        }
+        return predicate;
+    }
+
+    /**
+     * Sets the predicate used to filter the children of this FilterableTreeItem.
+     * @param value the predicate, or null to use the predicate of the nearest
+     *      FilterableTreeItem ancestor
+     */
+    public final void setPredicate(Predicate<? super T> value) { predicateProperty().set(value); }
+
+    /**
+     * Returns the predicate used to filter the children of this FilterableTreeItem.
+     * @return the predicate, or null if the predicate of the nearest
+     *      FilterableTreeItem ancestor is used
+     */
+    public final Predicate<? super T> getPredicate() { return predicate == null ? null : predicate.get(); }
+
+
+
+    /***************************************************************************
+     *                                                                         *
+     * Public API                                                              *
+     *                                                                         *
+     **************************************************************************/
+
+    /**
+     * The children of this TreeItem, regardless of whether they pass the
+     * filter. Children are added to and removed from this list, rather than
+     * the list returned by {@link #getChildren()}.
+     *
+     * @return the list of all the child TreeItems belonging to this TreeItem
+     */
+    public final ObservableList<TreeItem<T>> getSourceChildren() {
+        return sourceChildren;
+    }
+
+    /**
+     * The children of this TreeItem that pass the filter, in the order of the
+     * {@link #getSourceChildren() source children}, unless the tree has been
+     * sorted. The returned list is unmodifiable.
+     *
+     * @return an unmodifiable list of the child TreeItems that pass the filter
+     */
+    @Override public ObservableList<TreeItem<T>> getChildren() {
+        // super.getChildren() also applies any pending sort, so it is called
+        // every time rather than cached
+        ObservableList<TreeItem<T>> children = super.getChildren();
+        if (unmodifiableChildren == null) {
+            unmodifiableChildren = FXCollections.unmodifiableObservableList(children);
+        }
+        return unmodifiableChildren;
+    }
+
+
+
+    /***************************************************************************
+     *                                                                         *
+     * Private Implementation                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private Predicate<? super T> getEffectivePredicate() {
+        for (FilterableTreeItem<T> item = this; item != null; item = item.sourceParent) {
+            Predicate<? super T> p = item.getPredicate();
+            if (p != null) return p;
+        }
+        return null;
+    }
+
+    private boolean hasVisibleChildren() {
+        return children != null && !children.isEmpty();
+    }
+
+    // Reapplies the filter to the children of this item, and to its parent
+    // if that changes whether this item passes the filter
+    private void filterChanged(boolean deep) {
+        final boolean hadVisibleChildren = hasVisibleChildren();
+        refilter(deep);
+        if (sourceParent != null && hadVisibleChildren != hasVisibleChildren()) {
+            sourceParent.filterChanged(false);
+        }
+    }
+
+    private void refilter(boolean deep) {
+        final Predicate<? super T> predicate = getEffectivePredicate();
+        final Set<TreeItem<T>> visible = Collections.newSetFromMap(new IdentityHashMap<>());
+        final List<TreeItem<T>> visibleInOrder = new ArrayList<>();
+        for (TreeItem<T> child : sourceChildren) {
+            if (deep && child instanceof FilterableTreeItem) {
+                FilterableTreeItem<T> item = (FilterableTreeItem<T>) child;
+                // an item with its own predicate is unaffected by ours
+                if (item.getPredicate() == null) {
+                    item.refilter(true);
+                }
+            }
+            if (isVisible(child, predicate) && visible.add(child)) {
+                visibleInOrder.add(child);
+            }
+        }
+
+        final ObservableList<TreeItem<T>> children = super.getChildren();
+        children.retainAll(visible);
+        if (children.size() >= visibleInOrder.size()) return;
+
+        final Set<TreeItem<T>> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        current.addAll(children);
+        final List<TreeItem<T>> added = new ArrayList<>();
+        for (TreeItem<T> child : visibleInOrder) {
+            if (!current.contains(child)) added.add(child);
+        }
+
+        // Newly visible children are merged into the sort order if the
+        // children are sorted, and into the source order otherwise. If the
+        // current children are in neither order, they are all replaced.
+        final List<TreeItem<T>> target;
+        final Comparator<TreeItem<T>> comparator = lastComparator;
+        if (comparator != null && isSorted(children, comparator)) {
+            added.sort(comparator);
+            target = merge(children, added, comparator);
+        } else if (isSubsequence(children, visibleInOrder)) {
+            target = visibleInOrder;
+        } else {
+            children.setAll(visibleInOrder);
+            return;
+        }
+
+        int i = 0;
+        while (i < target.size()) {
+            if (current.contains(target.get(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < target.size() && !current.contains(target.get(i))) {
+                i++;
+            }
+            children.addAll(start, target.subList(start, i));
+        }
+    }
+
+    private static <T> boolean isVisible(TreeItem<T> item, Predicate<? super T> predicate) {
+        if (item == null || predicate == null || predicate.test(item.getValue())) {
+            return true;
+        }
+        return item instanceof FilterableTreeItem && ((FilterableTreeItem<T>) item).hasVisibleChildren();
+    }
+
+    private static <T> boolean isSubsequence(List<T> items, List<T> sequence) {
+        int j = 0;
+        for (T item : items) {
+            while (j < sequence.size() && sequence.get(j) != item) {
+                j++;
+            }
+            if (j == sequence.size()) return false;
+            j++;
+        }
+        return true;
+    }
+
+    private static <T> List<TreeItem<T>> merge(List<TreeItem<T>> sorted, List<TreeItem<T>> added,
+                                               Comparator<TreeItem<T>> comparator) {
+        final List<TreeItem<T>> result = new ArrayList<>(sorted.size() + added.size());
+        int i = 0;
+        int j = 0;
+        while (i < sorted.size() && j < added.size()) {
+            if (comparator.compare(added.get(j), sorted.get(i)) < 0) {
+                result.add(added.get(j++));
+            } else {
+                result.add(sorted.get(i++));
+            }
+        }
+        result.addAll(sorted.subList(i, sorted.size()));
+        result.addAll(added.subList(j, added.size()));
+        return result;
+    }
+}
@@ -32,6 +32,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import com.sun.javafx.scene.control.IndexRangeSet;
 import com.sun.javafx.scene.control.MultipleAdditionAndRemovedChange;
 import com.sun.javafx.scene.control.ReadOnlyUnbackedObservableList;
 import com.sun.javafx.scene.control.SelectedItemsReadOnlyObservableList;
@@ -254,8 +255,8 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
 
             selectedIndices.reset();
             selectedIndices.callObservers(new MultipleAdditionAndRemovedChange<>(
-                    added.stream().boxed().collect(Collectors.toList()),
-                    removed.stream().boxed().collect(Collectors.toList()),
+                    IndexRangeSet.of(added).asList(),
+                    IndexRangeSet.of(removed).asList(),
                     selectedIndices
             ));
         }
@@ -632,6 +633,9 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
         // Fix for RT-20945 (and numerous other issues!)
         private int atomicityCount = 0;
 
+        // the number of currently open _beginChange() / _endChange() blocks
+        private int changeDepth = 0;
+
 //        @Override
 //        public void callObservers(Change<Integer> c) {
 //            throw new RuntimeException("callObservers unavailable");
@@ -789,9 +793,23 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
         }
 
         public void clear() {
-            _beginChange();
-            List<Integer> removed = bitset.stream().boxed().collect(Collectors.toList());
+            // the removed indices are described as ranges, rather than boxing
+            // every previously selected index (e.g. after selectAll)
+            List<Integer> removed = IndexRangeSet.of(bitset).asList();
             bitset.clear();
+
+            if (changeDepth == 0 && !isAtomic()) {
+                // we are not part of a larger change, so we can fire the
+                // removal directly rather than feeding every removed index
+                // through the change builder
+                if (!removed.isEmpty()) {
+                    reset();
+                    callObservers(new NonIterableChange.GenericAddRemoveChange<>(0, 0, removed, this));
+                }
+                return;
+            }
+
+            _beginChange();
             _nextRemove(0, removed);
             _endChange();
         }
@@ -865,6 +883,16 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
 
         @Override public int indexOf(Object obj) {
             reset();
+            if (obj instanceof Integer) {
+                // the position of a selected index is the number of selected
+                // indices that precede it, which we can count directly from
+                // the bitset rather than iterating through the list
+                int index = (Integer) obj;
+                if (index < 0 || !bitset.get(index)) {
+                    return -1;
+                }
+                return index == 0 ? 0 : bitset.get(0, index).cardinality();
+            }
             return super.indexOf(obj);
         }
 
@@ -887,12 +915,14 @@ abstract class MultipleSelectionModelBase<T> extends MultipleSelectionModel<T> {
 
         @Override public void _beginChange() {
             if (!isAtomic()) {
+                changeDepth++;
                 super._beginChange();
             }
         }
 
         @Override public void _endChange() {
             if (!isAtomic()) {
+                changeDepth = Math.max(0, changeDepth - 1);
                 super._endChange();
             }
         }
@@ -2654,18 +2654,17 @@ public class TableView<S> extends Control {
                     focus(tp.getRow(), tp.getTableColumn());
                 }
             } else {
-                List<TablePosition<S,?>> indices = new ArrayList<>();
-                for (int i = 0; i < getItemCount(); i++) {
-                    indices.add(new TablePosition<>(getTableView(), i, null));
-                }
-                selectedCellsMap.setAll(indices);
+                // the rows are held as a single range, rather than as a
+                // position per row
+                final int rowCount = getItemCount();
+                selectedCellsMap.selectAllRows(rowCount, row -> new TablePosition<>(getTableView(), row, null));
 
                 int focusedIndex = getFocusedIndex();
                 if (focusedIndex == -1) {
                     final int itemCount = getItemCount();
                     if (itemCount > 0) {
                         select(itemCount - 1);
-                        focus(indices.get(indices.size() - 1));
+                        focus(selectedCellsMap.get(rowCount - 1));
                     }
                 } else {
                     select(focusedIndex);
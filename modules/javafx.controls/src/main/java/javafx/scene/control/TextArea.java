@@ -27,6 +27,7 @@ package javafx.scene.control;
 
 import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -92,51 +93,95 @@ public class TextArea extends TextInputControl {
         private ParagraphList paragraphList = new ParagraphList();
         private ListListenerHelper<CharSequence> listenerHelper;
 
+        // paragraphOffsets[i] is the offset of the first character of
+        // paragraph i within the content. Only the first validOffsetCount
+        // entries are up to date - an edit invalidates the offsets of all
+        // paragraphs following the edited one, and they are lazily
+        // recomputed on the next lookup. This avoids walking every paragraph
+        // to map a content offset to a paragraph on each edit.
+        private int[] paragraphOffsets = new int[16];
+        private int validOffsetCount = 1;
+
+        // The full text is requested far more often than it changes (e.g. by
+        // every listener of the text property), so we cache it until the
+        // next edit.
+        private String cachedText = "";
+
         private TextAreaContent() {
             paragraphs.add(new StringBuilder(DEFAULT_PARAGRAPH_CAPACITY));
             paragraphList.content = this;
         }
 
         @Override public String get(int start, int end) {
+            if (start == 0 && end == contentLength) {
+                return get();
+            }
+
             int length = end - start;
             StringBuilder textBuilder = new StringBuilder(length);
 
-            int paragraphCount = paragraphs.size();
-
-            int paragraphIndex = 0;
-            int offset = start;
+            int paragraphIndex = getParagraphIndex(start);
+            int offset = start - paragraphOffsets[paragraphIndex];
 
-            while (paragraphIndex < paragraphCount) {
+            // Read characters until end is reached, appending whole runs of the
+            // text builder and moving to next paragraph as needed
+            int i = 0;
+            while (i < length) {
                 StringBuilder paragraph = paragraphs.get(paragraphIndex);
-                int count = paragraph.length() + 1;
-
-                if (offset < count) {
-                    break;
+                int count = Math.min(paragraph.length() - offset, length - i);
+                if (count > 0) {
+                    textBuilder.append(paragraph, offset, offset + count);
+                    i += count;
                 }
 
-                offset -= count;
-                paragraphIndex++;
+                if (i < length) {
+                    textBuilder.append('\n');
+                    i++;
+                    paragraphIndex++;
+                    offset = 0;
+                }
             }
 
-            // Read characters until end is reached, appending to text builder
-            // and moving to next paragraph as needed
-            StringBuilder paragraph = paragraphs.get(paragraphIndex);
+            return textBuilder.toString();
+        }
 
-            int i = 0;
-            while (i < length) {
-                if (offset == paragraph.length()
-                    && i < contentLength) {
-                    textBuilder.append('\n');
-                    paragraph = paragraphs.get(++paragraphIndex);
-                    offset = 0;
-                } else {
-                    textBuilder.append(paragraph.charAt(offset++));
+        /*
+         * Returns the index of the paragraph that contains the given offset,
+         * where the offset of the line break that terminates a paragraph is
+         * considered to be part of that paragraph.
+         */
+        private int getParagraphIndex(int offset) {
+            final int paragraphCount = paragraphs.size();
+            if (validOffsetCount < paragraphCount) {
+                if (paragraphOffsets.length < paragraphCount) {
+                    paragraphOffsets = Arrays.copyOf(paragraphOffsets,
+                            Math.max(paragraphCount, paragraphOffsets.length * 2));
                 }
+                for (int i = validOffsetCount; i < paragraphCount; i++) {
+                    paragraphOffsets[i] = paragraphOffsets[i - 1] + paragraphs.get(i - 1).length() + 1;
+                }
+                validOffsetCount = paragraphCount;
+            }
 
-                i++;
+            // find the last paragraph that starts at or before the offset
+            int lo = 0;
+            int hi = paragraphCount - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (paragraphOffsets[mid] <= offset) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
             }
+            return lo;
+        }
 
-            return textBuilder.toString();
+        // called whenever the given paragraph changes length, or paragraphs are
+        // added or removed after it
+        private void invalidateParagraphOffsets(int paragraphIndex) {
+            validOffsetCount = Math.max(1, Math.min(validOffsetCount, paragraphIndex + 1));
+            cachedText = null;
         }
 
         @Override
@@ -171,18 +216,13 @@ public class TextArea extends TextInputControl {
                 lines.add(line);
 
                 // Merge the text into the existing content
-                // Merge the text into the existing content
-                int paragraphIndex = paragraphs.size();
-                int offset = contentLength + 1;
+                int paragraphIndex = getParagraphIndex(index);
+                int offset = paragraphOffsets[paragraphIndex];
 
-                StringBuilder paragraph = null;
-
-                do {
-                    paragraph = paragraphs.get(--paragraphIndex);
-                    offset -= paragraph.length() + 1;
-                } while (index < offset);
+                StringBuilder paragraph = paragraphs.get(paragraphIndex);
 
                 int start = index - offset;
+                invalidateParagraphOffsets(paragraphIndex);
 
                 int n = lines.size();
                 if (n == 1) {
@@ -212,8 +252,11 @@ public class TextArea extends TextInputControl {
                         Collections.EMPTY_LIST);
                 }
 
-                // Update content length
+                // Update content length. The offsets are invalidated again
+                // here, in case a paragraph listener requested text while
+                // the paragraphs were being updated.
                 contentLength += length;
+                invalidateParagraphOffsets(paragraphIndex);
                 if (notifyListeners) {
                     ExpressionHelper.fireValueChangedEvent(helper);
                 }
@@ -234,32 +277,16 @@ public class TextArea extends TextInputControl {
 
             if (length > 0) {
                 // Identify the trailing paragraph index
-                int paragraphIndex = paragraphs.size();
-                int offset = contentLength + 1;
-
-                StringBuilder paragraph = null;
-
-                do {
-                    paragraph = paragraphs.get(--paragraphIndex);
-                    offset -= paragraph.length() + 1;
-                } while (end < offset);
-
-                int trailingParagraphIndex = paragraphIndex;
-                int trailingOffset = offset;
-                StringBuilder trailingParagraph = paragraph;
+                int trailingParagraphIndex = getParagraphIndex(end);
+                int trailingOffset = paragraphOffsets[trailingParagraphIndex];
+                StringBuilder trailingParagraph = paragraphs.get(trailingParagraphIndex);
 
                 // Identify the leading paragraph index
-                paragraphIndex++;
-                offset += paragraph.length() + 1;
+                int leadingParagraphIndex = getParagraphIndex(start);
+                int leadingOffset = paragraphOffsets[leadingParagraphIndex];
+                StringBuilder leadingParagraph = paragraphs.get(leadingParagraphIndex);
 
-                do {
-                    paragraph = paragraphs.get(--paragraphIndex);
-                    offset -= paragraph.length() + 1;
-                } while (start < offset);
-
-                int leadingParagraphIndex = paragraphIndex;
-                int leadingOffset = offset;
-                StringBuilder leadingParagraph = paragraph;
+                invalidateParagraphOffsets(leadingParagraphIndex);
 
                 // Remove the text
                 if (leadingParagraphIndex == trailingParagraphIndex) {
@@ -297,6 +324,7 @@ public class TextArea extends TextInputControl {
 
                 // Update content length
                 contentLength -= length;
+                invalidateParagraphOffsets(leadingParagraphIndex);
                 if (notifyListeners) {
                     ExpressionHelper.fireValueChangedEvent(helper);
                 }
@@ -308,7 +336,17 @@ public class TextArea extends TextInputControl {
         }
 
         @Override public String get() {
-            return get(0, length());
+            if (cachedText == null) {
+                StringBuilder textBuilder = new StringBuilder(contentLength);
+                for (int i = 0, n = paragraphs.size(); i < n; i++) {
+                    if (i > 0) {
+                        textBuilder.append('\n');
+                    }
+                    textBuilder.append(paragraphs.get(i));
+                }
+                cachedText = textBuilder.toString();
+            }
+            return cachedText;
         }
 
         @Override public void addListener(ChangeListener<? super String> changeListener) {
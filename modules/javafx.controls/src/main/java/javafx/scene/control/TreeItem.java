@@ -25,9 +25,14 @@
 
 package javafx.scene.control;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.BooleanPropertyBase;
@@ -846,6 +851,70 @@ public class TreeItem<T> implements EventTarget { //, Comparable<TreeItem<T>> {
         }
     }
 
+    // Sorts the children of this (root) TreeItem and of all its expanded
+    // descendants in one go, rather than lazily as the children are requested.
+    // The subtrees are independent of each other, so the comparator is run
+    // for each of them in parallel. The new orders are then applied on the
+    // calling thread, firing the same permutation events as a lazy sort.
+    void sortInParallel() {
+        final Comparator<TreeItem<T>> comparator = lastComparator;
+        if (comparator == null) return;
+        if (lastSortMode != ALL_DESCENDANTS) {
+            sort();
+            return;
+        }
+
+        // isLeaf() and isExpanded() may be overridden or bound, so the
+        // subtrees to sort are collected on the calling thread
+        final List<TreeItem<T>> parents = new ArrayList<>();
+        final ArrayDeque<TreeItem<T>> pending = new ArrayDeque<>();
+        pending.push(this);
+        while (!pending.isEmpty()) {
+            TreeItem<T> item = pending.pop();
+            if (item.children == null || item.isLeaf() || !item.isExpanded()) continue;
+            parents.add(item);
+            for (TreeItem<T> child : item.children) {
+                if (child != null) pending.push(child);
+            }
+        }
+
+        final List<TreeItem<T>[]> orders = parents.parallelStream()
+                .map(item -> getSortedChildren(item.children, comparator))
+                .collect(Collectors.toList());
+
+        // Mark every subtree as sorted before any change is fired, so that
+        // listeners calling getChildren() don't sort the remaining subtrees
+        // again on this thread
+        for (TreeItem<T> item : parents) {
+            item.lastComparator = comparator;
+        }
+        for (int i = 0; i < parents.size(); i++) {
+            TreeItem<T>[] order = orders.get(i);
+            if (order == null) continue;
+
+            final Map<TreeItem<T>, Integer> positions = new IdentityHashMap<>();
+            for (int j = order.length - 1; j >= 0; j--) {
+                positions.put(order[j], j);
+            }
+            FXCollections.sort(parents.get(i).children, Comparator.comparingInt(positions::get));
+        }
+
+        if (getParent() == null) {
+            TreeModificationEvent<T> e = new TreeModificationEvent<T>(TreeItem.childrenModificationEvent(), this);
+            e.wasPermutated = true;
+            fireEvent(e);
+        }
+    }
+
+    // Returns the children in sorted order, or null if they are already sorted
+    @SuppressWarnings("unchecked")
+    private static <T> TreeItem<T>[] getSortedChildren(List<TreeItem<T>> children, Comparator<TreeItem<T>> comparator) {
+        if (isSorted(children, comparator)) return null;
+        TreeItem<T>[] sorted = children.toArray(new TreeItem[children.size()]);
+        Arrays.sort(sorted, comparator);
+        return sorted;
+    }
+
     private void checkSortState() {
         TreeItem<T> rootNode = getRoot();
 
@@ -892,11 +961,33 @@ public class TreeItem<T> implements EventTarget { //, Comparable<TreeItem<T>> {
     }
 
     private void doSort(ObservableList<TreeItem<T>> children, final Comparator<TreeItem<T>> comparator) {
-        if (!isLeaf() && isExpanded()) {
+        if (!isLeaf() && isExpanded() && !isSorted(children, comparator)) {
             FXCollections.sort(children, comparator);
         }
     }
 
+    // Sorting a list always fires a permutation change, even when the order
+    // does not change, and that change is propagated up to the root of the
+    // tree (and processed by the selection and focus models of the control)
+    // for every sorted TreeItem. As the sort is stable, a list that is already
+    // in order would not be modified, so we check for that (in linear time)
+    // before sorting. This is common when re-sorting large trees, where most
+    // of the subtrees are unaffected by the new comparator.
+    static <T> boolean isSorted(List<TreeItem<T>> children, Comparator<TreeItem<T>> comparator) {
+        final int size = children.size();
+        if (size < 2) return true;
+
+        TreeItem<T> previous = children.get(0);
+        for (int i = 1; i < size; i++) {
+            TreeItem<T> current = children.get(i);
+            if (comparator.compare(previous, current) > 0) {
+                return false;
+            }
+            previous = current;
+        }
+        return true;
+    }
+
     // This value is package accessible so that it may be retrieved from TreeView.
     int getExpandedDescendentCount(boolean reset) {
         if (reset || expandedDescendentCountDirty) {
@@ -602,6 +602,44 @@ public class TreeTableView<S> extends Control {
         }
     };
 
+    /**
+     * A {@link #sortPolicyProperty() sort policy} that results in the same
+     * order as the {@link #DEFAULT_SORT_POLICY default sort policy}, but that
+     * sorts the children of all expanded TreeItems when the sort is applied,
+     * rather than as they are needed, comparing the children of each TreeItem
+     * in parallel. This can make sorting large, mostly expanded trees
+     * considerably faster when the {@link #sortModeProperty() sort mode} is
+     * {@link TreeSortMode#ALL_DESCENDANTS}; for other sort modes this policy
+     * behaves exactly like the default sort policy.
+     * <p>
+     * Note that the {@link #comparatorProperty() comparator}, and therefore the
+     * cell value factories and comparators of the sort order columns, is called
+     * from background threads while the sort policy waits for the result, so
+     * it must not modify the scene graph or the tree.
+     *
+     * @since 14
+     */
+    public static final Callback<TreeTableView, Boolean> PARALLEL_SORT_POLICY = new Callback<TreeTableView, Boolean>() {
+        @Override public Boolean call(TreeTableView table) {
+            try {
+                TreeItem rootItem = table.getRoot();
+                if (rootItem == null) return false;
+
+                TreeSortMode sortMode = table.getSortMode();
+                if (sortMode == null) return false;
+
+                rootItem.lastSortMode = sortMode;
+                rootItem.lastComparator = table.getComparator();
+                rootItem.sortInParallel();
+                return true;
+            } catch (UnsupportedOperationException e) {
+                // the children of a TreeItem do not support sorting, see
+                // DEFAULT_SORT_POLICY
+                return false;
+            }
+        }
+    };
+
 
 
     /***************************************************************************
@@ -2542,11 +2580,11 @@ public class TreeTableView<S> extends Control {
                     } else if (e.wasPermutated()) {
                         // General approach:
                         //   -- detected a sort has happened
-                        //   -- Create a permutation lookup map (1)
+                        //   -- Determine the permuted range (1)
                         //   -- dump all the selected indices into a list (2)
                         //   -- create a list containing the new indices (3)
                         //   -- for each previously-selected index (4)
-                        //     -- if index is in the permutation lookup map
+                        //     -- if index is in the permuted range
                         //       -- add the new index to the new indices list
                         //   -- Perform batch selection (5)
 
@@ -2555,11 +2593,12 @@ public class TreeTableView<S> extends Control {
                         final int offset = startRow + 1;
 
                         // (1)
-                        int length = e.getTo() - e.getFrom();
-                        HashMap<Integer, Integer> pMap = new HashMap<> (length);
-                        for (int i = e.getFrom(); i < e.getTo(); i++) {
-                            pMap.put(i, e.getChange().getPermutation(i));
-                        }
+                        // The permutation is looked up directly from the change,
+                        // rather than copied into a map up front, as only the
+                        // selected rows are of interest and the number of
+                        // permuted children may be very large.
+                        final int permutedFrom = e.getFrom();
+                        final int permutedTo = e.getTo();
 
                         // (2)
                         List<TreeTablePosition<S,?>> selectedIndices = new ArrayList<>(getSelectedCells());
@@ -2573,8 +2612,8 @@ public class TreeTableView<S> extends Control {
                             final TreeTablePosition<S,?> oldIndex = selectedIndices.get(i);
                             final int oldRow = oldIndex.getRow() - offset;
 
-                            if (pMap.containsKey(oldRow)) {
-                                int newIndex = pMap.get(oldRow) + offset;
+                            if (oldRow >= permutedFrom && oldRow < permutedTo) {
+                                int newIndex = e.getChange().getPermutation(oldRow) + offset;
 
                                 selectionIndicesChanged = selectionIndicesChanged || newIndex != oldRow;
 
@@ -2986,18 +3025,17 @@ public class TreeTableView<S> extends Control {
                     focus(tp.getRow(), tp.getTableColumn());
                 }
             } else {
-                List<TreeTablePosition<S,?>> indices = new ArrayList<>();
-                for (int i = 0; i < getRowCount(); i++) {
-                    indices.add(new TreeTablePosition<>(getTreeTableView(), i, null));
-                }
-                selectedCellsMap.setAll(indices);
+                // the rows are held as a single range, rather than as a
+                // position per row
+                final int rowCount = getRowCount();
+                selectedCellsMap.selectAllRows(rowCount, row -> new TreeTablePosition<>(getTreeTableView(), row, null));
 
                 int focusedIndex = getFocusedIndex();
                 if (focusedIndex == -1) {
                     final int itemCount = getItemCount();
                     if (itemCount > 0) {
                         select(itemCount - 1);
-                        focus(indices.get(indices.size() - 1));
+                        focus(selectedCellsMap.get(rowCount - 1));
                     }
                 } else {
                     select(focusedIndex);
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene.control.skin;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.scene.control.TableColumnBase;
+
+/**
+ * A prefix sum of the widths of a list of (visible leaf) table columns. This
+ * allows for the x position of a column, and the column at a given x
+ * position, to be found without walking all columns to the left of it, which
+ * matters for tables with thousands of columns.
+ */
+final class ColumnWidthIndex {
+
+    // offsets[i] is the x position of the start of column i, and
+    // offsets[columnCount] is the total width of all columns
+    private double[] offsets = new double[1];
+    private int columnCount = 0;
+
+    // the columns given to the last update, and a lazily built map from each
+    // of them to its index
+    private TableColumnBase<?,?>[] columns = new TableColumnBase<?,?>[0];
+    private Map<TableColumnBase<?,?>, Integer> columnIndices;
+
+    /**
+     * Recomputes the offsets for the given columns. This is O(n), and should
+     * be done once per layout (or when the column widths change), rather than
+     * once per column.
+     */
+    void update(List<? extends TableColumnBase> columns) {
+        final int count = columns.size();
+        if (offsets.length < count + 1) {
+            offsets = Arrays.copyOf(offsets, Math.max(count + 1, offsets.length * 2));
+        }
+        if (this.columns.length < count) {
+            this.columns = Arrays.copyOf(this.columns, Math.max(count, this.columns.length * 2));
+        }
+
+        double x = 0;
+        boolean columnsChanged = count != columnCount;
+        for (int i = 0; i < count; i++) {
+            TableColumnBase<?,?> column = columns.get(i);
+            if (this.columns[i] != column) {
+                this.columns[i] = column;
+                columnsChanged = true;
+            }
+            offsets[i] = x;
+            x += column.getWidth();
+        }
+        Arrays.fill(this.columns, count, Math.max(count, columnCount), null);
+        offsets[count] = x;
+        columnCount = count;
+
+        if (columnsChanged) {
+            columnIndices = null;
+        }
+    }
+
+    /**
+     * Returns the index of the given column in the columns given to the last
+     * update, or -1 if it is not one of them.
+     */
+    int indexOf(TableColumnBase<?,?> column) {
+        if (columnIndices == null) {
+            columnIndices = new IdentityHashMap<>(columnCount);
+            for (int i = 0; i < columnCount; i++) {
+                columnIndices.put(columns[i], i);
+            }
+        }
+        Integer index = columnIndices.get(column);
+        return index == null ? -1 : index;
+    }
+
+    int getColumnCount() {
+        return columnCount;
+    }
+
+    double getColumnStart(int column) {
+        return offsets[column];
+    }
+
+    double getColumnEnd(int column) {
+        return offsets[column + 1];
+    }
+
+    double getTotalWidth() {
+        return offsets[columnCount];
+    }
+
+    /**
+     * Returns the index of the column that contains the given x position, or
+     * -1 if x is before the first column, or the column count if x is at or
+     * beyond the end of the last column.
+     */
+    int getColumnIndexAt(double x) {
+        if (x < 0) return -1;
+        if (x >= offsets[columnCount]) return columnCount;
+
+        // find the last column whose start is <= x
+        int lo = 0;
+        int hi = columnCount - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= x) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns true if any part of the given column lies within the horizontal
+     * range [viewportStart, viewportEnd).
+     */
+    boolean isColumnVisible(int column, double viewportStart, double viewportEnd) {
+        return offsets[column + 1] > viewportStart && offsets[column] < viewportEnd;
+    }
+}
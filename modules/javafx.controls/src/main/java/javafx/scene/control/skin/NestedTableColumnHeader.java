@@ -102,6 +102,11 @@ public class NestedTableColumnHeader extends TableColumnHeader {
 
     boolean updateColumns = true;
 
+    // the horizontal range of this header that is scrolled into view, in local
+    // coordinates. Only used when header virtualization is enabled.
+    private double viewportStart;
+    private double viewportEnd;
+
 
 
     /***************************************************************************
@@ -320,6 +325,8 @@ public class NestedTableColumnHeader extends TableColumnHeader {
                 dragRect.relocate(x - DRAG_RECT_WIDTH / 2, snappedTopInset() + labelHeight);
             }
         }
+
+        updateHeadersInViewport();
     }
 
     // sum up all children columns
@@ -347,7 +354,11 @@ public class NestedTableColumnHeader extends TableColumnHeader {
         double height = 0.0F;
 
         if (getColumnHeaders() != null) {
+            // only the headers in the scenegraph have had css applied, unless
+            // none of them have been added yet
+            boolean attachedOnly = isHeaderVirtualizationEnabled() && hasAttachedHeaders();
             for (TableColumnHeader n : getColumnHeaders()) {
+                if (attachedOnly && n.getParent() != this) continue;
                 height = Math.max(height, n.prefHeight(-1));
             }
         }
@@ -504,8 +515,11 @@ public class NestedTableColumnHeader extends TableColumnHeader {
         updateContent();
 
         // RT-33596: Do CSS now, as we are in the middle of layout pass and the headers are new Nodes w/o CSS done
+        // (headers outside of the viewport are not in the scenegraph, and get their CSS once they are added)
         for (TableColumnHeader header : getColumnHeaders()) {
-            header.applyCss();
+            if (header.getParent() == this) {
+                header.applyCss();
+            }
         }
     }
 
@@ -565,17 +579,102 @@ public class NestedTableColumnHeader extends TableColumnHeader {
         // the label is the region that sits above the children columns
         content.add(label);
 
-        // all children columns
-        content.addAll(getColumnHeaders());
+        // all children columns. When header virtualization is enabled these
+        // are added (along with their drag rects) by updateHeadersInViewport
+        final boolean virtualized = isHeaderVirtualizationEnabled();
+        if (!virtualized) {
+            content.addAll(getColumnHeaders());
+        }
 
         // Small transparent overlays that sit at the start and end of each
         // column to intercept user drag gestures to enable column resizing.
         if (isColumnResizingEnabled()) {
             rebuildDragRects();
-            content.addAll(dragRects.values());
+            if (!virtualized) {
+                content.addAll(dragRects.values());
+            }
         }
 
         getChildren().setAll(content);
+
+        if (virtualized) {
+            updateHeadersInViewport();
+        }
+    }
+
+    private boolean isHeaderVirtualizationEnabled() {
+        final TableHeaderRow headerRow = getTableHeaderRow();
+        return headerRow != null && headerRow.isHeaderVirtualizationEnabled();
+    }
+
+    private boolean hasAttachedHeaders() {
+        for (int i = 0, max = getColumnHeaders().size(); i < max; i++) {
+            if (getColumnHeaders().get(i).getParent() == this) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /*
+     * When header virtualization is enabled, only the child headers (and their
+     * drag rects) that intersect the viewport are kept in the scenegraph, so
+     * that a table with thousands of columns does not have to apply css to,
+     * lay out and render thousands of headers. The headers outside of the
+     * viewport are still sized and positioned in layoutChildren, so that their
+     * bounds stay correct for column reordering and scrollHorizontally.
+     */
+    void updateHeadersInViewport() {
+        final NestedTableColumnHeader parentHeader = getParentHeader();
+        if (parentHeader == null && getTableHeaderRow() != null) {
+            // the root header is positioned at the (negative) horizontal
+            // scroll position of the header row
+            // (until the table has been sized we do not know what is in the
+            // viewport, so all headers are kept)
+            double start = -getLayoutX();
+            double tableWidth = getTableHeaderRow().getTableWidth();
+            updateHeadersInViewport(start, tableWidth > 0 ? start + tableWidth : Double.MAX_VALUE);
+        } else {
+            // the viewport was given to us by the parent header
+            updateHeadersInViewport(viewportStart, viewportEnd);
+        }
+    }
+
+    // start and end are in the local coordinates of this header
+    private void updateHeadersInViewport(double start, double end) {
+        viewportStart = start;
+        viewportEnd = end;
+
+        final boolean virtualized = isHeaderVirtualizationEnabled();
+
+        // the headers are positioned as in layoutChildren, but we do not use
+        // their layoutX here as they may not have been laid out yet
+        double x = snappedLeftInset();
+        for (int i = 0, max = getColumnHeaders().size(); i < max; i++) {
+            TableColumnHeader n = getColumnHeaders().get(i);
+            double width = virtualized && n.isVisible() ? n.prefWidth(-1) : 0;
+            boolean inViewport = !virtualized || (width > 0 && x + width > start && x < end);
+
+            Rectangle dragRect = dragRects.get(n.getTableColumn());
+            if (inViewport && n.getParent() != this) {
+                // after the label, and below the drag rects
+                getChildren().add(1, n);
+                n.applyCss();
+                if (dragRect != null) {
+                    getChildren().add(dragRect);
+                }
+            } else if (!inViewport && n.getParent() == this) {
+                getChildren().remove(n);
+                if (dragRect != null) {
+                    getChildren().remove(dragRect);
+                }
+            }
+
+            if (inViewport && n instanceof NestedTableColumnHeader) {
+                ((NestedTableColumnHeader) n).updateHeadersInViewport(start - x, end - x);
+            }
+            x += width;
+        }
     }
 
     private void rebuildDragRects() {
@@ -141,6 +141,9 @@ public class TableHeaderRow extends StackPane {
     // This is necessary for RT-20300 (but was updated for RT-20840)
     private ListChangeListener visibleLeafColumnsListener = c -> getRootHeader().setHeadersNeedUpdate();
 
+    // header virtualization depends on whether a fixed cell size is set
+    private InvalidationListener fixedCellSizeListener = o -> getRootHeader().setHeadersNeedUpdate();
+
     private final ListChangeListener tableColumnsListener = c -> {
         while (c.next()) {
             updateTableColumnListeners(c.getAddedSubList(), c.getRemoved());
@@ -164,6 +167,9 @@ public class TableHeaderRow extends StackPane {
     private final WeakListChangeListener weakVisibleLeafColumnsListener =
             new WeakListChangeListener(visibleLeafColumnsListener);
 
+    private final WeakInvalidationListener weakFixedCellSizeListener =
+            new WeakInvalidationListener(fixedCellSizeListener);
+
     private final WeakListChangeListener weakTableColumnsListener =
             new WeakListChangeListener(tableColumnsListener);
 
@@ -202,6 +208,7 @@ public class TableHeaderRow extends StackPane {
         tableSkin.getSkinnable().widthProperty().addListener(weakTableWidthListener);
         tableSkin.getSkinnable().paddingProperty().addListener(weakTablePaddingListener);
         TableSkinUtils.getVisibleLeafColumns(skin).addListener(weakVisibleLeafColumnsListener);
+        flow.fixedCellSizeProperty().addListener(weakFixedCellSizeListener);
 
         // popup menu for hiding/showing columns
         columnPopupMenu = new ContextMenu();
@@ -364,6 +371,7 @@ public class TableHeaderRow extends StackPane {
 
         // position the main nested header
         getRootHeader().resizeRelocate(x, snappedTopInset(), headerWidth, prefHeight);
+        getRootHeader().updateHeadersInViewport();
 
         // position the filler region
         final Control control = tableSkin.getSkinnable();
@@ -500,6 +508,20 @@ public class TableHeaderRow extends StackPane {
         }
     }
 
+    /*
+     * As with the cells of a TableRow (see TableRowSkinBase), only the column
+     * headers that intersect the viewport are kept in the scenegraph when a
+     * fixed cell size is set.
+     */
+    boolean isHeaderVirtualizationEnabled() {
+        return flow.getFixedCellSize() > 0;
+    }
+
+    // the width of the table that the header row is clipped to
+    double getTableWidth() {
+        return tableWidth;
+    }
+
     void setDragHeaderX(double dragHeaderX) {
         dragHeader.setTranslateX(dragHeaderX);
     }
@@ -136,6 +136,13 @@ public abstract class TableRowSkinBase<T,
     double fixedCellSize;
     boolean fixedCellSizeEnabled;
 
+    // Used when fixedCellSizeEnabled is true to determine which of the
+    // visible leaf columns intersect the viewport, without walking all
+    // columns to the left of each one (which is O(n^2) for wide tables).
+    private final ColumnWidthIndex columnWidthIndex = new ColumnWidthIndex();
+    private double viewportStart;
+    private double viewportEnd;
+
 
 
     /***************************************************************************
@@ -339,6 +346,10 @@ public abstract class TableRowSkinBase<T,
         int index = control.getIndex();
         if (index < 0/* || row >= itemsProperty().get().size()*/) return;
 
+        if (fixedCellSizeEnabled) {
+            updateViewport();
+        }
+
         for (int column = 0, max = cells.size(); column < max; column++) {
             R tableCell = cells.get(column);
             TableColumnBase<T, ?> tableColumn = getTableColumn(tableCell);
@@ -354,7 +365,7 @@ public abstract class TableRowSkinBase<T,
                 // provided by the developer, and this means that we do not have
                 // to concern ourselves with the possibility that the height
                 // may be variable and / or dynamic.
-                isVisible = isColumnPartiallyOrFullyVisible(tableColumn);
+                isVisible = isColumnPartiallyOrFullyVisible(tableColumn, column);
 
                 height = fixedCellSize;
             } else {
@@ -363,8 +374,16 @@ public abstract class TableRowSkinBase<T,
             }
 
             if (isVisible) {
-                if (fixedCellSizeEnabled && tableCell.getParent() == null) {
-                    getChildren().add(tableCell);
+                if (fixedCellSizeEnabled) {
+                    // cells of columns outside the viewport are not kept up
+                    // to date with the row index (see updateCellIndex), so we
+                    // must update it now that the column has scrolled into view
+                    if (tableCell.getIndex() != index) {
+                        tableCell.updateIndex(index);
+                    }
+                    if (tableCell.getParent() == null) {
+                        getChildren().add(tableCell);
+                    }
                 }
 
                 width = tableCell.prefWidth(height) - snapSizeX(horizontalPadding);
@@ -516,6 +535,10 @@ public abstract class TableRowSkinBase<T,
         final int skinnableIndex = skinnable.getIndex();
         final List<? extends TableColumnBase/*<T,?>*/> visibleLeafColumns = getVisibleLeafColumns();
 
+        if (fixedCellSizeEnabled) {
+            updateViewport();
+        }
+
         for (int i = 0, max = visibleLeafColumns.size(); i < max; i++) {
             TableColumnBase<T,?> col = visibleLeafColumns.get(i);
 
@@ -536,7 +559,7 @@ public abstract class TableRowSkinBase<T,
             }
 
             updateCell(cell, skinnable);
-            cell.updateIndex(skinnableIndex);
+            updateCellIndex(cell, i, skinnableIndex);
             cells.add(cell);
         }
 
@@ -663,30 +686,56 @@ public abstract class TableRowSkinBase<T,
      *                                                                         *
      **************************************************************************/
 
-    private boolean isColumnPartiallyOrFullyVisible(TableColumnBase col) {
-        if (col == null || !col.isVisible()) return false;
+    /*
+     * Recomputes the column offsets and the horizontal range of the table that
+     * is currently scrolled into view. Only used when fixedCellSizeEnabled is
+     * true, as that is the only time we take cells out of the scenegraph.
+     */
+    private void updateViewport() {
+        columnWidthIndex.update(getVisibleLeafColumns());
 
         final VirtualFlow<?> virtualFlow = getVirtualFlow();
         double scrollX = virtualFlow == null ? 0.0 : virtualFlow.getHbar().getValue();
 
-        // work out where this column header is, and it's width (start -> end)
-        double start = 0;
-        final ObservableList<? extends TableColumnBase> visibleLeafColumns = getVisibleLeafColumns();
-        for (int i = 0, max = visibleLeafColumns.size(); i < max; i++) {
-            TableColumnBase<?,?> c = visibleLeafColumns.get(i);
-            if (c.equals(col)) break;
-            start += c.getWidth();
+        // determine the width of the viewport. The row itself is as wide as
+        // all of its columns, so its width can not be used here.
+        final double viewportWidth;
+        if (virtualFlow != null) {
+            viewportWidth = virtualFlow.getWidth();
+        } else {
+            final Insets padding = getSkinnable().getPadding();
+            viewportWidth = getSkinnable().getWidth() - padding.getLeft() + padding.getRight();
         }
-        double end = start + col.getWidth();
 
-        // determine the width of the table
-        final Insets padding = getSkinnable().getPadding();
-        double headerWidth = getSkinnable().getWidth() - padding.getLeft() + padding.getRight();
+        viewportStart = scrollX;
+        viewportEnd = scrollX + viewportWidth;
+    }
+
+    // column is the index of the given column in the visible leaf columns list
+    private boolean isColumnPartiallyOrFullyVisible(TableColumnBase col, int column) {
+        if (col == null || !col.isVisible()) return false;
+        if (column < 0 || column >= columnWidthIndex.getColumnCount()) return false;
+
+        return columnWidthIndex.isColumnVisible(column, viewportStart, viewportEnd);
+    }
 
-        return (start >= scrollX || end > scrollX) && (start < (headerWidth + scrollX) || end <= (headerWidth + scrollX));
+    /*
+     * When fixedCellSizeEnabled is true, cells of columns that are outside of
+     * the viewport are not in the scenegraph, so rather than have every one of
+     * them update their item each time the row is reused we park them at index
+     * -1, and bring them up to date in layoutChildren once they scroll into view.
+     */
+    private void updateCellIndex(R cell, int column, int index) {
+        if (fixedCellSizeEnabled && !isColumnPartiallyOrFullyVisible(getTableColumn(cell), column)) {
+            if (cell.getIndex() != -1) {
+                cell.updateIndex(-1);
+            }
+        } else {
+            cell.updateIndex(index);
+        }
     }
 
-    private void requestCellUpdate() {
+    void requestCellUpdate() {
         updateCells = true;
         getSkinnable().requestLayout();
 
@@ -697,8 +746,11 @@ public abstract class TableRowSkinBase<T,
         // issue highlighted in RT-33602, where the table cell had the correct
         // item whilst the row had the old item.
         final int newIndex = getSkinnable().getIndex();
+        if (fixedCellSizeEnabled) {
+            updateViewport();
+        }
         for (int i = 0, max = cells.size(); i < max; i++) {
-            cells.get(i).updateIndex(newIndex);
+            updateCellIndex(cells.get(i), i, newIndex);
         }
     }
 
@@ -49,9 +49,12 @@ import javafx.scene.control.TreeTableColumn;
 import javafx.scene.control.TreeTableRow;
 import javafx.scene.control.TreeTableView;
 import javafx.scene.layout.Region;
+import javafx.scene.text.Font;
 import javafx.util.Callback;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 // NOT PUBLIC API
@@ -111,9 +114,24 @@ class TableSkinUtils {
             padding = r.snappedLeftInset() + r.snappedRightInset();
         }
 
+        // the default cell factory only ever shows the toString() of the
+        // cell data, so once a cell has been styled we can measure the text
+        // directly, rather than running CSS and layout on the cell per row
+        boolean textOnly = cellFactory == TableColumn.DEFAULT_CELL_FACTORY;
+        TextCellMeasurer measurer = null;
+
         int rows = maxRows == -1 ? items.size() : Math.min(items.size(), maxRows);
         double maxWidth = 0;
         for (int row = 0; row < rows; row++) {
+            if (measurer != null) {
+                Object data = tc.getCellData(row);
+                if (data == null) continue;
+                if (!(data instanceof Node)) {
+                    maxWidth = Math.max(maxWidth, measurer.computeWidth(data.toString()));
+                    continue;
+                }
+            }
+
             cell.updateTableColumn(tc);
             cell.updateTableView(tv);
             cell.updateIndex(row);
@@ -121,7 +139,11 @@ class TableSkinUtils {
             if ((cell.getText() != null && !cell.getText().isEmpty()) || cell.getGraphic() != null) {
                 tableSkin.getChildren().add(cell);
                 cell.applyCss();
-                maxWidth = Math.max(maxWidth, cell.prefWidth(-1));
+                double w = cell.prefWidth(-1);
+                maxWidth = Math.max(maxWidth, w);
+                if (textOnly && measurer == null) {
+                    measurer = TextCellMeasurer.create(cell, w);
+                }
                 tableSkin.getChildren().remove(cell);
             }
         }
@@ -190,9 +212,28 @@ class TableSkinUtils {
         TreeTableRow<T> treeTableRow = new TreeTableRow<>();
         treeTableRow.updateTreeTableView(ttv);
 
+        // see the comment in the TableView variant above. The cells of the
+        // tree column are indented by the level of their tree item, and show
+        // its disclosure node and graphic, so their padding differs from row
+        // to row and they are always measured individually.
+        TreeTableColumn<T,?> treeColumn = ttv.getTreeColumn();
+        boolean isTreeColumn = treeColumn == null ?
+                ttv.getVisibleLeafIndex(tc) == 0 : treeColumn.equals(tc);
+        boolean textOnly = cellFactory == TreeTableColumn.DEFAULT_CELL_FACTORY && !isTreeColumn;
+        TextCellMeasurer measurer = null;
+
         int rows = maxRows == -1 ? items.size() : Math.min(items.size(), maxRows);
         double maxWidth = 0;
         for (int row = 0; row < rows; row++) {
+            if (measurer != null) {
+                Object data = tc.getCellData(row);
+                if (data == null) continue;
+                if (!(data instanceof Node)) {
+                    maxWidth = Math.max(maxWidth, measurer.computeWidth(data.toString()));
+                    continue;
+                }
+            }
+
             treeTableRow.updateIndex(row);
             treeTableRow.updateTreeItem(ttv.getTreeItem(row));
 
@@ -208,6 +249,9 @@ class TableSkinUtils {
                 double w = cell.prefWidth(-1);
 
                 maxWidth = Math.max(maxWidth, w);
+                if (textOnly && measurer == null) {
+                    measurer = TextCellMeasurer.create(cell, w);
+                }
                 tableSkin.getChildren().remove(cell);
             }
         }
@@ -381,4 +425,45 @@ class TableSkinUtils {
         }
         return null;
     }
+
+    /*
+     * A measurement context for text-only cells. It is created from a cell
+     * that has already been styled and measured, and records the cell font
+     * and the difference between the cell pref width and its text width (the
+     * padding, insets and label padding). The width of any other text in the
+     * same column is then that difference plus the width of the text, which
+     * only requires a text layout rather than a CSS pass and a layout of the
+     * cell. Text widths are cached, as columns often repeat the same values.
+     */
+    private static final class TextCellMeasurer {
+        private final Font font;
+        private final double padding;
+        private final Map<String, Double> textWidths = new HashMap<>();
+
+        private TextCellMeasurer(Font font, double padding) {
+            this.font = font;
+            this.padding = padding;
+        }
+
+        // returns null if the cell is not a plain, single text cell
+        static TextCellMeasurer create(IndexedCell<?> cell, double prefWidth) {
+            String text = cell.getText();
+            if (text == null || text.isEmpty() || cell.getGraphic() != null
+                    || cell.isMnemonicParsing() || cell.isWrapText()) {
+                return null;
+            }
+            Font font = cell.getFont();
+            return new TextCellMeasurer(font, prefWidth - Utils.computeTextWidth(font, text, 0));
+        }
+
+        double computeWidth(String text) {
+            if (text.isEmpty()) return 0;
+            Double width = textWidths.get(text);
+            if (width == null) {
+                width = Utils.computeTextWidth(font, text, 0);
+                textWidths.put(text, width);
+            }
+            return width + padding;
+        }
+    }
 }
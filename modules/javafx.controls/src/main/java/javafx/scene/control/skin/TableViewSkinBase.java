@@ -147,6 +147,11 @@ public abstract class TableViewSkinBase<M, S, C extends Control, I extends Index
 
     private int visibleColCount;
 
+    // x positions of the visible leaf columns, updated lazily when the columns
+    // or their widths change
+    private final ColumnWidthIndex columnWidthIndex = new ColumnWidthIndex();
+    private boolean columnWidthIndexDirty = true;
+
     boolean needCellsRecreated = true;
     boolean needCellsReconfigured = false;
 
@@ -211,6 +216,7 @@ public abstract class TableViewSkinBase<M, S, C extends Control, I extends Index
     };
 
     private ListChangeListener<TC> visibleLeafColumnsListener = c -> {
+        columnWidthIndexDirty = true;
         updateVisibleColumnCount();
         while (c.next()) {
             updateVisibleLeafColumnWidthListeners(c.getAddedSubList(), c.getRemoved());
@@ -224,6 +230,7 @@ public abstract class TableViewSkinBase<M, S, C extends Control, I extends Index
         // using 'needCellsReconfigured' here rather than 'needCellsRebuilt'
         // as otherwise performance suffers massively (RT-27831)
         needCellsReconfigured = true;
+        columnWidthIndexDirty = true;
         if (getSkinnable() != null) {
             getSkinnable().requestLayout();
         }
@@ -575,6 +582,18 @@ public abstract class TableViewSkinBase<M, S, C extends Control, I extends Index
 
     void horizontalScroll() {
         tableHeaderRow.updateScrollX();
+
+        // when a fixed cell size is set, table rows only keep the cells of the
+        // columns that intersect the viewport in the scenegraph, so the rows
+        // must be laid out again to show the columns that scrolled into view
+        if (flow.getFixedCellSize() > 0) {
+            for (int i = 0, max = flow.cells.size(); i < max; i++) {
+                I cell = flow.cells.get(i);
+                if (cell != null) {
+                    cell.requestLayout();
+                }
+            }
+        }
     }
 
     /**
@@ -940,11 +959,12 @@ public abstract class TableViewSkinBase<M, S, C extends Control, I extends Index
         }
 
         // work out where this column header is, and it's width (start -> end)
-        double start = 0;
-        for (TC c : getVisibleLeafColumns()) {
-            if (c.equals(col)) break;
-            start += c.getWidth();
+        if (columnWidthIndexDirty) {
+            columnWidthIndex.update(getVisibleLeafColumns());
+            columnWidthIndexDirty = false;
         }
+        int column = columnWidthIndex.indexOf(col);
+        double start = column < 0 ? columnWidthIndex.getTotalWidth() : columnWidthIndex.getColumnStart(column);
         double end = start + col.getWidth();
 
         // determine the visible width of the table
@@ -28,6 +28,7 @@ package javafx.scene.control.skin;
 import com.sun.javafx.scene.control.behavior.BehaviorBase;
 import com.sun.javafx.scene.control.behavior.TextAreaBehavior;
 import com.sun.javafx.scene.control.skin.Utils;
+import com.sun.javafx.scene.text.HitInfoHelper;
 import javafx.animation.KeyFrame;
 import javafx.animation.Timeline;
 import javafx.application.Platform;
@@ -61,11 +62,16 @@ import javafx.scene.layout.Region;
 import javafx.scene.shape.MoveTo;
 import javafx.scene.shape.Path;
 import javafx.scene.shape.PathElement;
+import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import javafx.scene.text.HitInfo;
+import javafx.scene.text.TextBoundsType;
 import javafx.util.Duration;
 
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.sun.javafx.PlatformUtil.isMac;
 import static com.sun.javafx.PlatformUtil.isWindows;
@@ -113,6 +119,26 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
     private ContentView contentView = new ContentView();
     private Group paragraphNodes = new Group();
 
+    // The last measurements of each paragraph node, see ParagraphMetrics.
+    private final Map<Text, ParagraphMetrics> paragraphMetrics = new IdentityHashMap<>();
+
+    // The start offset and width of each paragraph of the text area.
+    private final ParagraphTable paragraphTable;
+
+    // When the text is not wrapped every paragraph is one line high, so the
+    // text node only needs to hold the paragraphs in and around the viewport.
+    // It holds paragraphs windowFirst to windowLast (inclusive), which span
+    // the offsets windowStart to windowEnd of the text area, and its y is set
+    // to the height of the paragraphs above them, so that the coordinates of
+    // the text node are the same as if it held the whole text.
+    private boolean windowValid;
+    private boolean windowVirtualized;
+    private int windowFirst;
+    private int windowLast;
+    private int windowStart;
+    private int windowEnd;
+    private int lastLayoutCaretPosition = -1;
+
     private Text promptNode;
     private ObservableBooleanValue usePromptText;
 
@@ -173,6 +199,7 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
 //        control.setInputMap(behavior.getInputMap());
 
         this.textArea = control;
+        this.paragraphTable = new ParagraphTable(control.getParagraphs());
 
         caretPosition = new IntegerBinding() {
             { bind(control.caretPositionProperty()); }
@@ -188,8 +215,8 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
         });
 
         forwardBiasProperty().addListener(observable -> {
-            if (control.getWidth() > 0) {
-                updateTextNodeCaretPos(control.getCaretPosition());
+            if (control.getWidth() > 0 && isInWindow(control.getCaretPosition())) {
+                updateTextNodeCaretPos(control.getCaretPosition() - windowStart);
             }
         });
 
@@ -281,6 +308,8 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
             updateFontMetrics();
         });
 
+        showParagraphs(0, 0);
+
         contentView.paddingProperty().addListener(valueModel -> {
             updatePrefViewportWidth();
             updatePrefViewportHeight();
@@ -307,8 +336,16 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
             double vValue = (newValue.doubleValue() < getScrollTopMax())
                                ? (newValue.doubleValue() / getScrollTopMax()) : 1.0;
             scrollPane.setVvalue(vValue);
+
+            // lay out the paragraphs that are being scrolled into view
+            if (windowVirtualized && (getFirstVisibleParagraph() < windowFirst
+                    || getLastVisibleParagraph() > windowLast)) {
+                contentView.requestLayout();
+            }
         });
 
+        control.getParagraphs().addListener(paragraphTable::paragraphsChanged);
+
         control.scrollLeftProperty().addListener((observable, oldValue, newValue) -> {
             double hValue = (newValue.doubleValue() < getScrollLeftMax())
                                ? (newValue.doubleValue() / getScrollLeftMax()) : 1.0;
@@ -338,14 +375,20 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
                         }
                     } else {
                         // This is a remove
-                        paragraphNodes.getChildren().subList(from, from + removed.size()).clear();
+                        List<Node> removedNodes = paragraphNodes.getChildren().subList(from, from + removed.size());
+                        removedNodes.forEach(paragraphMetrics::remove);
+                        removedNodes.clear();
                     }
                 }
             });
         } else {
             control.textProperty().addListener(observable -> {
                 invalidateMetrics();
-                ((Text)paragraphNodes.getChildren().get(0)).setText(control.textProperty().getValueSafe());
+                if (windowVirtualized == isVirtualized()) {
+                    updateWindow(windowFirst, windowLast);
+                } else {
+                    windowValid = false;
+                }
                 contentView.requestLayout();
             });
         }
@@ -401,7 +444,7 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
                 Point2D tp = textNode.localToScene(0, 0);
                 Point2D p = new Point2D(e.getSceneX() - tp.getX() - pressX + caretHandle.getWidth() / 2,
                                         e.getSceneY() - tp.getY() - pressY - 6);
-                HitInfo hit = textNode.hitTest(translateCaretPosition(p));
+                HitInfo hit = hitTest(translateCaretPosition(p));
                 positionCaret(hit, false);
                 e.consume();
             });
@@ -412,7 +455,7 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
                 Point2D tp = textNode.localToScene(0, 0);
                 Point2D p = new Point2D(e.getSceneX() - tp.getX() - pressX + selectionHandle1.getWidth() / 2,
                                         e.getSceneY() - tp.getY() - pressY + selectionHandle1.getHeight() + 5);
-                HitInfo hit = textNode.hitTest(translateCaretPosition(p));
+                HitInfo hit = hitTest(translateCaretPosition(p));
                 if (control1.getAnchor() < control1.getCaretPosition()) {
                     // Swap caret and anchor
                     control1.selectRange(control1.getCaretPosition(), control1.getAnchor());
@@ -433,7 +476,7 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
                 Point2D tp = textNode.localToScene(0, 0);
                 Point2D p = new Point2D(e.getSceneX() - tp.getX() - pressX + selectionHandle2.getWidth() / 2,
                                         e.getSceneY() - tp.getY() - pressY - 6);
-                HitInfo hit = textNode.hitTest(translateCaretPosition(p));
+                HitInfo hit = hitTest(translateCaretPosition(p));
                 if (control1.getAnchor() > control1.getCaretPosition()) {
                     // Swap caret and anchor
                     control1.selectRange(control1.getCaretPosition(), control1.getAnchor());
@@ -492,7 +535,7 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
         // text content of the textInputControl
         Text textNode = getTextNode();
         Point2D p = new Point2D(x - textNode.getLayoutX(), y - getTextTranslateY());
-        HitInfo hit = textNode.hitTest(translateCaretPosition(p));
+        HitInfo hit = hitTest(translateCaretPosition(p));
         return hit;
     };
 
@@ -572,6 +615,7 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
             moveRight = !moveRight;
         }
 
+        showCaret();
         Text textNode = getTextNode();
         Bounds caretBounds = caretPath.getLayoutBounds();
         if (caretPath.getElements().size() == 4) {
@@ -583,9 +627,10 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
         }
         double hitX = moveRight ? caretBounds.getMaxX() : caretBounds.getMinX();
         double hitY = (caretBounds.getMinY() + caretBounds.getMaxY()) / 2;
-        HitInfo hit = textNode.hitTest(new Point2D(hitX, hitY));
+        HitInfo hit = hitTest(new Point2D(hitX, hitY));
         boolean leading = hit.isLeading();
-        Path charShape = new Path(textNode.rangeShape(hit.getCharIndex(), hit.getCharIndex() + 1));
+        int charIndex = hit.getCharIndex() - windowStart;
+        Path charShape = new Path(textNode.rangeShape(charIndex, charIndex + 1));
         if ((moveRight && charShape.getLayoutBounds().getMaxX() > caretBounds.getMaxX()) ||
                 (!moveRight && charShape.getLayoutBounds().getMinX() < caretBounds.getMinX())) {
             leading = !leading;
@@ -608,6 +653,7 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
     }
 
     private void downLines(int nLines, boolean select, boolean extendSelection) {
+        showCaret();
         Text textNode = getTextNode();
         Bounds caretBounds = caretPath.getLayoutBounds();
 
@@ -622,14 +668,14 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
         double x = (targetCaretX >= 0) ? targetCaretX : (caretBounds.getMaxX());
 
         // Find a text position for the target x,y.
-        HitInfo hit = textNode.hitTest(translateCaretPosition(new Point2D(x, targetLineMidY)));
+        HitInfo hit = hitTest(translateCaretPosition(new Point2D(x, targetLineMidY)));
         int pos = hit.getCharIndex();
 
         // Save the old pos temporarily while testing the new one.
         int oldPos = textNode.getCaretPosition();
         boolean oldBias = textNode.isCaretBias();
         textNode.setCaretBias(hit.isLeading());
-        textNode.setCaretPosition(pos);
+        textNode.setCaretPosition(pos - windowStart);
         tmpCaretPath.getElements().clear();
         tmpCaretPath.getElements().addAll(textNode.getCaretShape());
         tmpCaretPath.setLayoutX(textNode.getLayoutX());
@@ -742,7 +788,8 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
 
     /** {@inheritDoc} */
     @Override protected PathElement[] getUnderlineShape(int start, int end) {
-        int pStart = 0;
+        showParagraphs(paragraphTable.getParagraphIndex(start), paragraphTable.getParagraphIndex(end));
+        int pStart = windowStart;
         for (Node node : paragraphNodes.getChildren()) {
             Text p = (Text)node;
             int pEnd = pStart + p.textProperty().getValueSafe().length();
@@ -756,7 +803,8 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
 
     /** {@inheritDoc} */
     @Override protected PathElement[] getRangeShape(int start, int end) {
-        int pStart = 0;
+        showParagraphs(paragraphTable.getParagraphIndex(start), paragraphTable.getParagraphIndex(end));
+        int pStart = windowStart;
         for (Node node : paragraphNodes.getChildren()) {
             Text p = (Text)node;
             int pEnd = pStart + p.textProperty().getValueSafe().length();
@@ -770,7 +818,7 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
 
     /** {@inheritDoc} */
     @Override protected void addHighlight(List<? extends Node> nodes, int start) {
-        int pStart = 0;
+        int pStart = windowStart;
         Text paragraphNode = null;
         for (Node node : paragraphNodes.getChildren()) {
             Text p = (Text)node;
@@ -819,13 +867,37 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
     /** {@inheritDoc} */
     @Override protected Object queryAccessibleAttribute(AccessibleAttribute attribute, Object... parameters) {
         switch (attribute) {
-            case LINE_FOR_OFFSET:
+            case LINE_FOR_OFFSET: {
+                int offset = (Integer)parameters[0];
+                int paragraph = paragraphTable.getParagraphIndex(offset);
+                showParagraphs(paragraph, paragraph);
+                Integer line = (Integer)getTextNode().queryAccessibleAttribute(attribute, offset - windowStart);
+                return line == null ? null : line + (windowVirtualized ? windowFirst : 0);
+            }
             case LINE_START:
-            case LINE_END:
-            case BOUNDS_FOR_RANGE:
-            case OFFSET_AT_POINT:
+            case LINE_END: {
+                int line = (Integer)parameters[0];
+                if (windowVirtualized) {
+                    // each paragraph is a single line
+                    showParagraphs(line, line);
+                    line -= windowFirst;
+                }
+                Integer offset = (Integer)getTextNode().queryAccessibleAttribute(attribute, line);
+                return offset == null ? null : offset + windowStart;
+            }
+            case BOUNDS_FOR_RANGE: {
+                int start = (Integer)parameters[0];
+                int end = (Integer)parameters[1];
+                int paragraph = paragraphTable.getParagraphIndex(start);
+                showParagraphs(paragraph, paragraph);
+                return getTextNode().queryAccessibleAttribute(attribute, start - windowStart,
+                        Math.min(end, windowEnd) - windowStart);
+            }
+            case OFFSET_AT_POINT: {
                 Text text = getTextNode();
-                return text.queryAccessibleAttribute(attribute, parameters);
+                Point2D point = text.screenToLocal((Point2D)parameters[0]);
+                return point == null ? null : hitTest(point).getCharIndex();
+            }
             default: return super.queryAccessibleAttribute(attribute, parameters);
         }
     }
@@ -876,6 +948,9 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
     @Override protected int getInsertionPoint(double x, double y) {
         TextArea textArea = getSkinnable();
 
+        int paragraph = getParagraphAt(y - contentView.snappedTopInset());
+        showParagraphs(paragraph, paragraph);
+
         int n = paragraphNodes.getChildren().size();
         int index = -1;
 
@@ -890,10 +965,10 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
                 Text lastParagraphView = (Text)paragraphNodes.getChildren().get(lastParagraphIndex);
 
                 index = getNextInsertionPoint(lastParagraphView, x, -1, VerticalDirection.UP)
-                        + (textArea.getLength() - lastParagraphView.getText().length());
+                        + (windowEnd - lastParagraphView.getText().length());
             } else {
                 // Select the character at x in the row at y
-                int paragraphOffset = 0;
+                int paragraphOffset = windowStart;
                 for (int i = 0; i < n; i++) {
                     Text paragraphNode = (Text)paragraphNodes.getChildren().get(i);
 
@@ -955,8 +1030,11 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
     @Override public Rectangle2D getCharacterBounds(int index) {
         TextArea textArea = getSkinnable();
 
+        int paragraph = paragraphTable.getParagraphIndex(index);
+        showParagraphs(paragraph, paragraph);
+
         int paragraphIndex = paragraphNodes.getChildren().size();
-        int paragraphOffset = textArea.getLength() + 1;
+        int paragraphOffset = windowEnd + 1;
 
         Text paragraphNode = null;
         do {
@@ -1034,6 +1112,10 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
         }
     }
 
+    private ParagraphMetrics getParagraphMetrics(Text paragraphNode) {
+        return paragraphMetrics.computeIfAbsent(paragraphNode, node -> new ParagraphMetrics());
+    }
+
     private void addParagraphNode(int i, String string) {
         final TextArea textArea = getSkinnable();
         Text paragraphNode = new Text(string);
@@ -1185,6 +1267,141 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
         textNode.caretBiasProperty().set(isForwardBias());
     }
 
+    /*
+     * Returns true if only the paragraphs in and around the viewport should
+     * be given to the text node. This requires every paragraph to be exactly
+     * one line high, so that the position of each paragraph is known without
+     * laying out the paragraphs above it.
+     */
+    private boolean isVirtualized() {
+        if (USE_MULTIPLE_NODES || textArea.isWrapText()) {
+            return false;
+        }
+        Text textNode = getTextNode();
+        return textNode.getBoundsType() != TextBoundsType.VISUAL && textNode.getLineSpacing() == 0;
+    }
+
+    /*
+     * Sets the text node to hold paragraphs first to last (inclusive), or the
+     * whole text when the text area is not virtualized.
+     */
+    private void updateWindow(int first, int last) {
+        List<CharSequence> paragraphs = textArea.getParagraphs();
+        int n = paragraphs.size();
+
+        windowVirtualized = isVirtualized();
+        if (windowVirtualized) {
+            windowFirst = Math.max(0, Math.min(first, n - 1));
+            windowLast = Math.max(windowFirst, Math.min(last, n - 1));
+            windowStart = paragraphTable.getParagraphStart(windowFirst);
+
+            StringBuilder text = new StringBuilder();
+            for (int i = windowFirst; i <= windowLast; i++) {
+                if (i > windowFirst) {
+                    text.append('\n');
+                }
+                text.append(paragraphs.get(i));
+            }
+            windowEnd = windowStart + text.length();
+
+            Text textNode = getTextNode();
+            textNode.setText(text.toString());
+            textNode.setY(windowFirst * lineHeight);
+        } else {
+            windowFirst = 0;
+            windowLast = n - 1;
+            windowStart = 0;
+            windowEnd = textArea.getLength();
+
+            if (!USE_MULTIPLE_NODES) {
+                Text textNode = getTextNode();
+                textNode.setText(textArea.textProperty().getValueSafe());
+                textNode.setY(0);
+            }
+        }
+        windowValid = true;
+    }
+
+    /*
+     * Makes sure that the text node holds paragraphs first to last, moving
+     * the window, with a page of paragraphs either side, if it does not.
+     */
+    private void showParagraphs(int first, int last) {
+        if (isVirtualized()) {
+            if (!windowValid || !windowVirtualized || first < windowFirst || last > windowLast) {
+                int margin = getWindowMargin();
+                updateWindow(first - margin, last + margin);
+            }
+        } else if (!windowValid || windowVirtualized) {
+            updateWindow(0, Integer.MAX_VALUE);
+        }
+    }
+
+    /*
+     * Moves the window back to the caret if it has been scrolled away from
+     * it, so that the caret can be moved relative to its current shape.
+     */
+    private void showCaret() {
+        int caretPos = textArea.getCaretPosition();
+        if (isVirtualized() && (!isInWindow(caretPos) || caretPath.getElements().isEmpty())) {
+            int paragraph = paragraphTable.getParagraphIndex(caretPos);
+            showParagraphs(paragraph, paragraph);
+
+            Text textNode = getTextNode();
+            updateTextNodeCaretPos(caretPos - windowStart);
+            caretPath.getElements().setAll(textNode.getCaretShape());
+            caretPath.setLayoutX(textNode.getLayoutX());
+            caretPath.setLayoutY(textNode.getLayoutY());
+        }
+    }
+
+    private boolean isInWindow(int offset) {
+        return windowValid && offset >= windowStart && offset <= windowEnd;
+    }
+
+    private int getWindowMargin() {
+        Bounds viewportBounds = scrollPane.getViewportBounds();
+        double viewportHeight = (viewportBounds != null) ? viewportBounds.getHeight() : 0;
+        int rows = (lineHeight > 0) ? (int) Math.ceil(viewportHeight / lineHeight) : 0;
+        return Math.max(1, Math.max(rows, getSkinnable().getPrefRowCount()));
+    }
+
+    /*
+     * Returns the paragraph at the given y in the coordinates of the text
+     * node, when the text area is virtualized.
+     */
+    private int getParagraphAt(double y) {
+        int paragraph = (lineHeight > 0) ? (int) Math.floor(y / lineHeight) : 0;
+        return Math.max(0, Math.min(paragraph, textArea.getParagraphs().size() - 1));
+    }
+
+    private int getFirstVisibleParagraph() {
+        return getParagraphAt(textArea.getScrollTop() - contentView.snappedTopInset());
+    }
+
+    private int getLastVisibleParagraph() {
+        Bounds viewportBounds = scrollPane.getViewportBounds();
+        double viewportHeight = (viewportBounds != null) ? viewportBounds.getHeight() : 0;
+        return getParagraphAt(textArea.getScrollTop() + viewportHeight - contentView.snappedTopInset());
+    }
+
+    /*
+     * Hit tests the text node at the given point in its local coordinates,
+     * after moving the window to the paragraph at that point. The indices of
+     * the returned HitInfo are offsets into the whole text.
+     */
+    private HitInfo hitTest(Point2D p) {
+        int paragraph = getParagraphAt(p.getY());
+        showParagraphs(paragraph, paragraph);
+
+        HitInfo hit = getTextNode().hitTest(p);
+        if (windowStart == 0) {
+            return hit;
+        }
+        return HitInfoHelper.createHitInfo(hit.getCharIndex() + windowStart,
+                hit.getInsertionIndex() + windowStart, hit.isLeading(), null);
+    }
+
 
 
     /**************************************************************************
@@ -1193,6 +1410,151 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
      *
      **************************************************************************/
 
+    /*
+     * Measuring a paragraph requires a full layout of its text, so rather than
+     * remeasuring every paragraph each time the metrics are invalidated, we
+     * remember the last measurement of each paragraph node and only measure it
+     * again when its text, font, bounds type or wrapping width has changed.
+     */
+    private static final class ParagraphMetrics {
+        private String widthText;
+        private Font widthFont;
+        private double width;
+
+        private String heightText;
+        private Font heightFont;
+        private TextBoundsType heightBoundsType;
+        private double heightWrappingWidth;
+        private double height;
+
+        double getWidth(Text paragraphNode) {
+            String text = paragraphNode.getText();
+            Font font = paragraphNode.getFont();
+            if (text != widthText || !font.equals(widthFont)) {
+                width = Utils.computeTextWidth(font, text, 0);
+                widthText = text;
+                widthFont = font;
+            }
+            return width;
+        }
+
+        double getHeight(Text paragraphNode, double wrappingWidth) {
+            String text = paragraphNode.getText();
+            Font font = paragraphNode.getFont();
+            TextBoundsType boundsType = paragraphNode.getBoundsType();
+            if (text != heightText || !font.equals(heightFont)
+                    || boundsType != heightBoundsType || wrappingWidth != heightWrappingWidth) {
+                height = Utils.computeTextHeight(font, text, wrappingWidth, boundsType);
+                heightText = text;
+                heightFont = font;
+                heightBoundsType = boundsType;
+                heightWrappingWidth = wrappingWidth;
+            }
+            return height;
+        }
+    }
+
+    /*
+     * Keeps the start offset and the width of each paragraph of the text area
+     * in step with TextArea.getParagraphs(), so that a virtualized text area
+     * can map offsets to paragraphs and size its content without laying out
+     * the whole text. The offsets are recomputed lazily from the first edited
+     * paragraph onwards, and each width is measured once and remembered until
+     * the paragraph or the font changes.
+     */
+    private static final class ParagraphTable {
+        private final List<CharSequence> paragraphs;
+
+        private int[] offsets = new int[16];
+        private int validOffsetCount = 1;
+
+        private double[] widths;
+        private int widthCount;
+        private Font widthFont;
+
+        ParagraphTable(List<CharSequence> paragraphs) {
+            this.paragraphs = paragraphs;
+            widthCount = paragraphs.size();
+            widths = new double[Math.max(16, widthCount)];
+            Arrays.fill(widths, Double.NaN);
+        }
+
+        void paragraphsChanged(ListChangeListener.Change<? extends CharSequence> change) {
+            while (change.next()) {
+                int from = change.getFrom();
+                int removedSize = change.getRemovedSize();
+                int addedSize = change.getAddedSize();
+
+                int newWidthCount = widthCount + addedSize - removedSize;
+                if (newWidthCount > widths.length) {
+                    widths = Arrays.copyOf(widths, Math.max(newWidthCount, widths.length * 2));
+                }
+                System.arraycopy(widths, from + removedSize, widths, from + addedSize,
+                        widthCount - from - removedSize);
+                Arrays.fill(widths, from, from + addedSize, Double.NaN);
+                widthCount = newWidthCount;
+
+                validOffsetCount = Math.max(1, Math.min(validOffsetCount, from + 1));
+            }
+        }
+
+        int getParagraphStart(int paragraphIndex) {
+            updateOffsets(paragraphIndex + 1);
+            return offsets[paragraphIndex];
+        }
+
+        /*
+         * Returns the index of the paragraph that contains the given offset,
+         * where the offset of the line break that terminates a paragraph is
+         * considered to be part of that paragraph.
+         */
+        int getParagraphIndex(int offset) {
+            int paragraphCount = paragraphs.size();
+            updateOffsets(paragraphCount);
+
+            // find the last paragraph that starts at or before the offset
+            int lo = 0;
+            int hi = paragraphCount - 1;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (offsets[mid] <= offset) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return lo;
+        }
+
+        double getMaxWidth(Font font) {
+            if (!font.equals(widthFont)) {
+                Arrays.fill(widths, 0, widthCount, Double.NaN);
+                widthFont = font;
+            }
+
+            double maxWidth = 0;
+            for (int i = 0; i < widthCount; i++) {
+                if (Double.isNaN(widths[i])) {
+                    widths[i] = Utils.computeTextWidth(font, paragraphs.get(i).toString(), 0);
+                }
+                maxWidth = Math.max(maxWidth, widths[i]);
+            }
+            return maxWidth;
+        }
+
+        private void updateOffsets(int count) {
+            if (validOffsetCount < count) {
+                if (offsets.length < count) {
+                    offsets = Arrays.copyOf(offsets, Math.max(count, offsets.length * 2));
+                }
+                for (int i = validOffsetCount; i < count; i++) {
+                    offsets[i] = offsets[i - 1] + paragraphs.get(i - 1).length() + 1;
+                }
+                validOffsetCount = count;
+            }
+        }
+    }
+
     private class ContentView extends Region {
         {
             getStyleClass().add("content");
@@ -1225,11 +1587,14 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
             if (computedPrefWidth < 0) {
                 double prefWidth = 0;
 
-                for (Node node : paragraphNodes.getChildren()) {
-                    Text paragraphNode = (Text)node;
-                    prefWidth = Math.max(prefWidth,
-                            Utils.computeTextWidth(paragraphNode.getFont(),
-                                    paragraphNode.getText(), 0));
+                if (isVirtualized()) {
+                    prefWidth = paragraphTable.getMaxWidth(getSkinnable().getFont());
+                } else {
+                    for (Node node : paragraphNodes.getChildren()) {
+                        Text paragraphNode = (Text)node;
+                        prefWidth = Math.max(prefWidth,
+                                getParagraphMetrics(paragraphNode).getWidth(paragraphNode));
+                    }
                 }
 
                 prefWidth += snappedLeftInset() + snappedRightInset();
@@ -1256,13 +1621,13 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
 
                 double prefHeight = 0;
 
-                for (Node node : paragraphNodes.getChildren()) {
-                    Text paragraphNode = (Text)node;
-                    prefHeight += Utils.computeTextHeight(
-                            paragraphNode.getFont(),
-                            paragraphNode.getText(),
-                            wrappingWidth,
-                            paragraphNode.getBoundsType());
+                if (isVirtualized()) {
+                    prefHeight = getSkinnable().getParagraphs().size() * lineHeight;
+                } else {
+                    for (Node node : paragraphNodes.getChildren()) {
+                        Text paragraphNode = (Text)node;
+                        prefHeight += getParagraphMetrics(paragraphNode).getHeight(paragraphNode, wrappingWidth);
+                    }
                 }
 
                 prefHeight += snappedTopInset() + snappedBottomInset();
@@ -1301,6 +1666,32 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
 
             double y = topPadding;
 
+            // Give the text node the paragraphs in the viewport, and the caret
+            // if it has moved, so that it can be scrolled to
+            int caretPos = textArea.getCaretPosition();
+            int anchorPos = textArea.getAnchor();
+            boolean caretMoved = caretPos != lastLayoutCaretPosition;
+            lastLayoutCaretPosition = caretPos;
+
+            if (isVirtualized()) {
+                int first = getFirstVisibleParagraph();
+                int last = getLastVisibleParagraph();
+                if (caretMoved) {
+                    int caretParagraph = paragraphTable.getParagraphIndex(caretPos);
+                    int margin = getWindowMargin();
+                    if (caretParagraph >= first - margin && caretParagraph <= last + margin) {
+                        first = Math.min(first, caretParagraph);
+                        last = Math.max(last, caretParagraph);
+                    } else {
+                        first = last = caretParagraph;
+                    }
+                }
+                showParagraphs(first, last);
+                getTextNode().setY(windowFirst * lineHeight);
+            } else {
+                showParagraphs(0, Integer.MAX_VALUE);
+            }
+
             final List<Node> paragraphNodesChildren = paragraphNodes.getChildren();
 
             for (int i = 0; i < paragraphNodesChildren.size(); i++) {
@@ -1324,12 +1715,10 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
             // Update the selection
             IndexRange selection = textArea.getSelection();
             Bounds oldCaretBounds = caretPath.getBoundsInParent();
+            boolean caretWasShown = !caretPath.getElements().isEmpty();
 
             selectionHighlightGroup.getChildren().clear();
 
-            int caretPos = textArea.getCaretPosition();
-            int anchorPos = textArea.getAnchor();
-
             if (SHOW_HANDLES) {
                 // Install and resize the handles for caret and anchor.
                 if (selection.getLength() > 0) {
@@ -1344,9 +1733,9 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
 
                 // Position the handle for the anchor. This could be handle1 or handle2.
                 // Do this before positioning the actual caret.
-                if (selection.getLength() > 0) {
+                if (selection.getLength() > 0 && isInWindow(anchorPos)) {
                     int paragraphIndex = paragraphNodesChildren.size();
-                    int paragraphOffset = textArea.getLength() + 1;
+                    int paragraphOffset = windowEnd + 1;
                     Text paragraphNode = null;
                     do {
                         paragraphNode = (Text)paragraphNodesChildren.get(--paragraphIndex);
@@ -1370,10 +1759,10 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
                 }
             }
 
-            {
+            if (isInWindow(caretPos)) {
                 // Position caret
                 int paragraphIndex = paragraphNodesChildren.size();
-                int paragraphOffset = textArea.getLength() + 1;
+                int paragraphOffset = windowEnd + 1;
 
                 Text paragraphNode = null;
                 do {
@@ -1392,14 +1781,21 @@ public class TextAreaSkin extends TextInputControlSkin<TextArea> {
                 paragraphNode.setLayoutX(2 * paragraphNode.getLayoutX() - paragraphNode.getBoundsInParent().getMinX());
 
                 caretPath.setLayoutY(paragraphNode.getLayoutY());
-                if (oldCaretBounds == null || !oldCaretBounds.equals(caretPath.getBoundsInParent())) {
+
+                // Don't scroll back to a caret that has only come back into
+                // the window because the text area was scrolled
+                if ((oldCaretBounds == null || !oldCaretBounds.equals(caretPath.getBoundsInParent()))
+                        && (caretWasShown || caretMoved)) {
                     scrollCaretToVisible();
                 }
+            } else {
+                // The caret has been scrolled out of the window
+                caretPath.getElements().clear();
             }
 
             // Update selection fg and bg
-            int start = selection.getStart();
-            int end = selection.getEnd();
+            int start = Math.max(0, selection.getStart() - windowStart);
+            int end = Math.max(0, selection.getEnd() - windowStart);
             for (int i = 0, max = paragraphNodesChildren.size(); i < max; i++) {
                 Node paragraphNode = paragraphNodesChildren.get(i);
                 Text textNode = (Text)paragraphNode;
@@ -143,10 +143,18 @@ public class TreeTableRowSkin<T> extends TableRowSkinBase<TreeItem<T>, TreeTable
                 registerChangeListener(fixedCellSizeProperty, e -> {
                     fixedCellSize = fixedCellSizeProperty.get();
                     fixedCellSizeEnabled = fixedCellSize > 0;
+                    requestCellUpdate();
                 });
                 fixedCellSize = fixedCellSizeProperty.get();
                 fixedCellSizeEnabled = fixedCellSize > 0;
 
+                // the cells were created before we knew whether a fixed cell
+                // size is set, so the cells outside of the viewport must now
+                // be parked (see TableRowSkinBase.updateCellIndex)
+                if (fixedCellSizeEnabled) {
+                    updateCells = true;
+                }
+
                 // JDK-8144500:
                 // When in fixed cell size mode, we must listen to the width of the virtual flow, so
                 // that when it changes, we can appropriately add / remove cells that may or may not
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene.control.skin;
+
+import java.util.List;
+import javafx.scene.control.TableColumnBase;
+
+public class ColumnWidthIndexShim {
+
+    private final ColumnWidthIndex index = new ColumnWidthIndex();
+
+    public void update(List<? extends TableColumnBase> columns) {
+        index.update(columns);
+    }
+
+    public int getColumnCount() {
+        return index.getColumnCount();
+    }
+
+    public double getColumnStart(int column) {
+        return index.getColumnStart(column);
+    }
+
+    public double getColumnEnd(int column) {
+        return index.getColumnEnd(column);
+    }
+
+    public double getTotalWidth() {
+        return index.getTotalWidth();
+    }
+
+    public int indexOf(TableColumnBase<?,?> column) {
+        return index.indexOf(column);
+    }
+
+    public int getColumnIndexAt(double x) {
+        return index.getColumnIndexAt(x);
+    }
+
+    public boolean isColumnVisible(int column, double viewportStart, double viewportEnd) {
+        return index.isColumnVisible(column, viewportStart, viewportEnd);
+    }
+}
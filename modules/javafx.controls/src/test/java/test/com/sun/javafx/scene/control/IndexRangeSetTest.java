@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.scene.control;
+
+import com.sun.javafx.scene.control.IndexRangeSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IndexRangeSetTest {
+
+    @Test public void emptySet() {
+        IndexRangeSet set = new IndexRangeSet();
+        assertTrue(set.isEmpty());
+        assertEquals(0, set.size());
+        assertEquals(0, set.getRangeCount());
+        assertFalse(set.contains(0));
+        assertEquals(-1, set.indexOf(0));
+        assertTrue(set.asList().isEmpty());
+    }
+
+    @Test public void adjacentRangesAreMerged() {
+        IndexRangeSet set = new IndexRangeSet();
+        set.add(0, 5);
+        set.add(5, 10);
+        assertEquals(1, set.getRangeCount());
+        assertEquals(10, set.size());
+        assertEquals(0, set.getRangeStart(0));
+        assertEquals(10, set.getRangeEnd(0));
+    }
+
+    @Test public void overlappingRangesAreMerged() {
+        IndexRangeSet set = new IndexRangeSet();
+        set.add(10, 20);
+        set.add(30, 40);
+        set.add(0, 5);
+        assertEquals(3, set.getRangeCount());
+
+        set.add(15, 35);
+        assertEquals(2, set.getRangeCount());
+        assertEquals(35, set.size());
+        assertEquals(10, set.getRangeStart(1));
+        assertEquals(40, set.getRangeEnd(1));
+    }
+
+    @Test public void removeSplitsRange() {
+        IndexRangeSet set = new IndexRangeSet();
+        set.add(0, 10);
+        set.remove(3, 6);
+        assertEquals(2, set.getRangeCount());
+        assertEquals(7, set.size());
+        assertEquals(Arrays.asList(0, 1, 2, 6, 7, 8, 9), set.asList());
+    }
+
+    @Test public void removeAcrossRanges() {
+        IndexRangeSet set = new IndexRangeSet();
+        set.add(0, 5);
+        set.add(10, 15);
+        set.add(20, 25);
+        set.remove(3, 22);
+        assertEquals(Arrays.asList(0, 1, 2, 22, 23, 24), set.asList());
+    }
+
+    @Test public void getAndIndexOf() {
+        IndexRangeSet set = new IndexRangeSet();
+        set.add(5, 8);
+        set.add(100, 102);
+        List<Integer> list = set.asList();
+        assertEquals(Arrays.asList(5, 6, 7, 100, 101), list);
+        assertEquals(3, set.indexOf(100));
+        assertEquals(-1, set.indexOf(8));
+        assertEquals(4, list.indexOf(101));
+        assertTrue(list.contains(6));
+        assertFalse(list.contains(99));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutOfBounds() {
+        IndexRangeSet set = new IndexRangeSet();
+        set.add(0, 2);
+        set.get(2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void addInvalidRange() {
+        new IndexRangeSet().add(5, 4);
+    }
+
+    @Test public void hugeRangeIsCompact() {
+        IndexRangeSet set = new IndexRangeSet();
+        set.add(0, 1_000_000);
+        assertEquals(1, set.getRangeCount());
+        assertEquals(1_000_000, set.size());
+        assertEquals(999_999, (int) set.asList().get(999_999));
+    }
+
+    @Test public void createFromBitSet() {
+        BitSet bitset = new BitSet();
+        bitset.set(1, 4);
+        bitset.set(7);
+        bitset.set(64, 130);
+        IndexRangeSet set = IndexRangeSet.of(bitset);
+        assertEquals(3, set.getRangeCount());
+        assertEquals(bitset.cardinality(), set.size());
+        assertArrayEquals(bitset.stream().toArray(),
+                set.asList().stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Test public void matchesBitSetForRandomOperations() {
+        Random random = new Random(42);
+        BitSet expected = new BitSet();
+        IndexRangeSet set = new IndexRangeSet();
+        for (int i = 0; i < 2000; i++) {
+            int from = random.nextInt(500);
+            int to = from + random.nextInt(20);
+            if (random.nextBoolean()) {
+                expected.set(from, to);
+                set.add(from, to);
+            } else {
+                expected.clear(from, to);
+                set.remove(from, to);
+            }
+            assertEquals(expected.cardinality(), set.size());
+            int probe = random.nextInt(520);
+            assertEquals(expected.get(probe), set.contains(probe));
+        }
+        assertArrayEquals(expected.stream().toArray(),
+                set.asList().stream().mapToInt(Integer::intValue).toArray());
+        assertEquals(IndexRangeSet.of(expected).getRangeCount(), set.getRangeCount());
+    }
+}
@@ -24,7 +24,9 @@
  */
 package test.com.sun.javafx.scene.control.infrastructure;
 
+import javafx.scene.control.Control;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableColumnBase;
 import javafx.scene.control.skin.TableColumnHeader;
 import javafx.scene.control.skin.TableColumnHeaderShim;
 
@@ -47,4 +49,13 @@ public class TableColumnHeaderUtil {
         TableColumnHeaderShim.columnReorderingComplete(colHeader);
     }
 
+    public static void resizeColumnToFitContent(TableColumn col, int cellsToMeasure) {
+        resizeColumnToFitContent(col.getTableView(), col, cellsToMeasure);
+    }
+
+    public static void resizeColumnToFitContent(Control table, TableColumnBase col, int cellsToMeasure) {
+        TableColumnHeader colHeader = VirtualFlowTestUtils.getTableColumnHeader(table, col);
+        TableColumnHeaderShim.resizeColumnToFitContent(colHeader, cellsToMeasure);
+    }
+
 }
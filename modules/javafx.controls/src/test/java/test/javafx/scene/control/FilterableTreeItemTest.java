@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.javafx.scene.control;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.ListChangeListener;
+import javafx.scene.control.FilterableTreeItem;
+import javafx.scene.control.TreeItem;
+import javafx.scene.control.TreeTableColumn;
+import javafx.scene.control.TreeTableView;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FilterableTreeItemTest {
+
+    private FilterableTreeItem<String> root;
+    private FilterableTreeItem<String> citrus;
+    private TreeItem<String> lemon;
+    private TreeItem<String> lime;
+    private TreeItem<String> apple;
+    private TreeItem<String> banana;
+
+    @Before public void setup() {
+        root = new FilterableTreeItem<>("Fruit");
+        citrus = new FilterableTreeItem<>("Citrus");
+        lemon = new TreeItem<>("Lemon");
+        lime = new TreeItem<>("Lime");
+        apple = new TreeItem<>("Apple");
+        banana = new TreeItem<>("Banana");
+
+        citrus.getSourceChildren().addAll(lemon, lime);
+        root.getSourceChildren().addAll(apple, citrus, banana);
+    }
+
+    private static void assertChildren(TreeItem<String> item, TreeItem<?>... expected) {
+        assertEquals(List.of(expected), item.getChildren());
+    }
+
+    @Test public void testAllChildrenPassWithoutPredicate() {
+        assertNull(root.getPredicate());
+        assertChildren(root, apple, citrus, banana);
+        assertChildren(citrus, lemon, lime);
+        assertSame(root, citrus.getParent());
+        assertSame(citrus, lime.getParent());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testChildrenAreUnmodifiable() {
+        root.getChildren().add(new TreeItem<>("Cherry"));
+    }
+
+    @Test public void testPredicateFiltersChildren() {
+        root.setPredicate(s -> s.startsWith("B"));
+        assertChildren(root, banana);
+        assertNull(apple.getParent());
+        assertNull(citrus.getParent());
+        assertEquals(3, root.getSourceChildren().size());
+    }
+
+    @Test public void testAncestorsOfMatchingItemsAreRetained() {
+        root.setPredicate(s -> s.startsWith("Li"));
+        assertChildren(root, citrus);
+        assertChildren(citrus, lime);
+        assertFalse(citrus.isLeaf());
+
+        root.setPredicate(s -> s.startsWith("X"));
+        assertChildren(root);
+        assertChildren(citrus);
+        assertTrue(root.isLeaf());
+    }
+
+    @Test public void testOwnPredicateOverridesInheritedPredicate() {
+        citrus.setPredicate(s -> s.startsWith("Le"));
+        root.setPredicate(s -> s.startsWith("A"));
+        assertChildren(root, apple, citrus);
+        assertChildren(citrus, lemon);
+
+        citrus.setPredicate(null);
+        assertChildren(root, apple);
+        assertChildren(citrus);
+    }
+
+    @Test public void testRemovingPredicateShowsChildrenInSourceOrder() {
+        root.setPredicate(s -> s.startsWith("C"));
+        assertChildren(root, citrus);
+
+        root.setPredicate(null);
+        assertChildren(root, apple, citrus, banana);
+        assertChildren(citrus, lemon, lime);
+    }
+
+    @Test public void testFilterChangesOnlyModifyChangedChildren() {
+        root.setPredicate(s -> !s.equals("Banana"));
+        assertChildren(root, apple, citrus);
+
+        List<String> changes = new ArrayList<>();
+        root.getChildren().addListener((ListChangeListener<TreeItem<String>>) c -> {
+            while (c.next()) {
+                changes.add(c.getFrom() + (c.wasAdded() ? "+" : "-") + (c.wasAdded() ? c.getAddedSize() : c.getRemovedSize()));
+            }
+        });
+
+        root.setPredicate(s -> !s.equals("Apple"));
+        assertChildren(root, citrus, banana);
+        assertEquals(List.of("0-1", "1+1"), changes);
+    }
+
+    @Test public void testSourceChildrenChangesAreFiltered() {
+        root.setPredicate(s -> s.startsWith("B") || s.startsWith("C"));
+        TreeItem<String> cherry = new TreeItem<>("Cherry");
+        TreeItem<String> date = new TreeItem<>("Date");
+        root.getSourceChildren().addAll(0, List.of(cherry, date));
+        assertChildren(root, cherry, citrus, banana);
+
+        root.getSourceChildren().remove(citrus);
+        assertChildren(root, cherry, banana);
+        assertNull(citrus.getParent());
+    }
+
+    @Test public void testValueChangesAreFiltered() {
+        root.setPredicate(s -> s.startsWith("B"));
+        assertChildren(root, banana);
+
+        apple.setValue("Blueberry");
+        assertChildren(root, apple, banana);
+
+        lime.setValue("Blackcurrant");
+        assertChildren(root, apple, citrus, banana);
+        assertChildren(citrus, lime);
+
+        lime.setValue("Lime");
+        assertChildren(root, apple, banana);
+    }
+
+    @Test public void testAddedItemsInheritPredicate() {
+        root.setPredicate(s -> s.startsWith("Le"));
+        FilterableTreeItem<String> berries = new FilterableTreeItem<>("Berries");
+        berries.getSourceChildren().addAll(new TreeItem<>("Strawberry"), new TreeItem<>("Lemonberry"));
+        assertChildren(berries, berries.getSourceChildren().toArray(new TreeItem<?>[0]));
+
+        root.getSourceChildren().add(berries);
+        assertChildren(root, citrus, berries);
+        assertChildren(berries, berries.getSourceChildren().get(1));
+    }
+
+    @Test public void testShownChildrenAreMergedIntoSortOrder() {
+        TreeTableView<String> table = new TreeTableView<>(root);
+        root.setExpanded(true);
+        TreeTableColumn<String, String> col = new TreeTableColumn<>("column");
+        col.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getValue()));
+        col.setSortType(TreeTableColumn.SortType.DESCENDING);
+        table.getColumns().add(col);
+        table.getSortOrder().add(col);
+        assertChildren(root, citrus, banana, apple);
+
+        root.setPredicate(s -> !s.equals("Banana"));
+        assertChildren(root, citrus, apple);
+
+        root.setPredicate(null);
+        assertChildren(root, citrus, banana, apple);
+    }
+}
@@ -5426,4 +5426,78 @@ public class TableViewTest {
 
         sl.dispose();
     }
+
+    @Test public void testResizeColumnToFitContentWithDefaultCellFactory() {
+        // the default cell factory uses the fast text measurement path, so
+        // compare it against an equivalent custom cell factory, which measures
+        // every cell
+        TableColumn<String, String> defaultColumn = new TableColumn<>("Column");
+        defaultColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue()));
+
+        TableColumn<String, String> customColumn = new TableColumn<>("Column");
+        customColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue()));
+        customColumn.setCellFactory(param -> new TableCell<String, String>() {
+            @Override protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item);
+            }
+        });
+
+        table.getColumns().setAll(defaultColumn, customColumn);
+        table.getItems().setAll("a", "a much longer item than the others", null, "medium item", "a");
+        StageLoader sl = new StageLoader(table);
+
+        TableColumnHeaderUtil.resizeColumnToFitContent(defaultColumn, -1);
+        TableColumnHeaderUtil.resizeColumnToFitContent(customColumn, -1);
+        assertTrue(defaultColumn.getWidth() > 0);
+        assertEquals(customColumn.getWidth(), defaultColumn.getWidth(), 0.001);
+
+        // only the first row is measured, so the column should be narrower
+        double fullWidth = defaultColumn.getWidth();
+        TableColumnHeaderUtil.resizeColumnToFitContent(defaultColumn, 1);
+        TableColumnHeaderUtil.resizeColumnToFitContent(customColumn, 1);
+        assertTrue(defaultColumn.getWidth() < fullWidth);
+        assertEquals(customColumn.getWidth(), defaultColumn.getWidth(), 0.001);
+
+        sl.dispose();
+    }
+
+    @Test public void testSelectAllRowsFiresOneChangeAndCanBeModified() {
+        for (int i = 0; i < 1000; i++) {
+            table.getItems().add("item " + i);
+        }
+        sm.setSelectionMode(SelectionMode.MULTIPLE);
+        sm.select(5);
+
+        int[] cellChangeCount = new int[1];
+        sm.getSelectedCells().addListener((ListChangeListener) c -> cellChangeCount[0]++);
+
+        sm.selectAll();
+        assertEquals(1, cellChangeCount[0]);
+        assertEquals(1000, sm.getSelectedCells().size());
+        assertEquals(1000, sm.getSelectedIndices().size());
+        assertEquals(1000, sm.getSelectedItems().size());
+        assertEquals("item 999", sm.getSelectedItems().get(999));
+        assertEquals(new TablePosition<>(table, 500, null), sm.getSelectedCells().get(500));
+        assertTrue(sm.isSelected(999));
+        assertEquals(5, sm.getSelectedIndex());
+
+        sm.clearSelection(500);
+        assertEquals(999, sm.getSelectedCells().size());
+        assertEquals(999, sm.getSelectedIndices().size());
+        assertFalse(sm.isSelected(500));
+        assertEquals(501, sm.getSelectedIndices().get(500));
+
+        // selecting a single cell copies the remaining rows back into the
+        // selected cells list
+        sm.select(500);
+        assertEquals(1000, sm.getSelectedCells().size());
+        assertTrue(sm.isSelected(500));
+
+        sm.selectAll();
+        sm.clearSelection();
+        assertTrue(sm.getSelectedCells().isEmpty());
+        assertTrue(sm.getSelectedIndices().isEmpty());
+        assertFalse(sm.isSelected(0));
+    }
 }
@@ -482,4 +482,36 @@ public class TextAreaTest {
         dummyTxtArea.deleteText(0,6);
         assertEquals(dummyTxtArea.getParagraphs().get(0).toString(), "another");
     }
+
+    @Test public void getTextRangeSpanningParagraphs() {
+        txtArea.setText("first\nsecond\n\nfourth");
+        assertEquals("st\nsec", txtArea.getText(3, 9));
+        assertEquals("second\n\nfou", txtArea.getText(6, 17));
+        assertEquals("\n", txtArea.getText(13, 14));
+        assertEquals("", txtArea.getText(5, 5));
+        assertEquals("fourth", txtArea.getText(14, 20));
+    }
+
+    @Test public void editsInTheMiddleKeepTextAndParagraphsConsistent() {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            txtArea.appendText("line " + i + "\n");
+            expected.append("line ").append(i).append('\n');
+        }
+
+        txtArea.insertText(20, "abc\ndef");
+        expected.insert(20, "abc\ndef");
+        txtArea.deleteText(300, 350);
+        expected.delete(300, 350);
+        txtArea.replaceText(5, 12, "x");
+        expected.replace(5, 12, "x");
+
+        assertEquals(expected.toString(), txtArea.getText());
+        assertEquals(expected.substring(250, 400), txtArea.getText(250, 400));
+        String[] lines = expected.toString().split("\n", -1);
+        assertEquals(lines.length, txtArea.getParagraphs().size());
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(lines[i], txtArea.getParagraphs().get(i).toString());
+        }
+    }
 }
@@ -89,6 +89,7 @@ import org.junit.Test;
 import com.sun.javafx.scene.control.TableColumnComparatorBase.TreeTableColumnComparator;
 import test.com.sun.javafx.scene.control.infrastructure.ControlTestUtils;
 import test.com.sun.javafx.scene.control.infrastructure.StageLoader;
+import test.com.sun.javafx.scene.control.infrastructure.TableColumnHeaderUtil;
 import test.com.sun.javafx.scene.control.infrastructure.VirtualFlowTestUtils;
 import com.sun.javafx.scene.control.VirtualScrollBar;
 import test.com.sun.javafx.scene.control.test.Person;
@@ -517,6 +518,90 @@ public class TreeTableViewTest {
         treeTableView.sort();
     }
 
+    @Test public void testSortDoesNotPermuteAlreadySortedChildren() {
+        TreeTableColumn<String, String> col = initSortTestStructure();
+        apple.setExpanded(true);
+        apple.getChildren().addAll(new TreeItem<>("a"), new TreeItem<>("b"), new TreeItem<>("c"));
+
+        AtomicInteger applePermutations = new AtomicInteger();
+        apple.addEventHandler(TreeItem.<String>childrenModificationEvent(), e -> {
+            if (e.getTreeItem() == apple && e.wasPermutated()) {
+                applePermutations.incrementAndGet();
+            }
+        });
+
+        treeTableView.getSortOrder().add(col);
+        VirtualFlowTestUtils.assertListContainsItemsInOrder(treeTableView.getRoot().getChildren(), apple, banana, orange);
+
+        // the children of apple were already in ascending order
+        assertEquals(0, applePermutations.get());
+
+        col.setSortType(DESCENDING);
+        VirtualFlowTestUtils.assertListContainsItemsInOrder(treeTableView.getRoot().getChildren(), orange, banana, apple);
+        assertEquals("c", apple.getChildren().get(0).getValue());
+        assertEquals(1, applePermutations.get());
+    }
+
+    @Test public void testSortKeepsSelectionOnPermutedChildren() {
+        TreeTableColumn<String, String> col = initSortTestStructure();
+        treeTableView.setShowRoot(false);
+        treeTableView.getSelectionModel().select(orange);
+        assertEquals(1, treeTableView.getSelectionModel().getSelectedIndex());
+
+        treeTableView.getSortOrder().add(col);
+        VirtualFlowTestUtils.assertListContainsItemsInOrder(treeTableView.getRoot().getChildren(), apple, banana, orange);
+        assertEquals(orange, treeTableView.getSelectionModel().getSelectedItem());
+        assertEquals(2, treeTableView.getSelectionModel().getSelectedIndex());
+    }
+
+    @Test public void testParallelSortPolicySortsExpandedSubtrees() {
+        TreeTableColumn<String, String> col = initSortTestStructure();
+        apple.setExpanded(true);
+        apple.getChildren().addAll(new TreeItem<>("c"), new TreeItem<>("a"), new TreeItem<>("b"));
+        banana.setExpanded(true);
+        banana.getChildren().addAll(new TreeItem<>("a"), new TreeItem<>("b"));
+
+        AtomicInteger applePermutations = new AtomicInteger();
+        AtomicInteger bananaPermutations = new AtomicInteger();
+        treeTableView.getRoot().addEventHandler(TreeItem.<String>childrenModificationEvent(), e -> {
+            if (e.wasPermutated()) {
+                if (e.getTreeItem() == apple) applePermutations.incrementAndGet();
+                if (e.getTreeItem() == banana) bananaPermutations.incrementAndGet();
+            }
+        });
+
+        treeTableView.setSortPolicy((Callback<TreeTableView<String>, Boolean>)(Object) TreeTableView.PARALLEL_SORT_POLICY);
+        treeTableView.getSortOrder().add(col);
+        VirtualFlowTestUtils.assertListContainsItemsInOrder(treeTableView.getRoot().getChildren(), apple, banana, orange);
+
+        // apple was sorted up front, banana was already in order
+        assertEquals(1, applePermutations.get());
+        assertEquals(0, bananaPermutations.get());
+        assertEquals("a", apple.getChildren().get(0).getValue());
+        assertEquals("b", apple.getChildren().get(1).getValue());
+        assertEquals("c", apple.getChildren().get(2).getValue());
+        assertEquals(1, applePermutations.get());
+
+        col.setSortType(DESCENDING);
+        VirtualFlowTestUtils.assertListContainsItemsInOrder(treeTableView.getRoot().getChildren(), orange, banana, apple);
+        assertEquals("c", apple.getChildren().get(0).getValue());
+        assertEquals("b", banana.getChildren().get(0).getValue());
+        assertEquals(2, applePermutations.get());
+        assertEquals(1, bananaPermutations.get());
+    }
+
+    @Test public void testParallelSortPolicyKeepsSelection() {
+        TreeTableColumn<String, String> col = initSortTestStructure();
+        treeTableView.setShowRoot(false);
+        treeTableView.getSelectionModel().select(orange);
+
+        treeTableView.setSortPolicy((Callback<TreeTableView<String>, Boolean>)(Object) TreeTableView.PARALLEL_SORT_POLICY);
+        treeTableView.getSortOrder().add(col);
+        VirtualFlowTestUtils.assertListContainsItemsInOrder(treeTableView.getRoot().getChildren(), apple, banana, orange);
+        assertEquals(orange, treeTableView.getSelectionModel().getSelectedItem());
+        assertEquals(2, treeTableView.getSelectionModel().getSelectedIndex());
+    }
+
     @Test public void testChangingSortPolicyUpdatesItemsList() {
         TreeTableColumn<String, String> col = initSortTestStructure();
         col.setSortType(DESCENDING);
@@ -6306,4 +6391,42 @@ public class TreeTableViewTest {
                 }
         );
     }
+
+    @Test public void testResizeTreeColumnToFitContentWithNestedItemsAndGraphics() {
+        // the cells of the tree column are indented by their level and show
+        // the graphic of their tree item, so the default cell factory must
+        // measure them the same way as an equivalent custom cell factory
+        TreeItem<String> root = new TreeItem<>("root");
+        TreeItem<String> child = new TreeItem<>("child", new Rectangle(20, 10));
+        TreeItem<String> grandChild = new TreeItem<>("a much longer grand child item", new Rectangle(40, 10));
+        child.getChildren().add(grandChild);
+        root.getChildren().addAll(child, new TreeItem<>("second child"));
+        root.setExpanded(true);
+        child.setExpanded(true);
+
+        TreeTableColumn<String, String> treeColumn = new TreeTableColumn<>("Column");
+        treeColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getValue()));
+        TreeTableColumn<String, String> otherColumn = new TreeTableColumn<>("Other");
+        otherColumn.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue().getValue()));
+
+        treeTableView.setRoot(root);
+        treeTableView.getColumns().setAll(treeColumn, otherColumn);
+        StageLoader sl = new StageLoader(treeTableView);
+
+        TableColumnHeaderUtil.resizeColumnToFitContent(treeTableView, treeColumn, -1);
+        double defaultWidth = treeColumn.getWidth();
+        TableColumnHeaderUtil.resizeColumnToFitContent(treeTableView, otherColumn, -1);
+        assertTrue(defaultWidth > otherColumn.getWidth());
+
+        treeColumn.setCellFactory(param -> new TreeTableCell<String, String>() {
+            @Override protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item);
+            }
+        });
+        TableColumnHeaderUtil.resizeColumnToFitContent(treeTableView, treeColumn, -1);
+        assertEquals(treeColumn.getWidth(), defaultWidth, 0.001);
+
+        sl.dispose();
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.javafx.scene.control.skin;
+
+import java.util.ArrayList;
+import java.util.List;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.skin.ColumnWidthIndexShim;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ColumnWidthIndexTest {
+
+    private List<TableColumn<Object, Object>> columns;
+    private ColumnWidthIndexShim index;
+
+    @Before public void setup() {
+        columns = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            TableColumn<Object, Object> column = new TableColumn<>("c" + i);
+            column.setPrefWidth(50 + (i % 3) * 10);
+            columns.add(column);
+        }
+        index = new ColumnWidthIndexShim();
+        index.update(columns);
+    }
+
+    @Test public void offsetsMatchColumnWidths() {
+        assertEquals(2000, index.getColumnCount());
+        double x = 0;
+        for (int i = 0; i < columns.size(); i++) {
+            assertEquals(x, index.getColumnStart(i), 0.0);
+            x += columns.get(i).getWidth();
+            assertEquals(x, index.getColumnEnd(i), 0.0);
+        }
+        assertEquals(x, index.getTotalWidth(), 0.0);
+    }
+
+    @Test public void columnIndexAtPosition() {
+        assertEquals(-1, index.getColumnIndexAt(-1));
+        assertEquals(0, index.getColumnIndexAt(0));
+        assertEquals(0, index.getColumnIndexAt(49.9));
+        assertEquals(1, index.getColumnIndexAt(50));
+        assertEquals(2, index.getColumnIndexAt(110));
+        assertEquals(1000, index.getColumnIndexAt(index.getColumnStart(1000) + 1));
+        assertEquals(2000, index.getColumnIndexAt(index.getTotalWidth()));
+    }
+
+    @Test public void columnVisibility() {
+        double start = index.getColumnStart(100);
+        double end = start + 400;
+        assertFalse(index.isColumnVisible(98, start, end));
+        assertFalse(index.isColumnVisible(99, start, end));
+        assertTrue(index.isColumnVisible(100, start, end));
+        assertTrue(index.isColumnVisible(105, start, end));
+        assertFalse(index.isColumnVisible(200, start, end));
+    }
+
+    @Test public void updateAfterWidthChange() {
+        columns.get(0).setPrefWidth(200);
+        index.update(columns);
+        assertEquals(200, index.getColumnStart(1), 0.0);
+        assertEquals(0, index.getColumnIndexAt(150));
+    }
+
+    @Test public void updateWithFewerColumns() {
+        index.update(columns.subList(0, 2));
+        assertEquals(2, index.getColumnCount());
+        assertEquals(110, index.getTotalWidth(), 0.0);
+        assertEquals(2, index.getColumnIndexAt(500));
+    }
+
+    @Test public void indexOfColumn() {
+        assertEquals(0, index.indexOf(columns.get(0)));
+        assertEquals(1500, index.indexOf(columns.get(1500)));
+        assertEquals(-1, index.indexOf(new TableColumn<>()));
+
+        // the indices follow the columns given to the last update
+        List<TableColumn<Object, Object>> reordered = new ArrayList<>(columns);
+        reordered.add(0, reordered.remove(1500));
+        index.update(reordered);
+        assertEquals(0, index.indexOf(columns.get(1500)));
+        assertEquals(1, index.indexOf(columns.get(0)));
+
+        index.update(columns.subList(0, 2));
+        assertEquals(-1, index.indexOf(columns.get(1500)));
+    }
+}
@@ -26,16 +26,27 @@
 package test.javafx.scene.control.skin;
 
 import com.sun.javafx.tk.Toolkit;
+import java.util.List;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.control.IndexedCell;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
+import javafx.scene.control.skin.NestedTableColumnHeader;
+import javafx.scene.control.skin.TableColumnHeader;
 import javafx.scene.control.skin.TableHeaderRow;
+import javafx.scene.control.skin.TableRowSkinBase;
+import javafx.scene.control.skin.TableRowSkinBaseShim;
 import javafx.scene.control.skin.TableViewSkin;
 import javafx.stage.Stage;
 import org.junit.Test;
+import test.com.sun.javafx.scene.control.infrastructure.VirtualFlowTestUtils;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 public class TableViewSkinTest {
     @Test
@@ -64,4 +75,55 @@ public class TableViewSkinTest {
         assertEquals("Table Header height specified in CSS",
                       100.0, header.getHeight(), 0.001);
     }
+
+    @Test
+    public void testOnlyColumnsInViewportAreKeptUpToDateWithFixedCellSize() {
+        TableView<String> tableView = new TableView<>();
+        tableView.setFixedCellSize(24);
+        for (int i = 0; i < 50; i++) {
+            TableColumn<String, String> column = new TableColumn<>("Col " + i);
+            column.setPrefWidth(100);
+            column.setCellValueFactory(param -> new ReadOnlyObjectWrapper<>(param.getValue()));
+            tableView.getColumns().add(column);
+        }
+        tableView.getItems().addAll("a", "b", "c");
+
+        Toolkit tk = Toolkit.getToolkit();
+
+        Stage stage = new Stage();
+        stage.setScene(new Scene(tableView, 500, 400));
+        stage.show();
+
+        tk.firePulse();
+
+        TableHeaderRow headerRow = (TableHeaderRow)tableView.lookup("TableHeaderRow");
+        NestedTableColumnHeader rootHeader = headerRow.getRootHeader();
+        TableColumnHeader firstHeader = rootHeader.getColumnHeaders().get(0);
+        TableColumnHeader lastHeader = rootHeader.getColumnHeaders().get(49);
+        assertSame(rootHeader, firstHeader.getParent());
+        assertNull(lastHeader.getParent());
+        // headers outside of the viewport are still sized
+        assertEquals(100, lastHeader.getWidth(), 0.001);
+
+        // cells of columns outside of the viewport are parked at index -1
+        TableRow<String> row = (TableRow<String>) VirtualFlowTestUtils.getCell(tableView, 1);
+        List<IndexedCell> cells = TableRowSkinBaseShim.getCells((TableRowSkinBase<?,?,?>) row.getSkin());
+        assertEquals(1, cells.get(0).getIndex());
+        assertEquals("b", cells.get(0).getItem());
+        assertEquals(-1, cells.get(49).getIndex());
+        assertNull(cells.get(49).getItem());
+
+        tableView.scrollToColumnIndex(49);
+        tk.firePulse();
+
+        assertNull(firstHeader.getParent());
+        assertSame(rootHeader, lastHeader.getParent());
+
+        row = (TableRow<String>) VirtualFlowTestUtils.getCell(tableView, 1);
+        cells = TableRowSkinBaseShim.getCells((TableRowSkinBase<?,?,?>) row.getSkin());
+        assertEquals(1, cells.get(49).getIndex());
+        assertEquals("b", cells.get(49).getItem());
+
+        stage.hide();
+    }
 }
@@ -25,13 +25,20 @@
 
 package test.javafx.scene.control.skin;
 
+import com.sun.javafx.tk.Toolkit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.scene.Node;
+import javafx.scene.Scene;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.PasswordField;
 import javafx.scene.control.skin.TextAreaSkin;
 import javafx.scene.control.skin.TextFieldSkin;
+import javafx.scene.text.HitInfo;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
 import org.junit.Test;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -92,6 +99,79 @@ public class TextInputControlSkinTest {
         passwordField.setText(null);
     }
 
+    @Test public void textAreaOnlyLaysOutParagraphsAroundTheViewport() {
+        TextArea textArea = createLongTextArea();
+        Text textNode = getTextNode(textArea);
+
+        assertTrue(textNode.getText().startsWith("line 0\n"));
+        assertTrue(textNode.getText().length() < textArea.getLength() / 10);
+
+        textArea.setScrollTop(Double.MAX_VALUE);
+        Toolkit.getToolkit().firePulse();
+
+        assertTrue(textNode.getText().endsWith("\nline 9999"));
+        assertFalse(textNode.getText().contains("line 0\n"));
+        assertTrue(textNode.getText().length() < textArea.getLength() / 10);
+    }
+
+    @Test public void virtualizedTextAreaHitTestsTheWholeText() {
+        TextArea textArea = createLongTextArea();
+        TextAreaSkin skin = (TextAreaSkin) textArea.getSkin();
+        double lineHeight = textArea.getFont().getSize();
+
+        HitInfo hit = skin.getIndex(0, (5000.5 * lineHeight));
+        assertEquals(getParagraphStart(textArea, 5000), hit.getCharIndex());
+        assertTrue(getTextNode(textArea).getText().contains("\nline 5000\n"));
+    }
+
+    @Test public void virtualizedTextAreaLaysOutTheParagraphOfAMovedCaret() {
+        TextArea textArea = createLongTextArea();
+
+        textArea.positionCaret(getParagraphStart(textArea, 5000) + 3);
+        Toolkit.getToolkit().firePulse();
+        assertTrue(getTextNode(textArea).getText().contains("\nline 5000\n"));
+
+        // scrolling away from the caret lays out the paragraphs in view
+        textArea.setScrollTop(100);
+        Toolkit.getToolkit().firePulse();
+        assertTrue(getTextNode(textArea).getText().startsWith("line 0\n"));
+        assertFalse(getTextNode(textArea).getText().contains("\nline 5000\n"));
+    }
+
+    private TextArea createLongTextArea() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            if (i > 0) {
+                text.append('\n');
+            }
+            text.append("line ").append(i);
+        }
+
+        TextArea textArea = new TextArea(text.toString());
+        Stage stage = new Stage();
+        stage.setScene(new Scene(textArea, 300, 200));
+        stage.show();
+        Toolkit.getToolkit().firePulse();
+        return textArea;
+    }
+
+    private Text getTextNode(TextArea textArea) {
+        for (Node node : textArea.lookupAll(".text")) {
+            if (node instanceof Text && ((Text) node).getText().startsWith("line ")) {
+                return (Text) node;
+            }
+        }
+        return null;
+    }
+
+    private int getParagraphStart(TextArea textArea, int paragraph) {
+        int offset = 0;
+        for (int i = 0; i < paragraph; i++) {
+            offset += textArea.getParagraphs().get(i).length() + 1;
+        }
+        return offset;
+    }
+
     public class FocusableTextField extends TextField {
         public void setFocus(boolean value) {
             super.setFocused(value);
@@ -42,6 +42,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -436,6 +437,38 @@ public class PlatformImpl {
         }
     }
 
+    public static void runWhenIdle(final Runnable r) {
+        Objects.requireNonNull(r);
+        if (!initialized.get()) {
+            throw new IllegalStateException("Toolkit not initialized");
+        }
+
+        pendingRunnables.incrementAndGet();
+        waitForStart();
+
+        synchronized (runLaterLock) {
+            if (toolkitExit.get()) {
+                // Don't schedule a runnable after we have exited the toolkit
+                pendingRunnables.decrementAndGet();
+                return;
+            }
+
+            final AccessControlContext acc = AccessController.getContext();
+            // Exceptions are handled by the FrameBudget
+            Toolkit.getToolkit().runWhenIdle(() -> {
+                try {
+                    AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+                        r.run();
+                        return null;
+                    }, acc);
+                } finally {
+                    pendingRunnables.decrementAndGet();
+                    checkIdle();
+                }
+            });
+        }
+    }
+
     public static void runAndWait(final Runnable r) {
         runAndWait(r, false);
     }
@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.font;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the names of the fonts in font files, for the font files which are
+ * enumerated by opening each of them rather than by asking the platform.
+ *
+ * The names are kept in a persistent cache, keyed by the path of each file
+ * and validated with its size and modification time, so that the files which
+ * have not changed since a previous run do not need to be opened and parsed
+ * again. The files which are not in the cache (or have changed) are parsed in
+ * parallel by a FontNameReader, which only reads and validates the tables
+ * needed, and the fonts themselves are created as usual when they are first
+ * used. The entries of files which no longer exist are dropped.
+ *
+ * The cache is stored in the JavaFX cache directory (see NativeLibLoader)
+ * and may be disabled by setting the prism.fontcache property to false.
+ */
+final class FontFileNameCache {
+
+    static final class FontNames {
+        final String fullName;
+        final String familyName;
+        final String localeFullName;
+        final String localeFamilyName;
+
+        FontNames(String fullName, String familyName,
+                  String localeFullName, String localeFamilyName) {
+            this.fullName = fullName;
+            this.familyName = familyName;
+            this.localeFullName = localeFullName;
+            this.localeFamilyName = localeFamilyName;
+        }
+    }
+
+    private static final String CACHE_FILE = "fontnames.properties";
+    private static final String VERSION = "2";
+
+    // files are only parsed in parallel if there are at least this many
+    private static final int PARALLEL_THRESHOLD = 4;
+
+    private static final boolean cacheEnabled =
+            AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+                    !"false".equals(System.getProperty("prism.fontcache")));
+
+    // the same as PrismFontFactory.debugFonts, which can't be used here
+    // without loading the native font library
+    private static final boolean debugFonts =
+            AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+                    "true".equals(System.getProperty("prism.debugfonts")));
+
+    private static final FontNames[] NO_FONTS = new FontNames[0];
+
+    private FontFileNameCache() {
+    }
+
+    /**
+     * Returns the names of the fonts in each of the given files, in the
+     * order in which they appear in the file. A file which can't be read
+     * has no fonts, and is not cached so that it is read again next time.
+     */
+    static FontNames[][] getFontNames(String[] paths) {
+        return getFontNames(paths, cacheEnabled ? getCacheFile() : null,
+                            PrismFontFile.nameLocaleID);
+    }
+
+    /**
+     * Returns the names of the fonts in each of the given files, using the
+     * given cache file, if it is not null, and the given locale (a Microsoft
+     * LCID) for the locale names.
+     */
+    static FontNames[][] getFontNames(String[] paths, File cacheFile, short nameLocaleID) {
+        final FontNames[][] names = new FontNames[paths.length][];
+        final String localeKey = Short.toString(nameLocaleID);
+        final Properties cache = load(cacheFile, localeKey);
+        final boolean pruned = pruneDeletedFiles(cache);
+
+        final List<Integer> changed = new ArrayList<>();
+        final long[] sizes = new long[paths.length];
+        final long[] times = new long[paths.length];
+        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+            for (int i = 0; i < paths.length; i++) {
+                if (paths[i] == null) {
+                    names[i] = NO_FONTS;
+                    continue;
+                }
+                final File file = new File(paths[i]);
+                sizes[i] = file.length();
+                times[i] = file.lastModified();
+                names[i] = fromCache(cache, paths[i], sizes[i], times[i]);
+                if (names[i] == null) {
+                    changed.add(i);
+                }
+            }
+            return null;
+        });
+        if (debugFonts) {
+            System.err.println("Font names cached for " + (paths.length - changed.size())
+                    + " of " + paths.length + " files");
+        }
+        if (changed.isEmpty()) {
+            if (pruned && cacheFile != null) {
+                store(cacheFile, cache, localeKey);
+            }
+            return names;
+        }
+
+        IntStream indices = changed.stream().mapToInt(Integer::intValue);
+        if (changed.size() >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        // the worker threads don't share our access control context
+        indices.forEach(i -> names[i] = AccessController.doPrivileged(
+                (PrivilegedAction<FontNames[]>) () -> readFontNames(paths[i], nameLocaleID)));
+
+        for (int i : changed) {
+            if (names[i] == null) {
+                // the failure may be temporary (a sharing violation, for
+                // example), so the file is not cached and is read again
+                names[i] = NO_FONTS;
+                removeFromCache(cache, paths[i]);
+            } else {
+                toCache(cache, paths[i], sizes[i], times[i], names[i]);
+            }
+        }
+        if (cacheFile != null) {
+            store(cacheFile, cache, localeKey);
+        }
+        return names;
+    }
+
+    /*
+     * Returns the names of the fonts in the given file, or null if it can't
+     * be read.
+     */
+    private static FontNames[] readFontNames(String path, short nameLocaleID) {
+        try {
+            return new FontNameReader(path, nameLocaleID).readFontNames();
+        } catch (IOException | RuntimeException e) {
+            if (debugFonts) {
+                System.err.println("Cannot read the font names of " + path + ": " + e);
+            }
+            return null;
+        }
+    }
+
+    /*
+     * Removes the entries of the files which no longer exist, and returns
+     * whether there were any.
+     */
+    private static boolean pruneDeletedFiles(Properties cache) {
+        final List<String> deleted = new ArrayList<>();
+        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+            for (String key : cache.stringPropertyNames()) {
+                if (key.endsWith(".size")) {
+                    final String path = key.substring(0, key.length() - ".size".length());
+                    if (!new File(path).exists()) {
+                        deleted.add(path);
+                    }
+                }
+            }
+            return null;
+        });
+        for (String path : deleted) {
+            removeFromCache(cache, path);
+        }
+        return !deleted.isEmpty();
+    }
+
+    private static void removeFromCache(Properties cache, String path) {
+        int count = 0;
+        try {
+            count = Integer.parseInt(cache.getProperty(path + ".count", "0"));
+        } catch (NumberFormatException e) {
+        }
+        cache.remove(path + ".size");
+        cache.remove(path + ".time");
+        cache.remove(path + ".count");
+        for (int i = 0; i < count; i++) {
+            final String key = path + "." + i;
+            cache.remove(key + ".full");
+            cache.remove(key + ".family");
+            cache.remove(key + ".localefull");
+            cache.remove(key + ".localefamily");
+        }
+    }
+
+    private static FontNames[] fromCache(Properties cache, String path, long size, long time) {
+        if (!Long.toString(size).equals(cache.getProperty(path + ".size")) ||
+                !Long.toString(time).equals(cache.getProperty(path + ".time"))) {
+            return null;
+        }
+        try {
+            final int count = Integer.parseInt(cache.getProperty(path + ".count"));
+            if (count < 0 || count > cache.size()) {
+                return null;
+            }
+            final FontNames[] names = new FontNames[count];
+            for (int i = 0; i < count; i++) {
+                final String key = path + "." + i;
+                final String fullName = cache.getProperty(key + ".full");
+                final String familyName = cache.getProperty(key + ".family");
+                if (fullName == null || familyName == null) {
+                    return null;
+                }
+                names[i] = new FontNames(fullName, familyName,
+                        cache.getProperty(key + ".localefull", fullName),
+                        cache.getProperty(key + ".localefamily", familyName));
+            }
+            return names;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void toCache(Properties cache, String path, long size, long time, FontNames[] names) {
+        cache.setProperty(path + ".size", Long.toString(size));
+        cache.setProperty(path + ".time", Long.toString(time));
+        cache.setProperty(path + ".count", Integer.toString(names.length));
+        for (int i = 0; i < names.length; i++) {
+            final String key = path + "." + i;
+            cache.setProperty(key + ".full", names[i].fullName);
+            cache.setProperty(key + ".family", names[i].familyName);
+            cache.setProperty(key + ".localefull", names[i].localeFullName);
+            cache.setProperty(key + ".localefamily", names[i].localeFamilyName);
+        }
+    }
+
+    private static File getCacheFile() {
+        return AccessController.doPrivileged((PrivilegedAction<File>) () -> {
+            String userCache = System.getProperty("javafx.cachedir", "");
+            if (userCache.isEmpty()) {
+                final String jfxVersion = System.getProperty("javafx.version", "versionless");
+                userCache = System.getProperty("user.home") + "/.openjfx/cache/" + jfxVersion;
+            }
+            return new File(userCache, CACHE_FILE);
+        });
+    }
+
+    private static Properties load(File cacheFile, String localeKey) {
+        final Properties cache = new Properties();
+        if (cacheFile == null) {
+            return cache;
+        }
+        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+            if (cacheFile.isFile()) {
+                try (InputStream in = new FileInputStream(cacheFile)) {
+                    cache.load(in);
+                } catch (IOException | IllegalArgumentException e) {
+                    cache.clear();
+                }
+            }
+            return null;
+        });
+        // the locale names depend on the locale
+        if (!VERSION.equals(cache.getProperty("version")) ||
+                !localeKey.equals(cache.getProperty("locale"))) {
+            cache.clear();
+        }
+        return cache;
+    }
+
+    private static void store(File cacheFile, Properties cache, String localeKey) {
+        cache.setProperty("version", VERSION);
+        cache.setProperty("locale", localeKey);
+        AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+            File tmpFile = null;
+            try {
+                final File dir = cacheFile.getParentFile();
+                if (!dir.isDirectory() && !dir.mkdirs()) {
+                    return null;
+                }
+                // write to a temporary file which replaces the cache at once,
+                // so that concurrent launches never see a partial cache
+                tmpFile = File.createTempFile("fontnames", ".tmp", dir);
+                try (OutputStream out = new FileOutputStream(tmpFile)) {
+                    cache.store(out, null);
+                }
+                Files.move(tmpFile.toPath(), cacheFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                tmpFile = null;
+            } catch (IOException | SecurityException e) {
+                if (debugFonts) {
+                    System.err.println("Cannot store the font name cache: " + e);
+                }
+            } finally {
+                if (tmpFile != null) {
+                    tmpFile.delete();
+                }
+            }
+            return null;
+        });
+    }
+}
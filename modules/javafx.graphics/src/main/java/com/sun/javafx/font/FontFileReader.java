@@ -25,23 +25,63 @@
 
 package com.sun.javafx.font;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
+import java.util.HashMap;
 
 /*
  * Utility class to read font files.
+ *
+ * Font files which are not temporary copies may be memory mapped, in which
+ * case the blocks that are read are views of the mapped file rather than
+ * copies of it.
+ * A file is mapped once and the mapping is shared by all the readers of that
+ * file (such as the fonts of a TTC file) for as long as any of them is in
+ * use. Mapping can be disabled with prism.mapfontfiles=false.
+ *
+ * An installed font file may be replaced or truncated, for example by a
+ * system update. The size of the file is checked each time it is opened,
+ * and a file whose size has changed since it was mapped is mapped again,
+ * so that the blocks read from it never lie outside of the file as it was
+ * when it was opened.
  */
 class FontFileReader implements FontConstants {
     String filename;
     long filesize;
     RandomAccessFile raFile;
 
+    private static final boolean mapFiles =
+            AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+                    !"false".equals(System.getProperty("prism.mapfontfiles")));
+
+    private static final HashMap<String, WeakReference<ByteBuffer>> mappedFiles =
+            new HashMap<>();
+
+    private final boolean map;
+    // the mapped file, which is kept for as long as this reader exists so
+    // that it is not unmapped between reads
+    private ByteBuffer mappedFile;
+    private boolean mappedOpen;
+
     public FontFileReader(String filename) {
+        this(filename, false);
+    }
+
+    /**
+     * @param map whether the file may be memory mapped, which should only be
+     * the case for files which will not be deleted while in use
+     */
+    public FontFileReader(String filename, boolean map) {
         this.filename = filename;
+        this.map = map && mapFiles;
     }
 
     public String getFilename() {
@@ -55,9 +95,24 @@ class FontFileReader implements FontConstants {
      * @throws PrivilegedActionException
      */
     public synchronized boolean openFile() throws PrivilegedActionException {
-        if (raFile != null) {
+        if (raFile != null || mappedOpen) {
             return false;
         }
+        if (map) {
+            final long length = getFileLength();
+            if (mappedFile != null && mappedFile.capacity() != length) {
+                // the file has changed since it was mapped
+                unmap();
+            }
+            if (mappedFile == null) {
+                mappedFile = getMappedFile(filename, length);
+            }
+            if (mappedFile != null) {
+                filesize = mappedFile.capacity();
+                mappedOpen = true;
+                return true;
+            }
+        }
         raFile = AccessController.doPrivileged(
                 (PrivilegedAction<RandomAccessFile>) () -> {
                     try {
@@ -77,7 +132,65 @@ class FontFileReader implements FontConstants {
         return false;
     }
 
+    synchronized boolean isMapped() {
+        return mappedOpen;
+    }
+
+    private long getFileLength() {
+        return AccessController.doPrivileged(
+                (PrivilegedAction<Long>) () -> new File(filename).length());
+    }
+
+    // stops using the mapping of the file, which is no longer valid
+    private void unmap() {
+        synchronized (mappedFiles) {
+            WeakReference<ByteBuffer> ref = mappedFiles.get(filename);
+            if (ref != null && ref.get() == mappedFile) {
+                mappedFiles.remove(filename);
+            }
+        }
+        mappedFile = null;
+    }
+
+    private static ByteBuffer getMappedFile(String filename, long length) {
+        synchronized (mappedFiles) {
+            WeakReference<ByteBuffer> ref = mappedFiles.get(filename);
+            ByteBuffer mapped = ref != null ? ref.get() : null;
+            if (mapped != null && mapped.capacity() != length) {
+                // the file has changed since it was mapped
+                mapped = null;
+            }
+            if (mapped == null) {
+                mapped = AccessController.doPrivileged(
+                        (PrivilegedAction<ByteBuffer>) () -> {
+                            /* The mapping remains valid once the file is closed */
+                            try (RandomAccessFile file = new RandomAccessFile(filename, "r")) {
+                                FileChannel channel = file.getChannel();
+                                long size = channel.size();
+                                if (size == 0 || size > Integer.MAX_VALUE) {
+                                    return null;
+                                }
+                                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                            } catch (IOException | UnsupportedOperationException e) {
+                                if (PrismFontFactory.debugFonts) {
+                                    System.err.println("Cannot map font file " + filename + ": " + e);
+                                }
+                                return null;
+                            }
+                        }
+                );
+                if (mapped == null) {
+                    mappedFiles.remove(filename);
+                } else {
+                    mappedFiles.put(filename, new WeakReference<>(mapped));
+                }
+            }
+            return mapped;
+        }
+    }
+
     public synchronized void closeFile() throws IOException {
+        mappedOpen = false;
         if (raFile != null) {
             raFile.close();
             raFile = null;
@@ -95,10 +208,16 @@ class FontFileReader implements FontConstants {
         }
     }
 
+    /*
+     * A big endian view of a block of a font file. The block is either a
+     * copy of part of the file, or a view of a mapped file, which is shared
+     * and so is only ever accessed with absolute reads.
+     */
     static class Buffer {
-        byte[] data;
+        ByteBuffer data;
         int pos;
         int orig;
+        int limit;
 
         /**
          * @param data the buffer
@@ -108,61 +227,43 @@ class FontFileReader implements FontConstants {
          * assumed to be careful.
          */
         Buffer(byte[] data, int bufStart) {
+            this(ByteBuffer.wrap(data), bufStart, data.length - bufStart);
+        }
+
+        Buffer(ByteBuffer data, int bufStart, int length) {
             this.orig = this.pos = bufStart;
             this.data = data;
+            this.limit = bufStart + length;
         }
 
         int getInt(int tpos) {
-            tpos += orig;
-            int val = data[tpos++]&0xff;
-            val <<= 8;
-            val |= data[tpos++]&0xff;
-            val <<= 8;
-            val |= data[tpos++]&0xff;
-            val <<= 8;
-            val |= data[tpos++]&0xff;
-            return val;
+            return data.getInt(orig + tpos);
         }
 
         int getInt() {
-            int val = data[pos++]&0xff;
-            val <<= 8;
-            val |= data[pos++]&0xff;
-            val <<= 8;
-            val |= data[pos++]&0xff;
-            val <<= 8;
-            val |= data[pos++]&0xff;
+            int val = data.getInt(pos);
+            pos += 4;
             return val;
         }
 
         short getShort(int tpos) {
-            tpos += orig;
-            int val = data[tpos++]&0xff;
-            val <<= 8;
-            val |= data[tpos++]&0xff;
-            return (short)val;
+            return data.getShort(orig + tpos);
         }
 
         short getShort() {
-            int val = data[pos++]&0xff;
-            val <<= 8;
-            val |= data[pos++]&0xff;
-            return (short)val;
+            short val = data.getShort(pos);
+            pos += 2;
+            return val;
         }
 
         char getChar(int tpos) {
-            tpos += orig;
-            int val = data[tpos++]&0xff;
-            val <<= 8;
-            val |= data[tpos++]&0xff;
-            return (char)val;
+            return data.getChar(orig + tpos);
         }
 
         char getChar() {
-            int val = data[pos++]&0xff;
-            val <<= 8;
-            val |= data[pos++]&0xff;
-            return (char)(val);
+            char val = data.getChar(pos);
+            pos += 2;
+            return val;
         }
 
         void position(int newPos) {
@@ -170,16 +271,15 @@ class FontFileReader implements FontConstants {
         }
 
         int capacity() {
-            return data.length-orig;
+            return limit-orig;
         }
 
         byte get() {
-            return data[pos++];
+            return data.get(pos++);
         }
 
         byte get(int tpos) {
-            tpos += orig;
-            return data[tpos];
+            return data.get(orig + tpos);
         }
 
         void skip(int nbytes) {
@@ -187,7 +287,14 @@ class FontFileReader implements FontConstants {
         }
 
         void get(int startPos, byte[] dest, int destPos, int destLen) {
-            System.arraycopy(data, orig+startPos, dest, destPos, destLen);
+            if (data.hasArray()) {
+                System.arraycopy(data.array(), data.arrayOffset()+orig+startPos,
+                                 dest, destPos, destLen);
+            } else {
+                ByteBuffer src = data.duplicate();
+                src.position(orig+startPos);
+                src.get(dest, destPos, destLen);
+            }
         }
     }
 
@@ -230,6 +337,20 @@ class FontFileReader implements FontConstants {
     private int readBufferLen;
     private int readBufferStart;
     synchronized public Buffer readBlock(int offset, int len) {
+        if (mappedOpen && offset >= 0 && len >= 0 && (long)offset+len <= filesize) {
+            return new Buffer(mappedFile, offset, len);
+        }
+        if (raFile == null && mappedOpen) {
+            /* A bad block which lies outside of the file. As when reading
+             * the file, the part which lies outside of it reads as zero.
+             */
+            byte[] data = new byte[Math.max(len, 0)];
+            if (offset >= 0 && offset < filesize) {
+                new Buffer(mappedFile, 0, (int)filesize).get(offset, data, 0,
+                        (int)Math.min(len, filesize - offset));
+            }
+            return new Buffer(data, 0);
+        }
         if (readBuffer == null) {
             readBuffer = new byte[READBUFFERSIZE];
             readBufferLen = 0; // length of valid contents.
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.font;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import com.sun.javafx.font.FontFileNameCache.FontNames;
+import com.sun.javafx.font.FontFileReader.Buffer;
+
+/**
+ * Reads the names of the fonts in a TrueType or OpenType file, or in a
+ * TrueType collection, from their name tables, without creating the fonts.
+ *
+ * The names are chosen by FontNameTable, as by PrismFontFile, and a font is
+ * only accepted if PrismFontFile would accept it: its table directory must
+ * lie within the file, and it must have valid 'head', 'cmap' (if any) and
+ * 'name' tables, with a full and a family name.
+ */
+final class FontNameReader implements FontConstants {
+
+    private static final int HEAD_TABLE_SIZE = 54;
+
+    private final String path;
+    private final short nameLocaleID;
+    private RandomAccessFile file;
+    private long fileSize;
+    private boolean isCollection;
+    private int fontCount = 1;
+
+    /**
+     * @param path the path of the font file
+     * @param nameLocaleID the Microsoft LCID of the locale names
+     */
+    FontNameReader(String path, short nameLocaleID) {
+        this.path = path;
+        this.nameLocaleID = nameLocaleID;
+    }
+
+    /**
+     * Returns the names of the fonts in the file, in the order in which they
+     * appear in it. If a font of a collection can't be read, then neither it
+     * nor the fonts which follow it are returned.
+     */
+    FontNames[] readFontNames() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(path, "r")) {
+            file = raf;
+            fileSize = raf.length();
+            readHeader();
+            final FontNames[] names = new FontNames[fontCount];
+            for (int i = 0; i < fontCount; i++) {
+                try {
+                    names[i] = readFont(i);
+                } catch (IOException e) {
+                    if (i == 0) {
+                        throw e;
+                    }
+                    final FontNames[] valid = new FontNames[i];
+                    System.arraycopy(names, 0, valid, 0, i);
+                    return valid;
+                }
+            }
+            return names;
+        } finally {
+            file = null;
+        }
+    }
+
+    private void readHeader() throws IOException {
+        final ByteBuffer header = read(0, 4);
+        if (header.getInt(0) == ttcfTag) {
+            isCollection = true;
+            fontCount = read(0, TTCHEADERSIZE).getInt(8);
+            if (fontCount <= 0) {
+                throw new IOException("Bad collection header in " + path);
+            }
+        }
+    }
+
+    private FontNames readFont(int index) throws IOException {
+        long headerOffset = 0;
+        if (isCollection) {
+            headerOffset = read(TTCHEADERSIZE + 4L * index, 4).getInt(0) & 0xffffffffL;
+        }
+        final ByteBuffer header = read(headerOffset, DIRECTORYHEADERSIZE);
+        final int sfntTag = header.getInt(0);
+        if (sfntTag != v1ttTag && sfntTag != trueTag && sfntTag != ottoTag) {
+            throw new IOException("Unsupported sfnt " + path);
+        }
+
+        final int numTables = header.getShort(4);
+        if (numTables <= 0) {
+            throw new IOException("No tables in " + path);
+        }
+        final ByteBuffer directory = read(headerOffset + DIRECTORYHEADERSIZE,
+                                          numTables * DIRECTORYENTRYSIZE);
+        ByteBuffer head = null;
+        ByteBuffer cmap = null;
+        ByteBuffer name = null;
+        for (int i = 0; i < numTables; i++) {
+            final int entry = i * DIRECTORYENTRYSIZE;
+            final int tag = directory.getInt(entry);
+            final long offset = directory.getInt(entry + 8) & 0xffffffffL;
+            final long length = directory.getInt(entry + 12) & 0xffffffffL;
+            if (offset + length > fileSize) {
+                throw new IOException("Bad table, tag=" + tag + " in " + path);
+            }
+            if (tag == headTag && head == null) {
+                head = read(offset, (int) length);
+            } else if (tag == cmapTag && cmap == null) {
+                cmap = read(offset, (int) length);
+            } else if (tag == nameTag && name == null) {
+                name = read(offset, (int) length);
+            }
+        }
+
+        checkHead(head);
+        if (cmap != null) {
+            checkCMAP(cmap);
+        }
+        if (name == null) {
+            throw new IOException("No name table in " + path);
+        }
+        return readNames(name);
+    }
+
+    private void checkHead(ByteBuffer head) throws IOException {
+        if (head == null || head.capacity() < HEAD_TABLE_SIZE) {
+            throw new IOException("Bad head table in " + path);
+        }
+        final short indexToLocFormat = head.getShort(50);
+        if (indexToLocFormat < 0 || indexToLocFormat > 1) {
+            throw new IOException("Bad indexToLocFormat in " + path);
+        }
+    }
+
+    private void checkCMAP(ByteBuffer cmap) throws IOException {
+        final int length = cmap.capacity();
+        if (length < 4) {
+            throw new IOException("Invalid cmap table length in " + path);
+        }
+        final short numberSubTables = cmap.getShort(2);
+        if (numberSubTables <= 0 || length < numberSubTables * 8 + 4) {
+            throw new IOException("Invalid cmap subtables count in " + path);
+        }
+        for (int i = 0; i < numberSubTables; i++) {
+            final int offset = cmap.getInt(4 + i * 8 + 4);
+            if (offset < 0 || offset >= length) {
+                throw new IOException("Invalid cmap subtable offset in " + path);
+            }
+        }
+    }
+
+    private FontNames readNames(ByteBuffer name) throws IOException {
+        final FontNameTable names;
+        try {
+            names = FontNameTable.read(new Buffer(name.array(), 0), nameLocaleID);
+        } catch (RuntimeException e) {
+            throw new IOException("Bad name table in " + path, e);
+        }
+        if (names.fullName == null || names.familyName == null) {
+            throw new IOException("Font name not found in " + path);
+        }
+        return new FontNames(names.fullName, names.familyName,
+                             names.localeFullName, names.localeFamilyName);
+    }
+
+    private ByteBuffer read(long offset, int length) throws IOException {
+        if (offset < 0 || length < 0 || offset + length > fileSize) {
+            throw new IOException("Bad offset or length in " + path);
+        }
+        final byte[] data = new byte[length];
+        file.seek(offset);
+        file.readFully(data);
+        return ByteBuffer.wrap(data);
+    }
+}
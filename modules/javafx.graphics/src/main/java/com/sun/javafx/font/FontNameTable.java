@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.font;
+
+import java.io.UnsupportedEncodingException;
+import com.sun.javafx.font.FontFileReader.Buffer;
+
+import static com.sun.javafx.font.PrismFontFile.*;
+
+/**
+ * The names of a font, as chosen from the records of its 'name' table. Both
+ * PrismFontFile and FontNameReader (which reads the names of fonts without
+ * creating them) choose the names of a font this way.
+ */
+final class FontNameTable {
+    String familyName;           /* Family font name (English) */
+    String fullName;             /* Full font name (English)   */
+    String psName;               /* PostScript font name       */
+    String localeFamilyName;
+    String localeFullName;
+    String styleName;
+    String localeStyleName;
+
+    private FontNameTable() {
+    }
+
+    /**
+     * Reads the names from the given 'name' table, using the given locale
+     * (a Microsoft LCID) for the locale names. Throws a RuntimeException if
+     * the table is malformed.
+     */
+    static FontNameTable read(Buffer buffer, short nameLocaleID)
+            throws UnsupportedEncodingException
+    {
+        FontNameTable names = new FontNameTable();
+        byte[] name = new byte[256];
+
+        buffer.skip(2); // format - not needed.
+        short numRecords = buffer.getShort();
+        /* The name table uses unsigned shorts. Many of these
+         * are known small values that fit in a short.
+         * The values that are sizes or offsets into the table could be
+         * greater than 32767, so read and store those as ints
+         */
+        int stringPtr = buffer.getShort() & 0xffff;
+
+        /* Microsoft Windows font names are preferred but numerous Mac
+         * fonts do not have these, so we must also accept these in the
+         * absence of the preferred Windows names.
+         */
+        for (int i=0; i<numRecords; i++) {
+            short platformID = buffer.getShort();
+            if (platformID != MS_PLATFORM_ID &&
+                platformID != MAC_PLATFORM_ID) {
+                buffer.skip(10);
+                continue; // skip over this record.
+            }
+            short encodingID = buffer.getShort();
+            // only want UTF-16 (inc. symbol) encodingIDs for Windows,
+            // or MacRoman on Mac.
+            if ((platformID == MS_PLATFORM_ID && encodingID > 1) ||
+                (platformID == MAC_PLATFORM_ID &&
+                 encodingID != MACROMAN_SPECIFIC_ID)) {
+                buffer.skip(8);
+                continue;
+            }
+            short langID     = buffer.getShort();
+            if (platformID == MAC_PLATFORM_ID &&
+                langID != MACROMAN_ENGLISH_LANG) {
+                buffer.skip(6);
+                continue;
+            }
+            short nameID     = buffer.getShort();
+            int nameLen    = ((int)buffer.getShort()) & 0xffff;
+            int namePtr    = (((int)buffer.getShort()) & 0xffff) + stringPtr;
+            String tmpName = null;
+            String enc;
+            switch (nameID) {
+
+            case FAMILY_NAME_ID:
+
+                if (names.familyName == null || langID == MS_ENGLISH_LOCALE_ID ||
+                    langID == nameLocaleID)
+                    {
+                        buffer.get(namePtr, name, 0, nameLen);
+                        if (platformID == MAC_PLATFORM_ID) {
+                            enc = "US-ASCII";
+                        } else {
+                            enc = "UTF-16BE";
+                        }
+                        tmpName = new String(name, 0, nameLen, enc);
+
+                        if (names.familyName == null ||
+                            langID == MS_ENGLISH_LOCALE_ID){
+                            names.familyName = tmpName;
+                        }
+                        if (langID == nameLocaleID) {
+                            names.localeFamilyName = tmpName;
+                        }
+                    }
+                    break;
+
+                case FULL_NAME_ID:
+
+                    if (names.fullName == null ||
+                        langID == MS_ENGLISH_LOCALE_ID ||
+                        langID == nameLocaleID)
+                    {
+                        buffer.get(namePtr, name, 0, nameLen);
+                        if (platformID == MAC_PLATFORM_ID) {
+                            enc = "US-ASCII";
+                        } else {
+                            enc = "UTF-16BE";
+                        }
+                        tmpName = new String(name, 0, nameLen, enc);
+
+                        if (names.fullName == null ||
+                            langID == MS_ENGLISH_LOCALE_ID) {
+                            names.fullName = tmpName;
+                        }
+                        if (langID == nameLocaleID) {
+                            names.localeFullName = tmpName;
+                        }
+                    }
+                    break;
+
+                case PS_NAME_ID:
+
+                    if (names.psName == null) {
+                        buffer.get(namePtr, name, 0, nameLen);
+                        if (platformID == MAC_PLATFORM_ID) {
+                            enc = "US-ASCII";
+                        } else {
+                            enc = "UTF-16BE";
+                        }
+                        names.psName = new String(name, 0, nameLen, enc);
+                    }
+                    break;
+
+                case STYLE_NAME_ID:
+
+                    if (names.styleName == null ||
+                        langID == MS_ENGLISH_LOCALE_ID ||
+                        langID == nameLocaleID)
+                    {
+                        buffer.get(namePtr, name, 0, nameLen);
+                        if (platformID == MAC_PLATFORM_ID) {
+                            enc = "US-ASCII";
+                        } else {
+                            enc = "UTF-16BE";
+                        }
+                        tmpName = new String(name, 0, nameLen, enc);
+
+                        if (names.styleName == null ||
+                            langID == MS_ENGLISH_LOCALE_ID) {
+                            names.styleName = tmpName;
+                        }
+                        if (langID == nameLocaleID) {
+                            names.localeStyleName = tmpName;
+                        }
+                    }
+                    break;
+
+            default:
+                break;
+            }
+
+            if (names.localeFamilyName == null) {
+                names.localeFamilyName = names.familyName;
+            }
+            if (names.localeFullName == null) {
+                names.localeFullName = names.fullName;
+            }
+            if (names.localeStyleName == null) {
+                names.localeStyleName = names.styleName;
+            }
+        }
+        return names;
+    }
+}
@@ -1148,65 +1148,59 @@ public abstract class PrismFontFactory implements FontFactory {
          HashMap<String,String> fontToFamilyNameMap,
          HashMap<String,ArrayList<String>> familyToFontListMap) {
 
-        for (String file : unmappedFiles) {
-            try {
-                int fn = 0;
-                PrismFontFile ttf;
-                String fullPath = getPathNameWindows(file);
-                do {
-                    ttf = createFontResource(fullPath, fn++);
-                    if (ttf == null) {
-                        break;
-                    }
-                    String fontNameLC = ttf.getFullName().toLowerCase();
-                    String localeNameLC =ttf.getLocaleFullName().toLowerCase();
-                    if (unmappedFonts.contains(fontNameLC) ||
-                        unmappedFonts.contains(localeNameLC)) {
-                        fontToFileMap.put(fontNameLC, file);
-                        unmappedFonts.remove(fontNameLC);
-                        /* If GDI reported names using locale specific style
-                         * strings we'll have those as the unmapped keys in
-                         * the font to family list and also in the value
-                         * array list mapped by the family.
-                         * We can spot these if the localeName is what is
-                         * actually in the unmapped font list, and we'll
-                         * then replace all occurrences of the locale name with
-                         * the English name.
-                         */
-                        if (unmappedFonts.contains(localeNameLC)) {
-                            unmappedFonts.remove(localeNameLC);
-                            String family = ttf.getFamilyName();
-                            String familyLC = family.toLowerCase();
-                            fontToFamilyNameMap.remove(localeNameLC);
-                            fontToFamilyNameMap.put(fontNameLC, family);
-                            ArrayList<String> familylist =
-                                familyToFontListMap.get(familyLC);
+        String[] files = unmappedFiles.toArray(new String[unmappedFiles.size()]);
+        String[] fullPaths = new String[files.length];
+        for (int i=0; i<files.length; i++) {
+            fullPaths[i] = getPathNameWindows(files[i]);
+        }
+        FontFileNameCache.FontNames[][] names =
+            FontFileNameCache.getFontNames(fullPaths);
+
+        for (int i=0; i<files.length; i++) {
+            String file = files[i];
+            for (FontFileNameCache.FontNames ttf : names[i]) {
+                String fontNameLC = ttf.fullName.toLowerCase();
+                String localeNameLC = ttf.localeFullName.toLowerCase();
+                if (unmappedFonts.contains(fontNameLC) ||
+                    unmappedFonts.contains(localeNameLC)) {
+                    fontToFileMap.put(fontNameLC, file);
+                    unmappedFonts.remove(fontNameLC);
+                    /* If GDI reported names using locale specific style
+                     * strings we'll have those as the unmapped keys in
+                     * the font to family list and also in the value
+                     * array list mapped by the family.
+                     * We can spot these if the localeName is what is
+                     * actually in the unmapped font list, and we'll
+                     * then replace all occurrences of the locale name with
+                     * the English name.
+                     */
+                    if (unmappedFonts.contains(localeNameLC)) {
+                        unmappedFonts.remove(localeNameLC);
+                        String family = ttf.familyName;
+                        String familyLC = family.toLowerCase();
+                        fontToFamilyNameMap.remove(localeNameLC);
+                        fontToFamilyNameMap.put(fontNameLC, family);
+                        ArrayList<String> familylist =
+                            familyToFontListMap.get(familyLC);
+                        if (familylist != null) {
+                            familylist.remove(ttf.localeFullName);
+                        } else {
+                            /* The family name was not English.
+                             * Remove the non-English family list
+                             * and replace it with the English one
+                             */
+                            String localeFamilyLC =
+                                ttf.localeFamilyName.toLowerCase();
+                            familylist =
+                                familyToFontListMap.get(localeFamilyLC);
                             if (familylist != null) {
-                                familylist.remove(ttf.getLocaleFullName());
-                            } else {
-                                /* The family name was not English.
-                                 * Remove the non-English family list
-                                 * and replace it with the English one
-                                 */
-                                String localeFamilyLC =
-                                    ttf.getLocaleFamilyName().toLowerCase();
-                                familylist =
-                                    familyToFontListMap.get(localeFamilyLC);
-                                if (familylist != null) {
-                                    familyToFontListMap.remove(localeFamilyLC);
-                                }
-                                familylist = new ArrayList<String>();
-                                familyToFontListMap.put(familyLC, familylist);
+                                familyToFontListMap.remove(localeFamilyLC);
                             }
-                            familylist.add(ttf.getFullName());
+                            familylist = new ArrayList<String>();
+                            familyToFontListMap.put(familyLC, familylist);
                         }
+                        familylist.add(ttf.fullName);
                     }
-
-                }
-                while (fn < ttf.getFontCount());
-            } catch (Exception e) {
-                if (debugFonts) {
-                    e.printStackTrace();
                 }
             }
         }
@@ -1857,14 +1851,7 @@ public abstract class PrismFontFactory implements FontFactory {
         }
     }
 
-    void addToMaps(PrismFontFile fr) {
-
-        if (fr == null) {
-            return;
-        }
-
-        String fullName = fr.getFullName();
-        String familyName = fr.getFamilyName();
+    void addToMaps(String fullName, String familyName, String fileName) {
 
         if (fullName == null || familyName == null) {
             return;
@@ -1873,7 +1860,7 @@ public abstract class PrismFontFactory implements FontFactory {
         String lcFullName = fullName.toLowerCase();
         String lcFamilyName = familyName.toLowerCase();
 
-        fontToFileMap.put(lcFullName, fr.getFileName());
+        fontToFileMap.put(lcFullName, fileName);
         fontToFamilyNameMap.put(lcFullName, familyName);
         ArrayList<String> familyList = familyToFontListMap.get(lcFamilyName);
         if (familyList == null) {
@@ -1897,6 +1884,7 @@ public abstract class PrismFontFactory implements FontFactory {
             return;
         }
 
+        ArrayList<String> paths = new ArrayList<String>(files.length);
         for (int i=0;i<files.length;i++) {
             try {
                 String path = fontDir+File.separator+files[i];
@@ -1906,24 +1894,21 @@ public abstract class PrismFontFactory implements FontFactory {
                     /* This font file can't be used by the underlying rasterizer */
                     continue;
                 }
-
-                int index = 0;
-                PrismFontFile fr = createFontResource(path, index++);
-                if (fr == null) {
-                    continue;
-                }
-                addToMaps(fr);
-                while (index < fr.getFontCount()) {
-                    fr = createFontResource(path, index++);
-                    if (fr == null) {
-                        break;
-                    }
-                    addToMaps(fr);
-                }
+                paths.add(path);
             } catch (Exception e) {
                 /* Keep going if anything bad happens with a font */
             }
         }
+
+        /* The font resources are created when the fonts are first used */
+        String[] pathArr = paths.toArray(new String[paths.size()]);
+        FontFileNameCache.FontNames[][] names =
+            FontFileNameCache.getFontNames(pathArr);
+        for (int i=0;i<pathArr.length;i++) {
+            for (FontFileNameCache.FontNames fn : names[i]) {
+                addToMaps(fn.fullName, fn.familyName, pathArr[i]);
+            }
+        }
     }
 
     static native int getLCDContrastWin32();
@@ -459,7 +459,11 @@ public abstract class PrismFontFile implements FontResource, FontConstants {
      * Throws an exception if it doesn't like what it finds.
      */
     private void init(String name, int fIndex) throws Exception {
-        filereader = new FontFileReader(filename);
+        /* Only installed fonts are mapped, as other font files may be
+         * deleted while they are in use (which fails on some platforms
+         * while the file is mapped).
+         */
+        filereader = new FontFileReader(filename, !isEmbedded && !isCopy);
         WoffDecoder decoder = null;
         try {
             if (!filereader.openFile()) {
@@ -746,151 +750,17 @@ public abstract class PrismFontFile implements FontResource, FontConstants {
     public static final int PS_NAME_ID = 6;
 
     void initNames() throws Exception {
-        byte[] name = new byte[256];
-
         DirectoryEntry nameDE = getDirectoryEntry(nameTag);
         Buffer buffer = filereader.readBlock(nameDE.offset, nameDE.length);
 
-        buffer.skip(2); // format - not needed.
-        short numRecords = buffer.getShort();
-        /* The name table uses unsigned shorts. Many of these
-         * are known small values that fit in a short.
-         * The values that are sizes or offsets into the table could be
-         * greater than 32767, so read and store those as ints
-         */
-        int stringPtr = buffer.getShort() & 0xffff;
-
-        /* Microsoft Windows font names are preferred but numerous Mac
-         * fonts do not have these, so we must also accept these in the
-         * absence of the preferred Windows names.
-         */
-        for (int i=0; i<numRecords; i++) {
-            short platformID = buffer.getShort();
-            if (platformID != MS_PLATFORM_ID &&
-                platformID != MAC_PLATFORM_ID) {
-                buffer.skip(10);
-                continue; // skip over this record.
-            }
-            short encodingID = buffer.getShort();
-            // only want UTF-16 (inc. symbol) encodingIDs for Windows,
-            // or MacRoman on Mac.
-            if ((platformID == MS_PLATFORM_ID && encodingID > 1) ||
-                (platformID == MAC_PLATFORM_ID &&
-                 encodingID != MACROMAN_SPECIFIC_ID)) {
-                buffer.skip(8);
-                continue;
-            }
-            short langID     = buffer.getShort();
-            if (platformID == MAC_PLATFORM_ID &&
-                langID != MACROMAN_ENGLISH_LANG) {
-                buffer.skip(6);
-                continue;
-            }
-            short nameID     = buffer.getShort();
-            int nameLen    = ((int)buffer.getShort()) & 0xffff;
-            int namePtr    = (((int)buffer.getShort()) & 0xffff) + stringPtr;
-            String tmpName = null;
-            String enc;
-            switch (nameID) {
-
-            case FAMILY_NAME_ID:
-
-                if (familyName == null || langID == MS_ENGLISH_LOCALE_ID ||
-                    langID == nameLocaleID)
-                    {
-                        buffer.get(namePtr, name, 0, nameLen);
-                        if (platformID == MAC_PLATFORM_ID) {
-                            enc = "US-ASCII";
-                        } else {
-                            enc = "UTF-16BE";
-                        }
-                        tmpName = new String(name, 0, nameLen, enc);
-
-                        if (familyName == null ||
-                            langID == MS_ENGLISH_LOCALE_ID){
-                            familyName = tmpName;
-                        }
-                        if (langID == nameLocaleID) {
-                            localeFamilyName = tmpName;
-                        }
-                    }
-                    break;
-
-                case FULL_NAME_ID:
-
-                    if (fullName == null ||
-                        langID == MS_ENGLISH_LOCALE_ID ||
-                        langID == nameLocaleID)
-                    {
-                        buffer.get(namePtr, name, 0, nameLen);
-                        if (platformID == MAC_PLATFORM_ID) {
-                            enc = "US-ASCII";
-                        } else {
-                            enc = "UTF-16BE";
-                        }
-                        tmpName = new String(name, 0, nameLen, enc);
-
-                        if (fullName == null ||
-                            langID == MS_ENGLISH_LOCALE_ID) {
-                            fullName = tmpName;
-                        }
-                        if (langID == nameLocaleID) {
-                            localeFullName = tmpName;
-                        }
-                    }
-                    break;
-
-                case PS_NAME_ID:
-
-                    if (psName == null) {
-                        buffer.get(namePtr, name, 0, nameLen);
-                        if (platformID == MAC_PLATFORM_ID) {
-                            enc = "US-ASCII";
-                        } else {
-                            enc = "UTF-16BE";
-                        }
-                        psName = new String(name, 0, nameLen, enc);
-                    }
-                    break;
-
-                case STYLE_NAME_ID:
-
-                    if (styleName == null ||
-                        langID == MS_ENGLISH_LOCALE_ID ||
-                        langID == nameLocaleID)
-                    {
-                        buffer.get(namePtr, name, 0, nameLen);
-                        if (platformID == MAC_PLATFORM_ID) {
-                            enc = "US-ASCII";
-                        } else {
-                            enc = "UTF-16BE";
-                        }
-                        tmpName = new String(name, 0, nameLen, enc);
-
-                        if (styleName == null ||
-                            langID == MS_ENGLISH_LOCALE_ID) {
-                            styleName = tmpName;
-                        }
-                        if (langID == nameLocaleID) {
-                            localeStyleName = tmpName;
-                        }
-                    }
-                    break;
-
-            default:
-                break;
-            }
-
-            if (localeFamilyName == null) {
-                localeFamilyName = familyName;
-            }
-            if (localeFullName == null) {
-                localeFullName = fullName;
-            }
-            if (localeStyleName == null) {
-                localeStyleName = styleName;
-            }
-        }
+        FontNameTable names = FontNameTable.read(buffer, nameLocaleID);
+        familyName = names.familyName;
+        fullName = names.fullName;
+        psName = names.psName;
+        styleName = names.styleName;
+        localeFamilyName = names.localeFamilyName;
+        localeFullName = names.localeFullName;
+        localeStyleName = names.localeStyleName;
     }
 
     private void checkCMAP() throws Exception {
@@ -40,6 +40,7 @@ public final class DirtyRegionContainer {
 
     private RectBounds[] dirtyRegions;
     private int emptyIndex;
+    private final RectBounds mergeTemp = new RectBounds();
 
     public DirtyRegionContainer(int count) {
         initDirtyRegions(count);
@@ -176,6 +177,59 @@ public final class DirtyRegionContainer {
                 compress(region);
     }
 
+    /**
+     * Merges pairs of dirty regions for as long as painting the merged region
+     * is estimated to be cheaper than painting the two regions separately.
+     * Merging two regions costs the pixels of their union that are in neither
+     * region, and saves the fixed overhead of painting one region (traversing
+     * the scene graph, finding a render root, setting up the clip, etc).
+     * The pair with the fewest added pixels is merged first.
+     *
+     * @param regionOverhead the overhead of painting one dirty region,
+     *        expressed as a number of pixels (in the coordinate space of
+     *        the dirty regions) that could be painted in the same time
+     */
+    public void mergeByCost(float regionOverhead) {
+        while (emptyIndex > 1) {
+            int best0 = -1;
+            int best1 = -1;
+            float bestCost = regionOverhead;
+            for (int i = 0; i < emptyIndex - 1; i++) {
+                for (int j = i + 1; j < emptyIndex; j++) {
+                    final float cost = addedRegionArea(i, j);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        best0 = i;
+                        best1 = j;
+                    }
+                }
+            }
+            if (best0 == -1) {
+                return;
+            }
+
+            // the merged region may now intersect other regions, so we add it
+            // back as a new region, which will merge any such regions into it
+            mergeTemp.deriveWithNewBounds(dirtyRegions[best0]);
+            mergeTemp.unionWith(dirtyRegions[best1]);
+            remove(best1);
+            remove(best0);
+            addDirtyRegion(mergeTemp);
+        }
+    }
+
+    /**
+     * Gets the total area of all dirty regions.
+     * @return the total area of all dirty regions
+     */
+    public float getTotalArea() {
+        float area = 0;
+        for (int i = 0; i < emptyIndex; i++) {
+            area += dirtyRegions[i].getWidth() * dirtyRegions[i].getHeight();
+        }
+        return area;
+    }
+
     public void merge(DirtyRegionContainer other) {
         int otherSize = other.size();
         for(int i = 0; i < otherSize; i++) {
@@ -205,6 +259,14 @@ public final class DirtyRegionContainer {
         return emptyIndex < dirtyRegions.length;
     }
 
+    // removes the region at the given index, by swapping it with the last one
+    private void remove(int index) {
+        final RectBounds tmp = dirtyRegions[index];
+        dirtyRegions[index] = dirtyRegions[emptyIndex - 1];
+        dirtyRegions[emptyIndex - 1] = tmp;
+        emptyIndex--;
+    }
+
     private void regioncopy(RectBounds[] src, int from, RectBounds[] dest, int to, int length) {
         RectBounds rb;
         for (int i = 0; i < length; i++) {
@@ -274,8 +336,8 @@ public final class DirtyRegionContainer {
             if (idx0 != idx1) {
                 dirtyRegions[idx0].deriveWithUnion(dirtyRegions[idx1]);
                 map[idx1] = idx0;
-                invalidMask |= 1 << idx0;
-                invalidMask |= 1 << idx1;
+                invalidMask |= 1L << idx0;
+                invalidMask |= 1L << idx1;
             }
         }
 
@@ -326,7 +388,7 @@ public final class DirtyRegionContainer {
         // Check if the minimum element wasn't computed with some already merged region
         // If so, we can recompute it and push it down (as the new merged region can be
         // only greater than the original region)
-        while (((1 << temp[1] | 1 << temp[2]) & invalidMask) > 0) {
+        while (((1L << temp[1] | 1L << temp[2]) & invalidMask) != 0) {
             temp[0] = unifiedRegionArea(resolveMap(map, temp[1]), resolveMap(map, temp[2]));
             siftDown(0);
             if (heap[0] == temp) {
@@ -366,6 +428,19 @@ public final class DirtyRegionContainer {
 
         return (int) ((maxX - minX) * (maxY - minY));
     }
+
+    /**
+     * The number of pixels that would be painted in addition to those of the
+     * two regions if they were merged into one. This is the cost of merging
+     * them (the overhead of painting one region is saved by merging them).
+     */
+    private int addedRegionArea(int i0, int i1) {
+        return unifiedRegionArea(i0, i1) - area(dirtyRegions[i0]) - area(dirtyRegions[i1]);
+    }
+
+    private static int area(RectBounds r) {
+        return (int) (r.getWidth() * r.getHeight());
+    }
     /***************************************************************************
      * Heap-based compressing algorithm
      ***************************************************************************/
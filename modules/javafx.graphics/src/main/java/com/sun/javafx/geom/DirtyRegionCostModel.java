@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package com.sun.javafx.geom;
+
+/**
+ * Estimates the overhead of painting a dirty region, relative to the cost of
+ * painting a single pixel, from the time it took to paint previous regions.
+ * The time to paint a region is modeled as {@code a * pixels + b}, where
+ * {@code a} is the cost of a pixel and {@code b} the fixed overhead of a
+ * region, and the model is fitted with a least squares regression over the
+ * samples, where older samples are given exponentially less weight so that
+ * the model follows changes in the content of the scene.
+ *
+ * The resulting overhead (b / a, that is the number of pixels that can be
+ * painted in the time it takes to set up one region) is used by
+ * {@link DirtyRegionContainer#mergeByCost} to decide which dirty regions are
+ * worth merging.
+ */
+public final class DirtyRegionCostModel {
+
+    /**
+     * The overhead, in pixels, used until enough samples have been collected.
+     */
+    public static final float DEFAULT_REGION_OVERHEAD = 64 * 64;
+
+    private static final float MAX_REGION_OVERHEAD = 1024 * 1024;
+    private static final double DECAY = 0.95;
+    private static final int MIN_SAMPLES = 8;
+
+    private double n, sumX, sumY, sumXX, sumXY;
+    private int sampleCount;
+    private float regionOverhead = DEFAULT_REGION_OVERHEAD;
+
+    /**
+     * Adds the time it took to paint a region of the given number of pixels.
+     * @param pixels the number of pixels in the region
+     * @param nanos the time it took to paint the region
+     */
+    public void addSample(double pixels, long nanos) {
+        if (pixels <= 0 || nanos <= 0) {
+            return;
+        }
+        n = n * DECAY + 1;
+        sumX = sumX * DECAY + pixels;
+        sumY = sumY * DECAY + nanos;
+        sumXX = sumXX * DECAY + pixels * pixels;
+        sumXY = sumXY * DECAY + pixels * nanos;
+        if (++sampleCount < MIN_SAMPLES) {
+            return;
+        }
+
+        // If all samples are (nearly) the same size, then there is no way to
+        // tell the cost of a pixel apart from the overhead, in which case (as
+        // well as when the fit is meaningless) we keep the previous estimate.
+        final double varX = n * sumXX - sumX * sumX;
+        if (varX <= 1e-6 * n * sumXX) {
+            return;
+        }
+        final double a = (n * sumXY - sumX * sumY) / varX;
+        final double b = (sumY - a * sumX) / n;
+        if (a <= 0) {
+            return;
+        }
+        regionOverhead = (float) Math.min(Math.max(b / a, 0), MAX_REGION_OVERHEAD);
+    }
+
+    /**
+     * Gets the estimated overhead of painting a region, expressed as the
+     * number of pixels that can be painted in the same time.
+     * @return the estimated overhead of painting a region
+     */
+    public float getRegionOverhead() {
+        return regionOverhead;
+    }
+}
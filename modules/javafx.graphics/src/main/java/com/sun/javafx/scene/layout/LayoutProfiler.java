@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.scene.layout;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javafx.scene.Node;
+
+/**
+ * Counts how many times the size of each Parent is computed, and how many
+ * times it is found in the measurement cache, during each layout pass. This
+ * is enabled by setting the javafx.layoutProfiler property to true, in which
+ * case the totals and the nodes which were measured the most are printed at
+ * the end of every layout pass which measured anything.
+ */
+public final class LayoutProfiler {
+
+    public static final boolean ENABLED =
+            AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+                    Boolean.getBoolean("javafx.layoutProfiler"));
+
+    private static final int REPORTED_NODES = 10;
+
+    private static final Map<Node, int[]> counts = new IdentityHashMap<>();
+    private static int passCount = 0;
+
+    private LayoutProfiler() {
+    }
+
+    public static void passStart() {
+        passCount++;
+        counts.clear();
+    }
+
+    /**
+     * Records that a size of the given node was computed, or was found in
+     * the cache if cached is true.
+     */
+    public static void measured(Node node, boolean cached) {
+        int[] count = counts.get(node);
+        if (count == null) {
+            count = new int[2];
+            counts.put(node, count);
+        }
+        count[cached ? 1 : 0]++;
+    }
+
+    public static void passEnd() {
+        if (counts.isEmpty()) {
+            return;
+        }
+        int computed = 0;
+        int cached = 0;
+        final List<Map.Entry<Node, int[]>> entries = new ArrayList<>(counts.entrySet());
+        for (Map.Entry<Node, int[]> entry : entries) {
+            computed += entry.getValue()[0];
+            cached += entry.getValue()[1];
+        }
+        entries.sort((e1, e2) -> Integer.compare(e2.getValue()[0], e1.getValue()[0]));
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append("Layout pass ").append(passCount).append(": ")
+          .append(computed).append(" sizes computed, ")
+          .append(cached).append(" cached, for ")
+          .append(entries.size()).append(" nodes\n");
+        for (int i = 0, max = Math.min(REPORTED_NODES, entries.size()); i < max; i++) {
+            final Map.Entry<Node, int[]> entry = entries.get(i);
+            sb.append("    ").append(entry.getValue()[0]).append(" computed, ")
+              .append(entry.getValue()[1]).append(" cached: ")
+              .append(entry.getKey()).append('\n');
+        }
+        System.err.print(sb);
+        counts.clear();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.scene.shape;
+
+import com.sun.javafx.geom.BaseBounds;
+import com.sun.javafx.geom.PickRay;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.scene.input.PickResultChooser;
+import com.sun.javafx.sg.prism.NGNode;
+import com.sun.javafx.util.Utils;
+import javafx.scene.Node;
+import javafx.scene.shape.InstancedMeshView;
+
+/**
+ * Used to access internal methods of InstancedMeshView.
+ */
+public class InstancedMeshViewHelper extends MeshViewHelper {
+
+    private static final InstancedMeshViewHelper theInstance;
+    private static InstancedMeshViewAccessor instancedMeshViewAccessor;
+
+    static {
+        theInstance = new InstancedMeshViewHelper();
+        Utils.forceInit(InstancedMeshView.class);
+    }
+
+    private static InstancedMeshViewHelper getInstance() {
+        return theInstance;
+    }
+
+    public static void initHelper(InstancedMeshView instancedMeshView) {
+        setHelper(instancedMeshView, getInstance());
+    }
+
+    @Override
+    protected NGNode createPeerImpl(Node node) {
+        return instancedMeshViewAccessor.doCreatePeer(node);
+    }
+
+    @Override
+    protected void updatePeerImpl(Node node) {
+        super.updatePeerImpl(node);
+        instancedMeshViewAccessor.doUpdatePeer(node);
+    }
+
+    @Override
+    protected BaseBounds computeGeomBoundsImpl(Node node, BaseBounds bounds,
+            BaseTransform tx) {
+        return instancedMeshViewAccessor.doComputeGeomBounds(node, bounds, tx);
+    }
+
+    @Override
+    protected boolean computeIntersectsImpl(Node node, PickRay pickRay,
+            PickResultChooser pickResult) {
+        return instancedMeshViewAccessor.doComputeIntersects(node, pickRay, pickResult);
+    }
+
+    public static void setInstancedMeshViewAccessor(final InstancedMeshViewAccessor newAccessor) {
+        if (instancedMeshViewAccessor != null) {
+            throw new IllegalStateException();
+        }
+
+        instancedMeshViewAccessor = newAccessor;
+    }
+
+    public interface InstancedMeshViewAccessor {
+        NGNode doCreatePeer(Node node);
+        void doUpdatePeer(Node node);
+        BaseBounds doComputeGeomBounds(Node node, BaseBounds bounds, BaseTransform tx);
+        boolean doComputeIntersects(Node node, PickRay pickRay,
+                PickResultChooser pickResult);
+    }
+
+}
@@ -25,18 +25,70 @@
 
 package com.sun.javafx.sg.prism;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import com.sun.javafx.geom.BaseBounds;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine2D;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.prism.Graphics;
+import com.sun.prism.Texture;
+import com.sun.prism.impl.PrismSettings;
 import com.sun.scenario.effect.Effect;
+import com.sun.scenario.effect.FilterContext;
+import com.sun.scenario.effect.Identity;
+import com.sun.scenario.effect.ImageData;
 import com.sun.scenario.effect.impl.prism.PrEffectHelper;
+import com.sun.scenario.effect.impl.prism.PrTexture;
 
 /**
+ * Renders the effect of a node. The result of the effect is cached (in
+ * device space) once the node has been rendered twice in a row with the
+ * same transform, up to a translation by whole device pixels, and without
+ * its content or effect having changed in between. The cached result is
+ * then drawn for as long as the node only moves by whole device pixels,
+ * which is what typically happens when, for example, a node with a drop
+ * shadow is dragged around. The cache is invalidated whenever the cache
+ * of a CacheFilter on the same node would be.
+ *
+ * The total size of the cached results is bounded by
+ * {@link PrismSettings#effectCacheSize}, evicting the results which were
+ * least recently used. The filters are only weakly referenced by the cache,
+ * so that it doesn't keep nodes which have been discarded alive, and the
+ * results of such filters are released once the filters have been collected.
+ *
+ * Effects are rendered on the render thread, while {@link #invalidate()} and
+ * {@link #dispose()} are called on the FX thread when the scene graph is
+ * synchronized with the render graph. Both happen under the render lock of
+ * the toolkit, which is what serializes access to the cache (which is shared
+ * by all filters) and to the cached result of each filter, so they are not
+ * otherwise synchronized. As with CacheFilter, invalidating a filter on the
+ * FX thread releases its cached result there.
  */
 public class EffectFilter {
+    // results larger than this are not cached, as they would make up a
+    // large part of the cache and are expensive to compute in full
+    private static final int MAX_CACHED_PIXELS = 1024 * 1024;
+
+    // the cached results, least recently used first
+    private static final LinkedHashSet<CachedResult> cachedResults =
+        new LinkedHashSet<CachedResult>();
+    private static final ReferenceQueue<EffectFilter> collectedFilters =
+        new ReferenceQueue<EffectFilter>();
+    private static long cachedBytes;
+
     private Effect effect;
     private NodeEffectInput nodeInput;
 
+    private CachedResult cachedResult;
+    private final Affine2D cachedTransform = new Affine2D();
+    private final Affine2D lastTransform = new Affine2D();
+    private int rendersSinceInvalidated;
+    private int cacheable = -1;
+
     EffectFilter(Effect effect, NGNode node) {
         this.effect = effect;
         this.nodeInput = new NodeEffectInput(node);
@@ -46,11 +98,26 @@ public class EffectFilter {
     NodeEffectInput getNodeInput() { return nodeInput; }
 
     void dispose() {
+        invalidate();
         effect = null;
         nodeInput.setNode(null);
         nodeInput = null;
     }
 
+    /**
+     * Discards the cached result, if any, because the content of the node
+     * or the effect have changed.
+     */
+    void invalidate() {
+        releaseCachedResult();
+        rendersSinceInvalidated = 0;
+        cacheable = -1;
+    }
+
+    boolean hasCachedResult() {
+        return cachedResult != null;
+    }
+
     BaseBounds getBounds(BaseBounds bounds, BaseTransform xform) {
         BaseBounds r = getEffect().getBounds(xform, nodeInput);
         return bounds.deriveWithNewBounds(r);
@@ -58,7 +125,191 @@ public class EffectFilter {
 
     void render(Graphics g) {
         NodeEffectInput nodeInput = getNodeInput();
-        PrEffectHelper.render(getEffect(), g, 0, 0, nodeInput);
+        if (!renderCached(g)) {
+            PrEffectHelper.render(getEffect(), g, 0, 0, nodeInput);
+        }
         nodeInput.flush();
     }
+
+    private boolean renderCached(Graphics g) {
+        releaseCollectedResults();
+        if (PrismSettings.effectCacheSize <= 0 || !canCache(g)) {
+            releaseCachedResult();
+            return false;
+        }
+        BaseTransform tx = g.getTransformNoClone();
+        FilterContext fctx = NGNode.getFilterContext(g);
+        if (cachedResult != null) {
+            if (isTranslatedByWholePixels(cachedTransform, tx) &&
+                drawCachedResult(g, fctx, tx))
+            {
+                // move to the most recently used end
+                cachedResults.remove(cachedResult);
+                cachedResults.add(cachedResult);
+                return true;
+            }
+            releaseCachedResult();
+        }
+        boolean stable = rendersSinceInvalidated > 0 &&
+                         isTranslatedByWholePixels(lastTransform, tx);
+        lastTransform.setTransform(tx);
+        rendersSinceInvalidated++;
+        return stable && cacheResult(fctx, tx) && drawCachedResult(g, fctx, tx);
+    }
+
+    private boolean canCache(Graphics g) {
+        if (cacheable < 0) {
+            cacheable = isCacheable(getEffect()) ? 1 : 0;
+        }
+        NGCamera camera = g.getCameraNoClone();
+        return cacheable == 1 &&
+               g.getTransformNoClone().is2D() &&
+               g.getAssociatedScreen() != null &&
+               !(g.isDepthBuffer() && g.isDepthTest()) &&
+               (camera == null || camera instanceof NGParallelCamera);
+    }
+
+    // An effect can only be cached if all of its inputs are either the
+    // node or effects whose changes are reported to the node. The image
+    // of an Identity effect (ImageInput) may be modified without this.
+    static boolean isCacheable(Effect effect) {
+        if (effect == null) {
+            return true;
+        }
+        if (effect instanceof Identity) {
+            return false;
+        }
+        for (Effect input : effect.getInputs()) {
+            if (!isCacheable(input)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static boolean isTranslatedByWholePixels(BaseTransform from, BaseTransform to) {
+        if (from.getMxx() != to.getMxx() || from.getMxy() != to.getMxy() ||
+            from.getMyx() != to.getMyx() || from.getMyy() != to.getMyy())
+        {
+            return false;
+        }
+        double dx = to.getMxt() - from.getMxt();
+        double dy = to.getMyt() - from.getMyt();
+        return dx == Math.rint(dx) && dy == Math.rint(dy);
+    }
+
+    private boolean cacheResult(FilterContext fctx, BaseTransform tx) {
+        Effect effect = getEffect();
+        BaseBounds bounds = effect.getBounds(tx, nodeInput);
+        if (bounds.isEmpty()) {
+            return false;
+        }
+        Rectangle r = new Rectangle(bounds);
+        long bytes = ((long) r.width) * r.height * 4;
+        if (((long) r.width) * r.height > MAX_CACHED_PIXELS ||
+            bytes > PrismSettings.effectCacheSize)
+        {
+            return false;
+        }
+        // the whole result is computed, rather than just the part within the
+        // clip, and it is not rendered directly so that it can be reused
+        cachedTransform.setTransform(tx);
+        ImageData res = effect.filter(fctx, cachedTransform, null, null, nodeInput);
+        if (res == null) {
+            return false;
+        }
+        if (!res.validate(fctx)) {
+            res.unref();
+            return false;
+        }
+        setCachedResult(res, bytes);
+        return true;
+    }
+
+    /**
+     * Caches the given result, which is then owned by this filter, and
+     * evicts the least recently used results to stay within the size of
+     * the cache.
+     */
+    void setCachedResult(ImageData res, long bytes) {
+        releaseCollectedResults();
+        releaseCachedResult();
+        cachedResult = new CachedResult(this, res, bytes);
+        cachedBytes += bytes;
+        cachedResults.add(cachedResult);
+        Iterator<CachedResult> results = cachedResults.iterator();
+        while (cachedBytes > PrismSettings.effectCacheSize && results.hasNext()) {
+            CachedResult lru = results.next();
+            if (lru != cachedResult) {
+                results.remove();
+                lru.release();
+                EffectFilter filter = lru.get();
+                if (filter != null) {
+                    filter.cachedResult = null;
+                }
+            }
+        }
+    }
+
+    static long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Releases the results of the filters which have been collected.
+     */
+    static void releaseCollectedResults() {
+        Reference<? extends EffectFilter> ref;
+        while ((ref = collectedFilters.poll()) != null) {
+            CachedResult result = (CachedResult) ref;
+            if (cachedResults.remove(result)) {
+                result.release();
+            }
+        }
+    }
+
+    private boolean drawCachedResult(Graphics g, FilterContext fctx, BaseTransform tx) {
+        ImageData res = cachedResult.data;
+        if (res.getFilterContext() != fctx || !res.validate(fctx)) {
+            return false;
+        }
+        float dx = (float) (tx.getMxt() - cachedTransform.getMxt());
+        float dy = (float) (tx.getMyt() - cachedTransform.getMyt());
+        Rectangle r = res.getUntransformedBounds();
+        Texture tex = ((PrTexture) res.getUntransformedImage()).getTextureObject();
+        BaseTransform origtx = tx.copy();
+        g.setTransform(null);
+        g.translate(dx, dy);
+        g.transform(res.getTransform());
+        g.drawTexture(tex, r.x, r.y, r.width, r.height);
+        g.setTransform(origtx);
+        return true;
+    }
+
+    private void releaseCachedResult() {
+        if (cachedResult != null) {
+            cachedResults.remove(cachedResult);
+            cachedResult.release();
+            cachedResult = null;
+        }
+    }
+
+    /**
+     * A cached result, which only weakly references its filter.
+     */
+    private static final class CachedResult extends WeakReference<EffectFilter> {
+        private final ImageData data;
+        private final long bytes;
+
+        CachedResult(EffectFilter filter, ImageData data, long bytes) {
+            super(filter, collectedFilters);
+            this.data = data;
+            this.bytes = bytes;
+        }
+
+        void release() {
+            data.unref();
+            cachedBytes -= bytes;
+        }
+    }
 }
@@ -113,6 +113,8 @@ public class NGCanvas extends NGNode {
     public static final byte STROKE_ARC        = OP_BASE + 9;
     public static final byte FILL_TEXT         = OP_BASE + 10;
     public static final byte STROKE_TEXT       = OP_BASE + 11;
+    public static final byte FILL_RECTS        = OP_BASE + 12;
+    public static final byte STROKE_LINES      = OP_BASE + 13;
 
     public static final byte                PATH_BASE = 40;
     public static final byte PATHSTART    = PATH_BASE + 0;
@@ -138,6 +140,9 @@ public class NGCanvas extends NGNode {
     public static final byte RESET           = UTIL_BASE + 0;
     public static final byte SET_DIMS        = UTIL_BASE + 1;
 
+    public static final byte                   LIST_BASE = 80;
+    public static final byte DRAW_LIST       = LIST_BASE + 0;
+
     public static final byte CAP_BUTT   = 0;
     public static final byte CAP_ROUND  = 1;
     public static final byte CAP_SQUARE = 2;
@@ -339,6 +344,14 @@ public class NGCanvas extends NGNode {
     private int align;
     private int baseline;
     private Affine2D transform;
+    // the transform from the coordinates of the stream being rendered to the
+    // pixels of the canvas, which is the pixel scale of the canvas for the
+    // main stream, and is concatenated with the transform a display list
+    // was drawn with while rendering the display list
+    private Affine2D baseTransform;
+    // the global alpha a display list was drawn with, which is applied on
+    // top of the global alpha of the display list
+    private float alphaScale;
     private Affine2D inverseTransform;
     private boolean inversedirty;
     private LinkedList<Path2D> clipStack;
@@ -370,11 +383,23 @@ public class NGCanvas extends NGNode {
         ngtext = new NGText();
         textLayout = new PrismTextLayout();
         transform = new Affine2D();
+        baseTransform = new Affine2D();
+        baseTransform.setToScale(highestPixelScale, highestPixelScale);
+        alphaScale = 1.0f;
         clipStack = new LinkedList<Path2D>();
         initAttributes();
     }
 
     private void initAttributes() {
+        initRenderAttributes();
+        transform.setToScale(highestPixelScale, highestPixelScale);
+        clipStack.clear();
+        resetClip(false);
+    }
+
+    // Initializes the attributes which are reset at the start of a display
+    // list (everything but the transform and the clip)
+    private void initRenderAttributes() {
         globalAlpha = 1.0f;
         blendmode = Mode.SRC_OVER;
         fillPaint = Color.BLACK;
@@ -394,9 +419,7 @@ public class NGCanvas extends NGNode {
         imageSmoothing = true;
         align = ALIGN_LEFT;
         baseline = VPos.BASELINE.ordinal();
-        transform.setToScale(highestPixelScale, highestPixelScale);
-        clipStack.clear();
-        resetClip(false);
+        effect = null;
     }
 
     static final Affine2D TEMP_PATH_TX = new Affine2D();
@@ -863,17 +886,20 @@ public class NGCanvas extends NGNode {
                     path.closePath();
                     break;
                 case PATHEND:
-                    if (highestPixelScale != 1.0f) {
-                        TEMP_TX.setToScale(highestPixelScale, highestPixelScale);
-                        path.transform(TEMP_TX);
+                    if (!baseTransform.isIdentity()) {
+                        path.transform(baseTransform);
                     }
                     break;
                 case PUSH_CLIP:
                 {
                     Path2D clippath = (Path2D) buf.getObject();
-                    if (highestPixelScale != 1.0f) {
-                        TEMP_TX.setToScale(highestPixelScale, highestPixelScale);
-                        clippath.transform(TEMP_TX);
+                    if (!baseTransform.isIdentity()) {
+                        if (buf != thebuf) {
+                            // the clip is part of a display list, which may
+                            // be rendered again, so we must not modify it
+                            clippath = new Path2D(clippath);
+                        }
+                        clippath.transform(baseTransform);
                     }
                     clipStack.addLast(clippath);
                     break;
@@ -947,18 +973,31 @@ public class NGCanvas extends NGNode {
                 }
                 case TRANSFORM:
                 {
-                    double mxx = buf.getDouble() * highestPixelScale;
-                    double mxy = buf.getDouble() * highestPixelScale;
-                    double mxt = buf.getDouble() * highestPixelScale;
-                    double myx = buf.getDouble() * highestPixelScale;
-                    double myy = buf.getDouble() * highestPixelScale;
-                    double myt = buf.getDouble() * highestPixelScale;
-                    transform.setTransform(mxx, myx, mxy, myy, mxt, myt);
+                    double mxx = buf.getDouble();
+                    double mxy = buf.getDouble();
+                    double mxt = buf.getDouble();
+                    double myx = buf.getDouble();
+                    double myy = buf.getDouble();
+                    double myt = buf.getDouble();
+                    transform.setTransform(baseTransform);
+                    transform.concatenate(mxx, mxy, mxt, myx, myy, myt);
                     inversedirty = true;
                     break;
                 }
+                case DRAW_LIST:
+                {
+                    double mxx = buf.getDouble();
+                    double mxy = buf.getDouble();
+                    double mxt = buf.getDouble();
+                    double myx = buf.getDouble();
+                    double myy = buf.getDouble();
+                    double myt = buf.getDouble();
+                    GrowableDataBuffer list = (GrowableDataBuffer) buf.getObject();
+                    renderDisplayList(list, mxx, mxy, mxt, myx, myy, myt);
+                    break;
+                }
                 case GLOBAL_ALPHA:
-                    globalAlpha = buf.getFloat();
+                    globalAlpha = buf.getFloat() * alphaScale;
                     break;
                 case FILL_RULE:
                     if (buf.getByte() == FILL_RULE_NON_ZERO) {
@@ -1056,6 +1095,8 @@ public class NGCanvas extends NGNode {
                 case DRAW_SUBIMAGE:
                 case FILL_TEXT:
                 case STROKE_TEXT:
+                case FILL_RECTS:
+                case STROKE_LINES:
                 {
                     RenderBuf dest;
                     boolean tempvalidated;
@@ -1166,6 +1207,111 @@ public class NGCanvas extends NGNode {
         }
     }
 
+    /**
+     * Renders the commands of a display list, which were recorded with their
+     * own set of attributes (starting from the defaults), on top of the
+     * current transform, clip and global alpha. All attributes are restored
+     * afterwards, and any clips the display list leaves behind are popped.
+     */
+    private void renderDisplayList(GrowableDataBuffer list,
+                                   double mxx, double mxy, double mxt,
+                                   double myx, double myy, double myt)
+    {
+        DisplayListState saved = new DisplayListState(this);
+        int numClips = clipStack.size();
+
+        baseTransform = new Affine2D(baseTransform);
+        baseTransform.concatenate(mxx, mxy, mxt, myx, myy, myt);
+        alphaScale *= globalAlpha;
+        initRenderAttributes();
+        globalAlpha = alphaScale;
+        transform.setTransform(baseTransform);
+        inversedirty = true;
+
+        list.rewind();
+        renderStream(list);
+
+        while (clipStack.size() > numClips) {
+            resetClip(true);
+            clipStack.removeLast();
+        }
+        saved.restore(this);
+    }
+
+    /**
+     * The attributes of an NGCanvas, as saved while rendering a display list.
+     */
+    private static class DisplayListState {
+        private final float globalAlpha;
+        private final Blend.Mode blendmode;
+        private final Paint fillPaint, strokePaint;
+        private final float linewidth;
+        private final int linecap, linejoin;
+        private final float miterlimit;
+        private final double[] dashes;
+        private final float dashOffset;
+        private final BasicStroke stroke;
+        private final int windingRule;
+        private final PGFont pgfont;
+        private final int smoothing;
+        private final boolean imageSmoothing;
+        private final int align;
+        private final int baseline;
+        private final Effect effect;
+        private final Affine2D transform;
+        private final Affine2D baseTransform;
+        private final float alphaScale;
+
+        DisplayListState(NGCanvas canvas) {
+            globalAlpha = canvas.globalAlpha;
+            blendmode = canvas.blendmode;
+            fillPaint = canvas.fillPaint;
+            strokePaint = canvas.strokePaint;
+            linewidth = canvas.linewidth;
+            linecap = canvas.linecap;
+            linejoin = canvas.linejoin;
+            miterlimit = canvas.miterlimit;
+            dashes = canvas.dashes;
+            dashOffset = canvas.dashOffset;
+            stroke = canvas.stroke;
+            windingRule = canvas.path.getWindingRule();
+            pgfont = canvas.pgfont;
+            smoothing = canvas.smoothing;
+            imageSmoothing = canvas.imageSmoothing;
+            align = canvas.align;
+            baseline = canvas.baseline;
+            effect = canvas.effect;
+            transform = new Affine2D(canvas.transform);
+            baseTransform = canvas.baseTransform;
+            alphaScale = canvas.alphaScale;
+        }
+
+        void restore(NGCanvas canvas) {
+            canvas.globalAlpha = globalAlpha;
+            canvas.blendmode = blendmode;
+            canvas.fillPaint = fillPaint;
+            canvas.strokePaint = strokePaint;
+            canvas.linewidth = linewidth;
+            canvas.linecap = linecap;
+            canvas.linejoin = linejoin;
+            canvas.miterlimit = miterlimit;
+            canvas.dashes = dashes;
+            canvas.dashOffset = dashOffset;
+            canvas.stroke = stroke;
+            canvas.path.setWindingRule(windingRule);
+            canvas.pgfont = pgfont;
+            canvas.smoothing = smoothing;
+            canvas.imageSmoothing = imageSmoothing;
+            canvas.align = align;
+            canvas.baseline = baseline;
+            canvas.effect = effect;
+            canvas.transform.setTransform(transform);
+            canvas.inversedirty = true;
+            canvas.baseTransform = baseTransform;
+            canvas.alphaScale = alphaScale;
+        }
+    }
+
     /**
      * Calculate bounds and/or render one single rendering operation.
      * All of the data for the rendering operation should be consumed
@@ -1263,6 +1409,67 @@ public class NGCanvas extends NGNode {
                 }
                 break;
             }
+            case STROKE_LINES:
+                strokeBounds = true;
+            case FILL_RECTS:
+            {
+                // Each item is 4 coordinates, either x, y, w, h for rects
+                // or x1, y1, x2, y2 for lines, and may have its own paint.
+                // All items share the clip, blend and effect set up by the
+                // caller, and consecutive items are accumulated into a
+                // single vertex batch by the Graphics.
+                float coords[] = (float[]) buf.getObject();
+                Object paints[] = (Object[]) buf.getObject();
+                boolean lines = (token == STROKE_LINES);
+                if (bounds != null) {
+                    float x0 = Float.POSITIVE_INFINITY, y0 = Float.POSITIVE_INFINITY;
+                    float x1 = Float.NEGATIVE_INFINITY, y1 = Float.NEGATIVE_INFINITY;
+                    for (int i = 0; i < coords.length; i += 4) {
+                        float ax = coords[i];
+                        float ay = coords[i+1];
+                        float bx = lines ? coords[i+2] : ax + coords[i+2];
+                        float by = lines ? coords[i+3] : ay + coords[i+3];
+                        x0 = Math.min(x0, Math.min(ax, bx));
+                        y0 = Math.min(y0, Math.min(ay, by));
+                        x1 = Math.max(x1, Math.max(ax, bx));
+                        y1 = Math.max(y1, Math.max(ay, by));
+                    }
+                    if (x0 <= x1 && y0 <= y1) {
+                        bounds.setBounds(x0, y0, x1, y1);
+                        transformBounds = true;
+                    } else {
+                        bounds.makeEmpty();
+                        strokeBounds = false;
+                    }
+                }
+                if (gr != null) {
+                    Paint defaultPaint;
+                    if (lines) {
+                        setupStroke(gr);
+                        defaultPaint = strokePaint;
+                    } else {
+                        setupFill(gr);
+                        defaultPaint = fillPaint;
+                    }
+                    Paint curPaint = defaultPaint;
+                    for (int i = 0, n = 0; i < coords.length; i += 4, n++) {
+                        if (paints != null) {
+                            Paint p = (Paint) paints[n];
+                            if (p == null) p = defaultPaint;
+                            if (p != curPaint) {
+                                gr.setPaint(p);
+                                curPaint = p;
+                            }
+                        }
+                        if (lines) {
+                            gr.drawLine(coords[i], coords[i+1], coords[i+2], coords[i+3]);
+                        } else {
+                            gr.fillRect(coords[i], coords[i+1], coords[i+2], coords[i+3]);
+                        }
+                    }
+                }
+                break;
+            }
             case STROKE_ROUND_RECT:
                 strokeBounds = true;
             case FILL_ROUND_RECT:
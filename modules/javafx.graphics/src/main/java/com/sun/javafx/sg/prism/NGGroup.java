@@ -70,9 +70,9 @@ public class NGGroup extends NGNode {
 
     /**
      * This mask has all bits that mark that a region intersects this group.
-     * Which means it looks like this: 00010101010101010101010101010101 (first bit for sign)
+     * Which means it looks like this: 0001010101...01010101 (first bit for sign)
      */
-    private static final int REGION_INTERSECTS_MASK = 0x15555555;
+    private static final long REGION_INTERSECTS_MASK = 0x1555555555555555L;
 
     /***************************************************************************
      *                                                                         *
@@ -258,6 +258,14 @@ public class NGGroup extends NGNode {
         if (blendMode == Blend.Mode.SRC_OVER ||
                 orderedChildren.size() < 2) {  // Blend modes only work "between" siblings
 
+            final OcclusionCuller culler = OcclusionCuller.getInstance();
+            if (startPos < orderedChildren.size() && culler.isEnabled(g)) {
+                // the next node of the render root may not be one of the
+                // children, in which case all of them are rendered
+                renderChildrenWithOcclusion(g, orderedChildren, Math.max(startPos, 0), culler);
+                return;
+            }
+
             for (int i = startPos; i < orderedChildren.size(); i++) {
                 NGNode child;
                 try {
@@ -346,6 +354,37 @@ public class NGGroup extends NGNode {
         return (mode != null);
     }
 
+    // Returns whether the children of this group are painted directly into the
+    // Graphics that this group is rendered with, in which case any opaque
+    // children hide whatever was painted below this group.
+    boolean rendersChildrenDirectly() {
+        return isVisible() && getOpacity() == 1f && getEffect() == null
+                && getClipNode() == null && !needsBlending()
+                && blendMode == Blend.Mode.SRC_OVER;
+    }
+
+    // Renders the children (from startPos), skipping those which are entirely
+    // hidden by opaque nodes painted after them. See OcclusionCuller.
+    private void renderChildrenWithOcclusion(Graphics g, List<NGNode> orderedChildren,
+                                             int startPos, OcclusionCuller culler) {
+        final int occluderCount = culler.getOccluderCount();
+        final int handle = culler.begin(g, orderedChildren, startPos);
+        try {
+            for (int i = startPos; i < orderedChildren.size(); i++) {
+                final NGNode child = orderedChildren.get(i);
+                if (culler.prepareChild(handle, i - startPos)) {
+                    child.render(g);
+                } else {
+                    // the child is hidden, but it may have dirty state which
+                    // would otherwise cause it to be repainted on every pulse
+                    child.clearDirtyTree();
+                }
+            }
+        } finally {
+            culler.end(handle, occluderCount);
+        }
+    }
+
     /***************************************************************************
      *                                                                         *
      *                     Culling Related Methods                             *
@@ -358,7 +397,7 @@ public class NGGroup extends NGNode {
         // If the NGGroup is completely outside the culling area, then we don't have to traverse down
         // to the children yo.
         if (cullingIndex != -1) {
-            final int bits = cullingBits >> (cullingIndex*2);
+            final long bits = cullingBits >> (cullingIndex*2);
             if ((bits & DIRTY_REGION_CONTAINS_OR_INTERSECTS_NODE_BOUNDS) == 0) {
                 return RenderRootResult.NO_RENDER_ROOT;
             }
@@ -445,7 +484,7 @@ public class NGGroup extends NGNode {
     @Override
     protected void markCullRegions(
             DirtyRegionContainer drc,
-            int cullingRegionsBitsOfParent,
+            long cullingRegionsBitsOfParent,
             BaseTransform tx,
             GeneralTransform3D pvTx) {
 
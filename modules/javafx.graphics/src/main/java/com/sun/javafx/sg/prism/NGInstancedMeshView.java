@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.sg.prism;
+
+import com.sun.javafx.geom.transform.Affine3D;
+import com.sun.prism.Graphics;
+import com.sun.prism.Material;
+import com.sun.prism.MeshView;
+import com.sun.prism.PhongMaterial;
+
+/**
+ * The peer of an InstancedMeshView. The mesh is rendered once for each
+ * instance, with the transform (and color) of that instance, all from within
+ * this single node, so the native mesh and its material are only set up once.
+ */
+public class NGInstancedMeshView extends NGMeshView {
+
+    // 12 values per instance, the rows of a 3x4 affine transform
+    private float[] transforms = new float[0];
+    // 4 values (r, g, b, a) per instance, or null
+    private float[] colors;
+    private int instanceCount;
+    // The copy of the material whose diffuse color is set per instance
+    private NGPhongMaterial colorMaterial;
+
+    private final Affine3D savedTx = new Affine3D();
+    private final Affine3D instanceTx = new Affine3D();
+
+    public void setInstances(float[] transforms, float[] colors, int instanceCount) {
+        this.transforms = transforms;
+        this.colors = colors;
+        this.instanceCount = instanceCount;
+        visualsChanged();
+    }
+
+    @Override
+    void renderMesh(Graphics g, MeshView meshView, NGPhongMaterial material) {
+        if (instanceCount == 0) {
+            return;
+        }
+
+        // The material may be shared with other shapes, so the instance
+        // colors are set on a copy of it which belongs to this node
+        PhongMaterial instanceMaterial = null;
+        if (colors != null) {
+            if (colorMaterial == null) {
+                colorMaterial = new NGPhongMaterial();
+            }
+            colorMaterial.copyFrom(material);
+            Material mtl = colorMaterial.createMaterial(g.getResourceFactory());
+            if (mtl instanceof PhongMaterial) {
+                instanceMaterial = (PhongMaterial) mtl;
+                meshView.setMaterial(instanceMaterial);
+            }
+        }
+
+        savedTx.setTransform(g.getTransformNoClone());
+        try {
+            for (int i = 0; i < instanceCount; i++) {
+                final int k = i * 12;
+                instanceTx.setTransform(savedTx);
+                instanceTx.concatenate(
+                        transforms[k],     transforms[k + 1], transforms[k + 2],  transforms[k + 3],
+                        transforms[k + 4], transforms[k + 5], transforms[k + 6],  transforms[k + 7],
+                        transforms[k + 8], transforms[k + 9], transforms[k + 10], transforms[k + 11]);
+                g.setTransform(instanceTx);
+                if (instanceMaterial != null) {
+                    final int c = i * 4;
+                    instanceMaterial.setDiffuseColor(colors[c], colors[c + 1], colors[c + 2], colors[c + 3]);
+                }
+                super.renderMesh(g, meshView, material);
+            }
+        } finally {
+            g.setTransform(savedTx);
+            if (instanceMaterial != null) {
+                // NGShape3D only sets the material of the mesh view when
+                // it has changed
+                meshView.setMaterial(material.createMaterial(g.getResourceFactory()));
+            }
+        }
+    }
+}
@@ -243,7 +243,7 @@ public abstract class NGNode {
     /**
      * Marks position of this node in dirty regions.
      */
-    protected int cullingBits = 0x0;
+    protected long cullingBits = 0x0;
     private DirtyHint hint;
 
     /**
@@ -267,7 +267,7 @@ public abstract class NGNode {
      * was rendered by dirty region 3, then it would have the 3rd bit from the
      * right set ( that is, 1 << 2)
      */
-    private int painted = 0;
+    private long painted = 0;
 
     protected NGNode() { }
 
@@ -945,6 +945,9 @@ public abstract class NGNode {
         if (cacheFilter != null) {
             cacheFilter.invalidate();
         }
+        if (effectFilter != null) {
+            effectFilter.invalidate();
+        }
     }
 
     /**
@@ -955,6 +958,10 @@ public abstract class NGNode {
         if (cacheFilter != null) {
             cacheFilter.invalidateByTranslation(hint.translateXDelta, hint.translateYDelta);
         }
+        // a child has moved, so the input of the effect has changed
+        if (effectFilter != null) {
+            effectFilter.invalidate();
+        }
     }
 
     /***************************************************************************
@@ -1349,7 +1356,7 @@ public abstract class NGNode {
      * 01 - node intersecting dirty region
      * 11 - node completely within dirty region
      *
-     * 32 bits = 15 regions max. * 2 bit each. The first two bits are not used
+     * 64 bits = 31 regions max. * 2 bit each. The first two bits are not used
      * because we have a special use case for -1, so they should only be set if
      * in that case.
      *
@@ -1360,7 +1367,7 @@ public abstract class NGNode {
      */
     void markCullRegions(
             DirtyRegionContainer drc,
-            int cullingRegionsBitsOfParent,
+            long cullingRegionsBitsOfParent,
             BaseTransform tx,
             GeneralTransform3D pvTx) {
 
@@ -1383,7 +1390,7 @@ public abstract class NGNode {
 
         cullingBits = 0;
         RectBounds region;
-        int mask = 0x1; // Check only for intersections
+        long mask = 0x1; // Check only for intersections
         for(int i = 0; i < drc.size(); i++) {
             region = drc.getDirtyRegion(i);
             if (region == null || region.isEmpty()) {
@@ -1401,7 +1408,7 @@ public abstract class NGNode {
                 if (region.contains(TEMP_RECT_BOUNDS)) {
                     b = DIRTY_REGION_CONTAINS_NODE_BOUNDS;
                 }
-                cullingBits = cullingBits | (b << (2 * i));
+                cullingBits = cullingBits | ((long) b << (2 * i));
             }
             mask = mask << 2;
         }//for
@@ -1413,7 +1420,7 @@ public abstract class NGNode {
         }
 
 //        System.out.printf("%s bits: %s bounds: %s\n",
-//            this, Integer.toBinaryString(cullingBits), TEMP_RECT_BOUNDS);
+//            this, Long.toBinaryString(cullingBits), TEMP_RECT_BOUNDS);
     }
 
     /**
@@ -1465,9 +1472,9 @@ public abstract class NGNode {
         }
 
         if (node.cullingBits != 0) {
-            int mask = 0x11;
-            for (int i=0; i<15; i++) {
-                int bits = node.cullingBits & mask;
+            long mask = 0x11;
+            for (int i=0; i<31; i++) {
+                long bits = node.cullingBits & mask;
                 if (bits != 0) {
                     stuff.add(bits == 1 ? "i" + i : bits == 0 ? "c" + i : "ci" + i);
                 }
@@ -1523,7 +1530,7 @@ public abstract class NGNode {
      */
     public void drawDirtyOpts(final BaseTransform tx, final GeneralTransform3D pvTx,
                               Rectangle clipBounds, int[] colorBuffer, int dirtyRegionIndex) {
-        if ((painted & (1 << (dirtyRegionIndex * 2))) != 0) {
+        if ((painted & (1L << (dirtyRegionIndex * 2))) != 0) {
             // Transforming the content bounds (which includes the clip) to screen coordinates
             tx.copy().deriveWithConcatenation(getTransform()).transform(contentBounds, TEMP_BOUNDS);
             if (pvTx != null) pvTx.transform(TEMP_BOUNDS, TEMP_BOUNDS);
@@ -1563,7 +1570,7 @@ public abstract class NGNode {
                     // as my counters).
                     if (color == 0) {
                         color = 0x8007F00;
-                    } else if ((painted & (3 << (dirtyRegionIndex * 2))) == 3) {
+                    } else if (((painted >> (dirtyRegionIndex * 2)) & 3) == 3) {
                         switch (color) {
                             case 0x80007F00:
                                 color = 0x80008000;
@@ -1727,7 +1734,7 @@ public abstract class NGNode {
         // Nodes outside of the dirty region can be excluded immediately.
         // This can be used only if the culling information is provided.
         if (cullingIndex != -1) {
-            final int bits = cullingBits >> (cullingIndex * 2);
+            final long bits = cullingBits >> (cullingIndex * 2);
             if ((bits & DIRTY_REGION_CONTAINS_OR_INTERSECTS_NODE_BOUNDS) == 0x00) {
                 return RenderRootResult.NO_RENDER_ROOT;
             }
@@ -1997,7 +2004,7 @@ public abstract class NGNode {
         if (PrismSettings.dirtyOptsEnabled) {
             if (g.hasPreCullingBits()) {
                 //preculling bits available
-                final int bits = cullingBits >> (g.getClipRectIndex() * 2);
+                final long bits = cullingBits >> (g.getClipRectIndex() * 2);
                 if ((bits & DIRTY_REGION_CONTAINS_OR_INTERSECTS_NODE_BOUNDS) == 0) {
                     // If no culling bits are set for this region, this group
                     // does not intersect (nor is covered by) the region
@@ -2097,9 +2104,9 @@ public abstract class NGNode {
         // with our shaders or do something much more invasive to get better data here.
         if (PrismSettings.showOverdraw) {
             if (p) {
-                painted |= 3 << (g.getClipRectIndex() * 2);
+                painted |= 3L << (g.getClipRectIndex() * 2);
             } else {
-                painted |= 1 << (g.getClipRectIndex() * 2);
+                painted |= 1L << (g.getClipRectIndex() * 2);
             }
         }
     }
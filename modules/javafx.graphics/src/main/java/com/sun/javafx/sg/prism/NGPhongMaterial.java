@@ -104,6 +104,32 @@ public class NGPhongMaterial {
         }
     }
 
+    // Makes this material render in the same way as the given material,
+    // apart from its diffuse color. This is used by NGInstancedMeshView,
+    // which sets the diffuse color of its own copy of the material for each
+    // instance. The maps are copied rather than shared, as each material
+    // binds the textures of its maps itself, and a map is only marked dirty
+    // if it has changed (or if it is dirty in the given material).
+    void copyFrom(NGPhongMaterial m) {
+        if (specularColor != m.specularColor) {
+            setSpecularColor(m.specularColor);
+        }
+        if (specularPower != m.specularPower) {
+            setSpecularPower(m.specularPower);
+        }
+        copyMap(m.diffuseMap, diffuseMap);
+        copyMap(m.specularMap, specularMap);
+        copyMap(m.bumpMap, bumpMap);
+        copyMap(m.selfIllumMap, selfIllumMap);
+    }
+
+    private static void copyMap(TextureMap from, TextureMap to) {
+        if (from.isDirty() || from.getImage() != to.getImage()) {
+            to.setImage(from.getImage());
+            to.setDirty(true);
+        }
+    }
+
     public void setDiffuseColor(Object diffuseColor) {
         this.diffuseColor = (Color)diffuseColor;
         diffuseColorDirty = true;
@@ -91,15 +91,6 @@ public abstract class NGShape3D extends NGNode {
             materialDirty = false;
         }
 
-        // NOTE: Always check determinant in case of mirror transform.
-        int cullingMode = cullFace.ordinal();
-        if (cullFace.ordinal() != MeshView.CULL_NONE
-                && g.getTransformNoClone().getDeterminant() < 0) {
-            cullingMode = cullingMode == MeshView.CULL_BACK
-                    ? MeshView.CULL_FRONT : MeshView.CULL_BACK;
-        }
-        meshView.setCullingMode(cullingMode);
-
         if (drawModeDirty) {
             meshView.setWireframe(drawMode == DrawMode.LINE);
             drawModeDirty = false;
@@ -176,6 +167,23 @@ public abstract class NGShape3D extends NGNode {
                 meshView.setPointLight(pointLightIdx++, 0, 0, 0, 0, 0, 0, 0);
         }
 
+        renderMesh(g, meshView, material);
+    }
+
+    /**
+     * Renders the given mesh view, which has been set up with the material and
+     * lights of this shape, with the current transform of the Graphics.
+     */
+    void renderMesh(Graphics g, MeshView meshView, NGPhongMaterial material) {
+        // NOTE: Always check determinant in case of mirror transform.
+        int cullingMode = cullFace.ordinal();
+        if (cullFace.ordinal() != MeshView.CULL_NONE
+                && g.getTransformNoClone().getDeterminant() < 0) {
+            cullingMode = cullingMode == MeshView.CULL_BACK
+                    ? MeshView.CULL_FRONT : MeshView.CULL_BACK;
+        }
+        meshView.setCullingMode(cullingMode);
+
         meshView.render(g);
     }
 
@@ -58,6 +58,11 @@ public class NGTriangleMesh {
     private int[] faceSmoothingGroups;
     private int[] faceSmoothingGroupsFromAndLengthIndices = new int[2];
 
+    // The range of each sync. The ranges above accumulate the ranges of all
+    // syncs since the geometry was last built, as the mesh may be synced more
+    // than once before it is rendered.
+    private final int[] syncFromAndLengthIndices = new int[2];
+
     Mesh createMesh(ResourceFactory rf) {
         if (mesh == null) {
             mesh = rf.createMesh();
@@ -81,6 +86,11 @@ public class NGTriangleMesh {
                 throw new RuntimeException("NGTriangleMesh: buildGeometry failed");
             }
             meshDirty = false;
+            pointsFromAndLengthIndices[1] = 0;
+            normalsFromAndLengthIndices[1] = 0;
+            texCoordsFromAndLengthIndices[1] = 0;
+            facesFromAndLengthIndices[1] = 0;
+            faceSmoothingGroupsFromAndLengthIndices[1] = 0;
         }
         return true;
     }
@@ -135,27 +145,49 @@ public class NGTriangleMesh {
 
     public void syncPoints(FloatArraySyncer array) {
         meshDirty = true;
-        points = array != null ? array.syncTo(points, pointsFromAndLengthIndices) : null;
+        points = array != null ? array.syncTo(points, syncFromAndLengthIndices) : null;
+        addRange(pointsFromAndLengthIndices, syncFromAndLengthIndices);
     }
 
     public void syncNormals(FloatArraySyncer array) {
         meshDirty = true;
-        normals = array != null ? array.syncTo(normals, normalsFromAndLengthIndices) : null;
+        normals = array != null ? array.syncTo(normals, syncFromAndLengthIndices) : null;
+        addRange(normalsFromAndLengthIndices, syncFromAndLengthIndices);
     }
 
     public void syncTexCoords(FloatArraySyncer array) {
         meshDirty = true;
-        texCoords = array != null ? array.syncTo(texCoords, texCoordsFromAndLengthIndices) : null;
+        texCoords = array != null ? array.syncTo(texCoords, syncFromAndLengthIndices) : null;
+        addRange(texCoordsFromAndLengthIndices, syncFromAndLengthIndices);
     }
 
     public void syncFaces(IntegerArraySyncer array) {
         meshDirty = true;
-        faces = array != null ? array.syncTo(faces, facesFromAndLengthIndices) : null;
+        faces = array != null ? array.syncTo(faces, syncFromAndLengthIndices) : null;
+        addRange(facesFromAndLengthIndices, syncFromAndLengthIndices);
     }
 
     public void syncFaceSmoothingGroups(IntegerArraySyncer array) {
         meshDirty = true;
-        faceSmoothingGroups = array != null ? array.syncTo(faceSmoothingGroups, faceSmoothingGroupsFromAndLengthIndices) : null;
+        faceSmoothingGroups = array != null ? array.syncTo(faceSmoothingGroups, syncFromAndLengthIndices) : null;
+        addRange(faceSmoothingGroupsFromAndLengthIndices, syncFromAndLengthIndices);
+    }
+
+    // Adds the range of the last sync (if any) to the given range
+    private static void addRange(int[] fromAndLengthIndices, int[] range) {
+        if (range[1] == 0) {
+            return;
+        }
+        if (fromAndLengthIndices[1] == 0) {
+            fromAndLengthIndices[0] = range[0];
+            fromAndLengthIndices[1] = range[1];
+        } else {
+            int from = Math.min(fromAndLengthIndices[0], range[0]);
+            int to = Math.max(fromAndLengthIndices[0] + fromAndLengthIndices[1], range[0] + range[1]);
+            fromAndLengthIndices[0] = from;
+            fromAndLengthIndices[1] = to - from;
+        }
+        range[1] = 0;
     }
 
     // NOTE: This method is used for unit test purpose only.
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.sg.prism;
+
+import java.util.Arrays;
+import java.util.List;
+import com.sun.javafx.geom.BaseBounds;
+import com.sun.javafx.geom.BoxBounds;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine3D;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.logging.PulseLogger;
+import com.sun.prism.Graphics;
+import com.sun.prism.impl.PrismSettings;
+
+import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
+
+/**
+ * Culls nodes that are completely hidden by opaque nodes that are painted
+ * after them. This complements the render root: the render root is a single
+ * node whose opaque region covers an entire dirty region, whereas this
+ * handles nodes which are covered by an opaque node that only covers part of
+ * the dirty region (for example an opaque panel or overlay on top of other
+ * content).
+ *
+ * When an NGGroup renders its children, it first visits them from the top
+ * most child to the bottom most child. Each child whose device space bounds
+ * (within the current clip) lie entirely within the opaque region of a child
+ * above it, or of a node above one of the ancestors of the group, is marked
+ * as occluded. Otherwise, its own opaque region (if any) is pushed onto a
+ * stack of occluders. The children are then rendered from the bottom up as
+ * usual, skipping those that are occluded, and with the occluder stack
+ * truncated to the occluders above the child being rendered. In this way a
+ * group nested within a child only sees the occluders which are painted
+ * after it.
+ *
+ * Occluders are only used for the Graphics they were found with, so that
+ * content rendered into an intermediate image (for an effect, cache, or
+ * non-opaque group for example) is never culled by occluders of the scene.
+ * Culling is disabled when a depth buffer is in use, or with a perspective
+ * camera, as the paint order then no longer determines visibility. Only
+ * opaque regions which remain axis aligned in device space are used.
+ * Culling is off unless prism.occlusion.culling is set to true.
+ *
+ * This is only ever used from the render thread.
+ */
+final class OcclusionCuller {
+
+    private static final OcclusionCuller INSTANCE = new OcclusionCuller();
+
+    static OcclusionCuller getInstance() {
+        return INSTANCE;
+    }
+
+    private static final int MAX_GROUP_DEPTH = 3;
+    private static final int MAX_GROUP_CHILDREN = 8;
+
+    private final Affine3D tempTx = new Affine3D();
+    private final Affine3D[] groupTransforms = {
+        new Affine3D(), new Affine3D(), new Affine3D()
+    };
+    private BaseBounds tempBounds = new BoxBounds();
+    private final RectBounds tempRect = new RectBounds();
+
+    // the occluder stack, each occluder is an axis aligned device space
+    // rectangle (minX, minY, maxX, maxY) along with the Graphics it applies to
+    private Graphics[] owners = new Graphics[16];
+    private float[] rects = new float[16 * 4];
+    private int occluderCount = 0;
+    private int maxOccluderCount = 0;
+
+    // for each child of each group currently being rendered, the size of the
+    // occluder stack when the child is rendered, or ~size if the child is
+    // occluded
+    private int[] marks = new int[64];
+    private int markCount = 0;
+
+    // prism.occlusion.culling, which is off by default
+    private boolean enabled = PrismSettings.occlusionCullingEnabled;
+
+    private OcclusionCuller() { }
+
+    void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Returns whether occlusion culling may be used when rendering with the
+     * given Graphics.
+     */
+    boolean isEnabled(Graphics g) {
+        return enabled
+                && !g.isDepthBuffer()
+                && (g.getCameraNoClone() == null || g.getCameraNoClone() instanceof NGParallelCamera);
+    }
+
+    /**
+     * Visits the given children (from the last to the first child at index
+     * {@code from}) to determine which are occluded. This must be paired with
+     * a call to {@link #end(int, int)}.
+     *
+     * @return the handle to pass to {@link #prepareChild} and {@link #end}
+     */
+    int begin(Graphics g, List<NGNode> children, int from) {
+        final int count = children.size() - from;
+        final int handle = markCount;
+        if (marks.length < markCount + count) {
+            marks = Arrays.copyOf(marks, Math.max(markCount + count, marks.length * 2));
+        }
+        markCount += count;
+
+        final BaseTransform tx = g.getTransformNoClone();
+        final Rectangle clip = g.getClipRectNoClone();
+        for (int i = children.size() - 1; i >= from; i--) {
+            final NGNode child = children.get(i);
+            int mark = occluderCount;
+            if (isOccluded(g, child, tx, clip)) {
+                mark = ~mark;
+                if (PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Nodes culled by occlusion");
+                }
+            } else {
+                addOccluder(g, child, tx);
+            }
+            marks[handle + i - from] = mark;
+        }
+        return handle;
+    }
+
+    /**
+     * Prepares to render the child at the given index (relative to the
+     * {@code from} index given to begin), and returns false if the child is
+     * occluded and should not be rendered.
+     */
+    boolean prepareChild(int handle, int index) {
+        final int mark = marks[handle + index];
+        if (mark < 0) {
+            occluderCount = ~mark;
+            return false;
+        }
+        occluderCount = mark;
+        return true;
+    }
+
+    /**
+     * Restores the state as it was before the matching call to begin.
+     */
+    void end(int handle, int occluderCount) {
+        this.markCount = handle;
+        this.occluderCount = occluderCount;
+        if (occluderCount == 0 && maxOccluderCount > 0) {
+            // don't hold on to the Graphics objects between frames
+            Arrays.fill(owners, 0, maxOccluderCount, null);
+            maxOccluderCount = 0;
+        }
+    }
+
+    int getOccluderCount() {
+        return occluderCount;
+    }
+
+    private boolean isOccluded(Graphics g, NGNode child, BaseTransform tx, Rectangle clip) {
+        if (occluderCount == 0 || !child.isVisible()) return false;
+
+        tempBounds = child.getCompleteBounds(tempBounds, tx);
+        if (tempBounds.isEmpty()) return false;
+
+        float minX = tempBounds.getMinX();
+        float minY = tempBounds.getMinY();
+        float maxX = tempBounds.getMaxX();
+        float maxY = tempBounds.getMaxY();
+        if (clip != null) {
+            // only the part of the child within the clip will be painted
+            minX = Math.max(minX, clip.x);
+            minY = Math.max(minY, clip.y);
+            maxX = Math.min(maxX, clip.x + clip.width);
+            maxY = Math.min(maxY, clip.y + clip.height);
+            if (minX >= maxX || minY >= maxY) return false;
+        }
+
+        for (int i = occluderCount - 1; i >= 0; i--) {
+            if (owners[i] != g) continue;
+            final int k = i * 4;
+            if (rects[k] <= minX && rects[k + 1] <= minY && rects[k + 2] >= maxX && rects[k + 3] >= maxY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addOccluder(Graphics g, NGNode child, BaseTransform tx) {
+        addOccluder(g, child, tx, 0);
+    }
+
+    private void addOccluder(Graphics g, NGNode child, BaseTransform tx, int depth) {
+        if (!child.isVisible()) return;
+
+        final RectBounds opaqueRegion = child.getOpaqueRegion();
+        if (opaqueRegion == null) {
+            // A group never has an opaque region of its own, but when its
+            // children are painted directly, their opaque regions also hide
+            // whatever is below the group. We only look a few levels deep
+            // into small groups, to bound the cost of this.
+            if (child instanceof NGGroup && depth < MAX_GROUP_DEPTH) {
+                final NGGroup group = (NGGroup) child;
+                final List<NGNode> children = group.getChildren();
+                if (children.size() <= MAX_GROUP_CHILDREN && group.rendersChildrenDirectly()) {
+                    final Affine3D groupTx = groupTransforms[depth];
+                    groupTx.setTransform(tx);
+                    groupTx.concatenate(group.getTransform());
+                    for (int i = 0; i < children.size(); i++) {
+                        addOccluder(g, children.get(i), groupTx, depth + 1);
+                    }
+                }
+            }
+            return;
+        }
+
+        tempTx.setTransform(tx);
+        tempTx.concatenate(child.getTransform());
+        if ((tempTx.getType() & ~(BaseTransform.TYPE_TRANSLATION
+                | BaseTransform.TYPE_QUADRANT_ROTATION
+                | BaseTransform.TYPE_MASK_SCALE)) != 0) {
+            return;
+        }
+
+        tempBounds = tempTx.transform(opaqueRegion, tempBounds);
+        tempBounds.flattenInto(tempRect);
+
+        // Only whole pixels are completely covered by the opaque region, the
+        // pixels along fractional edges are (antialiased and) partially
+        // transparent, so we shrink the occluder to whole pixels
+        final float minX = (float) Math.ceil(tempRect.getMinX());
+        final float minY = (float) Math.ceil(tempRect.getMinY());
+        final float maxX = (float) Math.floor(tempRect.getMaxX());
+        final float maxY = (float) Math.floor(tempRect.getMaxY());
+        if (minX >= maxX || minY >= maxY) return;
+
+        if (owners.length == occluderCount) {
+            owners = Arrays.copyOf(owners, occluderCount * 2);
+            rects = Arrays.copyOf(rects, occluderCount * 2 * 4);
+        }
+        owners[occluderCount] = g;
+        final int k = occluderCount * 4;
+        rects[k] = minX;
+        rects[k + 1] = minY;
+        rects[k + 2] = maxX;
+        rects[k + 3] = maxY;
+        occluderCount++;
+        maxOccluderCount = Math.max(maxOccluderCount, occluderCount);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.tk;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import com.sun.javafx.logging.PulseLogger;
+
+import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
+
+/**
+ * Keeps track of the time spent in each phase of a pulse, and runs idle tasks
+ * with the time that is left in the frame once a pulse has completed.
+ *
+ * The time spent in each phase is accumulated over all scenes during a
+ * pulse, and an exponential moving average of it is kept over the recent
+ * pulses. The render phase is recorded by the render thread, and is accounted
+ * for in whichever pulse is running (or has last run) when it completes.
+ *
+ * Idle tasks are run in the order in which they were posted, at the end of a
+ * pulse, for as long as the time left in the frame is more than the average
+ * time taken by an idle task. So that idle tasks are never starved by pulses
+ * which take the whole frame, one task which has been waiting for longer than
+ * MAX_IDLE_DELAY is run at the end of each pulse regardless.
+ *
+ * Other than posting idle tasks and recording the render phase, this is only
+ * used on the FX thread.
+ */
+public final class FrameBudget {
+
+    public enum Phase {
+        ANIMATION, CSS, LAYOUT, SYNC, RENDER
+    }
+
+    public static final long MAX_IDLE_DELAY = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private static final Phase[] PHASES = Phase.values();
+
+    // the weight of the most recent pulse in the moving averages
+    private static final double SMOOTHING = 0.125;
+
+    private final long frameDuration;
+    private final long[] phaseTimes = new long[PHASES.length];
+    private final double[] averageTimes = new double[PHASES.length];
+    private final AtomicLong renderTime = new AtomicLong();
+    private long pulseStart;
+
+    private final ConcurrentLinkedQueue<IdleTask> idleTasks = new ConcurrentLinkedQueue<>();
+    private double averageIdleTaskTime;
+
+    /**
+     * Creates a FrameBudget for frames of the given duration, in nanoseconds.
+     */
+    public FrameBudget(long frameDuration) {
+        this.frameDuration = frameDuration;
+    }
+
+    public long getFrameDuration() {
+        return frameDuration;
+    }
+
+    /**
+     * Called at the start of each pulse, with the current System.nanoTime.
+     */
+    public void pulseStart(long now) {
+        // the times of the previous pulse go into the averages
+        phaseTimes[Phase.RENDER.ordinal()] = renderTime.getAndSet(0);
+        for (int i = 0; i < PHASES.length; i++) {
+            averageTimes[i] += (phaseTimes[i] - averageTimes[i]) * SMOOTHING;
+            phaseTimes[i] = 0;
+        }
+        pulseStart = now;
+    }
+
+    /**
+     * Adds the given time, in nanoseconds, to the given phase of the current
+     * pulse. Only the render phase may be recorded from the render thread.
+     */
+    public void addPhaseTime(Phase phase, long time) {
+        if (phase == Phase.RENDER) {
+            renderTime.addAndGet(time);
+        } else {
+            phaseTimes[phase.ordinal()] += time;
+        }
+    }
+
+    /**
+     * Returns the time spent in the given phase of the current pulse so far.
+     */
+    public long getPhaseTime(Phase phase) {
+        return phase == Phase.RENDER ? renderTime.get() : phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * Returns the average time spent in the given phase over recent pulses.
+     */
+    public long getAverageTime(Phase phase) {
+        return (long) averageTimes[phase.ordinal()];
+    }
+
+    /**
+     * Returns the time left in the frame of the current pulse at the given
+     * time, which is negative if the pulse has taken longer than a frame.
+     */
+    public long getRemainingTime(long now) {
+        return frameDuration - (now - pulseStart);
+    }
+
+    /**
+     * Posts a task to be run at the end of a pulse which leaves enough time
+     * in its frame. This may be called on any thread.
+     */
+    public void postIdleTask(Runnable task) {
+        idleTasks.add(new IdleTask(task, System.nanoTime()));
+    }
+
+    public boolean hasIdleTasks() {
+        return !idleTasks.isEmpty();
+    }
+
+    /**
+     * Runs as many idle tasks as fit in the time left in the frame of the
+     * current pulse, given the current System.nanoTime, and returns whether
+     * there are idle tasks left, in which case another pulse is needed.
+     */
+    public boolean runIdleTasks(long now) {
+        boolean overdueRun = false;
+        IdleTask task;
+        while ((task = idleTasks.peek()) != null) {
+            if (getRemainingTime(now) < averageIdleTaskTime) {
+                if (overdueRun || now - task.postTime < MAX_IDLE_DELAY) {
+                    break;
+                }
+                overdueRun = true;
+            }
+            if (!idleTasks.remove(task)) {
+                // already run by a nested event loop
+                continue;
+            }
+            final long start = System.nanoTime();
+            try {
+                task.runnable.run();
+            } catch (Throwable t) {
+                final Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+            }
+            final long time = System.nanoTime() - start;
+            averageIdleTaskTime += (time - averageIdleTaskTime) * SMOOTHING;
+            now += time;
+            if (PULSE_LOGGING_ENABLED) {
+                PulseLogger.incrementCounter("Idle tasks run");
+            }
+        }
+        return !idleTasks.isEmpty();
+    }
+
+    private static final class IdleTask {
+        final Runnable runnable;
+        final long postTime;
+
+        IdleTask(Runnable runnable, long postTime) {
+            this.runnable = runnable;
+            this.postTime = postTime;
+        }
+    }
+}
@@ -58,6 +58,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -70,6 +71,8 @@ import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import com.sun.glass.ui.CommonDialogs.FileChooserResult;
 import com.sun.glass.ui.GlassRobot;
 import com.sun.glass.utils.NativeLibLoader;
@@ -559,6 +562,33 @@ public abstract class Toolkit {
     // this flag is cleared each cycle so subsequent pulses must be requested
     public abstract void requestNextPulse();
 
+    private volatile FrameBudget frameBudget;
+
+    public final FrameBudget getFrameBudget() {
+        FrameBudget budget = frameBudget;
+        if (budget == null) {
+            synchronized (this) {
+                budget = frameBudget;
+                if (budget == null) {
+                    final int refreshRate = getRefreshRate();
+                    budget = frameBudget = new FrameBudget(
+                            TimeUnit.SECONDS.toNanos(1) / (refreshRate > 0 ? refreshRate : 60));
+                }
+            }
+        }
+        return budget;
+    }
+
+    /**
+     * Runs the given runnable on the FX thread at the end of a pulse which
+     * leaves enough time in its frame, see FrameBudget. Pulses are requested
+     * until all idle tasks have been run. This may be called on any thread.
+     */
+    public void runWhenIdle(Runnable runnable) {
+        getFrameBudget().postIdleTask(runnable);
+        requestNextPulse();
+    }
+
     public abstract Future addRenderJob(RenderJob rj);
 
     public abstract ImageLoader loadImage(String url,
@@ -823,6 +853,12 @@ public abstract class Toolkit {
 
         // PlatformImage into which to render or null
         public Object platformImage;
+
+        // Buffer into which the rendered pixels are read back (as
+        // INT_ARGB_PRE) instead of into a platform image, or null
+        public IntBuffer destBuffer;
+        public int destOffset;
+        public int destScanlineStride;
     }
 
     /*
@@ -860,6 +896,49 @@ public abstract class Toolkit {
 
     public abstract Object renderToImage(ImageRenderingContext context);
 
+    /*
+     * This method renders a PG-graph in the same way as the renderToImage
+     * method, except that it returns without waiting for the rendering to
+     * complete. The pixels are read back into the destBuffer of the context
+     * if it is non-null, in which case the buffer is the result, and into
+     * a platform image otherwise. The callback is called with the result,
+     * or with null if the rendering failed, on a thread which may not be
+     * the FX thread. The context must not be modified until then.
+     * The render graph must not be modified until the rendering has
+     * completed, see waitForAsyncRendering.
+     */
+    public void renderToImageAsync(ImageRenderingContext context, Consumer<Object> callback) {
+        // Toolkits which cannot render asynchronously render into a platform
+        // image before returning, and copy its pixels into the buffer
+        final IntBuffer destBuffer = context.destBuffer;
+        context.destBuffer = null;
+        Object image;
+        try {
+            image = renderToImage(context);
+        } finally {
+            context.destBuffer = destBuffer;
+        }
+        if (image == null || destBuffer == null) {
+            callback.accept(image);
+            return;
+        }
+
+        IntBuffer dest = destBuffer.duplicate();
+        dest.position(context.destOffset);
+        ((PlatformImage) image).getPixels(0, 0, context.width, context.height,
+                PixelFormat.getIntArgbPreInstance(), dest, context.destScanlineStride);
+        callback.accept(destBuffer);
+    }
+
+    /*
+     * Waits for the rendering of all PG-graphs started by the
+     * renderToImageAsync method to complete. This must be called on the FX
+     * thread before it modifies any render graph which is not synchronized
+     * with the scene peer (see TKScene.waitForSynchronization).
+     */
+    public void waitForAsyncRendering() {
+    }
+
     /**
      * Returns the key code for the key which is commonly used on the
      * corresponding platform as a modifier key in shortcuts. For example
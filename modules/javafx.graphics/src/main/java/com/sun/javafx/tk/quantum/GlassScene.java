@@ -45,6 +45,7 @@ import com.sun.javafx.tk.TKDropTargetListener;
 import com.sun.javafx.tk.TKScene;
 import com.sun.javafx.tk.TKSceneListener;
 import com.sun.javafx.tk.TKScenePaintListener;
+import com.sun.javafx.tk.Toolkit;
 import com.sun.prism.impl.PrismSettings;
 import com.sun.prism.paint.Color;
 import com.sun.prism.paint.Paint;
@@ -119,11 +120,19 @@ abstract class GlassScene implements TKScene {
     }
 
     public void waitForRenderingToComplete() {
-        PaintCollector.getInstance().waitForRenderingToComplete();
+        // When pipelined, the render graph may be synchronized as soon as
+        // the previous frame has been painted, while it is still being
+        // presented, which waitForSynchronization takes care of
+        if (!QuantumToolkit.isPipelined()) {
+            PaintCollector.getInstance().waitForRenderingToComplete();
+        }
     }
 
     @Override
     public void waitForSynchronization() {
+        // asynchronous snapshots which have not started yet must see the
+        // render graph as it was when they were requested
+        Toolkit.getToolkit().waitForAsyncRendering();
         ViewPainter.renderLock.lock();
     }
 
@@ -135,7 +144,16 @@ abstract class GlassScene implements TKScene {
         // the view (such as the width and height) so that the view
         // state matches the state in the render tree
         if (updateState) {
-            updateSceneState();
+            if (QuantumToolkit.isPipelined()) {
+                ViewPainter.presentLock.lock();
+                try {
+                    updateSceneState();
+                } finally {
+                    ViewPainter.presentLock.unlock();
+                }
+            } else {
+                updateSceneState();
+            }
         }
         ViewPainter.renderLock.unlock();
     }
@@ -362,6 +362,14 @@ final class PaintCollector implements CompletionListener {
         // is empty (since hasDirty was true)
         assert !dirtyScenes.isEmpty();
 
+        // When pipelined, the dirty scenes may have been synchronized while
+        // the previous frame was still being presented, so wait for it to
+        // complete before painting the next one. This also ensures that the
+        // allWorkCompletedLatch only ever counts the scenes of one frame.
+        if (QuantumToolkit.isPipelined()) {
+            waitForRenderingToComplete();
+        }
+
         // Sort the dirty scenes based on whether they are
         // synchronous or not. If they are not synchronous,
         // then we want to process them first.
@@ -27,6 +27,8 @@ package com.sun.javafx.tk.quantum;
 
 import com.sun.javafx.logging.PulseLogger;
 import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
+import com.sun.javafx.tk.FrameBudget;
+import com.sun.javafx.tk.Toolkit;
 import com.sun.prism.Graphics;
 import com.sun.prism.GraphicsPipeline;
 import com.sun.prism.impl.Disposer;
@@ -43,7 +45,12 @@ final class PresentingPainter extends ViewPainter {
 
     @Override public void run() {
         renderLock.lock();
+        final boolean pipelined = QuantumToolkit.isPipelined();
+        if (pipelined) {
+            presentLock.lock();
+        }
 
+        boolean renderLocked = true;
         boolean locked = false;
         boolean valid = false;
         boolean errored = false;
@@ -88,10 +95,21 @@ final class PresentingPainter extends ViewPainter {
 
                 ViewScene vs = (ViewScene) sceneState.getScene();
                 if (g != null) {
+                    final long paintStart = System.nanoTime();
                     paintImpl(g);
+                    Toolkit.getToolkit().getFrameBudget().addPhaseTime(FrameBudget.Phase.RENDER,
+                            System.nanoTime() - paintStart);
                     freshBackBuffer = false;
                 }
 
+                // The render graph is no longer needed, so when pipelined
+                // the FX thread may synchronize the next frame while this
+                // one is presented
+                if (pipelined) {
+                    renderLock.unlock();
+                    renderLocked = false;
+                }
+
                 if (PULSE_LOGGING_ENABLED) {
                     PulseLogger.newPhase("Presenting");
                 }
@@ -126,7 +144,12 @@ final class PresentingPainter extends ViewPainter {
                 factory.getTextureResourcePool().freeDisposalRequestedAndCheckResources(errored);
             }
 
-            renderLock.unlock();
+            if (pipelined) {
+                presentLock.unlock();
+            }
+            if (renderLocked) {
+                renderLock.unlock();
+            }
         }
     }
 }
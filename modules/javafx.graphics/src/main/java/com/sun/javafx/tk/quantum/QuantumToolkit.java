@@ -74,6 +74,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import com.sun.glass.ui.Application;
 import com.sun.glass.ui.Clipboard;
@@ -97,10 +98,12 @@ import com.sun.javafx.runtime.async.AbstractRemoteResource;
 import com.sun.javafx.runtime.async.AsyncOperationListener;
 import com.sun.javafx.scene.text.TextLayoutFactory;
 import com.sun.javafx.sg.prism.NGNode;
+import com.sun.javafx.sg.prism.NGParallelCamera;
 import com.sun.javafx.tk.AppletWindow;
 import com.sun.javafx.tk.CompletionListener;
 import com.sun.javafx.tk.FileChooserType;
 import com.sun.javafx.tk.FontLoader;
+import com.sun.javafx.tk.FrameBudget;
 import com.sun.javafx.tk.ImageLoader;
 import com.sun.javafx.tk.PlatformImage;
 import com.sun.javafx.tk.RenderJob;
@@ -155,6 +158,22 @@ public final class QuantumToolkit extends Toolkit {
                 return result;
             });
 
+    /*
+     * The number of frames which may be in flight at once. With two frames,
+     * the FX thread synchronizes the render graph for the next frame while
+     * the render thread is still presenting the previous one (for example
+     * while it blocks on the vsync buffer swap), rather than waiting for
+     * rendering to complete. Only one or two frames are supported.
+     */
+    private static final int framesInFlight =
+            AccessController.doPrivileged((PrivilegedAction<Integer>) () -> {
+                final int result = Math.max(1, Math.min(2, Integer.getInteger("quantum.framesinflight", 1)));
+                if (verbose && result > 1) {
+                    System.out.println("Pipelined Rendering Enabled");
+                }
+                return result;
+            });
+
     private static boolean debug =
             AccessController.doPrivileged((PrivilegedAction<Boolean>) () -> Boolean.getBoolean("quantum.debug"));
 
@@ -306,6 +325,10 @@ public final class QuantumToolkit extends Toolkit {
         return !multithreaded;
     }
 
+    static boolean isPipelined() {
+        return multithreaded && framesInFlight > 1;
+    }
+
     /**
      * Method to initialize the Scene Graph on the JavaFX application thread.
      * Specifically, we will do static initialization for those classes in
@@ -405,7 +428,11 @@ public final class QuantumToolkit extends Toolkit {
      */
     public static <T> T runWithoutRenderLock(Supplier<T> supplier) {
         final boolean locked = ViewPainter.renderLock.isHeldByCurrentThread();
+        final boolean presentLocked = ViewPainter.presentLock.isHeldByCurrentThread();
         try {
+            if (presentLocked) {
+                ViewPainter.presentLock.unlock();
+            }
             if (locked) {
                 ViewPainter.renderLock.unlock();
             }
@@ -414,6 +441,9 @@ public final class QuantumToolkit extends Toolkit {
             if (locked) {
                 ViewPainter.renderLock.lock();
             }
+            if (presentLocked) {
+                ViewPainter.presentLock.lock();
+            }
         }
     }
 
@@ -426,9 +456,17 @@ public final class QuantumToolkit extends Toolkit {
      */
     public static <T> T runWithRenderLock(Supplier<T> supplier) {
         ViewPainter.renderLock.lock();
+        // the frame may still be being presented when pipelined
+        final boolean pipelined = isPipelined();
+        if (pipelined) {
+            ViewPainter.presentLock.lock();
+        }
         try {
             return supplier.get();
         } finally {
+            if (pipelined) {
+                ViewPainter.presentLock.unlock();
+            }
             ViewPainter.renderLock.unlock();
         }
     }
@@ -537,6 +575,11 @@ public final class QuantumToolkit extends Toolkit {
         } finally {
             endPulseRunning();
         }
+        // Idle tasks are run outside of the pulse, as they may enter
+        // nested event loops
+        if (toolkitRunning.get() && getFrameBudget().runIdleTasks(System.nanoTime())) {
+            requestNextPulse();
+        }
     }
 
     protected void pulse() {
@@ -554,9 +597,13 @@ public final class QuantumToolkit extends Toolkit {
                 return;
             }
             nextPulseRequested.set(false);
+            final FrameBudget budget = getFrameBudget();
+            final long pulseStart = System.nanoTime();
+            budget.pulseStart(pulseStart);
             if (animationRunnable != null) {
                 animationRunning.set(true);
                 animationRunnable.run();
+                budget.addPhaseTime(FrameBudget.Phase.ANIMATION, System.nanoTime() - pulseStart);
             } else {
                 animationRunning.set(false);
             }
@@ -1431,10 +1478,78 @@ public final class QuantumToolkit extends Toolkit {
     public Object renderToImage(ImageRenderingContext p) {
         Object saveImage = p.platformImage;
         final ImageRenderingContext params = p;
-        final com.sun.prism.paint.Paint currentPaint = p.platformPaint instanceof com.sun.prism.paint.Paint ?
-                (com.sun.prism.paint.Paint)p.platformPaint : null;
 
-        RenderJob re = new RenderJob(new Runnable() {
+        RenderJob re = createRenderToImageJob(params, false);
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        re.setCompletionListener(job -> latch.countDown());
+        addRenderJob(re);
+
+        do {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException ex) {
+                ex.printStackTrace();
+            }
+        } while (true);
+
+        Object image = params.platformImage;
+        params.platformImage = saveImage;
+
+        return image;
+    }
+
+    // The number of renderToImageAsync jobs which have not completed yet
+    private final Object asyncRenderingLock = new Object();
+    private int pendingAsyncRenderings = 0;
+
+    @Override
+    public void renderToImageAsync(ImageRenderingContext params, Consumer<Object> callback) {
+        RenderJob re = createRenderToImageJob(params, true);
+
+        synchronized (asyncRenderingLock) {
+            pendingAsyncRenderings++;
+        }
+        re.setCompletionListener(job -> {
+            synchronized (asyncRenderingLock) {
+                pendingAsyncRenderings--;
+                asyncRenderingLock.notifyAll();
+            }
+            callback.accept(params.platformImage);
+        });
+        addRenderJob(re);
+    }
+
+    @Override
+    public void waitForAsyncRendering() {
+        if (ViewPainter.renderLock.isHeldByCurrentThread()) {
+            // the render thread would not be able to complete the jobs
+            return;
+        }
+        synchronized (asyncRenderingLock) {
+            while (pendingAsyncRenderings > 0) {
+                try {
+                    asyncRenderingLock.wait();
+                } catch (InterruptedException ex) {
+                    ex.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /*
+     * Creates the job which renders the given context into its platform
+     * image, or into its destination buffer, and stores the result in the
+     * platformImage of the context. Buffers larger than the maximum texture
+     * size are rendered in tiles. Asynchronous jobs hold the render lock,
+     * so that the render graph is not synchronized while it is rendered.
+     */
+    private RenderJob createRenderToImageJob(final ImageRenderingContext params, final boolean async) {
+        final com.sun.prism.paint.Paint currentPaint = params.platformPaint instanceof com.sun.prism.paint.Paint ?
+                (com.sun.prism.paint.Paint)params.platformPaint : null;
+
+        return new RenderJob(new Runnable() {
 
             private com.sun.prism.paint.Color getClearColor() {
                 if (currentPaint == null) {
@@ -1448,7 +1563,7 @@ public final class QuantumToolkit extends Toolkit {
                 }
             }
 
-            private void draw(Graphics g, int x, int y, int w, int h) {
+            private void draw(Graphics g, int x, int y, int w, int h, int tileX, int tileY) {
                 g.setLights(params.lights);
                 g.setDepthBuffer(params.depthBuffer);
 
@@ -1457,10 +1572,12 @@ public final class QuantumToolkit extends Toolkit {
                         currentPaint.getType() != com.sun.prism.paint.Paint.Type.COLOR) {
                     g.getRenderTarget().setOpaque(currentPaint.isOpaque());
                     g.setPaint(currentPaint);
-                    g.fillQuad(0, 0, w, h);
+                    g.fillQuad(-tileX, -tileY, w - tileX, h - tileY);
                 }
 
                 // Set up transform
+                x += tileX;
+                y += tileY;
                 if (x != 0 || y != 0) {
                     g.translate(-x, -y);
                 }
@@ -1478,11 +1595,76 @@ public final class QuantumToolkit extends Toolkit {
 
             }
 
+            // Renders the image in tiles which fit in a texture, and reads
+            // each tile back into the given buffer
+            private boolean drawTiles(ResourceFactory rf, QuantumImage pImage, int x, int y, int w, int h,
+                                      IntBuffer dest, int offset, int scanlineStride) {
+                if (params.camera != null && !(params.camera instanceof NGParallelCamera)
+                        && (w > rf.getMaximumTextureSize() || h > rf.getMaximumTextureSize())) {
+                    // a perspective projection cannot be split into tiles
+                    // by translating the scene
+                    return false;
+                }
+                final int tileW = Math.min(w, rf.getMaximumTextureSize());
+                final int tileH = Math.min(h, rf.getMaximumTextureSize());
+                final com.sun.prism.RTTexture rt = pImage.getRT(tileW, tileH, rf);
+                if (rt == null) {
+                    return false;
+                }
+                try {
+                    final IntBuffer tile = IntBuffer.allocate(tileW * tileH);
+                    for (int ty = 0; ty < h; ty += tileH) {
+                        for (int tx = 0; tx < w; tx += tileW) {
+                            draw(rt.createGraphics(), x, y, w, h, tx, ty);
+                            int[] pixels = rt.getPixels();
+                            if (pixels == null) {
+                                tile.clear();
+                                if (!rt.readPixels(tile, rt.getContentX(), rt.getContentY(), tileW, tileH)) {
+                                    return false;
+                                }
+                                pixels = tile.array();
+                            }
+                            // the tiles along the right and bottom edges are
+                            // only partially used
+                            final int cw = Math.min(tileW, w - tx);
+                            final int ch = Math.min(tileH, h - ty);
+                            final IntBuffer row = dest.duplicate();
+                            for (int j = 0; j < ch; j++) {
+                                row.position(offset + (ty + j) * scanlineStride + tx);
+                                row.put(pixels, j * tileW, cw);
+                            }
+                        }
+                    }
+                    return true;
+                } finally {
+                    rt.unlock();
+                }
+            }
+
             @Override
             public void run() {
+                if (async) {
+                    ViewPainter.renderLock.lock();
+                }
+                try {
+                    render();
+                } finally {
+                    if (async) {
+                        ViewPainter.renderLock.unlock();
+                    }
+                }
+            }
+
+            private void render() {
 
                 ResourceFactory rf = GraphicsPipeline.getDefaultResourceFactory();
 
+                if (params.destBuffer != null) {
+                    // the destination buffer is only the result once the
+                    // pixels have been read back into it
+                    params.platformImage = null;
+                }
+
                 if (!rf.isDeviceReady()) {
                     return;
                 }
@@ -1498,6 +1680,23 @@ public final class QuantumToolkit extends Toolkit {
 
                 boolean errored = false;
                 try {
+                    if (params.destBuffer != null) {
+                        // the render target is disposed of once the pixels
+                        // have been read back, rather than kept for the next
+                        // snapshot, which may never come
+                        QuantumImage tiles = new QuantumImage((com.sun.prism.Image)null);
+                        try {
+                            if (drawTiles(rf, tiles, x, y, w, h,
+                                    params.destBuffer, params.destOffset, params.destScanlineStride))
+                            {
+                                params.platformImage = params.destBuffer;
+                            }
+                        } finally {
+                            tiles.dispose();
+                        }
+                        return;
+                    }
+
                     QuantumImage pImage = (params.platformImage instanceof QuantumImage) ?
                             (QuantumImage)params.platformImage : new QuantumImage((com.sun.prism.Image)null);
 
@@ -1509,7 +1708,7 @@ public final class QuantumToolkit extends Toolkit {
 
                     Graphics g = rt.createGraphics();
 
-                    draw(g, x, y, w, h);
+                    draw(g, x, y, w, h, 0, 0);
 
                     int[] pixels = pImage.rt.getPixels();
 
@@ -1540,24 +1739,6 @@ public final class QuantumToolkit extends Toolkit {
                 }
             }
         });
-
-        final CountDownLatch latch = new CountDownLatch(1);
-        re.setCompletionListener(job -> latch.countDown());
-        addRenderJob(re);
-
-        do {
-            try {
-                latch.await();
-                break;
-            } catch (InterruptedException ex) {
-                ex.printStackTrace();
-            }
-        } while (true);
-
-        Object image = params.platformImage;
-        params.platformImage = saveImage;
-
-        return image;
     }
 
     @Override
@@ -27,6 +27,8 @@ package com.sun.javafx.tk.quantum;
 
 import java.nio.IntBuffer;
 import com.sun.glass.ui.Pixels;
+import com.sun.javafx.tk.FrameBudget;
+import com.sun.javafx.tk.Toolkit;
 import com.sun.prism.Graphics;
 import com.sun.prism.GraphicsPipeline;
 import com.sun.prism.RTTexture;
@@ -139,7 +141,10 @@ final class UploadingPainter extends ViewPainter implements Runnable {
                 return;
             }
             g.scale(scalex, scaley);
+            final long paintStart = System.nanoTime();
             paintImpl(g);
+            Toolkit.getToolkit().getFrameBudget().addPhaseTime(FrameBudget.Phase.RENDER,
+                    System.nanoTime() - paintStart);
             freshBackBuffer = false;
 
             int outWidth = sceneState.getOutputWidth();
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 import com.sun.javafx.geom.DirtyRegionContainer;
+import com.sun.javafx.geom.DirtyRegionCostModel;
 import com.sun.javafx.geom.DirtyRegionPool;
 import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.Rectangle;
@@ -72,6 +73,17 @@ abstract class ViewPainter implements Runnable {
      */
     protected static final ReentrantLock renderLock = new ReentrantLock();
 
+    /*
+     * When rendering is pipelined (see QuantumToolkit.isPipelined), the
+     * PresentingPainter releases the renderLock as soon as it is done with
+     * the render graph, so that the FX thread can synchronize the next frame
+     * while this one is being presented. The painter holds this lock until it
+     * has presented the frame, and anything on the FX thread which must not
+     * run concurrently with presenting (updating the scene state, changing
+     * the view or window) acquires it, always after the renderLock.
+     */
+    protected static final ReentrantLock presentLock = new ReentrantLock();
+
     // Pen dimensions. Pen width and height are checked on every repaint
     // to match its scene width/height. If any difference is found, the
     // pen surface (Presentable or RTTexture) is recreated.
@@ -103,6 +115,7 @@ abstract class ViewPainter implements Runnable {
     private RectBounds dirtyRegionTemp;
     private DirtyRegionPool dirtyRegionPool;
     private DirtyRegionContainer dirtyRegionContainer;
+    private DirtyRegionCostModel dirtyRegionCostModel;
     private Affine3D tx;
     private Affine3D scaleTx;
     private GeneralTransform3D viewProjTx;
@@ -139,6 +152,9 @@ abstract class ViewPainter implements Runnable {
             dirtyRegionTemp = new RectBounds();
             dirtyRegionPool = new DirtyRegionPool(PrismSettings.dirtyRegionCount);
             dirtyRegionContainer = dirtyRegionPool.checkOut();
+            if (PrismSettings.dirtyRegionCostMerge) {
+                dirtyRegionCostModel = new DirtyRegionCostModel();
+            }
         }
     }
 
@@ -249,6 +265,9 @@ abstract class ViewPainter implements Runnable {
                                                      dirtyRegionPool, dirtyRegionContainer,
                                                      tx, projTx);
             dirtyRegionContainer.roundOut();
+            if (status == DirtyRegionContainer.DTR_OK && dirtyRegionCostModel != null) {
+                status = planDirtyRegions(pixelScaleX, pixelScaleY);
+            }
             if (status == DirtyRegionContainer.DTR_OK) {
                 root.doPreCulling(dirtyRegionContainer, tx, projTx);
             }
@@ -318,14 +337,28 @@ abstract class ViewPainter implements Runnable {
                     dirtyRect.height = (int) Math.ceil (dirtyRegion.getMaxY() * pixelScaleY) - y0;
                     g.setClipRect(dirtyRect);
                     g.setClipRectIndex(i);
-                    doPaint(g, getRootPath(i));
+                    if (dirtyRegionCostModel != null) {
+                        final long start = System.nanoTime();
+                        doPaint(g, getRootPath(i));
+                        dirtyRegionCostModel.addSample((double) dirtyRect.width * dirtyRect.height,
+                                                       System.nanoTime() - start);
+                    } else {
+                        doPaint(g, getRootPath(i));
+                    }
                 }
             }
         } else {
             // There are no dirty regions, so just paint everything
             g.setHasPreCullingBits(false);
             g.setClipRect(null);
-            this.doPaint(g, null);
+            if (dirtyRegionCostModel != null) {
+                final long start = System.nanoTime();
+                this.doPaint(g, null);
+                dirtyRegionCostModel.addSample(Math.ceil(width * pixelScaleX) * Math.ceil(height * pixelScaleY),
+                                               System.nanoTime() - start);
+            } else {
+                this.doPaint(g, null);
+            }
         }
         root.renderForcedContent(g);
 
@@ -408,6 +441,27 @@ abstract class ViewPainter implements Runnable {
         texture.unlock();
     }
 
+    /**
+     * Merges the dirty regions which are cheaper to paint together than
+     * separately, based on the measured overhead of painting a region, and
+     * returns DTR_CONTAINS_CLIP if it is estimated to be cheaper to paint the
+     * entire scene than the remaining dirty regions.
+     */
+    private int planDirtyRegions(float pixelScaleX, float pixelScaleY) {
+        // The overhead is measured in device pixels, whereas the dirty regions
+        // are in scene coordinates
+        final float overhead = dirtyRegionCostModel.getRegionOverhead() / (pixelScaleX * pixelScaleY);
+        dirtyRegionContainer.mergeByCost(overhead);
+
+        final float regionsCost = dirtyRegionContainer.getTotalArea() + dirtyRegionContainer.size() * overhead;
+        final float sceneCost = (float) width * height + overhead;
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.addMessage("Dirty region overhead: " + overhead + " pixels, estimated cost: " +
+                                   regionsCost + " (entire scene: " + sceneCost + ")");
+        }
+        return regionsCost < sceneCost ? DirtyRegionContainer.DTR_OK : DirtyRegionContainer.DTR_CONTAINS_CLIP;
+    }
+
     private static NodePath getRootPath(int i) {
         if (ROOT_PATHS[i] == null) {
             ROOT_PATHS[i] = new NodePath();
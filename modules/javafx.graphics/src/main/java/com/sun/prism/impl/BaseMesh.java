@@ -92,6 +92,21 @@ public abstract class BaseMesh extends BaseGraphicsResource implements Mesh {
     private HashMap<Integer, MeshGeomComp2VB> normal2vbMap;
     private HashMap<Integer, MeshGeomComp2VB> texCoord2vbMap;
 
+    // The vertex and index buffers of a PointTexCoord mesh, retained once it
+    // has been rebuilt because of a change to its points or tex coords only,
+    // so that later changes to them only recompute the vertices of the
+    // affected points (see updatePTGeometry). The vertices of point p are
+    // those in the range [ptVertexStart[p], ptVertexStart[p + 1]).
+    private boolean ptGeometryBuilt;
+    private float[] ptVertexBuffer;
+    private int[] ptIndexBuffer;
+    private short[] ptIndexBufferShort;
+    private int[] ptVertexStart;
+    private int ptNumVertices;
+
+    private static final byte POINT_DIRTY = 1;
+    private static final byte POINT_AFFECTED = 2;
+
     private void convertNormalsToQuats(MeshTempState instance, int numberOfVertices,
             float[] normals, float[] tangents, float[] bitangents,
             float[] vertexBuffer, boolean[] dirtys) {
@@ -513,7 +528,10 @@ public abstract class BaseMesh extends BaseGraphicsResource implements Mesh {
                     texCoords, texCoordsFromAndLengthIndices,
                     faces, facesFromAndLengthIndices);
         } else {
-            return buildPTGeometry(points, texCoords, faces, faceSmoothingGroups);
+            return buildPTGeometry(points, pointsFromAndLengthIndices,
+                    texCoords, texCoordsFromAndLengthIndices,
+                    faces, facesFromAndLengthIndices,
+                    faceSmoothingGroups, faceSmoothingGroupsFromAndLengthIndices);
         }
     }
 
@@ -543,12 +561,42 @@ public abstract class BaseMesh extends BaseGraphicsResource implements Mesh {
                     normals, normalsFromAndLengthIndices,
                     texCoords, texCoordsFromAndLengthIndices);
         }
+        releasePTGeometry();
         return doBuildPNTGeometry(points, normals, texCoords, faces);
 
     }
 
     // Build PointTexCoordGeometry
-    private boolean buildPTGeometry(float[] pos, float[] uv, int[] faces, int[] smoothing) {
+    private boolean buildPTGeometry(
+            float[] pos, int[] posFromAndLengthIndices,
+            float[] uv, int[] uvFromAndLengthIndices,
+            int[] faces, int[] facesFromAndLengthIndices,
+            int[] smoothing, int[] smoothingFromAndLengthIndices) {
+
+        // A change to the faces or smoothing groups changes the structure of
+        // the vertices, which requires a full rebuild
+        boolean updateTopology = facesFromAndLengthIndices[1] > 0
+                || smoothingFromAndLengthIndices[1] > 0
+                || !ptGeometryBuilt
+                || pos.length != nVerts * 3
+                || uv.length != nTVerts * 2;
+
+        if (!updateTopology && ptVertexBuffer != null) {
+            this.pos = pos;
+            this.uv = uv;
+            if (updatePTGeometry(posFromAndLengthIndices, uvFromAndLengthIndices)) {
+                return buildNativePTGeometry();
+            }
+        }
+
+        // Retain the buffers of a mesh that is being rebuilt because its
+        // points or tex coords have changed, as this is likely to happen again
+        boolean retain = ptVertexBuffer != null || !updateTopology;
+        return doBuildPTGeometry(pos, uv, faces, smoothing, retain);
+    }
+
+    private boolean doBuildPTGeometry(float[] pos, float[] uv, int[] faces, int[] smoothing,
+            boolean retain) {
         nVerts = pos.length / 3;
         nTVerts = uv.length / 2;
         nFaces = faces.length / (VertexFormat.POINT_TEXCOORD.getVertexIndexSize() * 3);
@@ -558,6 +606,11 @@ public abstract class BaseMesh extends BaseGraphicsResource implements Mesh {
         this.faces = faces;
         this.smoothing = smoothing.length == nFaces ? smoothing : null;
 
+        // the buffers of the PointNormalTexCoord geometry are of no more use
+        vertexBuffer = null;
+        indexBuffer = null;
+        indexBufferShort = null;
+
         MeshTempState instance = MeshTempState.getInstance();
         // big pool for all possible vertices
         if (instance.pool == null || instance.pool.length < nFaces * 3) {
@@ -580,28 +633,192 @@ public abstract class BaseMesh extends BaseGraphicsResource implements Mesh {
         // compute [N, T, B] for each face
         computeTBNormal(instance.pool, instance.pVertex, instance.indexBuffer);
 
+        if (retain && (ptVertexStart == null || ptVertexStart.length != nVerts + 1)) {
+            ptVertexStart = new int[nVerts + 1];
+        }
+
         // process sm and weld points
         int nNewVerts = MeshVertex.processVertices(instance.pVertex, nVerts,
-                allHardEdges, allSameSmoothing);
+                allHardEdges, allSameSmoothing, retain ? ptVertexStart : null);
 
-        if (instance.vertexBuffer == null
-                || instance.vertexBuffer.length < nNewVerts * VERTEX_SIZE_VB) {
-            instance.vertexBuffer = new float[nNewVerts * VERTEX_SIZE_VB];
+        float[] vb;
+        if (retain) {
+            if (ptVertexBuffer == null || ptVertexBuffer.length < nNewVerts * VERTEX_SIZE_VB) {
+                ptVertexBuffer = new float[nNewVerts * VERTEX_SIZE_VB];
+            }
+            vb = ptVertexBuffer;
+            ptNumVertices = nNewVerts;
+        } else {
+            if (instance.vertexBuffer == null
+                    || instance.vertexBuffer.length < nNewVerts * VERTEX_SIZE_VB) {
+                instance.vertexBuffer = new float[nNewVerts * VERTEX_SIZE_VB];
+            }
+            vb = instance.vertexBuffer;
+            releasePTGeometry();
         }
-        buildVertexBuffer(instance.pVertex, instance.vertexBuffer);
+        buildVertexBuffer(instance.pVertex, vb);
+        ptGeometryBuilt = true;
 
         if (nNewVerts > 0x10000) {
             buildIndexBuffer(instance.pool, instance.indexBuffer, null);
-            return buildNativeGeometry(instance.vertexBuffer,
+            if (retain) {
+                ptIndexBuffer = Arrays.copyOf(instance.indexBuffer, nFaces * 3);
+                ptIndexBufferShort = null;
+            }
+            return buildNativeGeometry(vb,
                     nNewVerts * VERTEX_SIZE_VB, instance.indexBuffer, nFaces * 3);
         } else {
-            if (instance.indexBufferShort == null || instance.indexBufferShort.length < nFaces * 3) {
-                instance.indexBufferShort = new short[nFaces * 3];
+            short[] ibShort;
+            if (retain) {
+                if (ptIndexBufferShort == null || ptIndexBufferShort.length != nFaces * 3) {
+                    ptIndexBufferShort = new short[nFaces * 3];
+                }
+                ibShort = ptIndexBufferShort;
+                ptIndexBuffer = null;
+            } else {
+                if (instance.indexBufferShort == null || instance.indexBufferShort.length < nFaces * 3) {
+                    instance.indexBufferShort = new short[nFaces * 3];
+                }
+                ibShort = instance.indexBufferShort;
+            }
+            buildIndexBuffer(instance.pool, instance.indexBuffer, ibShort);
+            return buildNativeGeometry(vb,
+                    nNewVerts * VERTEX_SIZE_VB, ibShort, nFaces * 3);
+        }
+    }
+
+    private void releasePTGeometry() {
+        ptVertexBuffer = null;
+        ptIndexBuffer = null;
+        ptIndexBufferShort = null;
+        ptVertexStart = null;
+        ptNumVertices = 0;
+    }
+
+    private boolean buildNativePTGeometry() {
+        if (ptIndexBuffer != null) {
+            return buildNativeGeometry(ptVertexBuffer,
+                    ptNumVertices * VERTEX_SIZE_VB, ptIndexBuffer, nFaces * 3);
+        } else {
+            return buildNativeGeometry(ptVertexBuffer,
+                    ptNumVertices * VERTEX_SIZE_VB, ptIndexBufferShort, nFaces * 3);
+        }
+    }
+
+    // Update PointTexCoordGeometry
+    //
+    // Only the faces that use a modified point or tex coord have a different
+    // [N, T, B], which only changes the vertices of the points of those faces.
+    // These points are processed again, in the same way (and with the same
+    // vertices in the same order) as in a full build, and their vertices are
+    // updated in place. Returns false if the number of vertices of any of
+    // these points changes, or if too much of the mesh is affected, in which
+    // case the mesh needs to be rebuilt.
+    private boolean updatePTGeometry(int[] posFromAndLengthIndices, int[] uvFromAndLengthIndices) {
+        MeshTempState instance = MeshTempState.getInstance();
+        if (instance.pointFlags == null || instance.pointFlags.length < nVerts) {
+            instance.pointFlags = new byte[nVerts];
+        } else {
+            Arrays.fill(instance.pointFlags, 0, nVerts, (byte) 0);
+        }
+        if (instance.texCoordFlags == null || instance.texCoordFlags.length < nTVerts) {
+            instance.texCoordFlags = new boolean[nTVerts];
+        } else {
+            Arrays.fill(instance.texCoordFlags, 0, nTVerts, false);
+        }
+        final byte[] pointFlags = instance.pointFlags;
+        final boolean[] texCoordFlags = instance.texCoordFlags;
+
+        // Find out the list of modified points and tex coords
+        int from = posFromAndLengthIndices[0] / POINT_SIZE;
+        int to = Math.min(nVerts,
+                (posFromAndLengthIndices[0] + posFromAndLengthIndices[1] + POINT_SIZE - 1) / POINT_SIZE);
+        for (int i = from; i < to; i++) {
+            pointFlags[i] = POINT_DIRTY;
+        }
+        from = uvFromAndLengthIndices[0] / TEXCOORD_SIZE;
+        to = Math.min(nTVerts,
+                (uvFromAndLengthIndices[0] + uvFromAndLengthIndices[1] + TEXCOORD_SIZE - 1) / TEXCOORD_SIZE);
+        for (int i = from; i < to; i++) {
+            texCoordFlags[i] = true;
+        }
+
+        // Find out the faces that use them, all points of which are affected
+        int nAffectedFaces = 0;
+        for (int f = 0, index = 0; f < nFaces; f++, index += 6) {
+            if ((pointFlags[faces[index]] & POINT_DIRTY) != 0
+                    || (pointFlags[faces[index + 2]] & POINT_DIRTY) != 0
+                    || (pointFlags[faces[index + 4]] & POINT_DIRTY) != 0
+                    || texCoordFlags[faces[index + 1]]
+                    || texCoordFlags[faces[index + 3]]
+                    || texCoordFlags[faces[index + 5]]) {
+                pointFlags[faces[index]] |= POINT_AFFECTED;
+                pointFlags[faces[index + 2]] |= POINT_AFFECTED;
+                pointFlags[faces[index + 4]] |= POINT_AFFECTED;
+                nAffectedFaces++;
+            }
+        }
+        if (nAffectedFaces > nFaces / 2) {
+            // cheaper to rebuild the whole mesh
+            return false;
+        }
+        if (nAffectedFaces == 0) {
+            return true;
+        }
+
+        if (instance.pool == null || instance.pool.length < nFaces * 3) {
+            instance.pool = new MeshVertex[nFaces * 3];
+        }
+        if (instance.pVertex == null || instance.pVertex.length < nVerts) {
+            instance.pVertex = new MeshVertex[nVerts];
+        }
+        final MeshVertex[] pool = instance.pool;
+        final MeshVertex[] pVertex = instance.pVertex;
+        for (int p = 0; p < nVerts; p++) {
+            if ((pointFlags[p] & POINT_AFFECTED) != 0) {
+                pVertex[p] = null;
             }
-            buildIndexBuffer(instance.pool, instance.indexBuffer, instance.indexBufferShort);
-            return buildNativeGeometry(instance.vertexBuffer,
-                    nNewVerts * VERTEX_SIZE_VB, instance.indexBufferShort, nFaces * 3);
         }
+
+        // compute [N, T, B] for each face of an affected point, and collect
+        // the vertices of the affected points
+        for (int f = 0, index = 0; f < nFaces; f++, index += 6) {
+            if ((pointFlags[faces[index]] & POINT_AFFECTED) != 0
+                    || (pointFlags[faces[index + 2]] & POINT_AFFECTED) != 0
+                    || (pointFlags[faces[index + 4]] & POINT_AFFECTED) != 0) {
+                int[] smFace = getFace(f, instance.smFace);
+                addFaceVertices(f, smFace, pool, pVertex, null, pointFlags);
+            }
+        }
+
+        // process sm and weld the vertices of the affected points again
+        for (int p = 0; p < nVerts; p++) {
+            if ((pointFlags[p] & POINT_AFFECTED) != 0) {
+                int start = ptVertexStart[p];
+                int end = MeshVertex.processVertex(pVertex[p], start,
+                        allHardEdges, allSameSmoothing);
+                if (end != ptVertexStart[p + 1]) {
+                    return false;
+                }
+                buildVertexBuffer(pVertex[p], start, ptVertexBuffer);
+            }
+        }
+
+        // and update the indexes of their vertices
+        for (int f = 0, index = 0; f < nFaces; f++, index += 6) {
+            for (int j = 0; j < 3; j++) {
+                if ((pointFlags[faces[index + j * 2]] & POINT_AFFECTED) != 0) {
+                    int i = f * 3 + j;
+                    if (ptIndexBufferShort != null) {
+                        ptIndexBufferShort[i] = (short) pool[i].index;
+                    } else {
+                        ptIndexBuffer[i] = pool[i].index;
+                    }
+                    pool[i].next = null; // release reference
+                }
+            }
+        }
+        return true;
     }
 
     private void computeTBNormal(MeshVertex[] pool, MeshVertex[] pVertex, int[] indexBuffer) {
@@ -610,14 +827,9 @@ public abstract class BaseMesh extends BaseGraphicsResource implements Mesh {
         // tmp variables
         int[] smFace = instance.smFace;
         int[] triVerts = instance.triVerts;
-        Vec3f[] triPoints = instance.triPoints;
-        Vec2f[] triTexCoords = instance.triTexCoords;
-        Vec3f[] triNormals = instance.triNormals;
         final String logname = BaseMesh.class.getName();
 
-        for (int f = 0, nDeadFaces = 0, poolIndex = 0; f < nFaces; f++) {
-            int index = f * 3;
-
+        for (int f = 0, nDeadFaces = 0; f < nFaces; f++) {
             smFace = getFace(f, smFace); // copy from mesh to tmp smFace
 
             // Get tex. point. index
@@ -634,43 +846,71 @@ public abstract class BaseMesh extends BaseGraphicsResource implements Mesh {
                         + "] @ face group " + f + "; nEmptyFaces = " + nDeadFaces);
             }
 
-            for (int i = 0; i < 3; i++) {
-                triPoints[i] = getVertex(triVerts[i], triPoints[i]);
-            }
+            addFaceVertices(f, smFace, pool, pVertex, indexBuffer, null);
+        }
+    }
 
-            // Get tex. coord. index
-            triVerts[0] = smFace[BaseMesh.FaceMembers.TEXCOORD0.ordinal()];
-            triVerts[1] = smFace[BaseMesh.FaceMembers.TEXCOORD1.ordinal()];
-            triVerts[2] = smFace[BaseMesh.FaceMembers.TEXCOORD2.ordinal()];
+    // Compute [N, T, B] for the given face, and add the vertices of the face
+    // (or only those of the points flagged as affected, if pointFlags isn't
+    // null) to the vertices of their points
+    private void addFaceVertices(int f, int[] smFace, MeshVertex[] pool, MeshVertex[] pVertex,
+            int[] indexBuffer, byte[] pointFlags) {
+        MeshTempState instance = MeshTempState.getInstance();
 
-            for (int i = 0; i < 3; i++) {
-                triTexCoords[i] = getTVertex(triVerts[i], triTexCoords[i]);
-            }
+        // tmp variables
+        int[] triVerts = instance.triVerts;
+        Vec3f[] triPoints = instance.triPoints;
+        Vec2f[] triTexCoords = instance.triTexCoords;
+        Vec3f[] triNormals = instance.triNormals;
 
-            MeshUtil.computeTBNNormalized(triPoints[0], triPoints[1], triPoints[2],
-                                          triTexCoords[0], triTexCoords[1], triTexCoords[2],
-                                          triNormals);
+        int index = f * 3;
 
-            for (int j = 0; j < 3; ++j) {
-                pool[poolIndex] = (pool[poolIndex] == null) ? new MeshVertex() : pool[poolIndex];
+        // Get tex. point. index
+        triVerts[0] = smFace[BaseMesh.FaceMembers.POINT0.ordinal()];
+        triVerts[1] = smFace[BaseMesh.FaceMembers.POINT1.ordinal()];
+        triVerts[2] = smFace[BaseMesh.FaceMembers.POINT2.ordinal()];
 
-                for (int i = 0; i < 3; ++i) {
-                    pool[poolIndex].norm[i].set(triNormals[i]);
-                }
-                pool[poolIndex].smGroup = smFace[BaseMesh.FaceMembers.SMOOTHING_GROUP.ordinal()];
-                pool[poolIndex].fIdx = f;
-                pool[poolIndex].tVert = triVerts[j];
-                pool[poolIndex].index = MeshVertex.IDX_UNDEFINED;
-                int ii = j == 0 ? BaseMesh.FaceMembers.POINT0.ordinal()
-                        : j == 1 ? BaseMesh.FaceMembers.POINT1.ordinal()
-                        : BaseMesh.FaceMembers.POINT2.ordinal();
-                int pIdx = smFace[ii];
-                pool[poolIndex].pVert = pIdx;
-                indexBuffer[index + j] = pIdx;
-                pool[poolIndex].next = pVertex[pIdx];
-                pVertex[pIdx] = pool[poolIndex];
-                poolIndex++;
+        for (int i = 0; i < 3; i++) {
+            triPoints[i] = getVertex(triVerts[i], triPoints[i]);
+        }
+
+        // Get tex. coord. index
+        triVerts[0] = smFace[BaseMesh.FaceMembers.TEXCOORD0.ordinal()];
+        triVerts[1] = smFace[BaseMesh.FaceMembers.TEXCOORD1.ordinal()];
+        triVerts[2] = smFace[BaseMesh.FaceMembers.TEXCOORD2.ordinal()];
+
+        for (int i = 0; i < 3; i++) {
+            triTexCoords[i] = getTVertex(triVerts[i], triTexCoords[i]);
+        }
+
+        MeshUtil.computeTBNNormalized(triPoints[0], triPoints[1], triPoints[2],
+                                      triTexCoords[0], triTexCoords[1], triTexCoords[2],
+                                      triNormals);
+
+        for (int j = 0; j < 3; ++j) {
+            int ii = j == 0 ? BaseMesh.FaceMembers.POINT0.ordinal()
+                    : j == 1 ? BaseMesh.FaceMembers.POINT1.ordinal()
+                    : BaseMesh.FaceMembers.POINT2.ordinal();
+            int pIdx = smFace[ii];
+            if (pointFlags != null && (pointFlags[pIdx] & POINT_AFFECTED) == 0) {
+                continue;
+            }
+            int poolIndex = index + j;
+            pool[poolIndex] = (pool[poolIndex] == null) ? new MeshVertex() : pool[poolIndex];
+
+            for (int i = 0; i < 3; ++i) {
+                pool[poolIndex].norm[i].set(triNormals[i]);
             }
+            pool[poolIndex].smGroup = smFace[BaseMesh.FaceMembers.SMOOTHING_GROUP.ordinal()];
+            pool[poolIndex].fIdx = f;
+            pool[poolIndex].tVert = triVerts[j];
+            pool[poolIndex].index = MeshVertex.IDX_UNDEFINED;
+            pool[poolIndex].pVert = pIdx;
+            if (indexBuffer != null) {
+                indexBuffer[poolIndex] = pIdx;
+            }
+            pool[poolIndex].next = pVertex[pIdx];
+            pVertex[pIdx] = pool[poolIndex];
         }
     }
 
@@ -696,29 +936,35 @@ public abstract class BaseMesh extends BaseGraphicsResource implements Mesh {
     }
 
     private void buildVertexBuffer(MeshVertex[] pVerts, float[] vertexBuffer) {
-        Quat4f quat = MeshTempState.getInstance().quat;
         int idLast = 0;
 
-        for (int i = 0, index = 0; i < nVerts; ++i) {
-            MeshVertex v = pVerts[i];
-            for (; v != null; v = v.next) {
-                if (v.index == idLast) {
-                    int ind = v.pVert * 3;
-                    vertexBuffer[index++] = pos[ind];
-                    vertexBuffer[index++] = pos[ind + 1];
-                    vertexBuffer[index++] = pos[ind + 2];
-                    ind = v.tVert * 2;
-                    vertexBuffer[index++] = uv[ind];
-                    vertexBuffer[index++] = uv[ind + 1];
-                    buildVSQuat(v.norm, quat);
-                    vertexBuffer[index++] = quat.x;
-                    vertexBuffer[index++] = quat.y;
-                    vertexBuffer[index++] = quat.z;
-                    vertexBuffer[index++] = quat.w;
-                    idLast++;
-                }
+        for (int i = 0; i < nVerts; ++i) {
+            idLast = buildVertexBuffer(pVerts[i], idLast, vertexBuffer);
+        }
+    }
+
+    // Build the vertices of a single point, the first of which is idLast
+    private int buildVertexBuffer(MeshVertex v, int idLast, float[] vertexBuffer) {
+        Quat4f quat = MeshTempState.getInstance().quat;
+
+        for (int index = idLast * VERTEX_SIZE_VB; v != null; v = v.next) {
+            if (v.index == idLast) {
+                int ind = v.pVert * 3;
+                vertexBuffer[index++] = pos[ind];
+                vertexBuffer[index++] = pos[ind + 1];
+                vertexBuffer[index++] = pos[ind + 2];
+                ind = v.tVert * 2;
+                vertexBuffer[index++] = uv[ind];
+                vertexBuffer[index++] = uv[ind + 1];
+                buildVSQuat(v.norm, quat);
+                vertexBuffer[index++] = quat.x;
+                vertexBuffer[index++] = quat.y;
+                vertexBuffer[index++] = quat.z;
+                vertexBuffer[index++] = quat.w;
+                idLast++;
             }
         }
+        return idLast;
     }
 
     private void buildIndexBuffer(MeshVertex[] pool, int[] indexBuffer, short[] indexBufferShort) {
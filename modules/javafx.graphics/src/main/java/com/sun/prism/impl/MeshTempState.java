@@ -91,6 +91,14 @@ final class MeshTempState {
      */
     MeshVertex[] pVertex;
 
+    /**
+     * Temporary flags used by BaseMesh to find the points affected by a
+     * change to the points or tex coords of a mesh.
+     * Length: nVerts and nTVerts
+     */
+    byte[] pointFlags;
+    boolean[] texCoordFlags;
+
     /**
      * A temporary int indexBuffer array
      * Length: nFaces * 3
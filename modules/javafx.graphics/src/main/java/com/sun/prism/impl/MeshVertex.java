@@ -176,36 +176,53 @@ class MeshVertex {
     }
 
     static int processVertices(MeshVertex[] pVerts, int nVertex,
-            boolean allHardEdges, boolean allSameSmoothing) {
+            boolean allHardEdges, boolean allSameSmoothing, int[] vertexStart) {
         int nNewVerts = 0;
-        Vec3f normalSum = MeshTempState.getInstance().vec3f1;
         for (int i = 0; i < nVertex; ++i) {
+            if (vertexStart != null) {
+                vertexStart[i] = nNewVerts;
+            }
             if (pVerts[i] != null) {
-                if (!allHardEdges) {
-                    if (allSameSmoothing) {
-                        // calculate average normal for one smoothing group
-                        normalSum.set(pVerts[i].norm[0]);
-                        for (MeshVertex v = pVerts[i].next; v != null; v = v.next) {
-                            normalSum.add(v.norm[0]);
-                        }
+                nNewVerts = processVertex(pVerts[i], nNewVerts, allHardEdges, allSameSmoothing);
+            }
+        }
+        if (vertexStart != null) {
+            vertexStart[nVertex] = nNewVerts;
+        }
+        return nNewVerts;
+    }
 
-                        if (MeshUtil.isNormalOkAfterWeld(normalSum)) {
-                            normalSum.normalize();
-                            for (MeshVertex v = pVerts[i]; v != null; v = v.next) {
-                                v.norm[0].set(normalSum);
-                            }
-                        }
-                    } else {
-                        // various Sm
-                        mergeSmIndexes(pVerts[i]);
-                        avgSmNormals(pVerts[i]);
+    /*
+     * Process the vertices of a single point, assigning them new indexes
+     * starting at the given index. This only depends on the vertices of this
+     * point, so it can be redone for some points only.
+     * return current number of points (last index +1)
+     */
+    static int processVertex(MeshVertex n, int index,
+            boolean allHardEdges, boolean allSameSmoothing) {
+        if (!allHardEdges) {
+            if (allSameSmoothing) {
+                // calculate average normal for one smoothing group
+                Vec3f normalSum = MeshTempState.getInstance().vec3f1;
+                normalSum.set(n.norm[0]);
+                for (MeshVertex v = n.next; v != null; v = v.next) {
+                    normalSum.add(v.norm[0]);
+                }
+
+                if (MeshUtil.isNormalOkAfterWeld(normalSum)) {
+                    normalSum.normalize();
+                    for (MeshVertex v = n; v != null; v = v.next) {
+                        v.norm[0].set(normalSum);
                     }
                 }
-                // weld points based on texture and assign new indexes
-                nNewVerts = weldWithTB(pVerts[i], nNewVerts);
+            } else {
+                // various Sm
+                mergeSmIndexes(n);
+                avgSmNormals(n);
             }
         }
-        return nNewVerts;
+        // weld points based on texture and assign new indexes
+        return weldWithTB(n, index);
     }
 
     @Override
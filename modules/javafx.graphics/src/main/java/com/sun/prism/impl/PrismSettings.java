@@ -47,10 +47,13 @@ public final class PrismSettings {
     public static final boolean isVsyncEnabled;
     public static final boolean dirtyOptsEnabled;
     public static final boolean occlusionCullingEnabled;
+    public static final boolean dirtyRegionCostMerge;
     public static final boolean scrollCacheOpt;
+    public static final long effectCacheSize;
     public static final boolean threadCheck;
     public static final boolean cacheSimpleShapes;
     public static final boolean cacheComplexShapes;
+    public static final boolean packShapeMasks;
     public static final boolean useNewImageLoader;
     public static final List<String> tryOrder;
     public static final int prismStatFrequency;
@@ -130,19 +133,31 @@ public final class PrismSettings {
         /* Dirty region optimizations */
         dirtyOptsEnabled = getBoolean(systemProperties, "prism.dirtyopts",
                                       true);
+        // Skip nodes hidden by opaque nodes painted above them
         occlusionCullingEnabled =
                 dirtyOptsEnabled && getBoolean(systemProperties,
                                                "prism.occlusion.culling",
-                                               true);
+                                               false);
 
         // The maximum number of dirty regions to use. The absolute max that we can
-        // support at present is 15.
-        dirtyRegionCount = Utils.clamp(0, getInt(systemProperties, "prism.dirtyregioncount", 6, null), 15);
+        // support at present is 31 (limited by the culling bits of NGNode).
+        dirtyRegionCount = Utils.clamp(0, getInt(systemProperties, "prism.dirtyregioncount", 6, null), 31);
+
+        // Merge dirty regions based on the measured cost of painting them,
+        // rather than only when they intersect or the container is full
+        dirtyRegionCostMerge = dirtyOptsEnabled && getBoolean(systemProperties,
+                                                              "prism.dirtyregioncostmerge",
+                                                              false);
 
         // Scrolling cache optimization
         // Disabled as a workaround for RT-39755.
         scrollCacheOpt = getBoolean(systemProperties, "prism.scrollcacheopt", false);
 
+        // The maximum number of bytes used to cache the results of effects
+        // of nodes which only move (0 disables the cache)
+        effectCacheSize = getLong(systemProperties, "prism.effectcachesize", 32 * 1024 * 1024,
+                                  "Try -Dprism.effectcachesize=<long>[kKmMgG]");
+
         /* Dirty region optimizations */
         threadCheck = getBoolean(systemProperties, "prism.threadcheck", false);
 
@@ -178,6 +193,9 @@ public final class PrismSettings {
             cacheComplexShapes = false;
         }
 
+        /* Pack the cached masks of small shapes into shared textures */
+        packShapeMasks = getBoolean(systemProperties, "prism.packshapemasks", true);
+
         /* New javafx-iio image loader */
         useNewImageLoader = getBoolean(systemProperties, "prism.newiio", true);
 
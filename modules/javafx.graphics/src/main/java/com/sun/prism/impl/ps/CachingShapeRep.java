@@ -27,6 +27,7 @@ package com.sun.prism.impl.ps;
 
 import com.sun.javafx.geom.BaseBounds;
 import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Rectangle;
 import com.sun.javafx.geom.Shape;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.prism.BasicStroke;
@@ -35,6 +36,7 @@ import com.sun.prism.Texture;
 import com.sun.prism.Texture.WrapMode;
 import com.sun.prism.paint.Paint;
 import com.sun.prism.shape.ShapeRep;
+import com.sun.prism.impl.BufferUtil;
 import com.sun.prism.impl.Disposer;
 import com.sun.prism.impl.PrismSettings;
 import com.sun.prism.impl.VertexBuffer;
@@ -42,8 +44,11 @@ import com.sun.prism.impl.ps.BaseShaderContext.MaskType;
 import com.sun.prism.impl.shape.ShapeUtil;
 import com.sun.prism.impl.shape.MaskData;
 import com.sun.prism.ps.Shader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 
 /**
  * An implementation of ShapeRep that attempts to cache and reuse the
@@ -71,6 +76,12 @@ import java.util.Comparator;
  * The current implementation limits the size of the cache (512 pixels in
  * each dimension, and 4 MB in total) so that it doesn't grow without bound.
  * Space is granted on a first come first served basis.
+ *
+ * The masks of small shapes are packed into shared atlas textures rather
+ * than each getting a texture of its own. Since the vertex buffer is only
+ * flushed when the texture changes, a large number of (different) small
+ * static shapes such as icons or markers can then be rendered with a single
+ * draw call, rather than one per shape.
  */
 public class CachingShapeRep implements ShapeRep {
 
@@ -130,6 +141,9 @@ class CachingShapeRepState {
     private static class MaskTexData {
         private CacheEntry cacheEntry;
         private Texture maskTex;
+        private MaskAtlasPage atlasPage;
+        private int atlasX;
+        private int atlasY;
         private float maskX;
         private float maskY;
         private int maskW;
@@ -146,6 +160,9 @@ class CachingShapeRepState {
             MaskTexData data = new MaskTexData();
             data.cacheEntry = this.cacheEntry;
             data.maskTex = this.maskTex;
+            data.atlasPage = this.atlasPage;
+            data.atlasX = this.atlasX;
+            data.atlasY = this.atlasY;
             data.maskX = this.maskX;
             data.maskY = this.maskY;
             data.maskW = this.maskW;
@@ -159,6 +176,9 @@ class CachingShapeRepState {
             }
             other.cacheEntry = this.cacheEntry;
             other.maskTex = this.maskTex;
+            other.atlasPage = this.atlasPage;
+            other.atlasX = this.atlasX;
+            other.atlasY = this.atlasY;
             other.maskX = this.maskX;
             other.maskY = this.maskY;
             other.maskW = this.maskW;
@@ -166,6 +186,26 @@ class CachingShapeRepState {
         }
     }
 
+    /**
+     * A texture shared by the masks of a number of small shapes. Each mask
+     * is surrounded by a border of empty pixels, so that filtering at its
+     * edges does not pick up its neighbors. The space of a mask is reclaimed
+     * when the mask is gone, and the page is disposed when all of its masks
+     * are gone.
+     */
+    private static class MaskAtlasPage {
+        private static final int SIZE = 512;
+        private static final int BORDER = 1;
+
+        private final Texture tex;
+        private final MaskAtlasAllocator allocator;
+
+        private MaskAtlasPage(Texture tex) {
+            this.tex = tex;
+            this.allocator = new MaskAtlasAllocator(SIZE, SIZE);
+        }
+    }
+
     private static class CacheEntry {
         Shape shape;
         BasicStroke stroke;
@@ -179,6 +219,12 @@ class CachingShapeRepState {
     private static class MaskCache {
         private static final int MAX_MASK_DIM = 512;
         private static final int MAX_SIZE_IN_PIXELS = 4194304; // 4 MB
+        // masks up to this size (in each dimension) are packed into pages
+        private static final int MAX_PACKED_MASK_DIM = 64;
+        // pages are only charged for the masks on them, so the number of
+        // pages is limited separately to as many as would fill the cache
+        private static final int MAX_ATLAS_PAGES =
+                MAX_SIZE_IN_PIXELS / (MaskAtlasPage.SIZE * MaskAtlasPage.SIZE);
         private static Comparator<CacheEntry> comparator = (o1, o2) -> {
             int widthCompare = Float.compare(o1.xformBounds.getWidth(), o2.xformBounds.getWidth());
             if (widthCompare != 0) {
@@ -196,6 +242,9 @@ class CachingShapeRepState {
             tmpKey.xformBounds = new RectBounds();
         }
 
+        private final List<MaskAtlasPage> atlasPages = new ArrayList<>();
+        private ByteBuffer emptyMask;
+
         private void ensureSize(int size) {
             if (entries.length < size) {
                 CacheEntry[] newEntries = new CacheEntry[size * 3 / 2];
@@ -312,10 +361,15 @@ class CachingShapeRepState {
             texData.maskY = maskData.getOriginY();
             texData.maskW = mw;
             texData.maskH = mh;
-            texData.maskTex =
-                context.getResourceFactory().createMaskTexture(mw, mh, WrapMode.CLAMP_TO_ZERO);
-            maskData.uploadToTexture(texData.maskTex, 0, 0, false);
-            texData.maskTex.contentsUseful();
+            if (!addToAtlas(context, texData, maskData)) {
+                texData.maskTex =
+                    context.getResourceFactory().createMaskTexture(mw, mh, WrapMode.CLAMP_TO_ZERO);
+                maskData.uploadToTexture(texData.maskTex, 0, 0, false);
+                texData.maskTex.contentsUseful();
+                texData.atlasPage = null;
+                texData.atlasX = texData.atlasY = 0;
+                totalPixels += mw*mh;
+            }
 
             // add the new mask texture to the cache; note that we copy the
             // shape and transform so that dependents are not affected
@@ -331,7 +385,97 @@ class CachingShapeRepState {
             entry.refCount = 1;
             texData.cacheEntry = entry;
             addEntry(entry);
-            totalPixels += mw*mh;
+        }
+
+        /**
+         * Places the given mask on an atlas page, creating a new page if
+         * needed (and there is room in the cache for it). Returns false if
+         * the mask is too large to be packed, or there is no room for it.
+         */
+        private boolean addToAtlas(BaseShaderContext context, MaskTexData texData, MaskData maskData) {
+            if (!PrismSettings.packShapeMasks ||
+                maskData.getWidth() > MAX_PACKED_MASK_DIM ||
+                maskData.getHeight() > MAX_PACKED_MASK_DIM)
+            {
+                return false;
+            }
+
+            final int border = MaskAtlasPage.BORDER;
+            Rectangle rect = new Rectangle(0, 0,
+                                           maskData.getWidth() + 2 * border,
+                                           maskData.getHeight() + 2 * border);
+            final int rectPixels = rect.width * rect.height;
+            if (totalPixels + rectPixels > MAX_SIZE_IN_PIXELS) {
+                return false;
+            }
+            MaskAtlasPage page = null;
+            for (int i = 0, max = atlasPages.size(); i < max; i++) {
+                MaskAtlasPage p = atlasPages.get(i);
+                if (!p.tex.isSurfaceLost() && p.allocator.add(rect)) {
+                    page = p;
+                    break;
+                }
+            }
+            if (page == null) {
+                if (atlasPages.size() >= MAX_ATLAS_PAGES) {
+                    return false;
+                }
+                Texture tex = context.getResourceFactory().createMaskTexture(
+                        MaskAtlasPage.SIZE, MaskAtlasPage.SIZE, WrapMode.CLAMP_NOT_NEEDED);
+                if (tex == null) {
+                    return false;
+                }
+                // the page keeps the lock it was created with until it is
+                // disposed, each mask on it also locks it while rendering
+                tex.contentsUseful();
+                tex.makePermanent();
+                page = new MaskAtlasPage(tex);
+                if (!page.allocator.add(rect)) {
+                    tex.unlock();
+                    tex.dispose();
+                    return false;
+                }
+                atlasPages.add(page);
+            }
+            totalPixels += rectPixels;
+
+            // the space may have been used by a mask which is gone, so
+            // clear all of it (including the border) before uploading the
+            // mask inside the border
+            Texture tex = page.tex;
+            int bpp = tex.getPixelFormat().getBytesPerPixelUnit();
+            int stride = rect.width * bpp;
+            int size = stride * rect.height;
+            if (emptyMask == null || size > emptyMask.capacity()) {
+                emptyMask = BufferUtil.newByteBuffer(size);
+            }
+            tex.update(emptyMask, tex.getPixelFormat(),
+                       rect.x, rect.y, 0, 0, rect.width, rect.height, stride,
+                       false);
+            maskData.uploadToTexture(tex, rect.x + border, rect.y + border, false);
+
+            tex.lock();
+            texData.maskTex = tex;
+            texData.atlasPage = page;
+            texData.atlasX = rect.x + border;
+            texData.atlasY = rect.y + border;
+            return true;
+        }
+
+        private void releaseFromAtlas(MaskTexData texData) {
+            final int border = MaskAtlasPage.BORDER;
+            Rectangle rect = new Rectangle(texData.atlasX - border,
+                                           texData.atlasY - border,
+                                           texData.maskW + 2 * border,
+                                           texData.maskH + 2 * border);
+            MaskAtlasPage page = texData.atlasPage;
+            page.allocator.remove(rect);
+            totalPixels -= rect.width * rect.height;
+            if (page.allocator.isEmpty()) {
+                atlasPages.remove(page);
+                page.tex.unlock();
+                page.tex.dispose();
+            }
         }
 
         void unref(MaskTexData texData) {
@@ -344,6 +488,7 @@ class CachingShapeRepState {
             }
             texData.cacheEntry = null;
             texData.maskTex = null;
+            texData.atlasPage = null;
             entry.refCount--;
             if (entry.refCount <= 0) {
                 removeEntry(entry);
@@ -351,10 +496,14 @@ class CachingShapeRepState {
                 entry.stroke = null;
                 entry.xform = null;
                 entry.xformBounds = null;
-                entry.texData.maskTex.dispose();
+                if (entry.texData.atlasPage != null) {
+                    releaseFromAtlas(entry.texData);
+                } else {
+                    entry.texData.maskTex.dispose();
+                    totalPixels -= (texData.maskW * texData.maskH);
+                }
                 entry.antialiasedShape = false;
                 entry.texData = null;
-                totalPixels -= (texData.maskW * texData.maskH);
             }
         }
     }
@@ -559,8 +708,8 @@ class CachingShapeRepState {
         float dy1 = texData.maskY;
         float dx2 = dx1 + mw;
         float dy2 = dy1 + mh;
-        float tx1 = maskTex.getContentX() / tw;
-        float ty1 = maskTex.getContentY() / th;
+        float tx1 = (maskTex.getContentX() + texData.atlasX) / tw;
+        float ty1 = (maskTex.getContentY() + texData.atlasY) / th;
         float tx2 = tx1 + mw / tw;
         float ty2 = ty1 + mh / th;
 
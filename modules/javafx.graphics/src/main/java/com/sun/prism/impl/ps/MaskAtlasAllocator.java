@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl.ps;
+
+import com.sun.javafx.geom.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Allocates space for masks on a page of the shape mask atlas. The page is
+ * divided into shelves, each of which holds masks of similar height side by
+ * side. Unlike a RectanglePacker, space can be released one mask at a time:
+ * the space of a released mask is kept in a free list of its shelf and reused
+ * by later masks, and a shelf which has been emptied can be taken by masks of
+ * any height which fits it.
+ */
+final class MaskAtlasAllocator {
+    private static final int ROUND_UP = 4; // Round shelf heights up to multiple of 4
+
+    private final int width;
+    private final int height;
+    // Maintained in sorted order by increasing y, covering the page from
+    // the top down to shelvesHeight
+    private final List<Shelf> shelves = new ArrayList<>();
+    private int shelvesHeight;
+    private int count;
+    private int usedPixels;
+
+    private static final class Shelf {
+        private int y;
+        private int height;
+        // the part of the shelf from end to the width of the page is free
+        private int end;
+        // other free spans of the shelf, from their start to their end
+        private final TreeMap<Integer, Integer> free = new TreeMap<>();
+        private int count;
+
+        private Shelf(int y, int height) {
+            this.y = y;
+            this.height = height;
+        }
+
+        private boolean add(Rectangle rect, int width) {
+            for (Map.Entry<Integer, Integer> span : free.entrySet()) {
+                int start = span.getKey();
+                int spanEnd = span.getValue();
+                if (spanEnd - start >= rect.width) {
+                    free.remove(start);
+                    if (spanEnd - start > rect.width) {
+                        free.put(start + rect.width, spanEnd);
+                    }
+                    rect.setBounds(start, y, rect.width, rect.height);
+                    count++;
+                    return true;
+                }
+            }
+            if (end + rect.width > width) {
+                return false;
+            }
+            rect.setBounds(end, y, rect.width, rect.height);
+            end += rect.width;
+            count++;
+            return true;
+        }
+
+        private void remove(Rectangle rect) {
+            if (--count == 0) {
+                free.clear();
+                end = 0;
+                return;
+            }
+            int start = rect.x;
+            int spanEnd = rect.x + rect.width;
+            Map.Entry<Integer, Integer> before = free.floorEntry(start);
+            if (before != null && before.getValue() == start) {
+                start = before.getKey();
+                free.remove(start);
+            }
+            Integer after = free.remove(spanEnd);
+            if (after != null) {
+                spanEnd = after;
+            }
+            if (spanEnd == end) {
+                end = start;
+            } else {
+                free.put(start, spanEnd);
+            }
+        }
+    }
+
+    /**
+     * Creates an allocator for a page of the given size.
+     */
+    MaskAtlasAllocator(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Decides upon an (x, y) position for the given rectangle (leaving its
+     * width and height unchanged). Returns false if there is no room for it.
+     */
+    boolean add(Rectangle rect) {
+        if (rect.width <= 0 || rect.height <= 0 ||
+            rect.width > width || rect.height > height)
+        {
+            return false;
+        }
+        int shelfHeight = (rect.height + ROUND_UP - 1) / ROUND_UP * ROUND_UP;
+        if (!addToShelf(rect, shelfHeight)) {
+            return false;
+        }
+        count++;
+        usedPixels += rect.width * rect.height;
+        return true;
+    }
+
+    private boolean addToShelf(Rectangle rect, int shelfHeight) {
+        // a shelf in use, which is not much taller than needed
+        for (int i = 0, max = shelves.size(); i < max; i++) {
+            Shelf shelf = shelves.get(i);
+            if (shelf.count > 0 &&
+                shelf.height >= rect.height &&
+                shelf.height <= shelfHeight + ROUND_UP * 2 &&
+                shelf.add(rect, width))
+            {
+                return true;
+            }
+        }
+        // an empty shelf, the rest of which is split off as another one
+        for (int i = 0, max = shelves.size(); i < max; i++) {
+            Shelf shelf = shelves.get(i);
+            if (shelf.count == 0 && shelf.height >= shelfHeight) {
+                if (shelf.height > shelfHeight) {
+                    shelves.add(i + 1, new Shelf(shelf.y + shelfHeight,
+                                                 shelf.height - shelfHeight));
+                    shelf.height = shelfHeight;
+                }
+                return shelf.add(rect, width);
+            }
+        }
+        // a new shelf, which may be cut short by the bottom of the page
+        int available = height - shelvesHeight;
+        if (rect.height > available) {
+            return false;
+        }
+        Shelf shelf = new Shelf(shelvesHeight, Math.min(shelfHeight, available));
+        shelves.add(shelf);
+        shelvesHeight += shelf.height;
+        return shelf.add(rect, width);
+    }
+
+    /**
+     * Releases the space of a rectangle which was placed by add(), so that
+     * it can be reused.
+     */
+    void remove(Rectangle rect) {
+        int i = indexOf(rect.y);
+        Shelf shelf = shelves.get(i);
+        shelf.remove(rect);
+        count--;
+        usedPixels -= rect.width * rect.height;
+        if (shelf.count > 0) {
+            return;
+        }
+        // merge the emptied shelf with empty neighbors, giving the space
+        // at the bottom of the page back as a whole
+        if (i + 1 < shelves.size() && shelves.get(i + 1).count == 0) {
+            shelf.height += shelves.remove(i + 1).height;
+        }
+        if (i > 0 && shelves.get(i - 1).count == 0) {
+            shelves.get(i - 1).height += shelves.remove(i).height;
+            i--;
+        }
+        if (i == shelves.size() - 1) {
+            shelvesHeight -= shelves.remove(i).height;
+        }
+    }
+
+    private int indexOf(int y) {
+        int from = 0, to = shelves.size() - 1;
+        while (from <= to) {
+            int mid = (from + to) >>> 1;
+            Shelf shelf = shelves.get(mid);
+            if (y < shelf.y) {
+                to = mid - 1;
+            } else if (y >= shelf.y + shelf.height) {
+                from = mid + 1;
+            } else {
+                return mid;
+            }
+        }
+        throw new IllegalArgumentException("No shelf at " + y);
+    }
+
+    /**
+     * Returns true if no rectangles are placed.
+     */
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Returns the area of the rectangles which are placed.
+     */
+    int getUsedPixels() {
+        return usedPixels;
+    }
+}
@@ -78,6 +78,18 @@ public class SplineInterpolator extends Interpolator {
      */
     private final double[] xSamples = new double[SAMPLE_SIZE + 1];
 
+    /**
+     * Power of 2 sample size for lookup table of y values used by
+     * sampledCurve().
+     */
+    private static final int CURVE_SAMPLE_SIZE = 512;
+
+    /**
+     * Y values for the curve, sampled at x increments of 1/CURVE_SAMPLE_SIZE --
+     * this is only created the first time sampledCurve() is called.
+     */
+    private float[] ySamples;
+
     /**
      * Creates a new instance with control points (0,0) (px1,py1) (px2,py2)
      * (1,1) -- px1, py1, px2, py2 all in range [0,1].
@@ -191,6 +203,41 @@ public class SplineInterpolator extends Interpolator {
         return eval(findTForX(x), y1, y2);
     }
 
+    /**
+     * Returns an approximation of curve(x), linearly interpolated between
+     * the values of curve() sampled at increments of 1/CURVE_SAMPLE_SIZE --
+     * this avoids the search for the t parameter of each x value, and is
+     * exact at both end points.
+     *
+     * @param x
+     *            is x-value of cubic bezier curve, in range [0,1]
+     * @return approximate y-value of cubic bezier curve -- in range [0,1]
+     */
+    public double sampledCurve(double x) {
+        // check user input for precondition
+        if (x < 0 || x > 1) {
+            throw new IllegalArgumentException("x must be in range [0,1]");
+        }
+
+        // check quick exit identity cases (linear curve or curve endpoints)
+        if (isCurveLinear || x == 0 || x == 1) {
+            return x;
+        }
+
+        float[] samples = ySamples;
+        if (samples == null) {
+            samples = new float[CURVE_SAMPLE_SIZE + 1];
+            for (int i = 0; i < CURVE_SAMPLE_SIZE + 1; ++i) {
+                samples[i] = (float) curve((double) i / CURVE_SAMPLE_SIZE);
+            }
+            ySamples = samples;
+        }
+
+        final double position = x * CURVE_SAMPLE_SIZE;
+        final int i = (int) position;
+        return samples[i] + (samples[i + 1] - samples[i]) * (position - i);
+    }
+
     /**
      * Use Bernstein basis to evaluate 1D cubic Bezier curve (quicker and more
      * numerically stable than power basis) -- 1D control coordinates are (0,
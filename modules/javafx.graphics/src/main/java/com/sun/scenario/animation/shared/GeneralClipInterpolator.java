@@ -26,6 +26,7 @@
 package com.sun.scenario.animation.shared;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -42,7 +43,6 @@ import javafx.beans.value.WritableValue;
  */
 
 // @@OPT:
-// - A binary search in interpolate might make sense.
 // - Prepare only first segment when starting timeline and do the rest later =>
 // improves startup time?
 // - Store 1 / (rightMillis - leftMillis) for each interval and multiply
@@ -54,6 +54,11 @@ class GeneralClipInterpolator extends ClipInterpolator {
     // List of interpolation-points associated with each target
     private InterpolationInterval[][] interval = new InterpolationInterval[0][];
 
+    // The index of the interval used by the last call of interpolate, for
+    // each target. As time mostly moves forward in small steps, this is
+    // usually still the current interval, or one of the next ones.
+    private int[] currentInterval = new int[0];
+
     // List of indexes for targets with undefined start value
     private int[] undefinedStartValues = new int[0];
     // Is internal representation up-to-date?
@@ -132,6 +137,9 @@ class GeneralClipInterpolator extends ClipInterpolator {
             final int targetCount = map.size();
             if (interval.length != targetCount) {
                 interval = new InterpolationInterval[targetCount][];
+                currentInterval = new int[targetCount];
+            } else {
+                Arrays.fill(currentInterval, 0);
             }
             final int undefinedStartValuesCount = undefinedValues.size();
             if (undefinedStartValues.length != undefinedStartValuesCount) {
@@ -163,31 +171,37 @@ class GeneralClipInterpolator extends ClipInterpolator {
     void interpolate(long ticks) {
         final int targetCount = interval.length;
         // iterate through all targets
-        targetLoop: for (int targetIndex = 0; targetIndex < targetCount; targetIndex++) {
-            InterpolationInterval[] intervalList = interval[targetIndex];
+        for (int targetIndex = 0; targetIndex < targetCount; targetIndex++) {
+            final InterpolationInterval[] intervalList = interval[targetIndex];
             final int intervalCount = intervalList.length;
-            // leftMillis keeps the timestamp of the left side of the interval
-            long leftTicks = 0;
-            // iterate through all intervals except the last one
-            for (int intervalIndex = 0; intervalIndex < intervalCount - 1; intervalIndex++) {
-                final InterpolationInterval i = intervalList[intervalIndex];
-                final long rightTicks = i.ticks;
-                if (ticks <= rightTicks) {
-                    // we found the current interval
-                    final double frac = (double)(ticks - leftTicks)
-                            / (rightTicks - leftTicks);
-                    i.interpolate(frac);
-                    continue targetLoop;
-                }
-                leftTicks = rightTicks;
+
+            // Find the first interval which ends at or after ticks (or the
+            // last interval if there is none), starting with the interval
+            // which was current the last time
+            int intervalIndex = currentInterval[targetIndex];
+            if (intervalIndex > 0 && ticks <= intervalList[intervalIndex - 1].ticks) {
+                // time has moved backwards, search from the start
+                intervalIndex = 0;
+            }
+            while (intervalIndex < intervalCount - 1 && ticks > intervalList[intervalIndex].ticks) {
+                intervalIndex++;
+            }
+            currentInterval[targetIndex] = intervalIndex;
+
+            // leftTicks keeps the timestamp of the left side of the interval
+            final long leftTicks = (intervalIndex == 0) ? 0 : intervalList[intervalIndex - 1].ticks;
+            final InterpolationInterval i = intervalList[intervalIndex];
+            if (intervalIndex < intervalCount - 1) {
+                final double frac = (double)(ticks - leftTicks)
+                        / (i.ticks - leftTicks);
+                i.interpolate(frac);
+            } else {
+                // the last interval may end before the timeline ends, make sure we
+                // set the end value
+                final double frac = Math.min(1.0, (double)(ticks - leftTicks)
+                        / (i.ticks - leftTicks));
+                i.interpolate(frac);
             }
-            // we did not find a current interval, use the last one
-            final InterpolationInterval i = intervalList[intervalCount - 1];
-            // the last interval may end before the timeline ends, make sure we
-            // set the end value
-            final double frac = Math.min(1.0, (double)(ticks - leftTicks)
-                    / (i.ticks - leftTicks));
-            i.interpolate(frac);
         }
     }
 }
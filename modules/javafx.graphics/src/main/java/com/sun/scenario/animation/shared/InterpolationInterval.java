@@ -35,17 +35,56 @@ import javafx.beans.value.WritableIntegerValue;
 import javafx.beans.value.WritableLongValue;
 import javafx.beans.value.WritableValue;
 
+import com.sun.scenario.Settings;
 import com.sun.scenario.animation.NumberTangentInterpolator;
+import com.sun.scenario.animation.SplineInterpolator;
 
 public abstract class InterpolationInterval {
 
+    // If set, the curves of spline interpolators are evaluated with a table
+    // of precomputed samples, which is much cheaper than solving the curve
+    // for each pulse. This is meant for applications which animate a large
+    // number of values with the same splines over and over again.
+    static final String SAMPLED_CURVES_PROP = "com.sun.scenario.animation.sampledcurves";
+
     protected final long ticks;
     protected final Interpolator rightInterpolator;
 
+    // rightInterpolator, if its curve is to be sampled, or null
+    private final SplineInterpolator sampledInterpolator;
+
     protected InterpolationInterval(long ticks,
             Interpolator rightInterpolator) {
         this.ticks = ticks;
         this.rightInterpolator = rightInterpolator;
+        this.sampledInterpolator = (rightInterpolator instanceof SplineInterpolator)
+                && Settings.getBoolean(SAMPLED_CURVES_PROP)
+                ? (SplineInterpolator) rightInterpolator : null;
+    }
+
+    // The following methods compute the same values as the corresponding
+    // Interpolator.interpolate methods, using the sampled curve if there is
+    // one.
+
+    protected final double interpolateValue(double leftValue, double rightValue, double frac) {
+        if (sampledInterpolator == null) {
+            return rightInterpolator.interpolate(leftValue, rightValue, frac);
+        }
+        return leftValue + (rightValue - leftValue) * sampledInterpolator.sampledCurve(frac);
+    }
+
+    protected final int interpolateValue(int leftValue, int rightValue, double frac) {
+        if (sampledInterpolator == null) {
+            return rightInterpolator.interpolate(leftValue, rightValue, frac);
+        }
+        return leftValue + (int) Math.round((rightValue - leftValue) * sampledInterpolator.sampledCurve(frac));
+    }
+
+    protected final long interpolateValue(long leftValue, long rightValue, double frac) {
+        if (sampledInterpolator == null) {
+            return rightInterpolator.interpolate(leftValue, rightValue, frac);
+        }
+        return leftValue + Math.round((rightValue - leftValue) * sampledInterpolator.sampledCurve(frac));
     }
 
     public abstract void interpolate(double frac);
@@ -259,8 +298,7 @@ public abstract class InterpolationInterval {
 
         @Override
         public void interpolate(double frac) {
-            final double value = rightInterpolator.interpolate(leftValue,
-                    rightValue, frac);
+            final double value = interpolateValue(leftValue, rightValue, frac);
             target.set(value);
         }
 
@@ -330,8 +368,8 @@ public abstract class InterpolationInterval {
 
         @Override
         public void interpolate(double frac) {
-            final float value = (float) rightInterpolator.interpolate(
-                    leftValue, rightValue, frac);
+            final float value = (float) interpolateValue(
+                    (double) leftValue, (double) rightValue, frac);
             target.set(value);
         }
 
@@ -401,8 +439,7 @@ public abstract class InterpolationInterval {
 
         @Override
         public void interpolate(double frac) {
-            final int value = rightInterpolator.interpolate(leftValue,
-                    rightValue, frac);
+            final int value = interpolateValue(leftValue, rightValue, frac);
             target.set(value);
         }
 
@@ -472,8 +509,7 @@ public abstract class InterpolationInterval {
 
         @Override
         public void interpolate(double frac) {
-            final long value = rightInterpolator.interpolate(leftValue,
-                    rightValue, frac);
+            final long value = interpolateValue(leftValue, rightValue, frac);
             target.set(value);
         }
 
@@ -25,12 +25,18 @@
 
 package com.sun.scenario.effect.impl;
 
-import java.lang.ref.SoftReference;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import com.sun.scenario.effect.Filterable;
 
 /**
@@ -38,6 +44,12 @@ import com.sun.scenario.effect.Filterable;
  * various {@code EffectPeer} implementations.  Image allocation can be
  * a fairly expensive operation (in terms of footprint and performance),
  * especially for the GPU backends, so image reuse is critical.
+ *
+ * Unlocked images are kept in buckets by size, so that a request for
+ * the same size as an earlier one (by far the most common case) is found
+ * without searching, and in least recently used order so that the total
+ * number of bytes held by unlocked images can be bounded by evicting (and
+ * flushing) the images that have been unused the longest.
  */
 public class ImagePool {
 
@@ -46,9 +58,16 @@ public class ImagePool {
     static long pixelsCreated;
     static long numAccessed;
     static long pixelsAccessed;
+    static long numHits;
+    static long numMisses;
+    static long numEvicted;
+    static long pixelsEvicted;
+
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final long maxBytes;
 
     static {
-        AccessController.doPrivileged((PrivilegedAction) () -> {
+        maxBytes = AccessController.doPrivileged((PrivilegedAction<Long>) () -> {
             if (System.getProperty("decora.showstats") != null) {
                 Runtime.getRuntime().addShutdownHook(new Thread() {
                     @Override public void run() {
@@ -56,7 +75,9 @@ public class ImagePool {
                     }
                 });
             }
-            return null;
+            // the maximum size of the pool of unlocked images, in megabytes
+            long mb = Long.getLong("decora.poolsize", -1L);
+            return (mb < 0) ? DEFAULT_MAX_BYTES : mb * 1024 * 1024;
         });
     }
 
@@ -66,6 +87,10 @@ public class ImagePool {
         System.out.println("pixels created:    " + pixelsCreated);
         System.out.println("images accessed:   " + numAccessed);
         System.out.println("pixels accessed:   " + pixelsAccessed);
+        System.out.println("pool hits:         " + numHits);
+        System.out.println("pool misses:       " + numMisses);
+        System.out.println("images evicted:    " + numEvicted);
+        System.out.println("pixels evicted:    " + pixelsEvicted);
         if (numEffects != 0) {
             double avgImgs = ((double) numAccessed) / numEffects;
             double avgPxls = ((double) pixelsAccessed) / numEffects;
@@ -76,10 +101,18 @@ public class ImagePool {
 
     static final int QUANT = 32;
 
-    private final List<SoftReference<PoolFilterable>> unlocked =
-        new ArrayList<SoftReference<PoolFilterable>>();
-    private final List<SoftReference<PoolFilterable>> locked =
-        new ArrayList<SoftReference<PoolFilterable>>();
+    // unlocked images by size (see key()), most recently checked in first
+    private final Map<Long, ArrayDeque<PoolFilterable>> buckets =
+        new HashMap<Long, ArrayDeque<PoolFilterable>>();
+    // unlocked images, least recently checked in first
+    private final Set<PoolFilterable> unlocked =
+        new LinkedHashSet<PoolFilterable>();
+    private long unlockedBytes;
+    // images which have been checked out; these are only weakly referenced
+    // so that images which are never checked back in can still be collected
+    private final Set<PoolFilterable> locked =
+        Collections.newSetFromMap(new WeakHashMap<PoolFilterable, Boolean>());
+    private final long maxUnlockedBytes;
 
     // On Canmore with the PowerVR SGX chip, there is a driver issue
     // that causes incorrect rendering if one tries to reuse an FBO
@@ -96,14 +129,25 @@ public class ImagePool {
     // slowdowns for certain frames due to increased allocation
     // (where there would normally be reuse).
     private final boolean usePurgatory = Boolean.getBoolean("decora.purgatory");
-    private final List<Filterable> hardPurgatory = new ArrayList<Filterable>();
-    private final List<SoftReference<PoolFilterable>> softPurgatory =
-        new ArrayList<SoftReference<PoolFilterable>>();
+    private final List<PoolFilterable> purgatory = new ArrayList<PoolFilterable>();
 
     /**
      * Package-private constructor.
      */
     ImagePool() {
+        this(maxBytes);
+    }
+
+    ImagePool(long maxUnlockedBytes) {
+        this.maxUnlockedBytes = maxUnlockedBytes;
+    }
+
+    private static long key(int w, int h) {
+        return (((long) w) << 32) | (h & 0xffffffffL);
+    }
+
+    private static long bytes(Filterable img) {
+        return ((long) img.getPhysicalWidth()) * img.getPhysicalHeight() * 4;
     }
 
     public synchronized PoolFilterable checkOut(Renderer renderer, int w, int h) {
@@ -121,61 +165,41 @@ public class ImagePool {
 
         numAccessed++;
         pixelsAccessed += ((long) w) * h;
+
         // first look for an already cached image of sufficient size,
-        // choosing the one that is closest in size to the requested dimensions
-        SoftReference<PoolFilterable> chosenEntry = null;
-        PoolFilterable chosenImage = null;
-        int mindiff = Integer.MAX_VALUE;
-        Iterator<SoftReference<PoolFilterable>> entries = unlocked.iterator();
-        while (entries.hasNext()) {
-            SoftReference<PoolFilterable> entry = entries.next();
-            PoolFilterable eimg = entry.get();
-            if (eimg == null) {
-                entries.remove();
-                continue;
-            }
-            int ew = eimg.getMaxContentWidth();
-            int eh = eimg.getMaxContentHeight();
-            if (ew >= w && eh >= h && ew * eh / 2 <= w * h) {
-                int diff = (ew-w) * (eh-h);
-                if (chosenEntry == null || diff < mindiff) {
-                    eimg.lock();
-                    if (eimg.isLost()) {
-                        entries.remove();
-                        continue;
-                    }
-                    if (chosenImage != null) {
-                        chosenImage.unlock();
+        // choosing the one that is closest in size to the requested
+        // dimensions; an image of exactly the requested size is the
+        // most common case and needs no search
+        PoolFilterable chosenImage = takeUnlocked(key(w, h));
+        while (chosenImage == null) {
+            long chosenKey = 0;
+            int mindiff = Integer.MAX_VALUE;
+            boolean found = false;
+            for (Long k : buckets.keySet()) {
+                int ew = (int) (k >>> 32);
+                int eh = (int) (long) k;
+                if (ew >= w && eh >= h && ew * eh / 2 <= w * h) {
+                    int diff = (ew-w) * (eh-h);
+                    if (!found || diff < mindiff) {
+                        chosenKey = k;
+                        mindiff = diff;
+                        found = true;
                     }
-                    chosenEntry = entry;
-                    // The following calls to setContentWidth / setContentHeight
-                    // should be uncommented only after the rest of the imagepool
-                    // is fixed to handle a change in content size, and when both the
-                    // SW pipeline and J2D pipeline are able to handle the change.
-//                    eimg.setContentWidth(w);
-//                    eimg.setContentHeight(h);
-                    chosenImage = eimg;
-                    mindiff = diff;
                 }
             }
+            if (!found) {
+                break;
+            }
+            chosenImage = takeUnlocked(chosenKey);
         }
 
-        if (chosenEntry != null) {
-            unlocked.remove(chosenEntry);
-            locked.add(chosenEntry);
+        if (chosenImage != null) {
+            numHits++;
+            locked.add(chosenImage);
             renderer.clearImage(chosenImage);
             return chosenImage;
         }
-
-        // get rid of expired entries from locked list
-        entries = locked.iterator();
-        while (entries.hasNext()) {
-            SoftReference<PoolFilterable> entry = entries.next();
-            Filterable eimg = entry.get();
-            if (eimg == null) {
-                entries.remove();
-            }
-        }
+        numMisses++;
 
         // if all else fails, just create a new one...
         PoolFilterable img = null;
@@ -192,66 +216,115 @@ public class ImagePool {
         }
         if (img != null) {
             img.setImagePool(this);
-            locked.add(new SoftReference<PoolFilterable>(img));
+            locked.add(img);
             numCreated++;
             pixelsCreated += ((long) w) * h;
         }
         return img;
     }
 
-    public synchronized void checkIn(PoolFilterable img) {
-        SoftReference<PoolFilterable> chosenEntry = null;
-        Filterable chosenImage = null;
-        Iterator<SoftReference<PoolFilterable>> entries = locked.iterator();
-        while (entries.hasNext()) {
-            SoftReference<PoolFilterable> entry = entries.next();
-            Filterable eimg = entry.get();
-            if (eimg == null) {
-                entries.remove();
-            } else if (eimg == img) {
-                chosenEntry = entry;
-                chosenImage = eimg;
-                img.unlock();
+    // Removes the most recently checked in image from the given bucket
+    // and returns it locked, skipping (and discarding) any lost images.
+    // Returns null, and removes the bucket, if it has no usable images.
+    private PoolFilterable takeUnlocked(long key) {
+        ArrayDeque<PoolFilterable> bucket = buckets.get(key);
+        if (bucket == null) {
+            return null;
+        }
+        PoolFilterable img;
+        while ((img = bucket.pollFirst()) != null) {
+            unlocked.remove(img);
+            unlockedBytes -= bytes(img);
+            img.lock();
+            if (!img.isLost()) {
                 break;
             }
         }
+        if (bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+        return img;
+    }
+
+    private void addUnlocked(PoolFilterable img) {
+        long k = key(img.getMaxContentWidth(), img.getMaxContentHeight());
+        ArrayDeque<PoolFilterable> bucket = buckets.get(k);
+        if (bucket == null) {
+            bucket = new ArrayDeque<PoolFilterable>();
+            buckets.put(k, bucket);
+        }
+        bucket.addFirst(img);
+        unlocked.add(img);
+        unlockedBytes += bytes(img);
+    }
+
+    // Evicts the least recently used unlocked images until the pool fits
+    // within its byte budget.
+    private void trimToSize() {
+        Iterator<PoolFilterable> entries = unlocked.iterator();
+        while (unlockedBytes > maxUnlockedBytes && entries.hasNext()) {
+            PoolFilterable img = entries.next();
+            entries.remove();
+            long k = key(img.getMaxContentWidth(), img.getMaxContentHeight());
+            ArrayDeque<PoolFilterable> bucket = buckets.get(k);
+            // the least recently used image is at the end of its bucket
+            bucket.removeLastOccurrence(img);
+            if (bucket.isEmpty()) {
+                buckets.remove(k);
+            }
+            unlockedBytes -= bytes(img);
+            numEvicted++;
+            pixelsEvicted += ((long) img.getPhysicalWidth()) * img.getPhysicalHeight();
+            img.flush();
+        }
+    }
 
-        if (chosenEntry != null) {
-            locked.remove(chosenEntry);
+    public synchronized void checkIn(PoolFilterable img) {
+        if (locked.remove(img)) {
+            img.unlock();
             if (usePurgatory) {
                 // hold the entry in purgatory instead of releasing it back
                 // to the unlocked pool immediately; it will be released
                 // after the next call to releasePurgatory()...
-//                System.err.println("==> Adding image to purgatory: " +
-//                    chosenImage.getPhysicalWidth() + "x" +
-//                    chosenImage.getPhysicalHeight());
-                hardPurgatory.add(chosenImage);
-                softPurgatory.add(chosenEntry);
+                purgatory.add(img);
             } else {
-                unlocked.add(chosenEntry);
+                addUnlocked(img);
+                trimToSize();
             }
         }
     }
 
     public synchronized void releasePurgatory() {
-        if (usePurgatory && !softPurgatory.isEmpty()) {
-//            System.err.println("==> Releasing " + softPurgatory.size() + " entries from purgatory!");
+        if (usePurgatory && !purgatory.isEmpty()) {
             // release images kept in purgatory back into the unlocked pool
-            unlocked.addAll(softPurgatory);
-            softPurgatory.clear();
-            hardPurgatory.clear();
+            for (PoolFilterable img : purgatory) {
+                addUnlocked(img);
+            }
+            purgatory.clear();
+            trimToSize();
         }
     }
 
-    private void pruneCache() {
-        // flush all unlocked images
-        for (SoftReference<PoolFilterable> r : unlocked) {
-            Filterable image = r.get();
-            if (image != null) {
-                image.flush();
-            }
+    /**
+     * Returns the number of bytes held by the images which are available
+     * for reuse.
+     */
+    public synchronized long getUnlockedBytes() {
+        return unlockedBytes;
+    }
+
+    private void flushUnlocked() {
+        for (PoolFilterable image : unlocked) {
+            image.flush();
         }
         unlocked.clear();
+        buckets.clear();
+        unlockedBytes = 0;
+    }
+
+    private void pruneCache() {
+        // flush all unlocked images
+        flushUnlocked();
         // this is to help to free up space held by those images that we no
         // longer have references to
         System.gc();
@@ -261,14 +334,9 @@ public class ImagePool {
     }
 
     public synchronized void dispose() {
-        for (SoftReference<PoolFilterable> r : unlocked) {
-            Filterable image = r.get();
-            if (image != null) {
-                image.flush();
-            }
-        }
-        unlocked.clear();
+        flushUnlocked();
         // not flushing the locked ones, just clearing references to them
         locked.clear();
+        purgatory.clear();
     }
 }
@@ -94,19 +94,8 @@ public class JSWLinearConvolvePeer extends JSWEffectPeer<LinearConvolveRenderSta
         int count = lcrstate.getPassKernelSize();
         FloatBuffer weights_buf = lcrstate.getPassWeights();
 
-        PassType type = lcrstate.getPassType();
-        if (!src0Transform.isIdentity() ||
-            !dstBounds.contains(dstRawBounds.x, dstRawBounds.y))
-        {
-            // RT-27387
-            // TODO: Fix the optimized loops to deal with non-zero srcxy0
-            // and transforms...
-            type = PassType.GENERAL_VECTOR;
-        }
-        if (count >= 0) {
-            // REMIND: Why was this hard-coded?
-            type = PassType.GENERAL_VECTOR;
-        }
+        PassType type = getPassType(lcrstate, src0Transform,
+                                    dstBounds, dstRawBounds);
         if (type == PassType.HORIZONTAL_CENTERED) {
             float[] weights_arr = new float[count * 2];
             weights_buf.get(weights_arr, 0, count);
@@ -166,6 +155,29 @@ public class JSWLinearConvolvePeer extends JSWEffectPeer<LinearConvolveRenderSta
         return new ImageData(getFilterContext(), dst, dstBounds);
     }
 
+    /**
+     * Returns the type of loop used for this pass. The centered horizontal
+     * and vertical loops read each source pixel once per destination row
+     * or column, rather than taking a bilinear sample per kernel element
+     * for each destination pixel, but they cannot deal with a transformed
+     * source or with a destination that is clipped on its top or left.
+     */
+    protected PassType getPassType(LinearConvolveRenderState lcrstate,
+                                   BaseTransform src0Transform,
+                                   Rectangle dstBounds,
+                                   Rectangle dstRawBounds)
+    {
+        if (!src0Transform.isIdentity() ||
+            !dstBounds.contains(dstRawBounds.x, dstRawBounds.y))
+        {
+            // RT-27387
+            // TODO: Fix the optimized loops to deal with non-zero srcxy0
+            // and transforms...
+            return PassType.GENERAL_VECTOR;
+        }
+        return lcrstate.getPassType();
+    }
+
     private static final float cmin = 1f;
     private static final float cmax = 254f + 15f/16f;
 
@@ -173,6 +173,35 @@ public final class Platform {
         Toolkit.getToolkit().requestNextPulse();
     }
 
+    /**
+     * Runs the specified {@link Runnable} on the JavaFX Application Thread
+     * at some unspecified time in the future, once a pulse has completed
+     * with enough time left in its frame, so that it does not delay the
+     * rendering of animations or of other changes to the scene graph.
+     * This is intended for low priority work, such as prefetching data or
+     * populating caches. Pulses are scheduled until all such runnables have
+     * been run, after which the pulse timer is stopped as usual when nothing
+     * is animating or needs to be rendered.
+     * <p>
+     * The Runnables are executed in the order they are posted. A Runnable
+     * which cannot run for some time, because each pulse takes up its whole
+     * frame, is eventually run anyway. As with {@link #runLater}, if this
+     * method is called after the JavaFX runtime has been shutdown, the call
+     * will be ignored. This method may be called on any thread.
+     * </p>
+     *
+     * @param runnable the Runnable whose run method will be executed on the
+     * JavaFX Application Thread
+     *
+     * @throws IllegalStateException if the FX runtime has not been initialized
+     * @throws NullPointerException if runnable is null
+     *
+     * @since 14
+     */
+    public static void runWhenIdle(Runnable runnable) {
+        PlatformImpl.runWhenIdle(runnable);
+    }
+
     /**
      * Returns true if the calling thread is the JavaFX Application Thread.
      * Use this call the ensure that a given task is being executed
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene;
+
+import java.util.Arrays;
+
+/**
+ * Caches the sizes of a Parent which have been measured with a constraint
+ * (a width or height other than -1) during a layout pass. A layout pane may
+ * measure each of its children with a number of different constraints while
+ * laying them out, and nested panes would otherwise measure their content
+ * again each time they are measured themselves.
+ *
+ * A few entries are kept for each kind of size, and the oldest entry is
+ * replaced when they are all in use. The entries only remain valid for the
+ * layout pass during which they were measured, or until the size cache of the
+ * Parent is cleared by a layout request.
+ */
+final class MeasureCache {
+
+    static final int PREF_WIDTH = 0;
+    static final int PREF_HEIGHT = 1;
+    static final int MIN_WIDTH = 2;
+    static final int MIN_HEIGHT = 3;
+
+    private static final int KINDS = 4;
+    private static final int SLOTS = 4;
+
+    private final double[] constraints = new double[KINDS * SLOTS];
+    private final double[] values = new double[KINDS * SLOTS];
+    private final int[] sizes = new int[KINDS];
+    private final int[] next = new int[KINDS];
+    private int pass;
+
+    /**
+     * Returns the size of the given kind measured with the given constraint
+     * during the given layout pass, or NaN if it is not in the cache.
+     */
+    double get(int kind, double constraint, int pass) {
+        if (pass != this.pass) {
+            return Double.NaN;
+        }
+        final int start = kind * SLOTS;
+        for (int i = start, end = start + sizes[kind]; i < end; i++) {
+            if (constraints[i] == constraint) {
+                return values[i];
+            }
+        }
+        return Double.NaN;
+    }
+
+    void put(int kind, double constraint, double value, int pass) {
+        if (pass != this.pass) {
+            clear();
+            this.pass = pass;
+        }
+        final int index;
+        if (sizes[kind] < SLOTS) {
+            index = sizes[kind]++;
+        } else {
+            index = next[kind];
+            next[kind] = (index + 1) % SLOTS;
+        }
+        constraints[kind * SLOTS + index] = constraint;
+        values[kind * SLOTS + index] = value;
+    }
+
+    void clear() {
+        Arrays.fill(sizes, 0);
+        Arrays.fill(next, 0);
+    }
+}
@@ -100,6 +100,7 @@ import javafx.scene.transform.Rotate;
 import javafx.scene.transform.Transform;
 import javafx.stage.Window;
 import javafx.util.Callback;
+import java.nio.IntBuffer;
 import java.security.AccessControlContext;
 
 import java.util.ArrayList;
@@ -110,6 +111,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import com.sun.glass.ui.Accessible;
 import com.sun.glass.ui.Application;
@@ -2094,6 +2096,7 @@ public abstract class Node implements EventTarget, Styleable {
         doCSSPass();
         doLayoutPass();
         updateBounds();
+        Toolkit.getToolkit().waitForAsyncRendering();
         Scene.setAllowPGAccess(true);
         syncAll(this);
         Scene.setAllowPGAccess(false);
@@ -2106,38 +2109,60 @@ public abstract class Node implements EventTarget, Styleable {
             doCSSLayoutSyncForSnapshot();
         }
 
+        BaseTransform transform = getSnapshotTransform(params);
+        double[] area = getSnapshotArea(params, transform);
+        WritableImage result = Scene.doSnapshot(getScene(), area[0], area[1], area[2], area[3],
+                this, transform, params.isDepthBufferInternal(),
+                params.getFill(), params.getEffectiveCamera(), img);
+
+        return result;
+    }
+
+    private void doSnapshot(SnapshotParameters params, IntBuffer buffer,
+            int width, int height, int scanlineStride,
+            CompletableFuture<IntBuffer> future) {
+        if (getScene() != null) {
+            getScene().doCSSLayoutSyncForSnapshot(this);
+        } else {
+            doCSSLayoutSyncForSnapshot();
+        }
+
+        BaseTransform transform = getSnapshotTransform(params);
+        double[] area = getSnapshotArea(params, transform);
+        Scene.doSnapshot(getScene(), area[0], area[1],
+                this, transform, params.isDepthBufferInternal(),
+                params.getFill(), params.getEffectiveCamera(),
+                buffer, width, height, scanlineStride, future);
+    }
+
+    private static BaseTransform getSnapshotTransform(SnapshotParameters params) {
         BaseTransform transform = BaseTransform.IDENTITY_TRANSFORM;
         if (params.getTransform() != null) {
             Affine3D tempTx = new Affine3D();
             TransformHelper.apply(params.getTransform(), tempTx);
             transform = tempTx;
         }
-        double x;
-        double y;
-        double w;
-        double h;
+        return transform;
+    }
+
+    // Returns the area (x, y, width, height) to be rendered by a snapshot
+    private double[] getSnapshotArea(SnapshotParameters params, BaseTransform transform) {
         Rectangle2D viewport = params.getViewport();
         if (viewport != null) {
             // Use the specified viewport
-            x = viewport.getMinX();
-            y = viewport.getMinY();
-            w = viewport.getWidth();
-            h = viewport.getHeight();
-        } else {
-            // Get the bounds in parent of this node, transformed by the
-            // specified transform.
-            BaseBounds tempBounds = TempState.getInstance().bounds;
-            tempBounds = getTransformedBounds(tempBounds, transform);
-            x = tempBounds.getMinX();
-            y = tempBounds.getMinY();
-            w = tempBounds.getWidth();
-            h = tempBounds.getHeight();
-        }
-        WritableImage result = Scene.doSnapshot(getScene(), x, y, w, h,
-                this, transform, params.isDepthBufferInternal(),
-                params.getFill(), params.getEffectiveCamera(), img);
-
-        return result;
+            return new double[] {
+                viewport.getMinX(), viewport.getMinY(),
+                viewport.getWidth(), viewport.getHeight()
+            };
+        }
+        // Get the bounds in parent of this node, transformed by the
+        // specified transform.
+        BaseBounds tempBounds = TempState.getInstance().bounds;
+        tempBounds = getTransformedBounds(tempBounds, transform);
+        return new double[] {
+            tempBounds.getMinX(), tempBounds.getMinY(),
+            tempBounds.getWidth(), tempBounds.getHeight()
+        };
     }
 
     /**
@@ -2330,6 +2355,94 @@ public abstract class Node implements EventTarget, Styleable {
         Scene.addSnapshotRunnable(snapshotRunnable);
     }
 
+    /**
+     * Takes a snapshot of this node into the given buffer, without waiting
+     * for the node to be rendered.
+     * CSS and layout processing will be done for the node, and any of its
+     * children, before this method returns. The node is then rendered, in
+     * the same way as by {@link #snapshot(SnapshotParameters, WritableImage)},
+     * into an area of the given width and height, and the rendered pixels
+     * are written directly into the buffer, without creating an image. Areas
+     * which are larger than the graphics hardware can render at once are
+     * rendered in several parts.
+     *
+     * <p>
+     * The pixels are written in the {@code INT_ARGB_PRE} format (see
+     * {@link javafx.scene.image.PixelFormat#getIntArgbPreInstance()}),
+     * starting with the upper-left pixel at the current position of the
+     * buffer, with each row starting {@code scanlineStride} pixels after
+     * the previous one. The position and limit of the buffer are not changed.
+     * The buffer must not be accessed until the returned future is complete.
+     * </p>
+     *
+     * <p>
+     * The snapshot will be rendered based on the state of the scene graph at
+     * the moment this method is called, and will not reflect any subsequent
+     * changes. A copy of the SnapshotParameters is used, in the same way as
+     * by {@link #snapshot(Callback, SnapshotParameters, WritableImage)}.
+     * This method returns once the rendering has been queued, so the
+     * application can do other work while the node is rendered on another
+     * thread. However, the scene graph cannot be prepared for rendering
+     * while a snapshot is being rendered, so the next snapshot, or the next
+     * pulse, waits for the rendering of this snapshot to complete.
+     * </p>
+     *
+     * <p>
+     * To reuse an image for the snapshots, create a {@link WritableImage}
+     * from a {@link javafx.scene.image.PixelBuffer} with the
+     * {@code INT_ARGB_PRE} format, take the snapshots into the buffer of
+     * the PixelBuffer, and call
+     * {@link javafx.scene.image.PixelBuffer#updateBuffer updateBuffer} once
+     * the returned future is complete. The pixels are then not copied again.
+     * </p>
+     *
+     * @param params the snapshot parameters containing attributes that
+     * will control the rendering. If the SnapshotParameters object is null,
+     * then the Scene's attributes will be used if this node is part of a scene,
+     * or default attributes will be used if this node is not part of a scene.
+     * @param buffer the buffer into which the pixels are written
+     * @param width the width of the rendered area
+     * @param height the height of the rendered area
+     * @param scanlineStride the distance between the start of each row of
+     * pixels in the buffer
+     *
+     * @return a future which is completed with the buffer on the JavaFX
+     *     Application Thread once the pixels have been written, or
+     *     exceptionally if the node could not be rendered
+     *
+     * @throws IllegalStateException if this method is called on a thread
+     *     other than the JavaFX Application Thread.
+     * @throws NullPointerException if the buffer is null.
+     * @throws IllegalArgumentException if the width or height is not
+     *     positive, if the scanline stride is less than the width, if the
+     *     buffer is read only, or if the buffer does not have enough
+     *     remaining space for the pixels.
+     * @since 14
+     */
+    public CompletableFuture<IntBuffer> snapshot(SnapshotParameters params,
+            IntBuffer buffer, int width, int height, int scanlineStride) {
+
+        Toolkit.getToolkit().checkFxUserThread();
+        Scene.checkSnapshotBuffer(buffer, width, height, scanlineStride);
+
+        if (params == null) {
+            params = new SnapshotParameters();
+            Scene s = getScene();
+            if (s != null) {
+                params.setCamera(s.getEffectiveCamera());
+                params.setDepthBuffer(s.isDepthBufferInternal());
+                params.setFill(s.getFill());
+            }
+        }
+        // the camera is adjusted to the snapshot size until it is rendered,
+        // so we use a copy which is not used by anything else
+        params = params.copy();
+
+        CompletableFuture<IntBuffer> future = new CompletableFuture<>();
+        doSnapshot(params, buffer, width, height, scanlineStride, future);
+        return future;
+    }
+
     /* ************************************************************************
      *                                                                        *
      *
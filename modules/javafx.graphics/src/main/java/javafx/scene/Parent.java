@@ -46,6 +46,7 @@ import com.sun.javafx.geom.BaseBounds;
 import com.sun.javafx.geom.PickRay;
 import com.sun.javafx.geom.Point2D;
 import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Vec3d;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.javafx.geom.transform.NoninvertibleTransformException;
 import com.sun.javafx.scene.CssFlags;
@@ -57,10 +58,14 @@ import com.sun.javafx.tk.Toolkit;
 import com.sun.javafx.scene.LayoutFlags;
 import com.sun.javafx.scene.NodeHelper;
 import com.sun.javafx.scene.ParentHelper;
+import com.sun.javafx.scene.layout.LayoutProfiler;
+import com.sun.javafx.logging.PulseLogger;
 import com.sun.javafx.stage.WindowHelper;
 import java.util.Collections;
 import javafx.stage.Window;
 
+import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
+
 /**
  * The base class for all nodes that have children in the scene graph.
  * <p>
@@ -262,6 +267,13 @@ public abstract class Parent extends Node {
      */
     private final List<Node> viewOrderChildren = new ArrayList(1);
 
+    /**
+     * Spatial index used to pick the children of a Parent with a large number
+     * of children. It is created on demand, and is only used for pick rays
+     * that are parallel to the z axis.
+     */
+    private PickIndex pickIndex;
+
     void markViewOrderChildrenDirty() {
         NodeHelper.markDirty(this, DirtyBits.PARENT_CHILDREN_VIEW_ORDER);
     }
@@ -277,6 +289,9 @@ public abstract class Parent extends Node {
         }
 
         viewOrderChildren.clear();
+        if (pickIndex != null) {
+            pickIndex.invalidate();
+        }
         if (viewOrderSet) {
             viewOrderChildren.addAll(children);
 
@@ -445,6 +460,10 @@ public abstract class Parent extends Node {
                 NodeHelper.geomChanged(Parent.this);
             }
 
+            if (pickIndex != null) {
+                pickIndex.invalidate();
+            }
+
             // Note the starting index at which we need to update the
             // PGGroup on the next update, and mark the children dirty
             c.reset();
@@ -801,6 +820,18 @@ public abstract class Parent extends Node {
 
     boolean pickChildrenNode(PickRay pickRay, PickResultChooser result) {
         List<Node> orderedChildren = getOrderedChildren();
+        if (orderedChildren.size() >= PickIndex.CHILDREN_THRESHOLD) {
+            final Vec3d d = pickRay.getDirectionNoClone();
+            if (d.x == 0.0 && d.y == 0.0) {
+                if (pickIndex == null) {
+                    pickIndex = new PickIndex();
+                }
+                return pickIndex.pickChildren(orderedChildren, pickRay, result);
+            }
+        } else {
+            pickIndex = null;
+        }
+
         for (int i = orderedChildren.size() - 1; i >= 0; i--) {
             orderedChildren.get(i).pickNode(pickRay, result);
             if (result.isClosed()) {
@@ -924,6 +955,32 @@ public abstract class Parent extends Node {
     private double minWidthCache = -1;
     private double minHeightCache = -1;
 
+    /**
+     * Sizes measured with a constraint other than -1 during the current
+     * layout pass, created on first use.
+     */
+    private MeasureCache measureCache;
+
+    /**
+     * The number of nested calls to layout() on the FX thread, and the id of
+     * the current (outermost) layout pass. Constrained measurements are only
+     * cached (and profiled) while a layout pass is in progress on the FX
+     * thread. These are only ever accessed on the FX thread, so that laying
+     * out a scene which is not shown on another thread leaves them alone.
+     */
+    private static int layoutPassDepth = 0;
+    private static int layoutPass = 0;
+
+    private static boolean isLayoutPassInProgress() {
+        return Toolkit.getToolkit().isFxUserThread() && layoutPassDepth > 0;
+    }
+
+    private void profileMeasured(boolean cached) {
+        if (isLayoutPassInProgress()) {
+            LayoutProfiler.measured(this, cached);
+        }
+    }
+
     void setLayoutFlag(LayoutFlags flag) {
         if (needsLayout != null) {
             needsLayout.set(flag == LayoutFlags.NEEDS_LAYOUT);
@@ -941,6 +998,11 @@ public abstract class Parent extends Node {
                 }
             } else {
                 markDirtyLayoutBranch();
+                final Scene scene = getScene();
+                if (scene != null && getSubScene() == null && dirtyLayoutScene != scene) {
+                    dirtyLayoutScene = scene;
+                    scene.addDirtyLayoutRoot(this);
+                }
             }
         } else {
             requestParentLayout(forceParentLayout);
@@ -1011,6 +1073,9 @@ public abstract class Parent extends Node {
         prefHeightCache = -1;
         minWidthCache = -1;
         minHeightCache = -1;
+        if (measureCache != null) {
+            measureCache.clear();
+        }
     }
 
     @Override public double prefWidth(double height) {
@@ -1019,11 +1084,19 @@ public abstract class Parent extends Node {
                 prefWidthCache = computePrefWidth(-1);
                 if (Double.isNaN(prefWidthCache) || prefWidthCache < 0) prefWidthCache = 0;
                 sizeCacheClear = false;
+                if (LayoutProfiler.ENABLED) profileMeasured(false);
+            } else if (LayoutProfiler.ENABLED) {
+                profileMeasured(true);
             }
             return prefWidthCache;
         } else {
-            double result = computePrefWidth(height);
-            return Double.isNaN(result) || result < 0 ? 0 : result;
+            double result = getMeasured(MeasureCache.PREF_WIDTH, height);
+            if (Double.isNaN(result)) {
+                result = computePrefWidth(height);
+                result = Double.isNaN(result) || result < 0 ? 0 : result;
+                putMeasured(MeasureCache.PREF_WIDTH, height, result);
+            }
+            return result;
         }
     }
 
@@ -1033,11 +1106,19 @@ public abstract class Parent extends Node {
                 prefHeightCache = computePrefHeight(-1);
                 if (Double.isNaN(prefHeightCache) || prefHeightCache < 0) prefHeightCache = 0;
                 sizeCacheClear = false;
+                if (LayoutProfiler.ENABLED) profileMeasured(false);
+            } else if (LayoutProfiler.ENABLED) {
+                profileMeasured(true);
             }
             return prefHeightCache;
         } else {
-            double result = computePrefHeight(width);
-            return Double.isNaN(result) || result < 0 ? 0 : result;
+            double result = getMeasured(MeasureCache.PREF_HEIGHT, width);
+            if (Double.isNaN(result)) {
+                result = computePrefHeight(width);
+                result = Double.isNaN(result) || result < 0 ? 0 : result;
+                putMeasured(MeasureCache.PREF_HEIGHT, width, result);
+            }
+            return result;
         }
     }
 
@@ -1047,11 +1128,19 @@ public abstract class Parent extends Node {
                 minWidthCache = computeMinWidth(-1);
                 if (Double.isNaN(minWidthCache) || minWidthCache < 0) minWidthCache = 0;
                 sizeCacheClear = false;
+                if (LayoutProfiler.ENABLED) profileMeasured(false);
+            } else if (LayoutProfiler.ENABLED) {
+                profileMeasured(true);
             }
             return minWidthCache;
         } else {
-            double result = computeMinWidth(height);
-            return Double.isNaN(result) || result < 0 ? 0 : result;
+            double result = getMeasured(MeasureCache.MIN_WIDTH, height);
+            if (Double.isNaN(result)) {
+                result = computeMinWidth(height);
+                result = Double.isNaN(result) || result < 0 ? 0 : result;
+                putMeasured(MeasureCache.MIN_WIDTH, height, result);
+            }
+            return result;
         }
     }
 
@@ -1061,11 +1150,44 @@ public abstract class Parent extends Node {
                 minHeightCache = computeMinHeight(-1);
                 if (Double.isNaN(minHeightCache) || minHeightCache < 0) minHeightCache = 0;
                 sizeCacheClear = false;
+                if (LayoutProfiler.ENABLED) profileMeasured(false);
+            } else if (LayoutProfiler.ENABLED) {
+                profileMeasured(true);
             }
             return minHeightCache;
         } else {
-            double result = computeMinHeight(width);
-            return Double.isNaN(result) || result < 0 ? 0 : result;
+            double result = getMeasured(MeasureCache.MIN_HEIGHT, width);
+            if (Double.isNaN(result)) {
+                result = computeMinHeight(width);
+                result = Double.isNaN(result) || result < 0 ? 0 : result;
+                putMeasured(MeasureCache.MIN_HEIGHT, width, result);
+            }
+            return result;
+        }
+    }
+
+    private double getMeasured(int kind, double constraint) {
+        double result = Double.NaN;
+        final boolean inLayoutPass = isLayoutPassInProgress();
+        if (inLayoutPass && measureCache != null) {
+            result = measureCache.get(kind, constraint, layoutPass);
+        }
+        if (LayoutProfiler.ENABLED && inLayoutPass) {
+            LayoutProfiler.measured(this, !Double.isNaN(result));
+        }
+        if (PULSE_LOGGING_ENABLED && !Double.isNaN(result)) {
+            PulseLogger.incrementCounter("Cached layout measurements");
+        }
+        return result;
+    }
+
+    private void putMeasured(int kind, double constraint, double value) {
+        if (isLayoutPassInProgress()) {
+            if (measureCache == null) {
+                measureCache = new MeasureCache();
+            }
+            measureCache.put(kind, constraint, value, layoutPass);
+            sizeCacheClear = false;
         }
     }
 
@@ -1183,6 +1305,21 @@ public abstract class Parent extends Node {
      * Calling this method while the Parent is doing layout is a no-op.
      */
     public final void layout() {
+        final boolean fxThread = Toolkit.getToolkit().isFxUserThread();
+        if (fxThread && layoutPassDepth++ == 0) {
+            layoutPass++;
+            if (LayoutProfiler.ENABLED) LayoutProfiler.passStart();
+        }
+        try {
+            doLayout();
+        } finally {
+            if (fxThread && --layoutPassDepth == 0 && LayoutProfiler.ENABLED) {
+                LayoutProfiler.passEnd();
+            }
+        }
+    }
+
+    private void doLayout() {
         // layoutFlag can be accessed or changed during layout processing.
         // Hence we need to cache and reset it before performing layout.
         LayoutFlags flag = layoutFlag;
@@ -1203,6 +1340,9 @@ public abstract class Parent extends Node {
                     break;
                 }
                 performingLayout = true;
+                if (PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Parents laid out");
+                }
                 layoutChildren();
                 // Intended fall-through
             case DIRTY_BRANCH:
@@ -1252,6 +1392,12 @@ public abstract class Parent extends Node {
      * property changes.
      */
     boolean layoutRoot = false;
+
+    /**
+     * The scene whose dirty layout roots this node has been added to, if any.
+     * This is cleared by the scene when the node is removed from that list.
+     */
+    Scene dirtyLayoutScene;
     @Override final void notifyManagedChanged() {
         layoutRoot = !isManaged() || sceneRoot;
     }
@@ -1853,6 +1999,10 @@ public abstract class Parent extends Node {
      * Called by Node whenever its bounds have changed.
      */
     void childBoundsChanged(Node node) {
+        if (pickIndex != null) {
+            pickIndex.childChanged(node);
+        }
+
         // See comment above at "currentlyProcessedChild" field
         if (node == currentlyProcessedChild) {
             return;
@@ -1876,6 +2026,10 @@ public abstract class Parent extends Node {
      * Called by node whenever the visibility of the node changes.
      */
     void childVisibilityChanged(Node node) {
+        if (pickIndex != null) {
+            pickIndex.childChanged(node);
+        }
+
         if (node.isVisible()) {
             childIncluded(node);
         } else {
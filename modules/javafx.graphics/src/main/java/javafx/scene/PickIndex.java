@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import com.sun.javafx.geom.BaseBounds;
+import com.sun.javafx.geom.PickRay;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Vec3d;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.scene.input.PickResultChooser;
+
+/**
+ * A uniform grid over the bounds in parent of the children of a Parent. It is
+ * used to pick the children of a Parent with a large number of children with
+ * a pick ray that is parallel to the z axis (which is the case for all 2D
+ * scenes), so that only the children whose bounds contain the pick point are
+ * tested, rather than every child.
+ *
+ * Each grid cell holds the positions (in the ordered children list) of the
+ * children whose bounds overlap the cell, in increasing order, so that the
+ * candidates can be picked in the same (reverse) order as a linear scan.
+ * A cell may contain children that no longer overlap it, which is harmless
+ * as each candidate still performs its own pick test, but it must never miss
+ * a child that does overlap it.
+ *
+ * The grid is rebuilt lazily after the children list (or view order) has
+ * changed. When only the bounds of some children have changed, those
+ * children are added to the cells that they now overlap the next time the
+ * index is used, and the grid is only rebuilt when too many such stale
+ * entries have built up.
+ */
+final class PickIndex {
+
+    /**
+     * Parents with fewer children than this are picked with a linear scan.
+     */
+    static final int CHILDREN_THRESHOLD = 256;
+
+    private static final int CHILDREN_PER_CELL = 4;
+    private static final int MAX_CELLS_PER_AXIS = 256;
+
+    // Cells cover the bounds of the children expanded by this amount, to
+    // account for the difference in precision between the (float) bounds
+    // and the pick tests done in the local coordinates of each child.
+    private static final double PADDING = 1.0;
+
+    private static final int[] EMPTY_CELL = new int[0];
+
+    private Node[] nodes;
+    private final IdentityHashMap<Node, Integer> positions = new IdentityHashMap<>();
+    private final List<Node> pending = new ArrayList<>();
+    private boolean valid = false;
+
+    private double minX, minY;
+    private double cellWidth, cellHeight;
+    private int columns, rows;
+    private int[][] cells;
+    private int[] cellSizes;
+    private int entryCount;
+    private int maxEntryCount;
+
+    /**
+     * Called when the children, or their order, have changed.
+     */
+    void invalidate() {
+        if (!valid) return;
+        valid = false;
+        nodes = null;
+        cells = null;
+        cellSizes = null;
+        positions.clear();
+        pending.clear();
+    }
+
+    /**
+     * Called when the bounds or visibility of the given child have changed.
+     */
+    void childChanged(Node node) {
+        if (!valid) return;
+        pending.add(node);
+        if (pending.size() > nodes.length / 4) {
+            // cheaper to rebuild the whole grid
+            invalidate();
+        }
+    }
+
+    /**
+     * Picks the children that may be hit by the given pick ray, in reverse
+     * order. The pick ray must be in the local coordinates of the parent and
+     * its direction must be parallel to the z axis. Returns false if the
+     * result has been closed (in the same way as Parent.pickChildrenNode).
+     */
+    boolean pickChildren(List<Node> orderedChildren, PickRay pickRay, PickResultChooser result) {
+        update(orderedChildren);
+
+        // the origin is modified (and restored) by each child pick, so we
+        // determine the cell up front
+        final Vec3d o = pickRay.getOriginNoClone();
+        final int cell = getCell(getColumn(o.x), getRow(o.y));
+
+        final int[] candidates = cells[cell];
+        for (int i = cellSizes[cell] - 1; i >= 0; i--) {
+            nodes[candidates[i]].pickNode(pickRay, result);
+            if (result.isClosed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+
+    /***************************************************************************
+     *                                                                         *
+     * Private implementation                                                  *
+     *                                                                         *
+     **************************************************************************/
+
+    private void update(List<Node> orderedChildren) {
+        if (valid && !pending.isEmpty()) {
+            BaseBounds bounds = new RectBounds();
+            for (int i = 0, max = pending.size(); i < max; i++) {
+                Node node = pending.get(i);
+                Integer position = positions.get(node);
+                if (position == null) {
+                    // no longer one of our children, which means that the
+                    // children list has changed, so we need a full rebuild
+                    invalidate();
+                    break;
+                }
+                bounds = node.getTransformedBounds(bounds, BaseTransform.IDENTITY_TRANSFORM);
+                if (!bounds.isEmpty()) {
+                    insert(position, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+                }
+            }
+            pending.clear();
+
+            if (entryCount > maxEntryCount) {
+                invalidate();
+            }
+        }
+
+        if (!valid) {
+            build(orderedChildren);
+        }
+    }
+
+    private void build(List<Node> orderedChildren) {
+        final int count = orderedChildren.size();
+        nodes = orderedChildren.toArray(new Node[count]);
+
+        // collect the bounds of all children (and the union of them), so that
+        // they are only computed once
+        final double[] childBounds = new double[count * 4];
+        boolean[] empty = new boolean[count];
+        double unionMinX = Double.POSITIVE_INFINITY, unionMinY = Double.POSITIVE_INFINITY;
+        double unionMaxX = Double.NEGATIVE_INFINITY, unionMaxY = Double.NEGATIVE_INFINITY;
+        int nonEmptyCount = 0;
+
+        BaseBounds bounds = new RectBounds();
+        for (int i = 0; i < count; i++) {
+            final Node node = nodes[i];
+            positions.put(node, i);
+            bounds = node.getTransformedBounds(bounds, BaseTransform.IDENTITY_TRANSFORM);
+            if (bounds.isEmpty()) {
+                empty[i] = true;
+                continue;
+            }
+            childBounds[i * 4] = bounds.getMinX();
+            childBounds[i * 4 + 1] = bounds.getMinY();
+            childBounds[i * 4 + 2] = bounds.getMaxX();
+            childBounds[i * 4 + 3] = bounds.getMaxY();
+            unionMinX = Math.min(unionMinX, bounds.getMinX());
+            unionMinY = Math.min(unionMinY, bounds.getMinY());
+            unionMaxX = Math.max(unionMaxX, bounds.getMaxX());
+            unionMaxY = Math.max(unionMaxY, bounds.getMaxY());
+            nonEmptyCount++;
+        }
+
+        if (nonEmptyCount == 0) {
+            unionMinX = unionMinY = unionMaxX = unionMaxY = 0;
+        }
+
+        // size the grid so that there are roughly CHILDREN_PER_CELL children
+        // per cell, and the cells are roughly square
+        final double width = Math.max(unionMaxX - unionMinX, 1);
+        final double height = Math.max(unionMaxY - unionMinY, 1);
+        final double cellCount = Math.max(1.0, (double) nonEmptyCount / CHILDREN_PER_CELL);
+        columns = clamp((int) Math.round(Math.sqrt(cellCount * width / height)), 1, MAX_CELLS_PER_AXIS);
+        rows = clamp((int) Math.ceil(cellCount / columns), 1, MAX_CELLS_PER_AXIS);
+        minX = unionMinX;
+        minY = unionMinY;
+        cellWidth = width / columns;
+        cellHeight = height / rows;
+
+        cells = new int[columns * rows][];
+        Arrays.fill(cells, EMPTY_CELL);
+        cellSizes = new int[columns * rows];
+        entryCount = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (empty[i]) continue;
+            insert(i, childBounds[i * 4], childBounds[i * 4 + 1], childBounds[i * 4 + 2], childBounds[i * 4 + 3]);
+        }
+
+        // allow the grid to double in size with stale entries before rebuilding
+        maxEntryCount = Math.max(entryCount * 2, count);
+        pending.clear();
+        valid = true;
+    }
+
+    private void insert(int position, double x0, double y0, double x1, double y1) {
+        final int c0 = getColumn(x0 - PADDING);
+        final int c1 = getColumn(x1 + PADDING);
+        final int r0 = getRow(y0 - PADDING);
+        final int r1 = getRow(y1 + PADDING);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                insert(getCell(c, r), position);
+            }
+        }
+    }
+
+    // inserts position into the given cell, keeping the cell sorted
+    private void insert(int cell, int position) {
+        int[] entries = cells[cell];
+        final int size = cellSizes[cell];
+
+        int index;
+        if (size == 0 || entries[size - 1] < position) {
+            // appending is the common case (when building the grid)
+            index = size;
+        } else {
+            index = Arrays.binarySearch(entries, 0, size, position);
+            if (index >= 0) return;
+            index = -index - 1;
+        }
+
+        if (size == entries.length) {
+            entries = cells[cell] = Arrays.copyOf(entries, Math.max(4, size * 2));
+        }
+        System.arraycopy(entries, index, entries, index + 1, size - index);
+        entries[index] = position;
+        cellSizes[cell] = size + 1;
+        entryCount++;
+    }
+
+    // positions outside of the grid are clamped to the cells on its edges,
+    // so that the edge cells extend to infinity
+    private int getColumn(double x) {
+        return clamp((int) Math.floor((x - minX) / cellWidth), 0, columns - 1);
+    }
+
+    private int getRow(double y) {
+        return clamp((int) Math.floor((y - minY) / cellHeight), 0, rows - 1);
+    }
+
+    private int getCell(int column, int row) {
+        return row * columns + column;
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return value < min ? min : value > max ? max : value;
+    }
+}
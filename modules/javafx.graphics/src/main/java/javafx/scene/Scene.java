@@ -83,10 +83,12 @@ import javafx.util.Duration;
 import com.sun.javafx.logging.PlatformLogger;
 import com.sun.javafx.logging.PlatformLogger.Level;
 
+import java.nio.IntBuffer;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.sun.javafx.logging.PulseLogger;
@@ -573,8 +575,119 @@ public class Scene implements EventTarget {
     void doLayoutPass() {
         final Parent r = getRoot();
         if (r != null) {
+            if (r.layoutFlag == LayoutFlags.DIRTY_BRANCH && !dirtyLayoutRoots.isEmpty()) {
+                layoutDirtyRoots();
+            }
             r.layout();
         }
+        if (!dirtyLayoutRoots.isEmpty()) {
+            dirtyLayoutRoots.removeIf(node -> {
+                if (isDirtyLayoutRoot(node)) {
+                    return false;
+                }
+                removedDirtyLayoutRoot(node);
+                return true;
+            });
+        }
+    }
+
+    /**
+     * The layout roots of this scene (other than the root) which need layout.
+     * These are the unmanaged Parents which have requested layout, the
+     * Parents whose needsLayout has been set, and the SubScenes whose content
+     * needs layout. All of them have also marked their ancestors as a dirty
+     * branch, so that laying out the root still reaches them.
+     *
+     * When only such layout roots need layout, they are laid out directly in
+     * order of their depth (so that an ancestor is laid out before its
+     * descendants), and the dirty branches above them are then cleared.
+     * This avoids visiting every child of every Parent along those branches,
+     * which for a Parent with many children costs far more than laying out
+     * the one child which actually needs it.
+     */
+    private final List<Node> dirtyLayoutRoots = new ArrayList<>();
+
+    // Laying out the dirty layout roots may cause more layout roots to
+    // request layout, we give up (and leave them to the layout of the root)
+    // after this many rounds
+    private static final int MAX_DIRTY_LAYOUT_ROOT_ROUNDS = 10;
+
+    void addDirtyLayoutRoot(Node node) {
+        dirtyLayoutRoots.add(node);
+    }
+
+    private boolean isDirtyLayoutRoot(Node node) {
+        if (node.getScene() != this) {
+            return false;
+        }
+        if (node instanceof SubScene) {
+            return ((SubScene) node).dirtyLayout;
+        }
+        return node.getSubScene() == null && ((Parent) node).layoutFlag != LayoutFlags.CLEAN;
+    }
+
+    private void removedDirtyLayoutRoot(Node node) {
+        if (node instanceof Parent && ((Parent) node).dirtyLayoutScene == this) {
+            ((Parent) node).dirtyLayoutScene = null;
+        }
+    }
+
+    private void layoutDirtyRoots() {
+        final List<Node> laidOut = new ArrayList<>();
+        for (int round = 0; !dirtyLayoutRoots.isEmpty(); round++) {
+            if (round == MAX_DIRTY_LAYOUT_ROOT_ROUNDS) {
+                return;
+            }
+            final Node[] roots = dirtyLayoutRoots.toArray(new Node[dirtyLayoutRoots.size()]);
+            dirtyLayoutRoots.clear();
+
+            // sort by depth, and then by the order in which they were added
+            final long[] order = new long[roots.length];
+            for (int i = 0; i < roots.length; i++) {
+                removedDirtyLayoutRoot(roots[i]);
+                int depth = 0;
+                for (Parent p = roots[i].getParent(); p != null; p = p.getParent()) {
+                    depth++;
+                }
+                order[i] = ((long) depth << 32) | i;
+            }
+            Arrays.sort(order);
+
+            for (long key : order) {
+                final Node node = roots[(int) key];
+                if (!isDirtyLayoutRoot(node)) {
+                    continue;
+                }
+                if (node instanceof SubScene) {
+                    ((SubScene) node).layoutPass();
+                } else {
+                    ((Parent) node).layout();
+                }
+                laidOut.add(node);
+                if (PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Layout roots laid out");
+                }
+            }
+        }
+
+        // All the dirty branches lead to the layout roots which have now
+        // been laid out, unless one of them needs layout again
+        for (int i = 0, max = laidOut.size(); i < max; i++) {
+            if (isDirtyLayoutRoot(laidOut.get(i))) {
+                return;
+            }
+        }
+        for (int i = 0, max = laidOut.size(); i < max; i++) {
+            final Node node = laidOut.get(i);
+            if (node.getScene() != this) {
+                continue;
+            }
+            Parent p = node.getParent();
+            while (p != null && p.layoutFlag == LayoutFlags.DIRTY_BRANCH) {
+                p.setLayoutFlag(LayoutFlags.CLEAN);
+                p = p.getParent();
+            }
+        }
     }
 
     /**
@@ -1273,6 +1386,7 @@ public class Scene implements EventTarget {
                 peer.releaseSynchronization(false);
             }
         } else {
+            Toolkit.getToolkit().waitForAsyncRendering();
             scenePulseListener.synchronizeSceneNodes();
         }
 
@@ -1302,36 +1416,14 @@ public class Scene implements EventTarget {
         }
 
         setAllowPGAccess(true);
-        context.x = xMin;
-        context.y = yMin;
-        context.width = width;
-        context.height = height;
-        context.transform = transform;
-        context.depthBuffer = depthBuffer;
-        context.root = root.getPeer();
-        context.platformPaint = fill == null ? null : tk.getPaint(fill);
         double cameraViewWidth = 1.0;
         double cameraViewHeight = 1.0;
         if (camera != null) {
-            // temporarily adjust camera viewport to the snapshot size
             cameraViewWidth = camera.getViewWidth();
             cameraViewHeight = camera.getViewHeight();
-            camera.setViewWidth(width);
-            camera.setViewHeight(height);
-            NodeHelper.updatePeer(camera);
-            context.camera = camera.getPeer();
-        } else {
-            context.camera = null;
-        }
-
-        // Grab the lights from the scene
-        context.lights = null;
-        if (scene != null && !scene.lights.isEmpty()) {
-            context.lights = new NGLightBase[scene.lights.size()];
-            for (int i = 0; i < scene.lights.size(); i++) {
-                context.lights[i] = scene.lights.get(i).getPeer();
-            }
         }
+        initImageRenderingContext(context, scene, xMin, yMin, width, height,
+                root, transform, depthBuffer, fill, camera);
 
         Toolkit.WritableImageAccessor accessor = Toolkit.getWritableImageAccessor();
         context.platformImage = accessor.getTkImageLoader(wimg);
@@ -1357,6 +1449,99 @@ public class Scene implements EventTarget {
         return wimg;
     }
 
+    // Shared method for the Node.snapshot methods which render into a
+    // buffer. The snapshot is rendered asynchronously, and the future is
+    // completed on the FX thread. The camera must not be used by anything
+    // else, as its viewport is adjusted to the snapshot size and is not
+    // restored.
+    static void doSnapshot(Scene scene, double x, double y,
+            Node root, BaseTransform transform, boolean depthBuffer,
+            Paint fill, Camera camera, IntBuffer buffer,
+            int width, int height, int scanlineStride,
+            CompletableFuture<IntBuffer> future) {
+
+        Toolkit tk = Toolkit.getToolkit();
+        Toolkit.ImageRenderingContext context = new Toolkit.ImageRenderingContext();
+
+        setAllowPGAccess(true);
+        initImageRenderingContext(context, scene, (int)Math.floor(x), (int)Math.floor(y),
+                width, height, root, transform, depthBuffer, fill, camera);
+        setAllowPGAccess(false);
+        context.destBuffer = buffer;
+        context.destOffset = buffer.position();
+        context.destScanlineStride = scanlineStride;
+
+        tk.renderToImageAsync(context, result -> tk.defer(() -> {
+            if (result != null) {
+                future.complete(buffer);
+            } else {
+                future.completeExceptionally(
+                        new IllegalStateException("The snapshot could not be rendered"));
+            }
+        }));
+
+        // see above
+        if (scene != null && scene.peer != null) {
+            scene.setNeedsRepaint();
+        }
+    }
+
+    // Validates the arguments of the snapshot methods which render into a
+    // buffer
+    static void checkSnapshotBuffer(IntBuffer buffer, int width, int height, int scanlineStride) {
+        if (buffer == null) {
+            throw new NullPointerException("The buffer must not be null");
+        }
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Invalid snapshot size: "
+                    + width + "x" + height);
+        }
+        if (scanlineStride < width) {
+            throw new IllegalArgumentException("Invalid scanline stride: " + scanlineStride);
+        }
+        if (buffer.isReadOnly()) {
+            throw new IllegalArgumentException("The buffer must not be read only");
+        }
+        if (buffer.remaining() < (long) (height - 1) * scanlineStride + width) {
+            throw new IllegalArgumentException("The buffer is too small");
+        }
+    }
+
+    // Fills in the rendering parameters of the context, and adjusts the
+    // viewport of the camera (if any) to the snapshot size. PG access
+    // must be allowed.
+    private static void initImageRenderingContext(Toolkit.ImageRenderingContext context,
+            Scene scene, int x, int y, int width, int height,
+            Node root, BaseTransform transform, boolean depthBuffer,
+            Paint fill, Camera camera) {
+
+        context.x = x;
+        context.y = y;
+        context.width = width;
+        context.height = height;
+        context.transform = transform;
+        context.depthBuffer = depthBuffer;
+        context.root = root.getPeer();
+        context.platformPaint = fill == null ? null : Toolkit.getToolkit().getPaint(fill);
+        if (camera != null) {
+            camera.setViewWidth(width);
+            camera.setViewHeight(height);
+            NodeHelper.updatePeer(camera);
+            context.camera = camera.getPeer();
+        } else {
+            context.camera = null;
+        }
+
+        // Grab the lights from the scene
+        context.lights = null;
+        if (scene != null && !scene.lights.isEmpty()) {
+            context.lights = new NGLightBase[scene.lights.size()];
+            for (int i = 0; i < scene.lights.size(); i++) {
+                context.lights[i] = scene.lights.get(i).getPeer();
+            }
+        }
+    }
+
     /**
      * Implementation method for snapshot
      */
@@ -1534,6 +1719,83 @@ public class Scene implements EventTarget {
         addSnapshotRunnable(snapshotRunnable);
     }
 
+    /**
+     * Takes a snapshot of this scene into the given buffer, without waiting
+     * for the scene to be rendered.
+     * CSS and layout processing will be done for the scene before this
+     * method returns. The scene is then rendered, in the same way as by
+     * {@link #snapshot(WritableImage)}, into an area of the given width and
+     * height, and the rendered pixels are written directly into the buffer,
+     * without creating an image. The point (0,0) in scene coordinates is
+     * mapped to the first pixel. Areas which are larger than the graphics
+     * hardware can render at once are rendered in several parts.
+     *
+     * <p>
+     * The pixels are written in the {@code INT_ARGB_PRE} format (see
+     * {@link javafx.scene.image.PixelFormat#getIntArgbPreInstance()}),
+     * starting with the upper-left pixel at the current position of the
+     * buffer, with each row starting {@code scanlineStride} pixels after
+     * the previous one. The position and limit of the buffer are not changed.
+     * The buffer must not be accessed until the returned future is complete.
+     * </p>
+     *
+     * <p>
+     * The snapshot will be rendered based on the state of the scene graph at
+     * the moment this method is called, and will not reflect any subsequent
+     * changes. This method returns once the rendering has been queued, so the
+     * application can do other work while the scene is rendered on another
+     * thread. However, the scene graph cannot be prepared for rendering
+     * while a snapshot is being rendered, so the next snapshot, or the next
+     * pulse, waits for the rendering of this snapshot to complete.
+     * </p>
+     *
+     * <p>
+     * To reuse an image for the snapshots, create a {@link WritableImage}
+     * from a {@link javafx.scene.image.PixelBuffer} with the
+     * {@code INT_ARGB_PRE} format, take the snapshots into the buffer of
+     * the PixelBuffer, and call
+     * {@link javafx.scene.image.PixelBuffer#updateBuffer updateBuffer} once
+     * the returned future is complete. The pixels are then not copied again.
+     * </p>
+     *
+     * @param buffer the buffer into which the pixels are written
+     * @param width the width of the rendered area
+     * @param height the height of the rendered area
+     * @param scanlineStride the distance between the start of each row of
+     * pixels in the buffer
+     *
+     * @return a future which is completed with the buffer on the JavaFX
+     *     Application Thread once the pixels have been written, or
+     *     exceptionally if the scene could not be rendered
+     *
+     * @throws IllegalStateException if this method is called on a thread
+     *     other than the JavaFX Application Thread.
+     * @throws NullPointerException if the buffer is null.
+     * @throws IllegalArgumentException if the width or height is not
+     *     positive, if the scanline stride is less than the width, if the
+     *     buffer is read only, or if the buffer does not have enough
+     *     remaining space for the pixels.
+     * @since 14
+     */
+    public CompletableFuture<IntBuffer> snapshot(IntBuffer buffer,
+            int width, int height, int scanlineStride) {
+
+        Toolkit.getToolkit().checkFxUserThread();
+        checkSnapshotBuffer(buffer, width, height, scanlineStride);
+
+        doCSSLayoutSyncForSnapshot(getRoot());
+
+        // the camera is adjusted to the snapshot size until it is rendered,
+        // so we use a copy which is not used by anything else
+        Camera camera = getEffectiveCamera();
+        CompletableFuture<IntBuffer> future = new CompletableFuture<>();
+        doSnapshot(this, 0, 0, getRoot(), BaseTransform.IDENTITY_TRANSFORM,
+                isDepthBufferInternal(), getFill(),
+                camera == null ? null : camera.copy(),
+                buffer, width, height, scanlineStride, future);
+        return future;
+    }
+
     /**
      * Defines the mouse cursor for this {@code Scene}.
      */
@@ -2463,15 +2725,23 @@ public class Scene implements EventTarget {
                 }
             }
 
+            final FrameBudget budget = Toolkit.getToolkit().getFrameBudget();
+            long phaseStart = System.nanoTime();
+
             if (PULSE_LOGGING_ENABLED) {
                 PulseLogger.newPhase("CSS Pass");
             }
             Scene.this.doCSSPass();
+            long phaseEnd = System.nanoTime();
+            budget.addPhaseTime(FrameBudget.Phase.CSS, phaseEnd - phaseStart);
+            phaseStart = phaseEnd;
 
             if (PULSE_LOGGING_ENABLED) {
                 PulseLogger.newPhase("Layout Pass");
             }
             Scene.this.doLayoutPass();
+            phaseEnd = System.nanoTime();
+            budget.addPhaseTime(FrameBudget.Phase.LAYOUT, phaseEnd - phaseStart);
 
             // run any scene post pulse listeners immediately _after_ css / layout,
             // and before scene synchronization
@@ -2494,6 +2764,7 @@ public class Scene implements EventTarget {
                         }
                         peer.waitForRenderingToComplete();
                         peer.waitForSynchronization();
+                        phaseStart = System.nanoTime();
                         // synchronize scene properties
                         if (PULSE_LOGGING_ENABLED) {
                             PulseLogger.newPhase("Copy state to render graph");
@@ -2512,9 +2783,11 @@ public class Scene implements EventTarget {
                     if (PULSE_LOGGING_ENABLED) {
                         PulseLogger.newPhase("Synchronize with null peer");
                     }
+                    phaseStart = System.nanoTime();
                     synchronizeSceneNodes();
                     Scene.this.mouseHandler.pulse();
                 }
+                budget.addPhaseTime(FrameBudget.Phase.SYNC, System.nanoTime() - phaseStart);
 
                 if (Scene.this.getRoot().cssFlag != CssFlags.CLEAN) {
                     NodeHelper.markDirty(Scene.this.getRoot(),
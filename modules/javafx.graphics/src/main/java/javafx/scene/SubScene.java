@@ -732,6 +732,9 @@ public class SubScene extends Node {
                 this.getScene() != null) {
             dirtyLayout = true;
             markDirtyLayoutBranch();
+            if (getSubScene() == null) {
+                getScene().addDirtyLayoutRoot(this);
+            }
             markDirty(SubSceneDirtyBits.CONTENT_DIRTY);
         }
     }
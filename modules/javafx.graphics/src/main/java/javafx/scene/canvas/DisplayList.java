@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package javafx.scene.canvas;
+
+import com.sun.javafx.sg.prism.GrowableDataBuffer;
+
+/**
+ * {@code DisplayList} is a recorded sequence of drawing commands which can be
+ * drawn into a {@link Canvas} any number of times.
+ *
+ * <p>
+ * The commands are recorded with the {@link GraphicsContext} returned by
+ * {@link #getGraphicsContext2D()}, which supports all of the drawing
+ * operations of the {@code GraphicsContext} of a {@code Canvas}, except for
+ * the {@link GraphicsContext#getPixelWriter() PixelWriter}, and are drawn
+ * into a {@code Canvas} with
+ * {@link GraphicsContext#drawDisplayList(DisplayList)}, relative to the
+ * current transform of the {@code GraphicsContext} of the {@code Canvas}.
+ * Drawing a display list does not issue its commands again, which makes it
+ * cheap to redraw a complex drawing that does not change, for example when
+ * it is panned or zoomed, or to only redraw a part of it, by clipping to the
+ * part which needs to be redrawn. Different parts (or layers) of a drawing
+ * can be recorded into different display lists, so that only the parts that
+ * change need to be recorded again.
+ * </p>
+ *
+ * <p>
+ * A {@code DisplayList} may be used from any thread, as long as it is only
+ * used from one thread at a time. This makes it possible to record a large
+ * drawing on a background thread, without blocking the JavaFX Application
+ * Thread. To draw the commands recorded so far on the JavaFX Application
+ * Thread while the background thread continues to use the display list,
+ * the background thread takes a {@link #snapshot() snapshot} of the display
+ * list, which is a cheap operation, and hands the snapshot over to the
+ * JavaFX Application Thread, for example with
+ * {@link javafx.application.Platform#runLater(Runnable) Platform.runLater()}:
+ * </p>
+ *
+ * <pre>
+Canvas canvas = ...;
+DisplayList list = new DisplayList();
+GraphicsContext lgc = list.getGraphicsContext2D();
+
+// on a background thread
+lgc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+for (int i = 0; i &lt; samples.length - 1; i++) {
+    lgc.strokeLine(i, samples[i], i + 1, samples[i + 1]);
+}
+DisplayList snapshot = list.snapshot();
+list.clear();
+Platform.runLater(() -&gt; canvas.getGraphicsContext2D().drawDisplayList(snapshot));
+ * </pre>
+ *
+ * <p>Example:</p>
+ *
+ * <pre>
+import javafx.scene.*;
+import javafx.scene.paint.*;
+import javafx.scene.canvas.*;
+
+DisplayList list = new DisplayList();
+GraphicsContext lgc = list.getGraphicsContext2D();
+lgc.setFill(Color.BLUE);
+lgc.fillRect(0, 0, 100, 100);
+
+Canvas canvas = new Canvas(250, 250);
+GraphicsContext gc = canvas.getGraphicsContext2D();
+gc.drawDisplayList(list);
+gc.translate(120, 120);
+gc.scale(0.5, 0.5);
+gc.drawDisplayList(list);
+ * </pre>
+ *
+ * @see GraphicsContext#drawDisplayList(DisplayList)
+ * @since 14
+ */
+public final class DisplayList {
+
+    private GrowableDataBuffer current;
+    // true if the current buffer has been handed to a canvas, in which
+    // case it must not be modified anymore
+    private boolean shared;
+
+    private GraphicsContext theContext;
+
+    /**
+     * Creates an empty display list.
+     */
+    public DisplayList() {
+    }
+
+    /**
+     * Returns the {@code GraphicsContext} which records commands into this
+     * {@code DisplayList}.
+     * @return the {@code GraphicsContext} associated with this
+     * {@code DisplayList}
+     */
+    public GraphicsContext getGraphicsContext2D() {
+        if (theContext == null) {
+            theContext = new GraphicsContext(this);
+        }
+        return theContext;
+    }
+
+    /**
+     * Discards all of the commands recorded into this display list, and
+     * resets the state of its {@code GraphicsContext} to the initial state.
+     * This does not affect any canvas the display list has already been drawn
+     * into.
+     */
+    public void clear() {
+        if (current != null && !shared) {
+            current.reset();
+        } else {
+            current = null;
+            shared = false;
+        }
+        if (theContext != null) {
+            theContext.resetState();
+        }
+    }
+
+    /**
+     * Creates a new display list with the commands recorded into this display
+     * list so far, and with a {@code GraphicsContext} in the same state as
+     * the {@code GraphicsContext} of this display list. The commands are not
+     * copied until either display list records more commands, so this is a
+     * cheap operation. The two display lists are independent of each other,
+     * and may be used from different threads.
+     *
+     * @return a new display list with the commands of this display list
+     */
+    public DisplayList snapshot() {
+        DisplayList snapshot = new DisplayList();
+        if (current != null && !current.isEmpty()) {
+            shared = true;
+            snapshot.current = current;
+            snapshot.shared = true;
+        }
+        if (theContext != null) {
+            snapshot.getGraphicsContext2D().copyState(theContext);
+        }
+        return snapshot;
+    }
+
+    GrowableDataBuffer getBuffer() {
+        if (current == null) {
+            current = GrowableDataBuffer.getBuffer(Canvas.DEFAULT_VAL_BUF_SIZE,
+                                                   Canvas.DEFAULT_OBJ_BUF_SIZE);
+        } else if (shared) {
+            // copy on write, the commands which have already been drawn
+            // will be rendered as they were when they were drawn
+            GrowableDataBuffer copy =
+                GrowableDataBuffer.getBuffer(current.writeValuePosition(),
+                                             current.writeObjectPosition());
+            copy.append(current);
+            current = copy;
+            shared = false;
+        }
+        return current;
+    }
+
+    /**
+     * Returns the recorded commands to be drawn into a canvas, or null if
+     * there are none. The returned buffer is never modified afterwards.
+     */
+    GrowableDataBuffer share() {
+        if (current == null || current.isEmpty()) {
+            return null;
+        }
+        shared = true;
+        return current;
+    }
+}
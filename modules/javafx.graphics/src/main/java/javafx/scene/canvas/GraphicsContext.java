@@ -81,6 +81,11 @@ import javafx.scene.text.FontSmoothingType;
  * its corresponding {@code Canvas} and is subject to the same threading
  * rules.
  * <p>
+ * The {@code GraphicsContext} of a {@link DisplayList} records the draw calls
+ * into the display list instead, so that they can be drawn into a
+ * {@code Canvas} any number of times with
+ * {@link #drawDisplayList(DisplayList) drawDisplayList()}.
+ * <p>
  * A {@code GraphicsContext} also manages a stack of state objects that can
  * be saved or restored at anytime.
  * <p>
@@ -482,6 +487,7 @@ import javafx.scene.text.FontSmoothingType;
  */
 public final class GraphicsContext {
     Canvas theCanvas;
+    DisplayList theList;
     Path2D path;
     boolean pathDirty;
 
@@ -499,6 +505,37 @@ public final class GraphicsContext {
         this.clipStack = new LinkedList<Path2D>();
     }
 
+    GraphicsContext(DisplayList theList) {
+        this((Canvas) null);
+        this.theList = theList;
+    }
+
+    // Resets the state to the initial state, when the commands recorded into
+    // a display list are discarded
+    void resetState() {
+        curState = new State();
+        stateStack.clear();
+        clipStack.clear();
+        path.reset();
+        pathDirty = true;
+        txdirty = false;
+    }
+
+    // Copies the state of the given context, when the commands recorded into
+    // a display list are copied into a new display list
+    void copyState(GraphicsContext other) {
+        curState = other.curState.copy();
+        stateStack.clear();
+        for (State s : other.stateStack) {
+            stateStack.add(s.copy());
+        }
+        clipStack.clear();
+        clipStack.addAll(other.clipStack);
+        path = new Path2D(other.path);
+        pathDirty = other.pathDirty;
+        txdirty = other.txdirty;
+    }
+
     static class State {
         double globalAlpha;
         BlendMode blendop;
@@ -613,7 +650,7 @@ public final class GraphicsContext {
     }
 
     private GrowableDataBuffer getBuffer() {
-        return theCanvas.getBuffer();
+        return theCanvas != null ? theCanvas.getBuffer() : theList.getBuffer();
     }
 
     private float coords[] = new float[6];
@@ -697,6 +734,53 @@ public final class GraphicsContext {
         buf.putFloat((float) v2);
     }
 
+    // Writes a batch of items with 4 coordinates each, or of points with 2
+    // coordinates each (that are expanded to squares of the given size) when
+    // pointSize is positive. The coordinates are copied so that the caller
+    // can reuse its arrays, and are left untransformed so that the renderer
+    // can draw them all with a single transform.
+    private void writeBatch(double coords[], double pointSize,
+                            Color colors[], int n, byte command)
+    {
+        int stride = (pointSize > 0) ? 2 : 4;
+        if (coords.length / stride < n) {
+            throw new IllegalArgumentException("coordinate array too short: " +
+                                               coords.length + " < " + (n * stride));
+        }
+        if (colors != null && colors.length < n) {
+            throw new IllegalArgumentException("color array too short: " +
+                                               colors.length + " < " + n);
+        }
+        float batch[] = new float[n * 4];
+        if (stride == 4) {
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = (float) coords[i];
+            }
+        } else {
+            double half = pointSize / 2;
+            for (int i = 0, j = 0; j < batch.length; i += 2, j += 4) {
+                batch[j]   = (float) (coords[i] - half);
+                batch[j+1] = (float) (coords[i+1] - half);
+                batch[j+2] = (float) pointSize;
+                batch[j+3] = (float) pointSize;
+            }
+        }
+        Object paints[] = null;
+        if (colors != null) {
+            paints = new Object[n];
+            for (int i = 0; i < n; i++) {
+                if (colors[i] != null) {
+                    paints[i] = Toolkit.getPaintAccessor().getPlatformPaint(colors[i]);
+                }
+            }
+        }
+        updateTransform();
+        GrowableDataBuffer buf = getBuffer();
+        buf.putByte(command);
+        buf.putObject(batch);
+        buf.putObject(paints);
+    }
+
     private float polybuf[] = new float[512];
     private void flushPolyBuf(GrowableDataBuffer buf,
                               float polybuf[], int n, byte command)
@@ -778,7 +862,8 @@ public final class GraphicsContext {
         buf.putFloat((float) x);
         buf.putFloat((float) y);
         buf.putFloat((float) maxWidth);
-        buf.putBoolean(theCanvas.getEffectiveNodeOrientation() == NodeOrientation.RIGHT_TO_LEFT);
+        buf.putBoolean(theCanvas != null &&
+                       theCanvas.getEffectiveNodeOrientation() == NodeOrientation.RIGHT_TO_LEFT);
         buf.putObject(text);
     }
 
@@ -846,6 +931,8 @@ public final class GraphicsContext {
     }
 
     private void resetIfCovers(Paint p, double x, double y, double w, double h) {
+        // A display list has no bounds, and may be drawn anywhere
+        if (theCanvas == null) return;
         Affine2D tx = this.curState.transform;
         if (tx.isTranslateOrIdentity()) {
             x += tx.getMxt();
@@ -875,7 +962,8 @@ public final class GraphicsContext {
     * {@code GraphicsContext}.
     *
     * @return Canvas the canvas that this {@code GraphicsContext} is issuing draw
-    * commands to.
+    * commands to, or null if this is the {@code GraphicsContext} of a
+    * {@link DisplayList}.
     */
     public Canvas getCanvas() {
         return theCanvas;
@@ -2648,6 +2736,106 @@ public final class GraphicsContext {
         }
     }
 
+    /**
+     * Fills a number of rectangles in a single operation, using either the
+     * currently set fill paint or a color for each rectangle.
+     * This renders the same result as calling {@link #fillRect fillRect}
+     * for each of the rectangles in turn, but the rectangles are encoded as
+     * a single command and are rendered together, which is much faster for
+     * large numbers of small rectangles such as the markers of a chart.
+     * A {@code null} value for the array of rectangles will be ignored and
+     * nothing will be drawn.
+     * <p>
+     * This method will be affected by any of the
+     * <a href="#comm-attr">global common</a>
+     * or <a href="#fill-attr">fill</a>
+     * attributes as specified in the
+     * <a href="#attr-ops-table">Rendering Attributes Table</a>.
+     * The global common attributes apply to the rectangles as a whole.
+     * </p>
+     *
+     * @param rects array containing the x, y, width and height of each
+     * rectangle in turn, or null.
+     * @param colors array containing the color of each rectangle, or null to
+     * fill all of the rectangles with the current fill paint. A {@code null}
+     * element also uses the current fill paint.
+     * @param nRects the number of rectangles to fill.
+     * @throws IllegalArgumentException if either array is too short for
+     * the given number of rectangles.
+     * @since 14
+     */
+    public void fillRects(double rects[], Color colors[], int nRects) {
+        if (rects != null && nRects > 0) {
+            writeBatch(rects, 0, colors, nRects, NGCanvas.FILL_RECTS);
+        }
+    }
+
+    /**
+     * Fills a number of square points in a single operation, using either
+     * the currently set fill paint or a color for each point.
+     * Each point is rendered as a square of the given size which is centered
+     * on the point, in the same way as {@link #fillRects fillRects}.
+     * A {@code null} value for the array of points will be ignored and
+     * nothing will be drawn.
+     * <p>
+     * This method will be affected by any of the
+     * <a href="#comm-attr">global common</a>
+     * or <a href="#fill-attr">fill</a>
+     * attributes as specified in the
+     * <a href="#attr-ops-table">Rendering Attributes Table</a>.
+     * The global common attributes apply to the points as a whole.
+     * </p>
+     *
+     * @param points array containing the x and y coordinates of each point
+     * in turn, or null.
+     * @param size the width and height of the square drawn for each point.
+     * @param colors array containing the color of each point, or null to
+     * fill all of the points with the current fill paint. A {@code null}
+     * element also uses the current fill paint.
+     * @param nPoints the number of points to fill.
+     * @throws IllegalArgumentException if either array is too short for
+     * the given number of points.
+     * @since 14
+     */
+    public void fillPoints(double points[], double size, Color colors[], int nPoints) {
+        if (points != null && nPoints > 0 && size > 0) {
+            writeBatch(points, size, colors, nPoints, NGCanvas.FILL_RECTS);
+        }
+    }
+
+    /**
+     * Strokes a number of separate lines in a single operation, using either
+     * the currently set stroke paint or a color for each line.
+     * This renders the same result as calling {@link #strokeLine strokeLine}
+     * for each of the lines in turn, but the lines are encoded as a single
+     * command and are rendered together.
+     * A {@code null} value for the array of lines will be ignored and
+     * nothing will be drawn.
+     * <p>
+     * This method will be affected by any of the
+     * <a href="#comm-attr">global common</a>
+     * or <a href="#strk-attr">stroke</a>
+     * attributes as specified in the
+     * <a href="#attr-ops-table">Rendering Attributes Table</a>.
+     * The global common attributes apply to the lines as a whole.
+     * </p>
+     *
+     * @param lines array containing the x and y coordinates of the starting
+     * point and of the ending point of each line in turn, or null.
+     * @param colors array containing the color of each line, or null to
+     * stroke all of the lines with the current stroke paint. A {@code null}
+     * element also uses the current stroke paint.
+     * @param nLines the number of lines to stroke.
+     * @throws IllegalArgumentException if either array is too short for
+     * the given number of lines.
+     * @since 14
+     */
+    public void strokeLines(double lines[], Color colors[], int nLines) {
+        if (lines != null && nLines > 0) {
+            writeBatch(lines, 0, colors, nLines, NGCanvas.STROKE_LINES);
+        }
+    }
+
     /**
      * Draws an image at the given x, y position using the width
      * and height of the given image.
@@ -2734,8 +2922,13 @@ public final class GraphicsContext {
      *
      * @return the {@code PixelWriter} for modifying the pixels of this
      *         {@code Canvas}
+     * @throws UnsupportedOperationException if this is the
+     *         {@code GraphicsContext} of a {@link DisplayList}
      */
     public PixelWriter getPixelWriter() {
+        if (theCanvas == null) {
+            throw new UnsupportedOperationException("A DisplayList has no pixels");
+        }
         if (writer == null) {
             writer = new PixelWriter() {
                 @Override
@@ -3012,4 +3205,44 @@ public final class GraphicsContext {
         EffectHelper.sync(effect);
         buf.putObject(EffectHelper.getPeer(effect));
     }
+
+    /**
+     * Draws the commands recorded in the given display list.
+     * A {@code null} value will be ignored, as will an empty display list.
+     * <p>
+     * The display list is drawn as it is at the time of this call, commands
+     * recorded into the display list afterwards will not be drawn by this
+     * call. The commands are drawn with the rendering attributes that were
+     * in effect when they were recorded, which start out at the defaults of a
+     * new {@code GraphicsContext}, except that the coordinates are also
+     * transformed by the current transform, the commands are clipped to the
+     * current clip, and their global alpha is multiplied by the current
+     * global alpha. None of the rendering attributes of this
+     * {@code GraphicsContext} are changed by drawing a display list.
+     * <p>
+     * Since the commands of the display list need not be issued again, this
+     * is much faster than drawing them again, which makes it possible to
+     * redraw (part of) a complex drawing at a different location or scale
+     * at a low cost.
+     * </p>
+     *
+     * @param list the display list to be drawn or null.
+     * @since 14
+     */
+    public void drawDisplayList(DisplayList list) {
+        if (list == null) return;
+        GrowableDataBuffer recording = list.share();
+        if (recording == null) return;
+        GrowableDataBuffer buf = getBuffer();
+        buf.putByte(NGCanvas.DRAW_LIST);
+        buf.putDouble(curState.transform.getMxx());
+        buf.putDouble(curState.transform.getMxy());
+        buf.putDouble(curState.transform.getMxt());
+        buf.putDouble(curState.transform.getMyx());
+        buf.putDouble(curState.transform.getMyy());
+        buf.putDouble(curState.transform.getMyt());
+        buf.putObject(recording);
+        // the display list uses the same path
+        markPathDirty();
+    }
 }
@@ -407,9 +407,9 @@ public class GridPane extends Pane {
         return (Insets)getConstraint(child, MARGIN_CONSTRAINT);
     }
 
-    private double getBaselineComplementForChild(Node child) {
-        if (isNodePositionedByBaseline(child)) {
-            return rowMinBaselineComplement[getNodeRowIndex(child)];
+    private double getBaselineComplementForChild(int childIndex) {
+        if (childBaseline[childIndex]) {
+            return rowMinBaselineComplement[childRowIndex[childIndex]];
         }
         return -1;
     }
@@ -1070,6 +1070,18 @@ public class GridPane extends Pane {
     private CompositeSize columnMaxWidth;
     private Priority[] columnGrow;
 
+    // The managed children the grid metrics were computed for, and the
+    // first and last row and column of each of them (with REMAINING spans
+    // converted) and whether it is positioned by baseline, indexed by its
+    // position in metricsChildren. They are looked up once when the metrics
+    // are computed rather than for every measurement of every child.
+    private List<Node> metricsChildren;
+    private int[] childRowIndex;
+    private int[] childRowEnd;
+    private int[] childColumnIndex;
+    private int[] childColumnEnd;
+    private boolean[] childBaseline;
+
     private boolean metricsDirty = true;
 
     // This is set to true while in layoutChildren and set false on the conclusion.
@@ -1099,7 +1111,14 @@ public class GridPane extends Pane {
             numRows = rowConstraints.size();
             numColumns = columnConstraints.size();
             final List<Node> managed = getManagedChildren();
-            for (int i = 0, size = managed.size(); i < size; i++) {
+            final int count = managed.size();
+            metricsChildren = managed;
+            childRowIndex = new int[count];
+            childRowEnd = new int[count];
+            childColumnIndex = new int[count];
+            childColumnEnd = new int[count];
+            childBaseline = new boolean[count];
+            for (int i = 0; i < count; i++) {
                 Node child = managed.get(i);
                 int rowIndex = getNodeRowIndex(child);
                 int columnIndex = getNodeColumnIndex(child);
@@ -1107,6 +1126,18 @@ public class GridPane extends Pane {
                 int columnEnd = getNodeColumnEnd(child);
                 numRows = Math.max(numRows, (rowEnd != REMAINING ? rowEnd : rowIndex) + 1);
                 numColumns = Math.max(numColumns, (columnEnd != REMAINING ? columnEnd : columnIndex) + 1);
+                childRowIndex[i] = rowIndex;
+                childRowEnd[i] = rowEnd;
+                childColumnIndex[i] = columnIndex;
+                childColumnEnd[i] = columnEnd;
+            }
+            for (int i = 0; i < count; i++) {
+                if (childRowEnd[i] == REMAINING) {
+                    childRowEnd[i] = numRows - 1;
+                }
+                if (childColumnEnd[i] == REMAINING) {
+                    childColumnEnd[i] = numColumns - 1;
+                }
             }
             rowPercentHeight = createDoubleArray(numRows, -1);
             rowPercentTotal = 0;
@@ -1118,6 +1149,16 @@ public class GridPane extends Pane {
             rowPrefBaselineComplement = createDoubleArray(numRows, -1);
             rowMaxBaselineComplement = createDoubleArray(numRows, -1);
             rowBaseline = new List[numRows];
+            for (int i = 0; i < numRows; ++i) {
+                rowBaseline[i] = new ArrayList<>(numColumns);
+            }
+            for (int j = 0; j < count; j++) {
+                Node n = managed.get(j);
+                if (isNodePositionedByBaseline(n)) {
+                    childBaseline[j] = true;
+                    rowBaseline[childRowIndex[j]].add(n);
+                }
+            }
             for (int i = 0, sz = numRows; i < sz; ++i) {
                 if (i < rowConstraints.size()) {
                     final RowConstraints rc = rowConstraints.get(i);
@@ -1131,18 +1172,10 @@ public class GridPane extends Pane {
                     }
                 }
 
-                List<Node> baselineNodes = new ArrayList<>(numColumns);
-                for (int j = 0, size = managed.size(); j < size; j++) {
-                    Node n = managed.get(j);
-                    if (getNodeRowIndex(n) == i && isNodePositionedByBaseline(n)) {
-                        baselineNodes.add(n);
-                    }
-                }
+                List<Node> baselineNodes = rowBaseline[i];
                 rowMinBaselineComplement[i] = getMinBaselineComplement(baselineNodes);
                 rowPrefBaselineComplement[i] = getPrefBaselineComplement(baselineNodes);
                 rowMaxBaselineComplement[i] = getMaxBaselineComplement(baselineNodes);
-                rowBaseline[i] = baselineNodes;
-
             }
             for (int i = 0, sz = Math.min(numColumns, columnConstraints.size()); i < sz; ++i) {
                 final ColumnConstraints cc = columnConstraints.get(i);
@@ -1154,16 +1187,16 @@ public class GridPane extends Pane {
                     columnGrow[i] = hGrow;
             }
 
-            for (int i = 0, size = managed.size(); i < size; i++) {
+            for (int i = 0; i < count; i++) {
                 Node child = managed.get(i);
                 if (getNodeColumnSpan(child) == 1) {
                     Priority hg = getNodeHgrow(child);
-                    int idx = getNodeColumnIndex(child);
+                    int idx = childColumnIndex[i];
                     columnGrow[idx] = Priority.max(columnGrow[idx], hg);
                 }
                 if (getNodeRowSpan(child) == 1) {
                     Priority vg = getNodeVgrow(child);
-                    int idx = getNodeRowIndex(child);
+                    int idx = childRowIndex[i];
                     rowGrow[idx] = Priority.max(rowGrow[idx], vg);
                 }
             }
@@ -1355,16 +1388,12 @@ public class GridPane extends Pane {
         return true;
     }
 
-    private double getTotalWidthOfNodeColumns(Node child, double[] widths) {
-        if (getNodeColumnSpan(child) == 1) {
-            return widths[getNodeColumnIndex(child)];
-        } else {
-            double total = 0;
-            for (int i = getNodeColumnIndex(child), last = getNodeColumnEndConvertRemaining(child); i <= last; ++i) {
-                total += widths[i];
-            }
-            return total;
+    private double getTotalWidthOfNodeColumns(int childIndex, double[] widths) {
+        double total = 0;
+        for (int i = childColumnIndex[childIndex], last = childColumnEnd[childIndex]; i <= last; ++i) {
+            total += widths[i];
         }
+        return total;
     }
 
     private CompositeSize computeMaxHeights() {
@@ -1428,13 +1457,13 @@ public class GridPane extends Pane {
                 result.setSize(i, snapSizeY(constrMinH));
             }
         }
-        List<Node> managed = getManagedChildren();
+        List<Node> managed = metricsChildren;
         for (int i = 0, size = managed.size(); i < size; i++) {
             Node child = managed.get(i);
-            int start = getNodeRowIndex(child);
-            int end = getNodeRowEndConvertRemaining(child);
-            double childPrefAreaHeight = computeChildPrefAreaHeight(child, isNodePositionedByBaseline(child) ? rowPrefBaselineComplement[start] : -1, getMargin(child),
-                    widths == null ? -1 : getTotalWidthOfNodeColumns(child, widths));
+            int start = childRowIndex[i];
+            int end = childRowEnd[i];
+            double childPrefAreaHeight = computeChildPrefAreaHeight(child, childBaseline[i] ? rowPrefBaselineComplement[start] : -1, getMargin(child),
+                    widths == null ? -1 : getTotalWidthOfNodeColumns(i, widths));
             if (start == end && !result.isPreset(start)) {
                 double min = getRowMinHeight(start);
                 double max = getRowMaxHeight(start);
@@ -1471,13 +1500,13 @@ public class GridPane extends Pane {
                 result.setPresetSize(i, snapSizeY(constrMinH));
             }
         }
-        List<Node> managed = getManagedChildren();
+        List<Node> managed = metricsChildren;
         for (int i = 0, size = managed.size(); i < size; i++) {
             Node child = managed.get(i);
-            int start = getNodeRowIndex(child);
-            int end = getNodeRowEndConvertRemaining(child);
-            double childMinAreaHeight = computeChildMinAreaHeight(child, isNodePositionedByBaseline(child) ? rowMinBaselineComplement[start] : -1, getMargin(child),
-                             widths == null ? -1 : getTotalWidthOfNodeColumns(child, widths));
+            int start = childRowIndex[i];
+            int end = childRowEnd[i];
+            double childMinAreaHeight = computeChildMinAreaHeight(child, childBaseline[i] ? rowMinBaselineComplement[start] : -1, getMargin(child),
+                             widths == null ? -1 : getTotalWidthOfNodeColumns(i, widths));
             if (start == end && !result.isPreset(start)) {
                 result.setMaxSize(start, childMinAreaHeight);
             } else if (start != end){
@@ -1487,16 +1516,12 @@ public class GridPane extends Pane {
         return result;
     }
 
-    private double getTotalHeightOfNodeRows(Node child, double[] heights) {
-        if (getNodeRowSpan(child) == 1) {
-            return heights[getNodeRowIndex(child)];
-        } else {
-            double total = 0;
-            for (int i = getNodeRowIndex(child), last = getNodeRowEndConvertRemaining(child); i <= last; ++i) {
-                total += heights[i];
-            }
-            return total;
+    private double getTotalHeightOfNodeRows(int childIndex, double[] heights) {
+        double total = 0;
+        for (int i = childRowIndex[childIndex], last = childRowEnd[childIndex]; i <= last; ++i) {
+            total += heights[i];
         }
+        return total;
     }
 
     private CompositeSize computeMaxWidths() {
@@ -1562,22 +1587,22 @@ public class GridPane extends Pane {
                 result.setSize(i, snapSizeX(constrMinW));
             }
         }
-        List<Node> managed = getManagedChildren();
+        List<Node> managed = metricsChildren;
         for (int i = 0, size = managed.size(); i < size; i++) {
             Node child = managed.get(i);
-            int start = getNodeColumnIndex(child);
-            int end = getNodeColumnEndConvertRemaining(child);
+            int start = childColumnIndex[i];
+            int end = childColumnEnd[i];
             if (start == end && !result.isPreset(start)) {
                 double min = getColumnMinWidth(start);
                 double max = getColumnMaxWidth(start);
                 result.setMaxSize(start, boundedSize(min < 0 ? 0 : min, computeChildPrefAreaWidth(child,
-                        getBaselineComplementForChild(child), getMargin(child),
-                        heights == null ? -1 : getTotalHeightOfNodeRows(child, heights), false),
+                        getBaselineComplementForChild(i), getMargin(child),
+                        heights == null ? -1 : getTotalHeightOfNodeRows(i, heights), false),
                         max < 0 ? Double.MAX_VALUE : max));
             } else if (start != end) {
-                result.setMaxMultiSize(start, end + 1, computeChildPrefAreaWidth(child, getBaselineComplementForChild(child),
+                result.setMaxMultiSize(start, end + 1, computeChildPrefAreaWidth(child, getBaselineComplementForChild(i),
                         getMargin(child),
-                        heights == null ? -1 : getTotalHeightOfNodeRows(child, heights), false));
+                        heights == null ? -1 : getTotalHeightOfNodeRows(i, heights), false));
             }
         }
         return result;
@@ -1608,19 +1633,19 @@ public class GridPane extends Pane {
                 result.setPresetSize(i, snapSizeX(constrMinW));
             }
         }
-        List<Node> managed = getManagedChildren();
+        List<Node> managed = metricsChildren;
         for (int i = 0, size = managed.size(); i < size; i++) {
             Node child = managed.get(i);
-            int start = getNodeColumnIndex(child);
-            int end = getNodeColumnEndConvertRemaining(child);
+            int start = childColumnIndex[i];
+            int end = childColumnEnd[i];
             if (start == end && !result.isPreset(start)) {
-                result.setMaxSize(start, computeChildMinAreaWidth(child, getBaselineComplementForChild(child),
+                result.setMaxSize(start, computeChildMinAreaWidth(child, getBaselineComplementForChild(i),
                         getMargin(child),
-                        heights == null ? -1 : getTotalHeightOfNodeRows(child, heights),false));
+                        heights == null ? -1 : getTotalHeightOfNodeRows(i, heights),false));
             } else if (start != end){
-                result.setMaxMultiSize(start, end + 1, computeChildMinAreaWidth(child, getBaselineComplementForChild(child),
+                result.setMaxMultiSize(start, end + 1, computeChildMinAreaWidth(child, getBaselineComplementForChild(i),
                         getMargin(child),
-                        heights == null ? -1 : getTotalHeightOfNodeRows(child, heights), false));
+                        heights == null ? -1 : getTotalHeightOfNodeRows(i, heights), false));
             }
         }
         return result;
@@ -1722,30 +1747,32 @@ public class GridPane extends Pane {
 
             final double x = left + computeXOffset(contentWidth, columnTotal, getAlignmentInternal().getHpos());
             final double y = top + computeYOffset(contentHeight, rowTotal, getAlignmentInternal().getVpos());
-            final List<Node> managed = getManagedChildren();
+            final List<Node> managed = metricsChildren;
 
             double[] baselineOffsets = createDoubleArray(numRows, -1);
 
+            // the position of each column and row
+            final double[] columnX = new double[widths.getLength()];
+            final double[] rowY = new double[heights.getLength()];
+            double areaX = x;
+            for (int j = 0; j < columnX.length; j++) {
+                columnX[j] = areaX;
+                areaX += widths.getSize(j) + snaphgap;
+            }
+            double areaY = y;
+            for (int j = 0; j < rowY.length; j++) {
+                rowY[j] = areaY;
+                areaY += heights.getSize(j) + snapvgap;
+            }
+
             for (int i = 0, size = managed.size(); i < size; i++) {
                 final Node child = managed.get(i);
-                final int rowIndex = getNodeRowIndex(child);
-                int columnIndex = getNodeColumnIndex(child);
-                int colspan = getNodeColumnSpan(child);
-                if (colspan == REMAINING) {
-                    colspan = widths.getLength() - columnIndex;
-                }
-                int rowspan = getNodeRowSpan(child);
-                if (rowspan == REMAINING) {
-                    rowspan = heights.getLength() - rowIndex;
-                }
-                double areaX = x;
-                for (int j = 0; j < columnIndex; j++) {
-                    areaX += widths.getSize(j) + snaphgap;
-                }
-                double areaY = y;
-                for (int j = 0; j < rowIndex; j++) {
-                    areaY += heights.getSize(j) + snapvgap;
-                }
+                final int rowIndex = childRowIndex[i];
+                int columnIndex = childColumnIndex[i];
+                int colspan = childColumnEnd[i] - columnIndex + 1;
+                int rowspan = childRowEnd[i] - rowIndex + 1;
+                areaX = columnX[columnIndex];
+                areaY = rowY[rowIndex];
                 double areaW = widths.getSize(columnIndex);
                 for (int j = 2; j <= colspan; j++) {
                     areaW += widths.getSize(columnIndex + j - 1) + snaphgap;
@@ -2371,16 +2398,6 @@ public class GridPane extends Pane {
                 snapSpaceX(getHgap()), initSize);
     }
 
-    private int getNodeRowEndConvertRemaining(Node child) {
-        int rowSpan = getNodeRowSpan(child);
-        return rowSpan != REMAINING? getNodeRowIndex(child) + rowSpan - 1 : getNumberOfRows() - 1;
-    }
-
-    private int getNodeColumnEndConvertRemaining(Node child) {
-        int columnSpan = getNodeColumnSpan(child);
-        return columnSpan != REMAINING? getNodeColumnIndex(child) + columnSpan - 1 : getNumberOfColumns() - 1;
-    }
-
 
     // This methods are inteded to be used by GridPaneDesignInfo
     private CompositeSize currentHeights;
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.scene.shape;
+
+import com.sun.javafx.geom.BaseBounds;
+import com.sun.javafx.geom.BoxBounds;
+import com.sun.javafx.geom.PickRay;
+import com.sun.javafx.geom.transform.Affine3D;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.geom.transform.NoninvertibleTransformException;
+import com.sun.javafx.scene.DirtyBits;
+import com.sun.javafx.scene.NodeHelper;
+import com.sun.javafx.scene.input.PickResultChooser;
+import com.sun.javafx.scene.shape.InstancedMeshViewHelper;
+import com.sun.javafx.scene.shape.MeshHelper;
+import com.sun.javafx.sg.prism.NGInstancedMeshView;
+import com.sun.javafx.sg.prism.NGNode;
+import javafx.collections.ArrayChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableFloatArray;
+import javafx.scene.Node;
+
+/**
+ * The {@code InstancedMeshView} class renders a number of instances of the
+ * same 3D mesh, each with its own transform and (optionally) its own color.
+ * It is a more efficient alternative to a large number of {@code MeshView}
+ * nodes that share the same mesh, such as the identical boxes of a
+ * warehouse or the markers of a 3D scatter plot, as the instances are not
+ * nodes of their own.
+ *
+ * <p>
+ * The transforms of the instances are specified by
+ * {@link #getInstanceTransforms() instanceTransforms}, which holds 12 values
+ * per instance: the three rows of a 3x4 affine transform, in the order
+ * {@code mxx, mxy, mxz, tx, myx, myy, myz, ty, mzx, mzy, mzz, tz}. The
+ * transform of each instance is applied to the mesh before the transforms of
+ * this node. The number of instances is the number of complete transforms.
+ * </p>
+ *
+ * <p>
+ * If {@link #getInstanceColors() instanceColors} holds 4 values
+ * ({@code red, green, blue, opacity}, each in the range {@code [0, 1]}) for
+ * each instance, these replace the diffuse color of the material of each
+ * instance. Otherwise, all instances are rendered with the material of this
+ * node as is.
+ * </p>
+ *
+ * <p>
+ * Picking reports this node as the intersected node, with the intersected
+ * point and face of the instance that is hit. Without depth testing, the
+ * instances are considered to be painted in order, so the last instance
+ * that is hit is picked, otherwise the closest one is.
+ * </p>
+ *
+ * @since 14
+ */
+public class InstancedMeshView extends MeshView {
+    static {
+         // This is used by classes in different packages to get access to
+         // private and package private methods.
+        InstancedMeshViewHelper.setInstancedMeshViewAccessor(new InstancedMeshViewHelper.InstancedMeshViewAccessor() {
+            @Override
+            public NGNode doCreatePeer(Node node) {
+                return ((InstancedMeshView) node).doCreatePeer();
+            }
+
+            @Override
+            public void doUpdatePeer(Node node) {
+                ((InstancedMeshView) node).doUpdatePeer();
+            }
+
+            @Override
+            public BaseBounds doComputeGeomBounds(Node node,
+                    BaseBounds bounds, BaseTransform tx) {
+                return ((InstancedMeshView) node).doComputeGeomBounds(bounds, tx);
+            }
+
+            @Override
+            public boolean doComputeIntersects(Node node, PickRay pickRay,
+                    PickResultChooser pickResult) {
+                return ((InstancedMeshView) node).doComputeIntersects(pickRay, pickResult);
+            }
+        });
+    }
+
+    /**
+     * The number of values per instance in {@link #getInstanceTransforms()}.
+     */
+    public static final int TRANSFORM_SIZE = 12;
+
+    /**
+     * The number of values per instance in {@link #getInstanceColors()}.
+     */
+    public static final int COLOR_SIZE = 4;
+
+    private final ObservableFloatArray instanceTransforms = FXCollections.observableFloatArray();
+    private final ObservableFloatArray instanceColors = FXCollections.observableFloatArray();
+
+    {
+        // To initialize the class helper at the begining each constructor of this class
+        InstancedMeshViewHelper.initHelper(this);
+
+        instanceTransforms.addListener((ArrayChangeListener<ObservableFloatArray>) (array, sizeChanged, from, to) -> {
+            NodeHelper.markDirty(this, DirtyBits.NODE_GEOMETRY);
+            NodeHelper.geomChanged(this);
+        });
+        instanceColors.addListener((ArrayChangeListener<ObservableFloatArray>) (array, sizeChanged, from, to) -> {
+            NodeHelper.markDirty(this, DirtyBits.NODE_GEOMETRY);
+        });
+    }
+
+    /**
+     * Creates a new instance of {@code InstancedMeshView} class.
+     */
+    public InstancedMeshView() {
+    }
+
+    /**
+     * Creates a new instance of {@code InstancedMeshView} class with the
+     * specified {@code Mesh} surface.
+     * @param mesh the mesh surface
+     */
+    public InstancedMeshView(Mesh mesh) {
+        super(mesh);
+    }
+
+    /**
+     * Gets the transforms of the instances, as 12 values per instance.
+     *
+     * @return the {@code ObservableFloatArray} of the instance transforms
+     */
+    public final ObservableFloatArray getInstanceTransforms() {
+        return instanceTransforms;
+    }
+
+    /**
+     * Gets the colors of the instances, as 4 values per instance. The colors
+     * are ignored unless there is a color for every instance.
+     *
+     * @return the {@code ObservableFloatArray} of the instance colors
+     */
+    public final ObservableFloatArray getInstanceColors() {
+        return instanceColors;
+    }
+
+    /**
+     * Gets the number of instances, which is the number of complete
+     * transforms in {@link #getInstanceTransforms()}.
+     *
+     * @return the number of instances
+     */
+    public final int getInstanceCount() {
+        return instanceTransforms.size() / TRANSFORM_SIZE;
+    }
+
+    private void setInstanceTransform(Affine3D tx, int instance) {
+        final int k = instance * TRANSFORM_SIZE;
+        final ObservableFloatArray t = instanceTransforms;
+        tx.setTransform(
+                t.get(k),     t.get(k + 1), t.get(k + 2),  t.get(k + 3),
+                t.get(k + 4), t.get(k + 5), t.get(k + 6),  t.get(k + 7),
+                t.get(k + 8), t.get(k + 9), t.get(k + 10), t.get(k + 11));
+    }
+
+    /*
+     * Note: This method MUST only be called via its accessor method.
+     */
+    private void doUpdatePeer() {
+        if (NodeHelper.isDirty(this, DirtyBits.NODE_GEOMETRY)) {
+            final NGInstancedMeshView peer = NodeHelper.getPeer(this);
+            final int count = getInstanceCount();
+            final float[] transforms = instanceTransforms.toArray(0, new float[count * TRANSFORM_SIZE], count * TRANSFORM_SIZE);
+            final float[] colors = instanceColors.size() >= count * COLOR_SIZE
+                    ? instanceColors.toArray(0, new float[count * COLOR_SIZE], count * COLOR_SIZE)
+                    : null;
+            peer.setInstances(transforms, colors, count);
+        }
+    }
+
+    /*
+     * Note: This method MUST only be called via its accessor method.
+     */
+    private NGNode doCreatePeer() {
+        return new NGInstancedMeshView();
+    }
+
+    /*
+     * Note: This method MUST only be called via its accessor method.
+     */
+    private BaseBounds doComputeGeomBounds(BaseBounds bounds, BaseTransform tx) {
+        final int count = getInstanceCount();
+        if (getMesh() == null || count == 0) {
+            return bounds.makeEmpty();
+        }
+
+        final BaseBounds meshBounds = getMesh().computeBounds(new BoxBounds());
+        if (meshBounds.isEmpty()) {
+            return bounds.makeEmpty();
+        }
+
+        final Affine3D instanceTx = new Affine3D();
+        BaseBounds instanceBounds = new BoxBounds();
+        bounds = bounds.makeEmpty();
+        for (int i = 0; i < count; i++) {
+            setInstanceTransform(instanceTx, i);
+            instanceTx.preConcatenate(tx);
+            instanceBounds = instanceTx.transform(meshBounds, instanceBounds);
+            bounds = bounds.deriveWithUnion(instanceBounds);
+        }
+        return bounds;
+    }
+
+    /*
+     * Note: This method MUST only be called via its accessor method.
+     */
+    private boolean doComputeIntersects(PickRay pickRay, PickResultChooser pickResult) {
+        final int count = getInstanceCount();
+        if (getMesh() == null || count == 0) {
+            return false;
+        }
+
+        // Each instance is picked in its own coordinates, with the results
+        // gathered in a chooser of our own. As the ray is transformed along
+        // with the instance, the distance of an intersection is the same in
+        // both coordinate systems. The instances are picked in reverse order,
+        // as the chooser is closed by the first hit without depth testing.
+        final PickResultChooser instanceResult = new PickResultChooser();
+        final PickRay instanceRay = new PickRay();
+        final Affine3D instanceTx = new Affine3D();
+        final CullFace cullFace = getCullFace();
+        for (int i = count - 1; i >= 0 && !instanceResult.isClosed(); i--) {
+            setInstanceTransform(instanceTx, i);
+            instanceRay.setPickRay(pickRay);
+            try {
+                instanceRay.inverseTransform(instanceTx);
+            } catch (NoninvertibleTransformException e) {
+                continue;
+            }
+            if (cullFace != CullFace.NONE && instanceTx.getDeterminant() < 0) {
+                // a mirrored instance has its front and back faces swapped
+                MeshHelper.computeIntersects(getMesh(), instanceRay, instanceResult, this,
+                        cullFace == CullFace.BACK ? CullFace.FRONT : CullFace.BACK, true);
+            } else {
+                MeshHelper.computeIntersects(getMesh(), instanceRay, instanceResult, this, cullFace, true);
+            }
+        }
+
+        if (instanceResult.isEmpty()) {
+            return false;
+        }
+        final double distance = instanceResult.getIntersectedDistance();
+        pickResult.offer(this, distance, instanceResult.getIntersectedFace(),
+                PickResultChooser.computePoint(pickRay, distance),
+                instanceResult.getIntersectedTexCoord());
+        return true;
+    }
+}
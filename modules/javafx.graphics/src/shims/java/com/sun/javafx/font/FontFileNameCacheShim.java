@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.font;
+
+import java.io.File;
+
+public class FontFileNameCacheShim {
+
+    /**
+     * Returns the full, family, locale full and locale family names of
+     * each font in each of the given files.
+     */
+    public static String[][][] getFontNames(String[] paths, File cacheFile, short nameLocaleID) {
+        FontFileNameCache.FontNames[][] names =
+                FontFileNameCache.getFontNames(paths, cacheFile, nameLocaleID);
+        String[][][] result = new String[names.length][][];
+        for (int i = 0; i < names.length; i++) {
+            result[i] = new String[names[i].length][];
+            for (int j = 0; j < names[i].length; j++) {
+                FontFileNameCache.FontNames n = names[i][j];
+                result[i][j] = new String[] {
+                    n.fullName, n.familyName, n.localeFullName, n.localeFamilyName
+                };
+            }
+        }
+        return result;
+    }
+}
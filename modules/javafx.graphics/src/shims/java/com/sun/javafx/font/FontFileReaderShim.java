@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.font;
+
+import java.io.IOException;
+import java.security.PrivilegedActionException;
+
+public class FontFileReaderShim {
+
+    private final FontFileReader reader;
+
+    public FontFileReaderShim(String filename, boolean map) {
+        reader = new FontFileReader(filename, map);
+    }
+
+    public boolean openFile() throws PrivilegedActionException {
+        return reader.openFile();
+    }
+
+    public void closeFile() throws IOException {
+        reader.closeFile();
+    }
+
+    public boolean isMapped() {
+        return reader.isMapped();
+    }
+
+    public byte[] readBlock(int offset, int len) {
+        byte[] data = new byte[len];
+        reader.readBlock(offset, len).get(0, data, 0, len);
+        return data;
+    }
+
+    /**
+     * Returns true if the given block is read as a view of the mapped file.
+     */
+    public boolean isMappedBlock(int offset, int len) {
+        return reader.readBlock(offset, len).data.isDirect();
+    }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.font;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Properties;
+import com.sun.javafx.font.FontFileNameCacheShim;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FontFileNameCacheTest {
+
+    private static final short ENGLISH = 0x0409;
+    private static final short JAPANESE = 0x0411;
+
+    private File dir;
+    private File cacheFile;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("fontnames").toFile();
+        cacheFile = new File(dir, "cache/fontnames.properties");
+    }
+
+    @After
+    public void tearDown() {
+        delete(dir);
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                delete(f);
+            }
+        }
+        file.delete();
+    }
+
+    /*
+     * Creates a font with the given names in the given file, which only has
+     * the tables needed to read its names.
+     */
+    private File writeFont(String name, String family, String full) throws IOException {
+        return write(name, createFont(0, family, full, null));
+    }
+
+    private File write(String name, byte[] data) throws IOException {
+        File file = new File(dir, name);
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+        return file;
+    }
+
+    // Creates a font whose tables are at offsets relative to the given base,
+    // which is its offset in a collection
+    private static byte[] createFont(int base, String family, String full, String localeFull) {
+        String[] names = localeFull == null ?
+                new String[] { family, full } : new String[] { family, full, localeFull };
+        int[] nameIDs = { 1, 4, 4 };
+        short[] langIDs = { ENGLISH, ENGLISH, JAPANESE };
+
+        final int headOffset = 12 + 3 * 16;
+        final int cmapOffset = headOffset + 56;
+        final int nameOffset = cmapOffset + 16;
+        int stringsLength = 0;
+        for (String n : names) {
+            stringsLength += n.length() * 2;
+        }
+        final int nameLength = 6 + names.length * 12 + stringsLength;
+
+        ByteBuffer font = ByteBuffer.allocate(nameOffset + nameLength);
+        font.putInt(0x00010000).putShort((short) 3);
+
+        font.position(12);
+        font.putInt(0x636D6170).putInt(0).putInt(base + cmapOffset).putInt(16);
+        font.putInt(0x68656164).putInt(0).putInt(base + headOffset).putInt(54);
+        font.putInt(0x6E616D65).putInt(0).putInt(base + nameOffset).putInt(nameLength);
+
+        // a cmap with a single (empty) subtable
+        font.position(cmapOffset);
+        font.putShort((short) 0).putShort((short) 1);
+        font.putShort((short) 3).putShort((short) 1).putInt(12);
+
+        font.position(nameOffset);
+        font.putShort((short) 0).putShort((short) names.length).putShort((short) (6 + names.length * 12));
+        int stringOffset = 0;
+        for (int i = 0; i < names.length; i++) {
+            int length = names[i].length() * 2;
+            font.putShort((short) 3).putShort((short) 1).putShort(langIDs[i]);
+            font.putShort((short) nameIDs[i]).putShort((short) length).putShort((short) stringOffset);
+            stringOffset += length;
+        }
+        for (String n : names) {
+            font.put(n.getBytes(StandardCharsets.UTF_16BE));
+        }
+        return font.array();
+    }
+
+    private String[][][] getFontNames(File... files) {
+        return getFontNames(ENGLISH, files);
+    }
+
+    private String[][][] getFontNames(short nameLocaleID, File... files) {
+        String[] paths = new String[files.length];
+        for (int i = 0; i < files.length; i++) {
+            paths[i] = files[i].getPath();
+        }
+        return FontFileNameCacheShim.getFontNames(paths, cacheFile, nameLocaleID);
+    }
+
+    private Properties loadCache() throws IOException {
+        Properties cache = new Properties();
+        try (InputStream in = new FileInputStream(cacheFile)) {
+            cache.load(in);
+        }
+        return cache;
+    }
+
+    private void storeCache(Properties cache) throws IOException {
+        try (OutputStream out = new FileOutputStream(cacheFile)) {
+            cache.store(out, null);
+        }
+    }
+
+    @Test
+    public void testReadFontNames() throws IOException {
+        File font = writeFont("a.ttf", "Family", "Family Bold");
+        String[][][] names = getFontNames(font);
+        assertEquals(1, names[0].length);
+        assertArrayEquals(new String[] { "Family Bold", "Family", "Family Bold", "Family" }, names[0][0]);
+    }
+
+    @Test
+    public void testReadLocaleFontNames() throws IOException {
+        File font = write("a.ttf", createFont(0, "Family", "Family Bold", "Locale Bold"));
+        String[][][] names = getFontNames(JAPANESE, font);
+        assertArrayEquals(new String[] { "Family Bold", "Family", "Locale Bold", "Family" }, names[0][0]);
+    }
+
+    @Test
+    public void testReadCollectionFontNames() throws IOException {
+        byte[] first = createFont(20, "First", "First Regular", null);
+        byte[] second = createFont(20 + first.length, "Second", "Second Regular", null);
+        ByteBuffer collection = ByteBuffer.allocate(20 + first.length + second.length);
+        collection.putInt(0x74746366).putInt(0x00010000).putInt(2);
+        collection.putInt(20).putInt(20 + first.length);
+        collection.put(first).put(second);
+        File font = write("a.ttc", collection.array());
+
+        String[][][] names = getFontNames(font);
+        assertEquals(2, names[0].length);
+        assertEquals("First Regular", names[0][0][0]);
+        assertEquals("Second Regular", names[0][1][0]);
+    }
+
+    @Test
+    public void testInvalidFontsHaveNoNames() throws IOException {
+        byte[] font = createFont(0, "Family", "Family Bold", null);
+        File truncated = write("truncated.ttf", Arrays.copyOf(font, font.length - 10));
+        File notAFont = write("notafont.ttf", "not a font".getBytes(StandardCharsets.US_ASCII));
+        byte[] badHead = font.clone();
+        badHead[12 + 3 * 16 + 50 + 1] = 2; // indexToLocFormat
+        File badHeadFile = write("badhead.ttf", badHead);
+        File missing = new File(dir, "missing.ttf");
+
+        String[][][] names = getFontNames(truncated, notAFont, badHeadFile, missing);
+        for (String[][] n : names) {
+            assertEquals(0, n.length);
+        }
+    }
+
+    @Test
+    public void testFontsWhichCannotBeReadAreNotCached() throws IOException {
+        File font = writeFont("a.ttf", "Family", "Family Bold");
+        File notAFont = write("notafont.ttf", "not a font".getBytes(StandardCharsets.US_ASCII));
+        getFontNames(font, notAFont);
+        Properties cache = loadCache();
+        assertNotNull(cache.getProperty(font.getPath() + ".size"));
+        assertNull(cache.getProperty(notAFont.getPath() + ".size"));
+
+        // a cached file which can no longer be read is dropped from the cache
+        write("a.ttf", "not a font either".getBytes(StandardCharsets.US_ASCII));
+        String[][][] names = getFontNames(font);
+        assertEquals(0, names[0].length);
+        cache = loadCache();
+        assertNull(cache.getProperty(font.getPath() + ".size"));
+        assertNull(cache.getProperty(font.getPath() + ".0.full"));
+
+        // and is read again once it can be read
+        writeFont("a.ttf", "Family", "Family Bold");
+        names = getFontNames(font);
+        assertEquals(1, names[0].length);
+    }
+
+    @Test
+    public void testCachedNamesAreUsed() throws IOException {
+        File font = writeFont("a.ttf", "Family", "Family Bold");
+        getFontNames(font);
+        assertTrue(cacheFile.isFile());
+
+        // the names come from the cache as long as the file is unchanged
+        Properties cache = loadCache();
+        assertEquals("Family Bold", cache.getProperty(font.getPath() + ".0.full"));
+        cache.setProperty(font.getPath() + ".0.full", "Cached Bold");
+        storeCache(cache);
+        assertEquals("Cached Bold", getFontNames(font)[0][0][0]);
+    }
+
+    @Test
+    public void testModifiedFileIsReadAgain() throws IOException {
+        File font = writeFont("a.ttf", "Family", "Family Bold");
+        getFontNames(font);
+        Properties cache = loadCache();
+        cache.setProperty(font.getPath() + ".0.full", "Cached Bold");
+        storeCache(cache);
+
+        assertTrue(font.setLastModified(font.lastModified() - 10000));
+        assertEquals("Family Bold", getFontNames(font)[0][0][0]);
+    }
+
+    @Test
+    public void testResizedFileIsReadAgain() throws IOException {
+        File font = writeFont("a.ttf", "Family", "Family Bold");
+        long time = font.lastModified();
+        getFontNames(font);
+
+        writeFont("a.ttf", "Family", "Family Bold Italic");
+        assertTrue(font.setLastModified(time));
+        assertEquals("Family Bold Italic", getFontNames(font)[0][0][0]);
+    }
+
+    @Test
+    public void testCorruptCacheIsIgnored() throws IOException {
+        File font = writeFont("a.ttf", "Family", "Family Bold");
+        cacheFile.getParentFile().mkdirs();
+        try (OutputStream out = new FileOutputStream(cacheFile)) {
+            out.write("version=2\nlocale=1033\n\\uZZZZ\n".getBytes(StandardCharsets.ISO_8859_1));
+        }
+        assertEquals("Family Bold", getFontNames(font)[0][0][0]);
+
+        // the cache has been replaced
+        Properties cache = loadCache();
+        assertEquals("Family Bold", cache.getProperty(font.getPath() + ".0.full"));
+    }
+
+    @Test
+    public void testInvalidCacheEntriesAreIgnored() throws IOException {
+        File font = writeFont("a.ttf", "Family", "Family Bold");
+        getFontNames(font);
+        Properties cache = loadCache();
+        cache.setProperty(font.getPath() + ".count", "1000000000");
+        storeCache(cache);
+        assertEquals("Family Bold", getFontNames(font)[0][0][0]);
+
+        cache.setProperty(font.getPath() + ".count", "2");
+        storeCache(cache);
+        assertEquals("Family Bold", getFontNames(font)[0][0][0]);
+    }
+
+    @Test
+    public void testDeletedFilesAreDropped() throws IOException {
+        File font = writeFont("a.ttf", "Family", "Family Bold");
+        File deleted = writeFont("b.ttf", "Other", "Other Bold");
+        getFontNames(font, deleted);
+        assertNotNull(loadCache().getProperty(deleted.getPath() + ".size"));
+
+        assertTrue(deleted.delete());
+        getFontNames(font);
+        for (String key : loadCache().stringPropertyNames()) {
+            assertFalse(key, key.startsWith(deleted.getPath()));
+        }
+    }
+
+    @Test
+    public void testLocaleChangeClearsCache() throws IOException {
+        File font = write("a.ttf", createFont(0, "Family", "Family Bold", "Locale Bold"));
+        getFontNames(font);
+        Properties cache = loadCache();
+        cache.setProperty(font.getPath() + ".0.full", "Cached Bold");
+        storeCache(cache);
+
+        String[][][] names = getFontNames(JAPANESE, font);
+        assertEquals("Family Bold", names[0][0][0]);
+        assertEquals("Locale Bold", names[0][0][2]);
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.font;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import com.sun.javafx.PlatformUtil;
+import com.sun.javafx.font.FontFileReaderShim;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+public class FontFileReaderTest {
+
+    private static final int SIZE = 64 * 1024;
+
+    private File file;
+    private FontFileReaderShim reader;
+
+    @Before
+    public void setUp() throws IOException {
+        assumeFalse("false".equals(System.getProperty("prism.mapfontfiles")));
+        file = File.createTempFile("fontfile", ".ttf");
+        write(content(SIZE));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (reader != null) {
+            reader.closeFile();
+        }
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    private static byte[] content(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        return data;
+    }
+
+    private void write(byte[] data) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+    }
+
+    private void truncate(int size) throws IOException {
+        // a mapped file cannot be truncated on Windows
+        assumeFalse(PlatformUtil.isWindows());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(size);
+        }
+    }
+
+    private static byte[] range(byte[] data, int offset, int len) {
+        return Arrays.copyOfRange(data, offset, offset + len);
+    }
+
+    @Test
+    public void testReadMappedFile() throws Exception {
+        reader = new FontFileReaderShim(file.getPath(), true);
+        assertTrue(reader.openFile());
+        assertTrue(reader.isMapped());
+        byte[] data = content(SIZE);
+        assertArrayEquals(range(data, 0, 12), reader.readBlock(0, 12));
+        assertArrayEquals(range(data, 40000, 5000), reader.readBlock(40000, 5000));
+        // blocks within the file are not copied
+        assertTrue(reader.isMappedBlock(40000, 5000));
+    }
+
+    @Test
+    public void testReadUnmappedFile() throws Exception {
+        reader = new FontFileReaderShim(file.getPath(), false);
+        assertTrue(reader.openFile());
+        assertFalse(reader.isMapped());
+        assertFalse(reader.isMappedBlock(40000, 5000));
+        byte[] data = content(SIZE);
+        assertArrayEquals(range(data, 40000, 5000), reader.readBlock(40000, 5000));
+    }
+
+    @Test
+    public void testReadPastEndOfMappedFileIsZeroFilled() throws Exception {
+        reader = new FontFileReaderShim(file.getPath(), true);
+        assertTrue(reader.openFile());
+        byte[] block = reader.readBlock(SIZE - 4, 8);
+        byte[] expected = Arrays.copyOf(range(content(SIZE), SIZE - 4, 4), 8);
+        assertArrayEquals(expected, block);
+    }
+
+    @Test
+    public void testFileChangedBetweenOpensIsRead() throws Exception {
+        reader = new FontFileReaderShim(file.getPath(), true);
+        assertTrue(reader.openFile());
+        reader.readBlock(0, 12);
+        reader.closeFile();
+
+        byte[] data = content(SIZE / 2);
+        data[0] = 42;
+        write(data);
+
+        assertTrue(reader.openFile());
+        assertArrayEquals(range(data, 0, 12), reader.readBlock(0, 12));
+        // the end of the file has moved with it
+        assertArrayEquals(new byte[8], reader.readBlock(SIZE / 2, 8));
+    }
+
+    @Test
+    public void testFileTruncatedWhileMappedIsMappedAgain() throws Exception {
+        reader = new FontFileReaderShim(file.getPath(), true);
+        assertTrue(reader.openFile());
+        assertTrue(reader.isMapped());
+        reader.closeFile();
+        truncate(100);
+
+        // the truncated file is mapped again when it is reopened
+        assertTrue(reader.openFile());
+        assertTrue(reader.isMapped());
+        assertArrayEquals(range(content(SIZE), 0, 12), reader.readBlock(0, 12));
+        assertArrayEquals(new byte[8], reader.readBlock(100, 8));
+        assertFalse(reader.isMappedBlock(40000, 5000));
+    }
+}
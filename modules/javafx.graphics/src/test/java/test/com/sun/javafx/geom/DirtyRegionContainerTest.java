@@ -125,7 +125,7 @@ public class DirtyRegionContainerTest {
         RectBounds newregion = new RectBounds(150, 150, 200, 200);
         drc.addDirtyRegion(newregion);
 
-        Assert.assertEquals(4, drc.size());
+        Assert.assertEquals(drc.toString(), 4, drc.size());
         for(int i = 0; i < drc.size() - 1; i++) {
             Assert.assertEquals(nonIntersecting_3_Regions[i], (drc.getDirtyRegion(i)));
         }
@@ -171,7 +171,7 @@ public class DirtyRegionContainerTest {
 
         drc.addDirtyRegion(new RectBounds(10, 10, 22, 15));
 
-        Assert.assertEquals(4, drc.size());
+        Assert.assertEquals(drc.toString(), 4, drc.size());
         Assert.assertEquals(new RectBounds(120, 120, 150, 150), drc.getDirtyRegion(0));
         Assert.assertEquals(new RectBounds(25, 25, 50, 50), drc.getDirtyRegion(1));
         Assert.assertEquals(new RectBounds(60, 60, 100, 100), drc.getDirtyRegion(2));
@@ -191,6 +191,93 @@ public class DirtyRegionContainerTest {
         Assert.assertEquals(new RectBounds(0, 0, 50, 50), drc.getDirtyRegion(2));
     }
 
+    @Test
+    public void test_addDirtyRegion_no_space_merges_smallest_union() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(5);
+        drc.addDirtyRegion(new RectBounds(0, 0, 100, 100));
+        drc.addDirtyRegion(new RectBounds(101, 0, 201, 100));
+        drc.addDirtyRegion(new RectBounds(300, 0, 310, 10));
+        drc.addDirtyRegion(new RectBounds(330, 0, 340, 10));
+        drc.addDirtyRegion(new RectBounds(400, 0, 410, 10));
+        drc.addDirtyRegion(new RectBounds(500, 500, 510, 510));
+
+        // the two regions whose union is the smallest are merged first, even
+        // though merging the two large regions would add fewer pixels
+        boolean merged = false;
+        boolean notMerged = false;
+        for (int i = 0; i < drc.size(); i++) {
+            merged |= new RectBounds(300, 0, 340, 10).equals(drc.getDirtyRegion(i));
+            notMerged |= new RectBounds(0, 0, 100, 100).equals(drc.getDirtyRegion(i));
+        }
+        Assert.assertTrue(merged);
+        Assert.assertTrue(notMerged);
+    }
+
+    @Test
+    public void test_addDirtyRegion_no_space_many_regions() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(20);
+        RectBounds[] regions = new RectBounds[21];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = new RectBounds(i * 20, 0, i * 20 + 10, 10);
+            drc.addDirtyRegion(new RectBounds(regions[i]));
+        }
+
+        Assert.assertTrue(drc.size() <= 20);
+        for (RectBounds region : regions) {
+            boolean contained = false;
+            for (int i = 0; i < drc.size(); i++) {
+                contained |= drc.getDirtyRegion(i).contains(region);
+            }
+            Assert.assertTrue(contained);
+        }
+    }
+
+    @Test
+    public void test_mergeByCost() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(4);
+        drc.deriveWithNewRegions(new RectBounds[] {
+            new RectBounds(0, 0, 10, 10),
+            new RectBounds(12, 0, 22, 10),
+            new RectBounds(100, 100, 110, 110)
+        });
+
+        // merging the first two regions only adds 20 pixels
+        drc.mergeByCost(50);
+
+        Assert.assertEquals(2, drc.size());
+        Assert.assertEquals(new RectBounds(100, 100, 110, 110), drc.getDirtyRegion(0));
+        Assert.assertEquals(new RectBounds(0, 0, 22, 10), drc.getDirtyRegion(1));
+    }
+
+    @Test
+    public void test_mergeByCost_no_overhead() {
+        DirtyRegionContainer drc = getDRC_initialized();
+        drc.mergeByCost(0);
+        Assert.assertEquals(3, drc.size());
+    }
+
+    @Test
+    public void test_mergeByCost_merges_intersecting() {
+        DirtyRegionContainer drc = new DirtyRegionContainer(4);
+        drc.deriveWithNewRegions(new RectBounds[] {
+            new RectBounds(0, 0, 10, 10),
+            new RectBounds(20, 0, 30, 10),
+            new RectBounds(14, 8, 16, 30)
+        });
+
+        // the union of the first two regions intersects the third
+        drc.mergeByCost(150);
+
+        Assert.assertEquals(1, drc.size());
+        Assert.assertEquals(new RectBounds(0, 0, 30, 30), drc.getDirtyRegion(0));
+    }
+
+    @Test
+    public void test_getTotalArea() {
+        DirtyRegionContainer drc = getDRC_initialized();
+        Assert.assertEquals(400f + 625f + 1600f, drc.getTotalArea(), 0f);
+    }
+
     private DirtyRegionContainer getDRC_initialized() {
         DirtyRegionContainer drc = new DirtyRegionContainer(4);
         return drc.deriveWithNewRegions(nonIntersecting_3_Regions);
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package test.com.sun.javafx.geom;
+
+import com.sun.javafx.geom.DirtyRegionCostModel;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DirtyRegionCostModelTest {
+
+    @Test
+    public void testDefaultRegionOverhead() {
+        DirtyRegionCostModel model = new DirtyRegionCostModel();
+        assertEquals(DirtyRegionCostModel.DEFAULT_REGION_OVERHEAD, model.getRegionOverhead(), 0);
+    }
+
+    @Test
+    public void testRegionOverheadIsEstimatedFromSamples() {
+        DirtyRegionCostModel model = new DirtyRegionCostModel();
+        // 2ns per pixel, and 20000ns per region
+        for (int i = 0; i < 20; i++) {
+            int pixels = 1000 * (i % 5 + 1);
+            model.addSample(pixels, 2 * pixels + 20000);
+        }
+        assertEquals(10000, model.getRegionOverhead(), 1);
+    }
+
+    @Test
+    public void testSamplesOfTheSameSizeKeepTheEstimate() {
+        DirtyRegionCostModel model = new DirtyRegionCostModel();
+        for (int i = 0; i < 20; i++) {
+            model.addSample(1000, 5000);
+        }
+        assertEquals(DirtyRegionCostModel.DEFAULT_REGION_OVERHEAD, model.getRegionOverhead(), 0);
+    }
+
+    @Test
+    public void testRegionOverheadFollowsChanges() {
+        DirtyRegionCostModel model = new DirtyRegionCostModel();
+        for (int i = 0; i < 20; i++) {
+            int pixels = 1000 * (i % 5 + 1);
+            model.addSample(pixels, 2 * pixels + 20000);
+        }
+        for (int i = 0; i < 200; i++) {
+            int pixels = 1000 * (i % 5 + 1);
+            model.addSample(pixels, 2 * pixels + 2000);
+        }
+        assertEquals(1000, model.getRegionOverhead(), 10);
+    }
+}
@@ -98,7 +98,8 @@ public class StubTextLayout implements TextLayout {
             return new GlyphList[0];
         }
         @Override public RectBounds getBounds() {
-            return new RectBounds();
+            final float fontSize = (font == null ? 0 : (float) ((Font)font).getSize());
+            return new RectBounds(0, -fontSize, 0, 0);
         }
         @Override public float getLeftSideBearing() {
             return 0;
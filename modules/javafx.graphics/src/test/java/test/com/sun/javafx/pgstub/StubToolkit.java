@@ -68,6 +68,7 @@ import java.io.InputStream;
 import java.security.AccessControlContext;
 import java.util.*;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * A Toolkit implementation for use with Testing.
@@ -719,6 +720,33 @@ public class StubToolkit extends Toolkit {
         throw new UnsupportedOperationException();
     }
 
+    private final List<Pair<ImageRenderingContext, Consumer<Object>>> asyncRenderings = new ArrayList<>();
+
+    @Override
+    public void renderToImageAsync(ImageRenderingContext context, Consumer<Object> callback) {
+        asyncRenderings.add(new Pair<>(context, callback));
+    }
+
+    public List<ImageRenderingContext> getPendingAsyncRenderings() {
+        List<ImageRenderingContext> contexts = new ArrayList<>();
+        for (Pair<ImageRenderingContext, Consumer<Object>> rendering : asyncRenderings) {
+            contexts.add(rendering.getKey());
+        }
+        return contexts;
+    }
+
+    /**
+     * Completes the pending renderToImageAsync calls, without rendering
+     * anything, or fails them if success is false.
+     */
+    public void completeAsyncRenderings(boolean success) {
+        List<Pair<ImageRenderingContext, Consumer<Object>>> renderings = new ArrayList<>(asyncRenderings);
+        asyncRenderings.clear();
+        for (Pair<ImageRenderingContext, Consumer<Object>> rendering : renderings) {
+            rendering.getValue().accept(success ? rendering.getKey().destBuffer : null);
+        }
+    }
+
     @Override public boolean canStartNestedEventLoop() {
         return false;
     }
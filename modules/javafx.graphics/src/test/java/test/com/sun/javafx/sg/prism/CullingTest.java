@@ -50,6 +50,21 @@ public class CullingTest extends NGTestBase {
         Assert.assertEquals(1 |(1 << 2), NGNodeShim.cullingBits(bn));
     }
 
+    @Test
+    public void test_setCullBits_many_regions() {
+        NGNode bn = createRectangle(0, 0, 100, 100);
+        RectBounds[] regions = new RectBounds[31];
+        for (int i = 0; i < regions.length; i++) {
+            regions[i] = new RectBounds(200 + i * 10, 0, 205 + i * 10, 5);
+        }
+        regions[20] = new RectBounds(50, 50, 150, 150);
+        regions[30] = new RectBounds(-10, -10, 110, 110);
+        DirtyRegionContainer drc = new DirtyRegionContainer(regions.length);
+        drc.deriveWithNewRegions(regions);
+        NGNodeShim.markCullRegions(bn,drc, -1, BaseTransform.IDENTITY_TRANSFORM, new GeneralTransform3D());
+        Assert.assertEquals((1L << 40) | (2L << 60), NGNodeShim.cullingBits(bn));
+    }
+
     @Test
     public void test_setCullBits_disjoint() {
         NGNode bn = createRectangle(0, 0, 100, 100);
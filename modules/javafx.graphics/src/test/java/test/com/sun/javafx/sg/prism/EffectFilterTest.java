@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.sg.prism;
+
+import java.lang.ref.WeakReference;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.sg.prism.EffectFilter;
+import com.sun.javafx.sg.prism.EffectFilterShim;
+import com.sun.javafx.sg.prism.NGRectangle;
+import com.sun.prism.impl.PrismSettings;
+import com.sun.scenario.effect.Blend;
+import com.sun.scenario.effect.DropShadow;
+import com.sun.scenario.effect.GaussianBlur;
+import com.sun.scenario.effect.Identity;
+import com.sun.scenario.effect.ImageData;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EffectFilterTest {
+
+    @Test
+    public void effectsOfTheNodeAreCacheable() {
+        assertTrue(EffectFilterShim.isCacheable(new DropShadow()));
+        assertTrue(EffectFilterShim.isCacheable(new DropShadow(new GaussianBlur())));
+    }
+
+    @Test
+    public void effectsOfAnImageAreNotCacheable() {
+        assertFalse(EffectFilterShim.isCacheable(new Identity(null)));
+        assertFalse(EffectFilterShim.isCacheable(
+                new Blend(Blend.Mode.MULTIPLY, null, new Identity(null))));
+    }
+
+    @Test
+    public void wholePixelTranslationIsCompatible() {
+        Affine2D from = new Affine2D();
+        from.translate(10.5, 20);
+        from.scale(2, 2);
+        Affine2D to = new Affine2D(from);
+        assertTrue(EffectFilterShim.isTranslatedByWholePixels(from, to));
+        to.preConcatenate(BaseTransform.getTranslateInstance(-7, 3));
+        assertTrue(EffectFilterShim.isTranslatedByWholePixels(from, to));
+    }
+
+    @Test
+    public void fractionalTranslationIsNotCompatible() {
+        Affine2D from = new Affine2D();
+        Affine2D to = new Affine2D();
+        to.translate(0.5, 0);
+        assertFalse(EffectFilterShim.isTranslatedByWholePixels(from, to));
+        to.setToTranslation(0, 0.25);
+        assertFalse(EffectFilterShim.isTranslatedByWholePixels(from, to));
+    }
+
+    @Test
+    public void scaleOrRotationIsNotCompatible() {
+        Affine2D from = new Affine2D();
+        Affine2D to = new Affine2D();
+        to.scale(1.5, 1.5);
+        assertFalse(EffectFilterShim.isTranslatedByWholePixels(from, to));
+        to.setToRotation(Math.PI / 4, 0, 0);
+        assertFalse(EffectFilterShim.isTranslatedByWholePixels(from, to));
+    }
+
+    private static EffectFilter createFilter() {
+        return EffectFilterShim.newEffectFilter(new DropShadow(), new NGRectangle());
+    }
+
+    private static ImageData createResult() {
+        return new ImageData(null, null, new Rectangle(10, 10));
+    }
+
+    @Test
+    public void disposeReleasesCachedResult() {
+        long bytes = EffectFilterShim.getCachedBytes();
+        EffectFilter filter = createFilter();
+        ImageData res = createResult();
+        EffectFilterShim.setCachedResult(filter, res, 400);
+        assertTrue(EffectFilterShim.hasCachedResult(filter));
+        assertEquals(bytes + 400, EffectFilterShim.getCachedBytes());
+
+        EffectFilterShim.dispose(filter);
+        assertEquals(0, res.getReferenceCount());
+        assertEquals(bytes, EffectFilterShim.getCachedBytes());
+    }
+
+    @Test
+    public void collectedFilterReleasesCachedResult() {
+        long bytes = EffectFilterShim.getCachedBytes();
+        EffectFilter filter = createFilter();
+        ImageData res = createResult();
+        EffectFilterShim.setCachedResult(filter, res, 400);
+        assertEquals(bytes + 400, EffectFilterShim.getCachedBytes());
+
+        WeakReference<EffectFilter> ref = new WeakReference<>(filter);
+        filter = null;
+        for (int i = 0; i < 10 && ref.get() != null; i++) {
+            System.gc();
+        }
+        assertNull(ref.get());
+
+        // the collected filter is only noticed once its reference is enqueued
+        for (int i = 0; i < 10 && res.getReferenceCount() != 0; i++) {
+            System.gc();
+            EffectFilterShim.releaseCollectedResults();
+        }
+        assertEquals(0, res.getReferenceCount());
+        assertEquals(bytes, EffectFilterShim.getCachedBytes());
+    }
+
+    @Test
+    public void leastRecentlyUsedResultIsEvicted() {
+        long bytes = PrismSettings.effectCacheSize / 2 + 1;
+        EffectFilter first = createFilter();
+        EffectFilter second = createFilter();
+        ImageData firstRes = createResult();
+        EffectFilterShim.setCachedResult(first, firstRes, bytes);
+        EffectFilterShim.setCachedResult(second, createResult(), bytes);
+
+        assertFalse(EffectFilterShim.hasCachedResult(first));
+        assertEquals(0, firstRes.getReferenceCount());
+        assertTrue(EffectFilterShim.hasCachedResult(second));
+
+        EffectFilterShim.dispose(first);
+        EffectFilterShim.dispose(second);
+    }
+}
@@ -32,8 +32,12 @@ import com.sun.javafx.geom.transform.GeneralTransform3D;
 import com.sun.javafx.sg.prism.NGNode;
 import com.sun.javafx.sg.prism.NGNodeShim;
 import com.sun.javafx.sg.prism.NodePath;
+import com.sun.javafx.sg.prism.OcclusionCullerShim;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -42,6 +46,15 @@ import static org.junit.Assert.assertTrue;
  */
 public class OcclusionCullingTest extends NGTestBase {
 
+    @Before
+    public void setUp() {
+        OcclusionCullerShim.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        OcclusionCullerShim.setEnabled(false);
+    }
 
     @Test
     public void testRectangleOcclusion() {
@@ -185,6 +198,106 @@ public class OcclusionCullingTest extends NGTestBase {
         assertRoot(rootPath, root);
     }
 
+    @Test
+    public void testRenderRootNotAmongChildren() {
+        final TestNGRectangle first = createRectangle(10, 10, 20, 20);
+        final TestNGRectangle second = createRectangle(150, 10, 20, 20);
+        TestNGGroup group = createGroup(first, second);
+        NodePath rootPath = new NodePath();
+        rootPath.add(createRectangle(0, 0, 100, 100));
+        rootPath.add(group);
+        rootPath.reset();
+
+        TestGraphics g = new TestGraphics();
+        g.setRenderRoot(rootPath);
+        group.render(g);
+        assertTrue(first.rendered());
+        assertTrue(second.rendered());
+    }
+
+    @Test
+    public void testCoveredSiblingIsNotRendered() {
+        final TestNGRectangle covered = createRectangle(10, 10, 20, 20);
+        final TestNGRectangle visible = createRectangle(150, 10, 20, 20);
+        final TestNGRectangle overlay = createRectangle(0, 0, 100, 100);
+        TestNGGroup group = createGroup(covered, visible, overlay);
+
+        // no render root, as the overlay doesn't cover the whole scene
+        group.render(new TestGraphics());
+        assertFalse(covered.rendered());
+        assertTrue(visible.rendered());
+        assertTrue(overlay.rendered());
+    }
+
+    @Test
+    public void testCoveredSiblingIsRenderedWhenCullingIsDisabled() {
+        OcclusionCullerShim.setEnabled(false);
+        final TestNGRectangle covered = createRectangle(10, 10, 20, 20);
+        final TestNGRectangle overlay = createRectangle(0, 0, 100, 100);
+        TestNGGroup group = createGroup(covered, overlay);
+
+        group.render(new TestGraphics());
+        assertTrue(covered.rendered());
+        assertTrue(overlay.rendered());
+    }
+
+    @Test
+    public void testCoveredNestedGroupIsNotRendered() {
+        final TestNGRectangle covered = createRectangle(10, 10, 20, 20);
+        final TestNGRectangle partiallyCovered = createRectangle(90, 10, 20, 20);
+        final TestNGGroup nested = createGroup(covered, partiallyCovered);
+        final TestNGRectangle overlay = createRectangle(0, 0, 100, 100);
+        TestNGGroup group = createGroup(createGroup(nested), createGroup(overlay));
+
+        group.render(new TestGraphics());
+        assertTrue(nested.rendered());
+        assertFalse(covered.rendered());
+        assertTrue(partiallyCovered.rendered());
+        assertTrue(overlay.rendered());
+    }
+
+    @Test
+    public void testNodeAboveOccluderIsRendered() {
+        final TestNGRectangle overlay = createRectangle(0, 0, 100, 100);
+        final TestNGRectangle above = createRectangle(10, 10, 20, 20);
+        TestNGGroup group = createGroup(overlay, above);
+
+        group.render(new TestGraphics());
+        assertTrue(overlay.rendered());
+        assertTrue(above.rendered());
+    }
+
+    @Test
+    public void testTranslucentOverlayDoesNotOcclude() {
+        final TestNGRectangle below = createRectangle(10, 10, 20, 20);
+        final TestNGRectangle overlay = createRectangle(0, 0, 100, 100);
+        overlay.setOpacity(0.5f);
+        TestNGGroup group = createGroup(below, overlay);
+
+        group.render(new TestGraphics());
+        assertTrue(below.rendered());
+        assertTrue(overlay.rendered());
+    }
+
+    @Test
+    public void testTranslatedOverlayOccludes() {
+        final TestNGRectangle covered = createRectangle(110, 110, 20, 20);
+        final TestNGRectangle overlay = createRectangle(0, 0, 100, 100);
+        translate(overlay, 100, 100);
+        TestNGGroup group = createGroup(covered, overlay);
+
+        group.render(new TestGraphics());
+        assertFalse(covered.rendered());
+
+        // the part of the overlay that is not on whole pixels is not opaque
+        final TestNGRectangle edge = createRectangle(100, 100, 1, 1);
+        final TestNGRectangle fractionalOverlay = createRectangle(0, 0, 100, 100);
+        transform(fractionalOverlay, BaseTransform.getTranslateInstance(100.5, 100.5));
+        group = createGroup(edge, fractionalOverlay);
+        group.render(new TestGraphics());
+        assertTrue(edge.rendered());
+    }
+
     private void checkRootRendering(TestNGNode node, NodePath root) {
         assertTrue(node.rendered());
         if (node instanceof TestNGGroup) {
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.tk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import com.sun.javafx.tk.FrameBudget;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FrameBudgetTest {
+
+    private static final long FRAME = TimeUnit.MILLISECONDS.toNanos(16);
+
+    private FrameBudget budget;
+    private List<Integer> run;
+
+    @Before
+    public void setUp() {
+        budget = new FrameBudget(FRAME);
+        run = new ArrayList<>();
+    }
+
+    private void post(int id) {
+        budget.postIdleTask(() -> run.add(id));
+    }
+
+    @Test
+    public void testIdleTasksRunInOrderWhenThereIsTimeLeft() {
+        long now = System.nanoTime();
+        budget.pulseStart(now);
+        post(1);
+        post(2);
+        post(3);
+        assertTrue(budget.hasIdleTasks());
+        assertFalse(budget.runIdleTasks(now + FRAME / 4));
+        assertEquals(List.of(1, 2, 3), run);
+        assertFalse(budget.hasIdleTasks());
+    }
+
+    @Test
+    public void testIdleTasksAreDeferredWhenThePulseTookTheWholeFrame() {
+        long now = System.nanoTime();
+        budget.pulseStart(now);
+        post(1);
+        assertTrue(budget.runIdleTasks(now + FRAME + 1));
+        assertTrue(run.isEmpty());
+
+        // the next pulse has time left
+        now = System.nanoTime();
+        budget.pulseStart(now);
+        assertFalse(budget.runIdleTasks(now));
+        assertEquals(List.of(1), run);
+    }
+
+    @Test
+    public void testOneOverdueIdleTaskRunsPerPulse() {
+        post(1);
+        post(2);
+        long now = System.nanoTime() + FrameBudget.MAX_IDLE_DELAY;
+        budget.pulseStart(now);
+        assertTrue(budget.runIdleTasks(now + FRAME + 1));
+        assertEquals(List.of(1), run);
+
+        now += FRAME;
+        budget.pulseStart(now);
+        assertFalse(budget.runIdleTasks(now + FRAME + 1));
+        assertEquals(List.of(1, 2), run);
+    }
+
+    @Test
+    public void testExceptionInIdleTaskDoesNotStopOtherTasks() {
+        final Thread thread = Thread.currentThread();
+        final Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        final List<Throwable> errors = new ArrayList<>();
+        thread.setUncaughtExceptionHandler((t, e) -> errors.add(e));
+        try {
+            long now = System.nanoTime();
+            budget.pulseStart(now);
+            budget.postIdleTask(() -> {
+                throw new IllegalStateException();
+            });
+            post(2);
+            assertFalse(budget.runIdleTasks(now));
+            assertEquals(1, errors.size());
+            assertTrue(errors.get(0) instanceof IllegalStateException);
+            assertEquals(List.of(2), run);
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    @Test
+    public void testPhaseTimesAreAveragedOverPulses() {
+        long now = System.nanoTime();
+        budget.pulseStart(now);
+        budget.addPhaseTime(FrameBudget.Phase.CSS, 800);
+        budget.addPhaseTime(FrameBudget.Phase.CSS, 800);
+        budget.addPhaseTime(FrameBudget.Phase.RENDER, 400);
+        assertEquals(1600, budget.getPhaseTime(FrameBudget.Phase.CSS));
+        assertEquals(400, budget.getPhaseTime(FrameBudget.Phase.RENDER));
+        assertEquals(0, budget.getAverageTime(FrameBudget.Phase.CSS));
+
+        budget.pulseStart(now + FRAME);
+        assertEquals(0, budget.getPhaseTime(FrameBudget.Phase.CSS));
+        assertEquals(0, budget.getPhaseTime(FrameBudget.Phase.RENDER));
+        assertEquals(200, budget.getAverageTime(FrameBudget.Phase.CSS));
+        assertEquals(50, budget.getAverageTime(FrameBudget.Phase.RENDER));
+        assertEquals(0, budget.getAverageTime(FrameBudget.Phase.LAYOUT));
+    }
+
+    @Test
+    public void testRemainingTime() {
+        long now = System.nanoTime();
+        budget.pulseStart(now);
+        assertEquals(FRAME, budget.getRemainingTime(now));
+        assertEquals(FRAME / 2, budget.getRemainingTime(now + FRAME / 2));
+        assertTrue(budget.getRemainingTime(now + 2 * FRAME) < 0);
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl;
+
+import com.sun.prism.impl.BaseMesh;
+import java.util.Arrays;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class BaseMeshTest {
+
+    private static final int SIZE = 8;
+
+    // Keeps a copy of the geometry that would be sent to the native mesh
+    private static class TestMesh extends BaseMesh {
+        float[] vertexBuffer;
+        int[] indexBuffer;
+        int buildCount;
+
+        TestMesh() {
+            super(() -> { });
+        }
+
+        @Override
+        public boolean buildNativeGeometry(float[] vertexBuffer, int vertexBufferLength,
+                int[] indexBufferInt, int indexBufferLength) {
+            this.vertexBuffer = Arrays.copyOf(vertexBuffer, vertexBufferLength);
+            this.indexBuffer = Arrays.copyOf(indexBufferInt, indexBufferLength);
+            buildCount++;
+            return true;
+        }
+
+        @Override
+        public boolean buildNativeGeometry(float[] vertexBuffer, int vertexBufferLength,
+                short[] indexBufferShort, int indexBufferLength) {
+            this.vertexBuffer = Arrays.copyOf(vertexBuffer, vertexBufferLength);
+            this.indexBuffer = new int[indexBufferLength];
+            for (int i = 0; i < indexBufferLength; i++) {
+                this.indexBuffer[i] = indexBufferShort[i];
+            }
+            buildCount++;
+            return true;
+        }
+
+        @Override
+        public int getCount() {
+            return 0;
+        }
+
+        @Override
+        public void dispose() {
+        }
+
+        boolean build(float[] points, int[] pointsRange, float[] texCoords, int[] texCoordsRange,
+                int[] faces, int[] facesRange, int[] smoothing, int[] smoothingRange) {
+            return buildGeometry(false, points, pointsRange, new float[0], new int[2],
+                    texCoords, texCoordsRange, faces, facesRange, smoothing, smoothingRange);
+        }
+
+        boolean build(float[] points, float[] texCoords, int[] faces, int[] smoothing) {
+            return build(points, new int[] {0, points.length},
+                    texCoords, new int[] {0, texCoords.length},
+                    faces, new int[] {0, faces.length},
+                    smoothing, new int[] {0, smoothing.length});
+        }
+    }
+
+    // a grid of SIZE x SIZE points, with two faces per cell
+    private static float[] createPoints() {
+        float[] points = new float[SIZE * SIZE * 3];
+        for (int y = 0, i = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                points[i++] = x;
+                points[i++] = y;
+                points[i++] = (float) Math.sin(x + y);
+            }
+        }
+        return points;
+    }
+
+    private static float[] createTexCoords() {
+        float[] texCoords = new float[SIZE * SIZE * 2];
+        for (int y = 0, i = 0; y < SIZE; y++) {
+            for (int x = 0; x < SIZE; x++) {
+                texCoords[i++] = x / (float) (SIZE - 1);
+                texCoords[i++] = y / (float) (SIZE - 1);
+            }
+        }
+        return texCoords;
+    }
+
+    private static int[] createFaces() {
+        int[] faces = new int[(SIZE - 1) * (SIZE - 1) * 2 * 6];
+        int i = 0;
+        for (int y = 0; y < SIZE - 1; y++) {
+            for (int x = 0; x < SIZE - 1; x++) {
+                int p0 = y * SIZE + x;
+                int p1 = p0 + 1;
+                int p2 = p0 + SIZE;
+                int p3 = p2 + 1;
+                faces[i++] = p0; faces[i++] = p0;
+                faces[i++] = p2; faces[i++] = p2;
+                faces[i++] = p1; faces[i++] = p1;
+                faces[i++] = p1; faces[i++] = p1;
+                faces[i++] = p2; faces[i++] = p2;
+                faces[i++] = p3; faces[i++] = p3;
+            }
+        }
+        return faces;
+    }
+
+    private static int[] createSmoothing(int nFaces, boolean various) {
+        int[] smoothing = new int[nFaces];
+        for (int f = 0; f < nFaces; f++) {
+            smoothing[f] = various ? 1 << (f % 3) : 1;
+        }
+        return smoothing;
+    }
+
+    // Moves some points, one at a time, and checks that the geometry that
+    // is built is the same as that of a mesh that is built from scratch
+    private void testPointUpdates(int[] smoothing) {
+        float[] points = createPoints();
+        float[] texCoords = createTexCoords();
+        int[] faces = createFaces();
+
+        TestMesh mesh = new TestMesh();
+        assertTrue(mesh.build(points, texCoords, faces, smoothing));
+
+        int[] updatedPoints = {0, 9, 27, SIZE * SIZE - 1, 27, 9};
+        for (int p : updatedPoints) {
+            points[p * 3 + 2] += 0.05f;
+            assertTrue(mesh.build(points, new int[] {p * 3, 3},
+                    texCoords, new int[2], faces, new int[2], smoothing, new int[2]));
+
+            TestMesh expected = new TestMesh();
+            assertTrue(expected.build(points, texCoords, faces, smoothing));
+            assertArrayEquals(expected.vertexBuffer, mesh.vertexBuffer, 0);
+            assertArrayEquals(expected.indexBuffer, mesh.indexBuffer);
+        }
+        assertEquals(updatedPoints.length + 1, mesh.buildCount);
+    }
+
+    @Test
+    public void testPointUpdatesAllSmooth() {
+        int nFaces = createFaces().length / 6;
+        testPointUpdates(createSmoothing(nFaces, false));
+    }
+
+    @Test
+    public void testPointUpdatesVariousSmoothingGroups() {
+        int nFaces = createFaces().length / 6;
+        testPointUpdates(createSmoothing(nFaces, true));
+    }
+
+    @Test
+    public void testPointUpdatesHardEdges() {
+        int nFaces = createFaces().length / 6;
+        testPointUpdates(new int[nFaces]);
+    }
+
+    @Test
+    public void testTexCoordUpdates() {
+        float[] points = createPoints();
+        float[] texCoords = createTexCoords();
+        int[] faces = createFaces();
+        int[] smoothing = createSmoothing(faces.length / 6, false);
+
+        TestMesh mesh = new TestMesh();
+        assertTrue(mesh.build(points, texCoords, faces, smoothing));
+
+        for (int t : new int[] {10, 10, 33}) {
+            texCoords[t * 2] = 1 - texCoords[t * 2];
+            assertTrue(mesh.build(points, new int[2],
+                    texCoords, new int[] {t * 2, 2}, faces, new int[2], smoothing, new int[2]));
+
+            TestMesh expected = new TestMesh();
+            assertTrue(expected.build(points, texCoords, faces, smoothing));
+            assertArrayEquals(expected.vertexBuffer, mesh.vertexBuffer, 0);
+            assertArrayEquals(expected.indexBuffer, mesh.indexBuffer);
+        }
+    }
+
+    @Test
+    public void testFaceUpdateAfterPointUpdates() {
+        float[] points = createPoints();
+        float[] texCoords = createTexCoords();
+        int[] faces = createFaces();
+        int[] smoothing = createSmoothing(faces.length / 6, false);
+
+        TestMesh mesh = new TestMesh();
+        assertTrue(mesh.build(points, texCoords, faces, smoothing));
+        for (int i = 0; i < 2; i++) {
+            points[14 * 3 + 2] += 1;
+            assertTrue(mesh.build(points, new int[] {14 * 3, 3},
+                    texCoords, new int[2], faces, new int[2], smoothing, new int[2]));
+        }
+
+        // drop the last two faces
+        faces = Arrays.copyOf(faces, faces.length - 12);
+        smoothing = Arrays.copyOf(smoothing, smoothing.length - 2);
+        assertTrue(mesh.build(points, new int[2], texCoords, new int[2],
+                faces, new int[] {0, faces.length}, smoothing, new int[] {0, smoothing.length}));
+
+        TestMesh expected = new TestMesh();
+        assertTrue(expected.build(points, texCoords, faces, smoothing));
+        assertArrayEquals(expected.vertexBuffer, mesh.vertexBuffer, 0);
+        assertArrayEquals(expected.indexBuffer, mesh.indexBuffer);
+    }
+}
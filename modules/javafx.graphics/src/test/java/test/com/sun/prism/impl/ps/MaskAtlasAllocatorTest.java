@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl.ps;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.prism.impl.ps.MaskAtlasAllocatorShim;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class MaskAtlasAllocatorTest {
+
+    private static final int SIZE = 512;
+
+    private final MaskAtlasAllocatorShim allocator = new MaskAtlasAllocatorShim(SIZE, SIZE);
+
+    // Fills the page with squares of the given size
+    private List<Rectangle> fill(int size) {
+        List<Rectangle> rects = new ArrayList<>();
+        Rectangle rect = new Rectangle(0, 0, size, size);
+        while (allocator.add(rect)) {
+            rects.add(rect);
+            rect = new Rectangle(0, 0, size, size);
+        }
+        return rects;
+    }
+
+    private static void assertDisjoint(List<Rectangle> rects) {
+        for (int i = 0; i < rects.size(); i++) {
+            Rectangle a = rects.get(i);
+            assertTrue(a.x >= 0 && a.y >= 0 &&
+                       a.x + a.width <= SIZE && a.y + a.height <= SIZE);
+            for (int j = i + 1; j < rects.size(); j++) {
+                assertTrue(a.intersection(rects.get(j)).isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void testAddFillsPage() {
+        List<Rectangle> rects = fill(64);
+        assertEquals(64, rects.size());
+        assertDisjoint(rects);
+        assertEquals(SIZE * SIZE, allocator.getUsedPixels());
+    }
+
+    @Test
+    public void testAddRejectsRectanglesWhichDoNotFit() {
+        assertFalse(allocator.add(new Rectangle(0, 0, SIZE + 1, 1)));
+        assertFalse(allocator.add(new Rectangle(0, 0, 1, SIZE + 1)));
+        assertFalse(allocator.add(new Rectangle(0, 0, 0, 0)));
+        assertTrue(allocator.isEmpty());
+        assertEquals(0, allocator.getUsedPixels());
+    }
+
+    @Test
+    public void testRandomRectanglesDoNotOverlap() {
+        Random random = new Random(1);
+        List<Rectangle> rects = new ArrayList<>();
+        int usedPixels = 0;
+        for (int i = 0; i < 2000; i++) {
+            if (!rects.isEmpty() && random.nextInt(3) == 0) {
+                Rectangle rect = rects.remove(random.nextInt(rects.size()));
+                allocator.remove(rect);
+                usedPixels -= rect.width * rect.height;
+            } else {
+                Rectangle rect = new Rectangle(0, 0, 3 + random.nextInt(64), 3 + random.nextInt(64));
+                if (allocator.add(rect)) {
+                    rects.add(rect);
+                    usedPixels += rect.width * rect.height;
+                }
+            }
+            assertEquals(usedPixels, allocator.getUsedPixels());
+        }
+        assertDisjoint(rects);
+    }
+
+    @Test
+    public void testRemovedSpaceIsReused() {
+        List<Rectangle> rects = fill(64);
+        assertFalse(allocator.add(new Rectangle(0, 0, 64, 64)));
+
+        Rectangle removed = rects.get(10);
+        allocator.remove(removed);
+        assertEquals(SIZE * SIZE - 64 * 64, allocator.getUsedPixels());
+
+        Rectangle rect = new Rectangle(0, 0, 64, 64);
+        assertTrue(allocator.add(rect));
+        assertEquals(removed, rect);
+        assertEquals(SIZE * SIZE, allocator.getUsedPixels());
+    }
+
+    @Test
+    public void testAdjacentFreeSpaceIsMerged() {
+        List<Rectangle> rects = fill(64);
+        // the second and third squares of the first shelf
+        allocator.remove(rects.get(1));
+        allocator.remove(rects.get(2));
+
+        Rectangle rect = new Rectangle(0, 0, 128, 64);
+        assertTrue(allocator.add(rect));
+        assertEquals(new Rectangle(64, 0, 128, 64), rect);
+    }
+
+    @Test
+    public void testEmptiedShelfIsReusedForOtherHeights() {
+        List<Rectangle> rects = fill(64);
+        // empty the first shelf
+        for (int i = 0; i < 8; i++) {
+            allocator.remove(rects.get(i));
+        }
+        List<Rectangle> small = new ArrayList<>(rects.subList(8, rects.size()));
+        Rectangle rect = new Rectangle(0, 0, 32, 32);
+        int count = 0;
+        while (allocator.add(rect)) {
+            assertTrue(rect.y < 64);
+            small.add(rect);
+            rect = new Rectangle(0, 0, 32, 32);
+            count++;
+        }
+        assertEquals(32, count);
+        assertDisjoint(small);
+    }
+
+    @Test
+    public void testRemovingAllFreesPage() {
+        List<Rectangle> rects = fill(64);
+        for (Rectangle rect : rects) {
+            allocator.remove(rect);
+        }
+        assertTrue(allocator.isEmpty());
+        assertEquals(0, allocator.getUsedPixels());
+
+        Rectangle rect = new Rectangle(0, 0, SIZE, SIZE);
+        assertTrue(allocator.add(rect));
+        assertEquals(new Rectangle(0, 0, SIZE, SIZE), rect);
+    }
+}
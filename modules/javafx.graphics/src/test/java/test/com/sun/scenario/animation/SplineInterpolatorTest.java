@@ -75,4 +75,25 @@ public class SplineInterpolatorTest {
         another = new SplineInterpolator(0.25, 0.1, 0.3, 0.4);
         testNotEqualsAndHashCode(interpolator, another);
     }
+
+    @Test
+    public void testSampledCurve() {
+        assertEquals(0.0, interpolator.sampledCurve(0.0), 0.0);
+        assertEquals(1.0, interpolator.sampledCurve(1.0), 0.0);
+        for (int i = 1; i < 1000; i++) {
+            final double x = i / 1000.0;
+            assertEquals(interpolator.curve(x), interpolator.sampledCurve(x), 1e-5);
+        }
+    }
+
+    @Test
+    public void testSampledCurveOfLinearSpline() {
+        final SplineInterpolator linear = new SplineInterpolator(0.2, 0.2, 0.7, 0.7);
+        assertEquals(0.123, linear.sampledCurve(0.123), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSampledCurveOutOfRange() {
+        interpolator.sampledCurve(1.5);
+    }
 }
@@ -733,4 +733,30 @@ public class GeneralClipInterpolatorTest {
         assertTrue("v1.get(): " + v1.get(), (60 == v1.get()) || (-60 == v1.get()));
         assertEquals(0, v2.get());
     }
+
+    @Test
+    public void test_FourKeyFrames_JumpingBackAndForth() {
+        final IntegerProperty v = new SimpleIntegerProperty();
+        final KeyFrame start = new KeyFrame(Duration.ZERO, new KeyValue(v, 0));
+        final KeyFrame mid1 = new KeyFrame(Duration.millis(1000), new KeyValue(v, 10));
+        final KeyFrame mid2 = new KeyFrame(Duration.millis(2000), new KeyValue(v, 30));
+        final KeyFrame end = new KeyFrame(Duration.millis(3000), new KeyValue(v, 60));
+
+        final GeneralClipInterpolatorShim gci = new GeneralClipInterpolatorShim (new KeyFrame[] {start, mid1, mid2, end}, new long[] {0, 6000, 12000, 18000});
+        gci.validate(true);
+        gci.interpolate(TickCalculation.fromMillis(2500));
+        assertEquals(45, v.get());
+        gci.interpolate(TickCalculation.fromMillis(500));
+        assertEquals(5, v.get());
+        gci.interpolate(TickCalculation.fromMillis(2000));
+        assertEquals(30, v.get());
+        gci.interpolate(TickCalculation.fromMillis(1000));
+        assertEquals(10, v.get());
+        gci.interpolate(TickCalculation.fromMillis(1500));
+        assertEquals(20, v.get());
+        gci.interpolate(TickCalculation.fromMillis(3000));
+        assertEquals(60, v.get());
+        gci.interpolate(TickCalculation.fromMillis(0));
+        assertEquals(0, v.get());
+    }
 }
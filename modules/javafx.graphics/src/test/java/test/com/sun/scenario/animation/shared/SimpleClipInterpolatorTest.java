@@ -26,14 +26,18 @@
 package test.com.sun.scenario.animation.shared;
 
 import com.sun.javafx.animation.TickCalculation;
+import com.sun.scenario.Settings;
 import com.sun.scenario.animation.shared.SimpleClipInterpolatorShim;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import javafx.animation.Interpolator;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
+import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.util.Duration;
 
@@ -422,4 +426,25 @@ public class SimpleClipInterpolatorTest {
         assertEquals(100, v2.get());
     }
 
+
+    @Test
+    public void testSampledSplineCurve() {
+        final Interpolator spline = Interpolator.SPLINE(0.4, 0.0, 0.2, 1.0);
+        final DoubleProperty v = new SimpleDoubleProperty();
+        final KeyFrame start = new KeyFrame(Duration.ZERO, new KeyValue(v, 0.0));
+        final KeyFrame end = new KeyFrame(Duration.millis(1000), new KeyValue(v, 100.0, spline));
+
+        Settings.set("com.sun.scenario.animation.sampledcurves", "true");
+        try {
+            final SimpleClipInterpolatorShim sci = new SimpleClipInterpolatorShim(start, end, 6000);
+            sci.validate(true);
+            for (int millis = 0; millis <= 1000; millis += 50) {
+                sci.interpolate(TickCalculation.fromMillis(millis));
+                assertEquals(spline.interpolate(0.0, 100.0, millis / 1000.0), v.get(), 1e-3);
+            }
+            assertEquals(100.0, v.get(), 0.0);
+        } finally {
+            Settings.set("com.sun.scenario.animation.sampledcurves", "false");
+        }
+    }
 }
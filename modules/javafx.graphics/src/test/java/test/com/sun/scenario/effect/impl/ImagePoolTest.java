@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.scenario.effect.impl;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.scenario.effect.Effect.AccelType;
+import com.sun.scenario.effect.FilterContext;
+import com.sun.scenario.effect.Filterable;
+import com.sun.scenario.effect.ImageData;
+import com.sun.scenario.effect.impl.EffectPeer;
+import com.sun.scenario.effect.impl.ImagePool;
+import com.sun.scenario.effect.impl.ImagePoolShim;
+import com.sun.scenario.effect.impl.PoolFilterable;
+import com.sun.scenario.effect.impl.Renderer;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ImagePoolTest {
+
+    private static final long BYTES_64 = 64 * 64 * 4;
+
+    private TestRenderer renderer;
+
+    @Before
+    public void setUp() {
+        renderer = new TestRenderer();
+    }
+
+    @Test
+    public void imageOfSameSizeIsReused() {
+        ImagePool pool = ImagePoolShim.createImagePool(BYTES_64 * 4);
+        PoolFilterable img = pool.checkOut(renderer, 50, 60);
+        assertEquals(64, img.getPhysicalWidth());
+        assertEquals(64, img.getPhysicalHeight());
+        pool.checkIn(img);
+        assertEquals(BYTES_64, pool.getUnlockedBytes());
+
+        long hits = ImagePoolShim.getNumHits();
+        assertSame(img, pool.checkOut(renderer, 64, 33));
+        assertEquals(hits + 1, ImagePoolShim.getNumHits());
+        assertEquals(0, pool.getUnlockedBytes());
+        assertEquals(1, renderer.created);
+        assertEquals(1, renderer.cleared);
+    }
+
+    @Test
+    public void lockedImageIsNotReused() {
+        ImagePool pool = ImagePoolShim.createImagePool(BYTES_64 * 4);
+        PoolFilterable img = pool.checkOut(renderer, 64, 64);
+        long misses = ImagePoolShim.getNumMisses();
+        assertNotSame(img, pool.checkOut(renderer, 64, 64));
+        assertEquals(misses + 1, ImagePoolShim.getNumMisses());
+        assertEquals(2, renderer.created);
+    }
+
+    @Test
+    public void closestLargerImageIsReused() {
+        ImagePool pool = ImagePoolShim.createImagePool(BYTES_64 * 16);
+        PoolFilterable big = pool.checkOut(renderer, 128, 128);
+        PoolFilterable medium = pool.checkOut(renderer, 96, 64);
+        pool.checkIn(big);
+        pool.checkIn(medium);
+        assertSame(medium, pool.checkOut(renderer, 64, 64));
+        // too large to be used for such a small image
+        assertNotSame(big, pool.checkOut(renderer, 32, 32));
+        assertSame(big, pool.checkOut(renderer, 96, 96));
+    }
+
+    @Test
+    public void leastRecentlyUsedImagesAreEvicted() {
+        ImagePool pool = ImagePoolShim.createImagePool(BYTES_64 * 2);
+        PoolFilterable a = pool.checkOut(renderer, 64, 64);
+        PoolFilterable b = pool.checkOut(renderer, 64, 64);
+        PoolFilterable c = pool.checkOut(renderer, 64, 64);
+        long evicted = ImagePoolShim.getNumEvicted();
+        pool.checkIn(a);
+        pool.checkIn(b);
+        pool.checkIn(c);
+        assertEquals(evicted + 1, ImagePoolShim.getNumEvicted());
+        assertEquals(BYTES_64 * 2, pool.getUnlockedBytes());
+        assertTrue(((TestImage) a).flushed);
+        assertFalse(((TestImage) b).flushed);
+        assertFalse(((TestImage) c).flushed);
+        // the most recently checked in image is reused first
+        assertSame(c, pool.checkOut(renderer, 64, 64));
+        assertSame(b, pool.checkOut(renderer, 64, 64));
+    }
+
+    @Test
+    public void lostImageIsNotReused() {
+        ImagePool pool = ImagePoolShim.createImagePool(BYTES_64 * 4);
+        PoolFilterable img = pool.checkOut(renderer, 64, 64);
+        pool.checkIn(img);
+        ((TestImage) img).lost = true;
+        assertNotSame(img, pool.checkOut(renderer, 64, 64));
+        assertEquals(0, pool.getUnlockedBytes());
+    }
+
+    @Test
+    public void imageCheckedInTwiceIsPooledOnce() {
+        ImagePool pool = ImagePoolShim.createImagePool(BYTES_64 * 4);
+        PoolFilterable img = pool.checkOut(renderer, 64, 64);
+        pool.checkIn(img);
+        pool.checkIn(img);
+        assertEquals(BYTES_64, pool.getUnlockedBytes());
+    }
+
+    @Test
+    public void disposeFlushesUnlockedImages() {
+        ImagePool pool = ImagePoolShim.createImagePool(BYTES_64 * 4);
+        PoolFilterable locked = pool.checkOut(renderer, 64, 64);
+        PoolFilterable unlocked = pool.checkOut(renderer, 64, 64);
+        pool.checkIn(unlocked);
+        pool.dispose();
+        assertTrue(((TestImage) unlocked).flushed);
+        assertFalse(((TestImage) locked).flushed);
+        assertEquals(0, pool.getUnlockedBytes());
+    }
+
+    private static class TestImage implements PoolFilterable {
+        private final int w, h;
+        private ImagePool pool;
+        boolean lost;
+        boolean flushed;
+
+        TestImage(int w, int h) {
+            this.w = w;
+            this.h = h;
+        }
+
+        @Override public void setImagePool(ImagePool pool) { this.pool = pool; }
+        @Override public ImagePool getImagePool() { return pool; }
+        @Override public Object getData() { return this; }
+        @Override public int getContentWidth() { return w; }
+        @Override public int getContentHeight() { return h; }
+        @Override public void setContentWidth(int contentW) { }
+        @Override public void setContentHeight(int contentH) { }
+        @Override public int getMaxContentWidth() { return w; }
+        @Override public int getMaxContentHeight() { return h; }
+        @Override public int getPhysicalWidth() { return w; }
+        @Override public int getPhysicalHeight() { return h; }
+        @Override public float getPixelScale() { return 1f; }
+        @Override public void flush() { flushed = true; }
+        @Override public void lock() { }
+        @Override public void unlock() { }
+        @Override public boolean isLost() { return lost; }
+    }
+
+    private static class TestRenderer extends Renderer {
+        int created;
+        int cleared;
+
+        @Override public AccelType getAccelType() { return AccelType.NONE; }
+        @Override public int getCompatibleWidth(int w) { return w; }
+        @Override public int getCompatibleHeight(int h) { return h; }
+
+        @Override public PoolFilterable createCompatibleImage(int w, int h) {
+            created++;
+            return new TestImage(w, h);
+        }
+
+        @Override public void clearImage(Filterable image) {
+            cleared++;
+        }
+
+        @Override public ImageData createImageData(FilterContext fctx, Filterable src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public Filterable transform(FilterContext fctx, Filterable original,
+                                              BaseTransform transform,
+                                              Rectangle origBounds,
+                                              Rectangle xformBounds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public ImageData transform(FilterContext fctx, ImageData original,
+                                             BaseTransform transform,
+                                             Rectangle origBounds,
+                                             Rectangle xformBounds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public RendererState getRendererState() { return RendererState.OK; }
+
+        @Override protected EffectPeer createPeer(FilterContext fctx, String name, int unrollCount) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override protected Renderer getBackupRenderer() { return this; }
+
+        @Override public boolean isImageDataCompatible(ImageData id) { return true; }
+    }
+}
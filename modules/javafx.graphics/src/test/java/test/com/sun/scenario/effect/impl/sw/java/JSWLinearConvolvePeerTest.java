@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.scenario.effect.impl.sw.java;
+
+import java.util.Random;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.scenario.effect.Color4f;
+import com.sun.scenario.effect.Effect.AccelType;
+import com.sun.scenario.effect.FilterContext;
+import com.sun.scenario.effect.Filterable;
+import com.sun.scenario.effect.ImageData;
+import com.sun.scenario.effect.impl.EffectPeer;
+import com.sun.scenario.effect.impl.HeapImage;
+import com.sun.scenario.effect.impl.ImagePool;
+import com.sun.scenario.effect.impl.PoolFilterable;
+import com.sun.scenario.effect.impl.Renderer;
+import com.sun.scenario.effect.impl.state.GaussianRenderState;
+import com.sun.scenario.effect.impl.state.LinearConvolveRenderState;
+import com.sun.scenario.effect.impl.state.LinearConvolveRenderState.PassType;
+import com.sun.scenario.effect.impl.sw.java.JSWLinearConvolvePeer;
+import com.sun.scenario.effect.impl.sw.java.JSWLinearConvolveShadowPeer;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the optimized horizontal and vertical loops of the Java
+ * software peers produce the same results as the general loop.
+ */
+public class JSWLinearConvolvePeerTest {
+
+    private final TestRenderer renderer = new TestRenderer();
+    private final FilterContext fctx = new TestFilterContext();
+
+    @Test
+    public void gaussianBlurMatchesGeneralLoop() {
+        for (float radius : new float[] { 1, 3, 10, 40 }) {
+            GaussianRenderState state =
+                new GaussianRenderState(radius, radius, 0f, false, null,
+                                        BaseTransform.IDENTITY_TRANSFORM);
+            assertSameResult(new Peer(false), new Peer(true), state, 1);
+        }
+    }
+
+    @Test
+    public void asymmetricGaussianBlurMatchesGeneralLoop() {
+        GaussianRenderState state =
+            new GaussianRenderState(2f, 17f, 0f, false, null,
+                                    BaseTransform.IDENTITY_TRANSFORM);
+        assertSameResult(new Peer(false), new Peer(true), state, 1);
+    }
+
+    @Test
+    public void gaussianShadowMatchesGeneralLoop() {
+        for (float radius : new float[] { 2, 10 }) {
+            GaussianRenderState state =
+                new GaussianRenderState(radius, radius, 0.25f, true,
+                                        new Color4f(0.1f, 0.2f, 0.3f, 0.8f),
+                                        BaseTransform.IDENTITY_TRANSFORM);
+            // the loops round the alpha of the first pass differently, which
+            // may be off by one more after the second pass
+            assertSameResult(new ShadowPeer(false), new ShadowPeer(true), state, 2);
+        }
+    }
+
+    private void assertSameResult(JSWLinearConvolvePeer fast,
+                                  JSWLinearConvolvePeer general,
+                                  LinearConvolveRenderState state,
+                                  int tolerance)
+    {
+        ImageData src = createSource(37, 23);
+        ImageData expected = filter(general, state, src);
+        ImageData actual = filter(fast, state, src);
+        assertEquals(expected.getUntransformedBounds(), actual.getUntransformedBounds());
+
+        Rectangle r = expected.getUntransformedBounds();
+        HeapImage e = (HeapImage) expected.getUntransformedImage();
+        HeapImage a = (HeapImage) actual.getUntransformedImage();
+        for (int y = 0; y < r.height; y++) {
+            for (int x = 0; x < r.width; x++) {
+                int ep = e.getPixelArray()[y * e.getScanlineStride() + x];
+                int ap = a.getPixelArray()[y * a.getScanlineStride() + x];
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int ec = (ep >>> shift) & 0xff;
+                    int ac = (ap >>> shift) & 0xff;
+                    assertTrue("pixel " + x + ", " + y + ": " +
+                               Integer.toHexString(ep) + " != " + Integer.toHexString(ap),
+                               Math.abs(ec - ac) <= tolerance);
+                }
+            }
+        }
+    }
+
+    private ImageData filter(JSWLinearConvolvePeer peer,
+                             LinearConvolveRenderState state,
+                             ImageData src)
+    {
+        for (int pass = 0; pass < 2; pass++) {
+            src = state.validatePassInput(src, pass);
+            if (!state.isPassNop()) {
+                peer.setPass(pass);
+                src = peer.filter(null, state, BaseTransform.IDENTITY_TRANSFORM, null, src);
+            }
+        }
+        return src;
+    }
+
+    private ImageData createSource(int w, int h) {
+        TestImage img = (TestImage) renderer.getCompatibleImage(w, h);
+        Random random = new Random(w * 31 + h);
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int a = random.nextInt(256);
+                int rgb = random.nextInt() & 0xffffff;
+                int r = ((rgb >> 16) & 0xff) * a / 255;
+                int g = ((rgb >> 8) & 0xff) * a / 255;
+                int b = (rgb & 0xff) * a / 255;
+                img.pixels[y * img.w + x] = (a << 24) | (r << 16) | (g << 8) | b;
+            }
+        }
+        return new ImageData(fctx, img, new Rectangle(5, 7, w, h));
+    }
+
+    private static PassType getPassType(boolean general, PassType type) {
+        return general ? PassType.GENERAL_VECTOR : type;
+    }
+
+    private class Peer extends JSWLinearConvolvePeer {
+        private final boolean general;
+
+        Peer(boolean general) {
+            super(fctx, renderer, "LinearConvolve");
+            this.general = general;
+        }
+
+        @Override
+        protected PassType getPassType(LinearConvolveRenderState lcrstate,
+                                       BaseTransform src0Transform,
+                                       Rectangle dstBounds, Rectangle dstRawBounds)
+        {
+            PassType type = super.getPassType(lcrstate, src0Transform, dstBounds, dstRawBounds);
+            assertNotEquals(PassType.GENERAL_VECTOR, type);
+            return JSWLinearConvolvePeerTest.getPassType(general, type);
+        }
+    }
+
+    private class ShadowPeer extends JSWLinearConvolveShadowPeer {
+        private final boolean general;
+
+        ShadowPeer(boolean general) {
+            super(fctx, renderer, "LinearConvolveShadow");
+            this.general = general;
+        }
+
+        @Override
+        protected PassType getPassType(LinearConvolveRenderState lcrstate,
+                                       BaseTransform src0Transform,
+                                       Rectangle dstBounds, Rectangle dstRawBounds)
+        {
+            PassType type = super.getPassType(lcrstate, src0Transform, dstBounds, dstRawBounds);
+            assertNotEquals(PassType.GENERAL_VECTOR, type);
+            return JSWLinearConvolvePeerTest.getPassType(general, type);
+        }
+    }
+
+    private static class TestFilterContext extends FilterContext {
+        TestFilterContext() {
+            super(new Object());
+        }
+    }
+
+    private static class TestImage implements PoolFilterable, HeapImage {
+        final int w, h;
+        final int[] pixels;
+        private ImagePool pool;
+
+        TestImage(int w, int h) {
+            this.w = w;
+            this.h = h;
+            this.pixels = new int[w * h];
+        }
+
+        @Override public int getScanlineStride() { return w; }
+        @Override public int[] getPixelArray() { return pixels; }
+        @Override public void setImagePool(ImagePool pool) { this.pool = pool; }
+        @Override public ImagePool getImagePool() { return pool; }
+        @Override public Object getData() { return this; }
+        @Override public int getContentWidth() { return w; }
+        @Override public int getContentHeight() { return h; }
+        @Override public void setContentWidth(int contentW) { }
+        @Override public void setContentHeight(int contentH) { }
+        @Override public int getMaxContentWidth() { return w; }
+        @Override public int getMaxContentHeight() { return h; }
+        @Override public int getPhysicalWidth() { return w; }
+        @Override public int getPhysicalHeight() { return h; }
+        @Override public float getPixelScale() { return 1f; }
+        @Override public void flush() { }
+        @Override public void lock() { }
+        @Override public void unlock() { }
+        @Override public boolean isLost() { return false; }
+    }
+
+    private static class TestRenderer extends Renderer {
+        @Override public AccelType getAccelType() { return AccelType.NONE; }
+        @Override public int getCompatibleWidth(int w) { return w; }
+        @Override public int getCompatibleHeight(int h) { return h; }
+
+        @Override public PoolFilterable createCompatibleImage(int w, int h) {
+            return new TestImage(w, h);
+        }
+
+        @Override public void clearImage(Filterable image) {
+            java.util.Arrays.fill(((TestImage) image).pixels, 0);
+        }
+
+        @Override public ImageData createImageData(FilterContext fctx, Filterable src) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public Filterable transform(FilterContext fctx, Filterable original,
+                                              BaseTransform transform,
+                                              Rectangle origBounds,
+                                              Rectangle xformBounds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public ImageData transform(FilterContext fctx, ImageData original,
+                                             BaseTransform transform,
+                                             Rectangle origBounds,
+                                             Rectangle xformBounds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public RendererState getRendererState() { return RendererState.OK; }
+
+        @Override protected EffectPeer createPeer(FilterContext fctx, String name, int unrollCount) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override protected Renderer getBackupRenderer() { return this; }
+
+        @Override public boolean isImageDataCompatible(ImageData id) { return true; }
+    }
+}
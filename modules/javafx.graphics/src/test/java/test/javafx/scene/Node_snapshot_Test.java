@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.javafx.scene;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Group;
+import javafx.scene.ParallelCamera;
+import javafx.scene.Scene;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.shape.Rectangle;
+
+import com.sun.javafx.scene.NodeHelper;
+import com.sun.javafx.tk.Toolkit;
+import com.sun.javafx.tk.Toolkit.ImageRenderingContext;
+import test.com.sun.javafx.pgstub.StubToolkit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class Node_snapshot_Test {
+
+    private StubToolkit toolkit;
+    private Rectangle rect;
+    private Scene scene;
+
+    @Before public void setUp() {
+        toolkit = (StubToolkit) Toolkit.getToolkit();
+        rect = new Rectangle(10, 20, 30, 40);
+        scene = new Scene(new Group(rect));
+    }
+
+    @After public void tearDown() {
+        toolkit.completeAsyncRenderings(false);
+    }
+
+    private ImageRenderingContext getPendingRendering() {
+        List<ImageRenderingContext> pending = toolkit.getPendingAsyncRenderings();
+        assertEquals(1, pending.size());
+        return pending.get(0);
+    }
+
+    @Test public void testSnapshotIntoBufferIsRenderedAsynchronously() throws Exception {
+        IntBuffer buffer = IntBuffer.allocate(30 * 40);
+        CompletableFuture<IntBuffer> future = rect.snapshot(null, buffer, 30, 40, 30);
+        assertFalse(future.isDone());
+
+        ImageRenderingContext context = getPendingRendering();
+        assertEquals(10, context.x);
+        assertEquals(20, context.y);
+        assertEquals(30, context.width);
+        assertEquals(40, context.height);
+        assertSame(buffer, context.destBuffer);
+        assertEquals(0, context.destOffset);
+        assertEquals(30, context.destScanlineStride);
+        assertSame(NodeHelper.getPeer(rect), context.root);
+
+        toolkit.completeAsyncRenderings(true);
+        assertTrue(future.isDone());
+        assertSame(buffer, future.get());
+    }
+
+    @Test public void testSnapshotIntoBufferStartsAtBufferPosition() {
+        IntBuffer buffer = IntBuffer.allocate(5 + 39 * 32 + 30);
+        buffer.position(5);
+        rect.snapshot(null, buffer, 30, 40, 32);
+
+        ImageRenderingContext context = getPendingRendering();
+        assertEquals(5, context.destOffset);
+        assertEquals(32, context.destScanlineStride);
+        assertEquals(5, buffer.position());
+    }
+
+    @Test public void testSnapshotIntoBufferUsesViewport() {
+        SnapshotParameters params = new SnapshotParameters();
+        params.setViewport(new Rectangle2D(5.5, 6, 10, 10));
+        rect.snapshot(params, IntBuffer.allocate(100), 10, 10, 10);
+
+        ImageRenderingContext context = getPendingRendering();
+        assertEquals(5, context.x);
+        assertEquals(6, context.y);
+    }
+
+    @Test public void testSnapshotIntoBufferUsesCopyOfCamera() {
+        ParallelCamera camera = new ParallelCamera();
+        SnapshotParameters params = new SnapshotParameters();
+        params.setCamera(camera);
+        rect.snapshot(params, IntBuffer.allocate(100), 10, 10, 10);
+
+        ImageRenderingContext context = getPendingRendering();
+        assertNotSame(NodeHelper.getPeer(camera), context.camera);
+        assertEquals(10, context.camera.getViewWidth(), 0);
+    }
+
+    @Test public void testSnapshotIntoBufferFails() {
+        CompletableFuture<IntBuffer> future = rect.snapshot(null, IntBuffer.allocate(100), 10, 10, 10);
+        toolkit.completeAsyncRenderings(false);
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test public void testSceneSnapshotIntoBufferIsRenderedAsynchronously() throws Exception {
+        IntBuffer buffer = IntBuffer.allocate(3 + 50 * 60);
+        buffer.position(3);
+        CompletableFuture<IntBuffer> future = scene.snapshot(buffer, 50, 60, 50);
+        assertFalse(future.isDone());
+
+        ImageRenderingContext context = getPendingRendering();
+        assertEquals(0, context.x);
+        assertEquals(0, context.y);
+        assertEquals(50, context.width);
+        assertEquals(60, context.height);
+        assertSame(buffer, context.destBuffer);
+        assertEquals(3, context.destOffset);
+        assertEquals(50, context.destScanlineStride);
+        assertSame(NodeHelper.getPeer(scene.getRoot()), context.root);
+        assertEquals(50, context.camera.getViewWidth(), 0);
+
+        toolkit.completeAsyncRenderings(true);
+        assertSame(buffer, future.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSceneSnapshotIntoTooSmallBuffer() {
+        scene.snapshot(IntBuffer.allocate(99), 10, 10, 10);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSnapshotIntoNullBuffer() {
+        rect.snapshot(null, null, 10, 10, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSnapshotIntoBufferWithEmptySize() {
+        rect.snapshot(null, IntBuffer.allocate(100), 0, 10, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSnapshotIntoBufferWithShortScanlines() {
+        rect.snapshot(null, IntBuffer.allocate(100), 10, 10, 9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSnapshotIntoTooSmallBuffer() {
+        rect.snapshot(null, IntBuffer.allocate(99), 10, 10, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSnapshotIntoReadOnlyBuffer() {
+        rect.snapshot(null, IntBuffer.allocate(100).asReadOnlyBuffer(), 10, 10, 10);
+    }
+}
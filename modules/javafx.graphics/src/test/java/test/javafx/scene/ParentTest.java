@@ -31,6 +31,8 @@ import com.sun.javafx.sg.prism.NGGroup;
 import com.sun.javafx.tk.Toolkit;
 import com.sun.javafx.geom.PickRay;
 import com.sun.javafx.scene.input.PickResultChooser;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javafx.scene.Group;
 import javafx.scene.GroupShim;
@@ -460,6 +462,105 @@ public class ParentTest {
 
     }
 
+    @Test
+    public void testDirtyLayoutRootsAreLaidOutInDepthOrder() {
+        final List<String> log = new ArrayList<>();
+        final LoggingGroup outer = new LoggingGroup("outer", log);
+        final LoggingGroup inner = new LoggingGroup("inner", log);
+        final LoggingGroup sibling = new LoggingGroup("sibling", log);
+        final LoggingGroup root = new LoggingGroup("root", log);
+        outer.setManaged(false);
+        inner.setManaged(false);
+        sibling.setManaged(false);
+        ParentShim.getChildren(outer).add(new Group(inner));
+        ParentShim.getChildren(root).addAll(new Group(sibling), new Group(new Group(outer)));
+
+        stage.setScene(new Scene(root));
+        stage.show();
+        toolkit.firePulse();
+        log.clear();
+
+        inner.requestLayout();
+        sibling.requestLayout();
+        outer.requestLayout();
+        toolkit.firePulse();
+
+        assertEquals(3, log.size());
+        assertEquals("sibling", log.get(0));
+        assertEquals("outer", log.get(1));
+        assertEquals("inner", log.get(2));
+        assertFalse(root.isNeedsLayout());
+
+        log.clear();
+        toolkit.firePulse();
+        assertTrue(log.isEmpty());
+    }
+
+    @Test
+    public void testDirtyLayoutRootRequestedDuringLayoutIsLaidOut() {
+        final List<String> log = new ArrayList<>();
+        final LoggingGroup second = new LoggingGroup("second", log);
+        final LoggingGroup first = new LoggingGroup("first", log) {
+            @Override protected void layoutChildren() {
+                super.layoutChildren();
+                second.requestLayout();
+            }
+        };
+        first.setManaged(false);
+        second.setManaged(false);
+        final Group root = new Group(new Group(first), new Group(second));
+
+        stage.setScene(new Scene(root));
+        stage.show();
+        toolkit.firePulse();
+        log.clear();
+
+        first.requestLayout();
+        toolkit.firePulse();
+
+        assertEquals(2, log.size());
+        assertEquals("first", log.get(0));
+        assertEquals("second", log.get(1));
+    }
+
+    @Test
+    public void testDirtyLayoutRootBelowManagedLayoutIsLaidOutOnce() {
+        final List<String> log = new ArrayList<>();
+        final LoggingGroup unmanaged = new LoggingGroup("unmanaged", log);
+        final LoggingGroup managed = new LoggingGroup("managed", log);
+        unmanaged.setManaged(false);
+        ParentShim.getChildren(managed).add(unmanaged);
+        final Group root = new Group(managed);
+
+        stage.setScene(new Scene(root));
+        stage.show();
+        toolkit.firePulse();
+        log.clear();
+
+        unmanaged.requestLayout();
+        managed.requestLayout();
+        toolkit.firePulse();
+
+        assertEquals(2, log.size());
+        assertEquals("managed", log.get(0));
+        assertEquals("unmanaged", log.get(1));
+    }
+
+    private static class LoggingGroup extends Group {
+        private final String name;
+        private final List<String> log;
+
+        LoggingGroup(String name, List<String> log) {
+            this.name = name;
+            this.log = log;
+        }
+
+        @Override protected void layoutChildren() {
+            log.add(name);
+            super.layoutChildren();
+        }
+    }
+
     @Test
     public void nodeCanBeAddedDuringLayout() {
         final Rectangle rect = new Rectangle(100, 100);
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.javafx.scene;
+
+import javafx.scene.layout.Pane;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class Parent_measureCache_Test {
+
+    private CountingPane child;
+    private MeasuringPane parent;
+
+    @Before
+    public void setUp() {
+        child = new CountingPane();
+        parent = new MeasuringPane(child);
+    }
+
+    @Test
+    public void testConstrainedSizesAreComputedOncePerLayoutPass() {
+        parent.layout();
+
+        assertEquals(1, child.prefHeightCount);
+        assertEquals(1, child.prefWidthCount);
+        assertEquals(200, parent.measuredHeight, 0);
+        assertEquals(25, parent.measuredWidth, 0);
+    }
+
+    @Test
+    public void testConstrainedSizesAreNotCachedOutsideOfLayout() {
+        child.prefHeight(100);
+        child.prefHeight(100);
+
+        assertEquals(2, child.prefHeightCount);
+    }
+
+    @Test
+    public void testConstrainedSizesAreComputedAgainInNextLayoutPass() {
+        parent.layout();
+        parent.requestLayout();
+        parent.layout();
+
+        assertEquals(2, child.prefHeightCount);
+    }
+
+    @Test
+    public void testRequestLayoutClearsConstrainedSizes() {
+        parent.invalidateChild = true;
+        parent.layout();
+
+        assertEquals(2, child.prefHeightCount);
+        assertEquals(100, parent.measuredHeight, 0);
+    }
+
+    @Test
+    public void testDifferentConstraintsAreCachedSeparately() {
+        parent.otherWidth = 50;
+        parent.layout();
+
+        assertEquals(2, child.prefHeightCount);
+        assertEquals(400, parent.measuredOtherHeight, 0);
+    }
+
+    private static class CountingPane extends Pane {
+        int prefWidthCount;
+        int prefHeightCount;
+        double area = 20000;
+
+        @Override protected double computePrefWidth(double height) {
+            if (height != -1) prefWidthCount++;
+            return height == -1 ? 100 : area / 1000 + 5;
+        }
+
+        @Override protected double computePrefHeight(double width) {
+            if (width != -1) prefHeightCount++;
+            return width == -1 ? 100 : area / width;
+        }
+    }
+
+    private static class MeasuringPane extends Pane {
+        final CountingPane child;
+        boolean invalidateChild;
+        double otherWidth = -1;
+        double measuredHeight;
+        double measuredWidth;
+        double measuredOtherHeight;
+
+        MeasuringPane(CountingPane child) {
+            this.child = child;
+            getChildren().add(child);
+        }
+
+        @Override protected void layoutChildren() {
+            child.prefHeight(100);
+            child.prefWidth(200);
+            if (otherWidth != -1) {
+                measuredOtherHeight = child.prefHeight(otherWidth);
+            }
+            if (invalidateChild) {
+                child.area = 10000;
+                child.requestLayout();
+            }
+            measuredHeight = child.prefHeight(100);
+            measuredWidth = child.prefWidth(200);
+        }
+    }
+}
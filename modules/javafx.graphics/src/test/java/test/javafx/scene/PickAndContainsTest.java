@@ -229,5 +229,84 @@ public class PickAndContainsTest {
         assertFalse(r1.contains(pickX, pickY));
         assertFalse(r2.contains(pickX, pickY));
     }
-}
 
+    /***************************************************************************
+     *                                                                         *
+     *                  Picking Tests (Parents with many children)             *
+     *                                                                         *
+     **************************************************************************/
+
+    // creates a 40x40 grid of 10x10 rectangles, 20 apart, so that there are
+    // enough children for the pick index to be used
+    private static Rectangle[] createRectangleGrid(Group g) {
+        Rectangle[] rects = new Rectangle[1600];
+        for (int i = 0; i < rects.length; i++) {
+            rects[i] = new Rectangle((i % 40) * 20, (i / 40) * 20, 10, 10);
+        }
+        g.getChildren().addAll(rects);
+        return rects;
+    }
+
+    @Test
+    public void testScenePickingManyChildren() {
+        Group g = new Group();
+        Rectangle[] rects = createRectangleGrid(g);
+        Scene scene = new Scene(g);
+
+        for (int i = 0; i < rects.length; i += 37) {
+            double x = (i % 40) * 20;
+            double y = (i / 40) * 20;
+            assertSame(rects[i], SceneShim.test_pick(scene, x + 5, y + 5));
+            assertNull(SceneShim.test_pick(scene, x + 15, y + 15));
+        }
+        assertNull(SceneShim.test_pick(scene, -100, -100));
+        assertNull(SceneShim.test_pick(scene, 2000, 2000));
+    }
+
+    @Test
+    public void testScenePickingManyChildrenAfterMovingChild() {
+        Group g = new Group();
+        Rectangle[] rects = createRectangleGrid(g);
+        Scene scene = new Scene(g);
+
+        assertSame(rects[0], SceneShim.test_pick(scene, 5, 5));
+
+        // move a child from one corner to the other, and beyond the bounds
+        // that the index was built with
+        rects[0].setTranslateX(1000);
+        rects[0].setTranslateY(1000);
+        assertNull(SceneShim.test_pick(scene, 5, 5));
+        assertSame(rects[0], SceneShim.test_pick(scene, 1005, 1005));
+
+        rects[1].setX(5);
+        assertSame(rects[1], SceneShim.test_pick(scene, 7, 5));
+
+        rects[2].setVisible(false);
+        assertNull(SceneShim.test_pick(scene, 45, 5));
+        rects[2].setVisible(true);
+        assertSame(rects[2], SceneShim.test_pick(scene, 45, 5));
+    }
+
+    @Test
+    public void testScenePickingManyChildrenRespectsOrder() {
+        Group g = new Group();
+        Rectangle[] rects = createRectangleGrid(g);
+        Scene scene = new Scene(g);
+
+        // cover the first rectangle with one that is on top of it
+        Rectangle cover = new Rectangle(0, 0, 30, 30);
+        g.getChildren().add(cover);
+        assertSame(cover, SceneShim.test_pick(scene, 5, 5));
+        assertSame(cover, SceneShim.test_pick(scene, 25, 5));
+
+        rects[0].toFront();
+        assertSame(rects[0], SceneShim.test_pick(scene, 5, 5));
+        assertSame(cover, SceneShim.test_pick(scene, 25, 5));
+
+        rects[1].setViewOrder(-1);
+        assertSame(rects[1], SceneShim.test_pick(scene, 25, 5));
+
+        g.getChildren().remove(cover);
+        assertNull(SceneShim.test_pick(scene, 15, 15));
+    }
+}
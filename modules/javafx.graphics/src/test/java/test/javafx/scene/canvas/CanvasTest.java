@@ -27,7 +27,11 @@ package test.javafx.scene.canvas;
 
 import javafx.geometry.VPos;
 import test.javafx.scene.NodeTest;
+import com.sun.javafx.sg.prism.GrowableDataBuffer;
+import com.sun.javafx.sg.prism.NGCanvas;
 import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.DisplayList;
+import javafx.scene.canvas.DisplayListShim;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.effect.BlendMode;
 import test.javafx.scene.image.ImageForTesting;
@@ -42,6 +46,7 @@ import javafx.scene.text.TextAlignment;
 import javafx.scene.transform.Affine;
 import javafx.scene.transform.Rotate;
 import javafx.scene.transform.Transform;
+import java.util.Arrays;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -49,6 +54,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
 
@@ -211,6 +218,58 @@ public class CanvasTest {
         gc.rect(10, 10, 20, 20);
     }
 
+    @Test public void testGCfillRects_basic() throws Exception {
+        gc.fillRects(new double[] { 0, 0, 10, 10, 20, 20, 5, 5 }, null, 2);
+        gc.fillRects(new double[] { 0, 0, 10, 10, 20, 20, 5, 5 },
+                     new Color[] { Color.RED, null }, 2);
+        gc.fillRects(null, null, 2);
+        gc.fillRects(new double[0], null, 0);
+    }
+
+    @Test public void testGCfillPoints_basic() throws Exception {
+        gc.fillPoints(new double[] { 0, 0, 10, 10 }, 2, null, 2);
+        gc.fillPoints(new double[] { 0, 0, 10, 10 }, 2,
+                      new Color[] { Color.RED, Color.BLUE }, 2);
+        gc.fillPoints(null, 2, null, 2);
+    }
+
+    @Test public void testGCstrokeLines_basic() throws Exception {
+        gc.strokeLines(new double[] { 0, 0, 10, 10, 20, 20, 30, 30 }, null, 2);
+        gc.strokeLines(new double[] { 0, 0, 10, 10, 20, 20, 30, 30 },
+                       new Color[] { Color.RED, Color.BLUE }, 2);
+        gc.strokeLines(null, null, 2);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testGCfillRects_CoordsTooShort() throws Exception {
+        gc.fillRects(new double[] { 0, 0, 10, 10, 20 }, null, 2);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testGCstrokeLines_ColorsTooShort() throws Exception {
+        gc.strokeLines(new double[] { 0, 0, 10, 10, 20, 20, 30, 30 },
+                       new Color[] { Color.RED }, 2);
+    }
+
+    @Test public void testGCfillPoints_EncodedAsSingleBatch() throws Exception {
+        DisplayList list = new DisplayList();
+        double points[] = new double[2000];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = i;
+        }
+        list.getGraphicsContext2D().fillPoints(points, 2, null, 1000);
+        // the points are copied
+        points[0] = 100;
+
+        GrowableDataBuffer buf = DisplayListShim.share(list);
+        assertEquals(NGCanvas.FILL_RECTS, buf.getByte());
+        float rects[] = (float[]) buf.getObject();
+        assertEquals(4000, rects.length);
+        assertArrayEquals(new float[] { -1, 0, 2, 2 }, Arrays.copyOf(rects, 4), 0f);
+        assertNull(buf.getObject());
+        assertFalse(buf.hasValues());
+    }
+
     @Test public void testGCState_Translate() throws Exception {
         gc.translate(50, 50);
         Affine result = gc.getTransform();
@@ -508,6 +567,138 @@ public class CanvasTest {
         gc.drawImage(image, 0, 0, 100, 100, 0, 0, 100, 100);
     }
 
+    @Test public void testDisplayList_GraphicsContext() {
+        DisplayList list = new DisplayList();
+        GraphicsContext lgc = list.getGraphicsContext2D();
+        assertNotNull(lgc);
+        assertSame(lgc, list.getGraphicsContext2D());
+        assertNull(lgc.getCanvas());
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void testDisplayList_PixelWriter() {
+        new DisplayList().getGraphicsContext2D().getPixelWriter();
+    }
+
+    @Test public void testDisplayList_Clear() {
+        DisplayList list = new DisplayList();
+        GraphicsContext lgc = list.getGraphicsContext2D();
+        lgc.setFill(Color.RED);
+        lgc.translate(10, 10);
+        lgc.save();
+        lgc.fillRect(0, 0, 10, 10);
+        assertNotNull(DisplayListShim.share(list));
+
+        list.clear();
+        assertNull(DisplayListShim.share(list));
+        assertEquals(Color.BLACK, lgc.getFill());
+        assertMatrix(new Affine(), lgc.getTransform());
+        lgc.restore(); // nothing to restore
+        assertEquals(Color.BLACK, lgc.getFill());
+    }
+
+    @Test public void testDisplayList_RecordingAfterDraw() {
+        DisplayList list = new DisplayList();
+        GraphicsContext lgc = list.getGraphicsContext2D();
+        lgc.fillRect(0, 0, 10, 10);
+        gc.drawDisplayList(list);
+
+        GrowableDataBuffer drawn = DisplayListShim.share(list);
+        int size = drawn.writeValuePosition();
+        lgc.fillRect(10, 10, 10, 10);
+
+        // the commands that were drawn are not modified
+        assertEquals(size, drawn.writeValuePosition());
+        GrowableDataBuffer recorded = DisplayListShim.share(list);
+        assertNotSame(drawn, recorded);
+        assertTrue(recorded.writeValuePosition() > size);
+    }
+
+    @Test public void testDisplayList_DrawIntoItself() {
+        DisplayList list = new DisplayList();
+        GraphicsContext lgc = list.getGraphicsContext2D();
+        lgc.fillRect(0, 0, 10, 10);
+        GrowableDataBuffer before = DisplayListShim.share(list);
+        lgc.drawDisplayList(list);
+        assertNotSame(before, DisplayListShim.share(list));
+    }
+
+    @Test public void testDisplayList_Snapshot() {
+        DisplayList list = new DisplayList();
+        GraphicsContext lgc = list.getGraphicsContext2D();
+        lgc.setFill(Color.RED);
+        lgc.translate(10, 10);
+        lgc.fillRect(0, 0, 10, 10);
+
+        DisplayList snapshot = list.snapshot();
+        GraphicsContext sgc = snapshot.getGraphicsContext2D();
+        assertNotSame(lgc, sgc);
+        assertEquals(Color.RED, sgc.getFill());
+        assertMatrix(new Affine(1, 0, 10, 0, 1, 10), sgc.getTransform());
+
+        GrowableDataBuffer recorded = DisplayListShim.share(snapshot);
+        assertSame(recorded, DisplayListShim.share(list));
+        int size = recorded.writeValuePosition();
+
+        // recording into either list does not affect the other
+        lgc.fillRect(10, 10, 10, 10);
+        sgc.setFill(Color.BLUE);
+        sgc.fillRect(20, 20, 10, 10);
+        assertEquals(size, recorded.writeValuePosition());
+        assertNotSame(DisplayListShim.share(list), DisplayListShim.share(snapshot));
+        assertEquals(Color.RED, lgc.getFill());
+    }
+
+    @Test public void testDisplayList_SnapshotOfEmptyList() {
+        DisplayList snapshot = new DisplayList().snapshot();
+        assertNull(DisplayListShim.share(snapshot));
+        gc.drawDisplayList(snapshot);
+    }
+
+    @Test public void testDisplayList_RecordOnBackgroundThread() throws Exception {
+        DisplayList list = new DisplayList();
+        DisplayList[] snapshot = new DisplayList[1];
+        Thread thread = new Thread(() -> {
+            GraphicsContext lgc = list.getGraphicsContext2D();
+            for (int i = 0; i < 1000; i++) {
+                lgc.strokeLine(i, 0, i + 1, 10);
+            }
+            snapshot[0] = list.snapshot();
+            list.clear();
+        });
+        thread.start();
+        thread.join();
+
+        assertNotNull(DisplayListShim.share(snapshot[0]));
+        assertNull(DisplayListShim.share(list));
+        gc.drawDisplayList(snapshot[0]);
+    }
+
+    @Test public void testGCdrawDisplayList_Null() {
+        gc.drawDisplayList(null);
+        gc.drawDisplayList(new DisplayList());
+    }
+
+    @Test public void testGCdrawDisplayList_KeepsState() {
+        gc.setFill(Color.RED);
+        gc.setGlobalAlpha(0.5);
+        gc.translate(10, 20);
+
+        DisplayList list = new DisplayList();
+        GraphicsContext lgc = list.getGraphicsContext2D();
+        lgc.setFill(Color.BLUE);
+        lgc.setGlobalAlpha(0.25);
+        lgc.scale(2, 2);
+        lgc.fillRect(0, 0, 10, 10);
+        gc.drawDisplayList(list);
+
+        assertEquals(Color.RED, gc.getFill());
+        assertEquals(0.5, gc.getGlobalAlpha(), 0);
+        assertMatrix(new Affine(1, 0, 10, 0, 1, 20), gc.getTransform());
+        assertEquals(Color.BLUE, lgc.getFill());
+        assertMatrix(new Affine(2, 0, 0, 0, 2, 0), lgc.getTransform());
+    }
+
     public static void assertMatrix(Transform expected,
             Transform result) {
         assertEquals(expected.getMxx(), result.getMxx(), 0.00001);
@@ -3158,4 +3158,39 @@ public class GridPaneTest {
 
         assertEquals(160, gridpane.prefHeight(-1), 1e-100);
     }
+
+    @Test
+    public void testLayoutOfManyRowsWithRemainingSpans() {
+        final int rows = 50;
+        MockResizable[] children = new MockResizable[rows * 2];
+        for (int i = 0; i < rows; i++) {
+            children[i * 2] = new MockResizable(10, 10, 40, 20, 100, 100);
+            children[i * 2 + 1] = new MockResizable(10, 10, 60, 30, 100, 100);
+            gridpane.addRow(i, children[i * 2], children[i * 2 + 1]);
+        }
+        MockResizable spanning = new MockResizable(10, 10, 50, 20, 1000, 10000);
+        gridpane.add(spanning, 2, 0, 1, GridPane.REMAINING);
+        gridpane.setHgap(5);
+        gridpane.setVgap(2);
+
+        gridpane.resize(200, 5000);
+        gridpane.layout();
+
+        for (int i = 0; i < rows; i++) {
+            assertEquals(0, children[i * 2].getLayoutX(), 1e-100);
+            assertEquals(i * 32, children[i * 2].getLayoutY(), 1e-100);
+            assertEquals(45, children[i * 2 + 1].getLayoutX(), 1e-100);
+            assertEquals(i * 32, children[i * 2 + 1].getLayoutY(), 1e-100);
+        }
+        assertEquals(110, spanning.getLayoutX(), 1e-100);
+        assertEquals(0, spanning.getLayoutY(), 1e-100);
+        assertEquals(rows * 32 - 2, spanning.getHeight(), 1e-100);
+
+        // moving a child to a new row recomputes the rows
+        GridPane.setRowIndex(children[0], rows);
+        gridpane.layout();
+
+        assertEquals(rows * 32, children[0].getLayoutY(), 1e-100);
+        assertEquals(rows * 32 + 20, spanning.getHeight(), 1e-100);
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.javafx.scene.shape;
+
+import com.sun.javafx.geom.PickRay;
+import com.sun.javafx.geom.Vec3d;
+import com.sun.javafx.scene.NodeHelper;
+import com.sun.javafx.scene.input.PickResultChooser;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Point3D;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.shape.CullFace;
+import javafx.scene.shape.InstancedMeshView;
+import javafx.scene.shape.TriangleMesh;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+public class InstancedMeshViewTest {
+
+    // a unit square in the z = 0 plane
+    private static TriangleMesh createSquare() {
+        TriangleMesh mesh = new TriangleMesh();
+        mesh.getPoints().addAll(0, 0, 0,  1, 0, 0,  1, 1, 0,  0, 1, 0);
+        mesh.getTexCoords().addAll(0, 0);
+        mesh.getFaces().addAll(0, 0, 1, 0, 2, 0,  0, 0, 2, 0, 3, 0);
+        return mesh;
+    }
+
+    private static InstancedMeshView createInstances() {
+        InstancedMeshView view = new InstancedMeshView(createSquare());
+        view.setCullFace(CullFace.NONE);
+        view.getInstanceTransforms().addAll(
+                1, 0, 0, 0,   0, 1, 0, 0,   0, 0, 1, 0,
+                2, 0, 0, 10,  0, 1, 0, 0,   0, 0, 1, 5);
+        return view;
+    }
+
+    // a ray along the z axis, starting at z = -100
+    private static PickRay createRay(double x, double y) {
+        return new PickRay(new Vec3d(x, y, -100), new Vec3d(0, 0, 1), 1, Double.POSITIVE_INFINITY);
+    }
+
+    @Test
+    public void testInstanceCount() {
+        InstancedMeshView view = createInstances();
+        assertEquals(2, view.getInstanceCount());
+
+        // an incomplete transform is ignored
+        view.getInstanceTransforms().addAll(1, 0, 0);
+        assertEquals(2, view.getInstanceCount());
+    }
+
+    @Test
+    public void testBoundsIncludeAllInstances() {
+        InstancedMeshView view = createInstances();
+        NodeHelper.updatePeer(view);
+        assertEquals(new BoundingBox(0, 0, 0, 12, 1, 5), view.getBoundsInLocal());
+    }
+
+    @Test
+    public void testBoundsAreUpdatedWhenTransformsChange() {
+        InstancedMeshView view = createInstances();
+        view.getBoundsInLocal();
+        view.getInstanceTransforms().set(23, 20);
+        assertEquals(new BoundingBox(0, 0, 0, 12, 1, 20), view.getBoundsInLocal());
+
+        view.getInstanceTransforms().clear();
+        assertTrue(view.getBoundsInLocal().isEmpty());
+    }
+
+    @Test
+    public void testBoundsWithoutMesh() {
+        InstancedMeshView view = createInstances();
+        view.setMesh(null);
+        NodeHelper.updatePeer(view); // should not throw NPE
+        assertTrue(view.getBoundsInLocal().isEmpty());
+    }
+
+    @Test
+    public void testPickClosestInstanceWithDepthBuffer() {
+        InstancedMeshView view = createInstances();
+        new Scene(new Group(view), 100, 100, true);
+        // move the first instance in front of the second one
+        view.getInstanceTransforms().set(11, -5);
+        view.getInstanceTransforms().set(15, 0);
+
+        PickResultChooser result = new PickResultChooser();
+        PickRay ray = createRay(0.5, 0.5);
+        assertTrue(NodeHelper.computeIntersects(view, ray, result));
+        assertSame(view, result.getIntersectedNode());
+        assertEquals(95, result.getIntersectedDistance(), 1e-6);
+        assertEquals(new Point3D(0.5, 0.5, -5), result.getIntersectedPoint());
+    }
+
+    @Test
+    public void testPickLastInstanceWithoutDepthBuffer() {
+        InstancedMeshView view = createInstances();
+        new Scene(new Group(view));
+        // move the first instance in front of the second one
+        view.getInstanceTransforms().set(11, -5);
+        view.getInstanceTransforms().set(15, 0);
+
+        PickResultChooser result = new PickResultChooser();
+        PickRay ray = createRay(0.5, 0.5);
+        assertTrue(NodeHelper.computeIntersects(view, ray, result));
+        assertEquals(105, result.getIntersectedDistance(), 1e-6);
+        assertEquals(new Point3D(0.5, 0.5, 5), result.getIntersectedPoint());
+    }
+
+    @Test
+    public void testPickScaledInstance() {
+        InstancedMeshView view = createInstances();
+        new Scene(new Group(view));
+
+        PickResultChooser result = new PickResultChooser();
+        PickRay ray = createRay(11.5, 0.5);
+        assertTrue(NodeHelper.computeIntersects(view, ray, result));
+        assertEquals(105, result.getIntersectedDistance(), 1e-6);
+        assertEquals(new Point3D(11.5, 0.5, 5), result.getIntersectedPoint());
+    }
+
+    @Test
+    public void testPickMissesBetweenInstances() {
+        InstancedMeshView view = createInstances();
+        new Scene(new Group(view));
+
+        PickResultChooser result = new PickResultChooser();
+        PickRay ray = createRay(5, 0.5);
+        assertFalse(NodeHelper.computeIntersects(view, ray, result));
+        assertTrue(result.isEmpty());
+    }
+}